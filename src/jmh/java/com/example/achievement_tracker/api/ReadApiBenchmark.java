@@ -0,0 +1,132 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.api;
+
+import com.example.achievement_tracker.AchievementTrackerApplication;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Throughput and latency distribution of the blocking v1 and the reactive v2 read endpoints, with
+ * 256 clients keeping one request each in flight against {@code rows} seeded achievements.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(256)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ReadApiBenchmark {
+
+    @Param({"v1", "v2"})
+    String api;
+
+    @Param({"10000"})
+    int rows;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private String baseUrl;
+    private HttpRequest pageRequest;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context =
+                new SpringApplicationBuilder(AchievementTrackerApplication.class)
+                        .properties(
+                                "server.port=0",
+                                "spring.datasource.url=jdbc:h2:mem:reads;DB_CLOSE_DELAY=-1",
+                                "spring.jpa.hibernate.ddl-auto=create-drop",
+                                "spring.jpa.show-sql=false",
+                                "logging.level.root=WARN")
+                        .run();
+        seed(context.getBean(JdbcTemplate.class));
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        baseUrl = "http://localhost:" + port + "/api/" + api + "/achievements";
+        pageRequest = HttpRequest.newBuilder(URI.create(baseUrl + "?limit=50")).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int getById() throws Exception {
+        long id = ThreadLocalRandom.current().nextLong(1, rows + 1);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/" + id)).build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    @Benchmark
+    public int listPage() throws Exception {
+        return httpClient.send(pageRequest, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.batchUpdate("insert into tags (name) values (?)", tagNames());
+        List<Object[]> achievements = new ArrayList<>();
+        List<Object[]> tags = new ArrayList<>();
+        for (long id = 1; id <= rows; id++) {
+            achievements.add(new Object[] {id, "Achievement " + id, "Seeded achievement " + id});
+            tags.add(new Object[] {id, "tag-" + id % 100});
+            tags.add(new Object[] {id, "tag-" + id % 7});
+        }
+        jdbcTemplate.batchUpdate(
+                "insert into achievements (id, title, description, status, version)"
+                        + " values (?, ?, ?, 'TODO', 0)",
+                achievements);
+        jdbcTemplate.batchUpdate(
+                "insert into achievement_tag_ids (achievement_id, tag_id)"
+                        + " select ?, id from tags where name = ?",
+                tags);
+    }
+
+    // The seeded tags are tag-0 to tag-99, one row each in the tags dictionary
+    private static List<Object[]> tagNames() {
+        List<Object[]> names = new ArrayList<>();
+        for (int tag = 0; tag < 100; tag++) {
+            names.add(new Object[] {"tag-" + tag});
+        }
+        return names;
+    }
+}
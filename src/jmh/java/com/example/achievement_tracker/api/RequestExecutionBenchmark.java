@@ -0,0 +1,170 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.api;
+
+import com.example.achievement_tracker.AchievementTrackerApplication;
+import com.example.achievement_tracker.api.dto.CreateAchievementDTO;
+import com.example.achievement_tracker.service.AchievementService;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Compares thread-per-request with the {@code virtual-threads} profile during a slow-database
+ * spike. {@code spike} keeps {@code concurrency} requests for one achievement in flight, each
+ * holding its connection {@code latencyMillis} longer than H2 needs. {@code staticFile} measures
+ * the latency of a request that needs no connection at all. It waits for a free Tomcat thread in
+ * the platform mode and for nothing in the virtual mode.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class RequestExecutionBenchmark {
+
+    @Param({"platform", "virtual"})
+    String threading;
+
+    @Param({"1000"})
+    int concurrency;
+
+    @Param({"20"})
+    int latencyMillis;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private HttpRequest achievementRequest;
+    private HttpRequest staticFileRequest;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SpringApplicationBuilder application =
+                new SpringApplicationBuilder(AchievementTrackerApplication.class)
+                        .initializers(
+                                applicationContext ->
+                                        applicationContext
+                                                .getBeanFactory()
+                                                .addBeanPostProcessor(slowConnections()))
+                        .properties(
+                                "server.port=0",
+                                "spring.datasource.url=jdbc:h2:mem:requests;DB_CLOSE_DELAY=-1",
+                                "spring.jpa.hibernate.ddl-auto=create-drop",
+                                "spring.jpa.show-sql=false",
+                                "logging.level.root=WARN");
+        if ("virtual".equals(threading)) {
+            application.profiles("virtual-threads");
+        }
+        context = application.run();
+
+        Long id =
+                context.getBean(AchievementService.class)
+                        .createAchievement(
+                                CreateAchievementDTO.builder()
+                                        .title("Benchmark")
+                                        .status("TODO")
+                                        .build())
+                        .id();
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        achievementRequest =
+                HttpRequest.newBuilder(
+                                URI.create(
+                                        "http://localhost:" + port + "/api/v1/achievements/" + id))
+                        .build();
+        staticFileRequest =
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/css/styles.css"))
+                        .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @Group("slowDatabase")
+    @GroupThreads(1)
+    public void spike() {
+        CompletableFuture<?>[] responses = new CompletableFuture<?>[concurrency];
+        for (int i = 0; i < concurrency; i++) {
+            responses[i] =
+                    httpClient.sendAsync(
+                            achievementRequest, HttpResponse.BodyHandlers.discarding());
+        }
+        CompletableFuture.allOf(responses).join();
+    }
+
+    @Benchmark
+    @Group("slowDatabase")
+    @GroupThreads(1)
+    public int staticFile() throws Exception {
+        return httpClient
+                .send(staticFileRequest, HttpResponse.BodyHandlers.discarding())
+                .statusCode();
+    }
+
+    // Every connection the pool hands out is held for latencyMillis, like a slow round trip
+    private BeanPostProcessor slowConnections() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource)) {
+                    return bean;
+                }
+                return new DelegatingDataSource(dataSource) {
+                    @Override
+                    public Connection getConnection() throws SQLException {
+                        Connection connection = super.getConnection();
+                        try {
+                            Thread.sleep(latencyMillis);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return connection;
+                    }
+                };
+            }
+        };
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.persistence.mapper;
+
+import com.example.achievement_tracker.api.dto.AchievementDTO;
+import com.example.achievement_tracker.api.dto.CreateAchievementDTO;
+import com.example.achievement_tracker.api.dto.UpdateAchievementDTO;
+import com.example.achievement_tracker.persistence.model.Achievement;
+import com.example.achievement_tracker.persistence.model.StatusEnum;
+import com.example.achievement_tracker.persistence.model.Tag;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Mapping costs grow with the tag set, so each benchmark runs from no tags to a large set
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AchievementMapperBenchmark {
+
+    @Param({"0", "5", "50"})
+    int tagCount;
+
+    // Warm, as in a running application, so lookups never reach the database
+    private final TagDictionary tagDictionary = new TagDictionary(null, null);
+    private final AchievementMapper achievementMapper = new AchievementMapperImpl(tagDictionary);
+    private Achievement achievement;
+    private CreateAchievementDTO createAchievementDTO;
+    private UpdateAchievementDTO updateAchievementDTO;
+    private Achievement target;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Set<String> tags =
+                IntStream.range(0, tagCount)
+                        .mapToObj(i -> "tag-" + i)
+                        .collect(Collectors.toCollection(HashSet::new));
+        Set<Integer> tagIds =
+                IntStream.range(0, tagCount).boxed().collect(Collectors.toCollection(HashSet::new));
+        tagIds.forEach(id -> tagDictionary.cache(new Tag(id, "tag-" + id)));
+        LocalDate started = LocalDate.of(2024, 1, 15);
+        achievement =
+                Achievement.builder()
+                        .id(42L)
+                        .title("Run a half marathon")
+                        .description("Train three times a week and finish under two hours")
+                        .dateStarted(started)
+                        .dateCompleted(started.plusDays(90))
+                        .tagIds(tagIds)
+                        .status(StatusEnum.IN_PROGRESS)
+                        .version(3L)
+                        .build();
+        createAchievementDTO =
+                CreateAchievementDTO.builder()
+                        .title(achievement.getTitle())
+                        .description(achievement.getDescription())
+                        .dateStarted(achievement.getDateStarted())
+                        .dateCompleted(achievement.getDateCompleted())
+                        .tags(tags)
+                        .status("IN_PROGRESS")
+                        .build();
+        updateAchievementDTO =
+                UpdateAchievementDTO.builder()
+                        .id(42L)
+                        .title("Run a marathon")
+                        .tags(tags)
+                        .status("COMPLETED")
+                        .build();
+    }
+
+    // Updates mutate their target, so every invocation starts from a fresh copy
+    @Setup(Level.Invocation)
+    public void copyTarget() {
+        target =
+                Achievement.builder()
+                        .id(achievement.getId())
+                        .title(achievement.getTitle())
+                        .description(achievement.getDescription())
+                        .dateStarted(achievement.getDateStarted())
+                        .dateCompleted(achievement.getDateCompleted())
+                        .tagIds(new HashSet<>(achievement.getTagIds()))
+                        .status(achievement.getStatus())
+                        .version(achievement.getVersion())
+                        .build();
+    }
+
+    @Benchmark
+    public AchievementDTO toDTO() {
+        return achievementMapper.toDTO(achievement);
+    }
+
+    @Benchmark
+    public Achievement toEntity() {
+        return achievementMapper.toEntity(createAchievementDTO);
+    }
+
+    @Benchmark
+    public Achievement updateEntityFromDTO() {
+        achievementMapper.updateEntityFromDTO(updateAchievementDTO, target);
+        return target;
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.service.analytics;
+
+import com.example.achievement_tracker.api.dto.AchievementDTO;
+import com.example.achievement_tracker.service.event.AchievementChangedEvent;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Filtered dashboard aggregations over the in-memory columns, filled with {@code rows} achievements
+ * spread over four years, with two of a hundred tags each.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class AchievementColumnsBenchmark {
+    private static final String[] STATUSES = {"TODO", "IN_PROGRESS", "COMPLETED"};
+    private static final LocalDate START = LocalDate.of(2020, 1, 1);
+
+    @Param({"1000000", "10000000"})
+    int rows;
+
+    private AchievementColumns achievementColumns;
+    private final StatsFilter yearFilter =
+            StatsFilter.builder()
+                    .startedFrom(LocalDate.of(2022, 1, 1))
+                    .startedTo(LocalDate.of(2022, 12, 31))
+                    .build();
+    private final StatsFilter tagFilter = StatsFilter.builder().tag("tag-7").build();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // The repository is only used by rebuild(), the rows arrive as change events
+        achievementColumns = new AchievementColumns(null);
+        SplittableRandom random = new SplittableRandom(42);
+        for (long id = 1; id <= rows; id++) {
+            LocalDate started = START.plusDays(random.nextInt(1460));
+            achievementColumns.onAchievementChanged(
+                    AchievementChangedEvent.created(
+                            AchievementDTO.builder()
+                                    .id(id)
+                                    .title("Achievement " + id)
+                                    .dateStarted(started)
+                                    .dateCompleted(started.plusDays(random.nextInt(365)))
+                                    .tags(Set.of("tag-" + id % 100, "group-" + id % 7))
+                                    .status(STATUSES[(int) (id % STATUSES.length)])
+                                    .build()));
+        }
+    }
+
+    @Benchmark
+    public long[] statusCountsForYear() {
+        return achievementColumns.countByStatus(yearFilter);
+    }
+
+    @Benchmark
+    public Map<String, Long> tagCountsForYear() {
+        return achievementColumns.countByTag(yearFilter);
+    }
+
+    @Benchmark
+    public SortedMap<Integer, Long> histogramForTag() {
+        return achievementColumns.countByDaysToCompletion(tagFilter, 7);
+    }
+}
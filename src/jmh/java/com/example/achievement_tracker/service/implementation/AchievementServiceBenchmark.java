@@ -0,0 +1,163 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.service.implementation;
+
+import com.example.achievement_tracker.AchievementTrackerApplication;
+import com.example.achievement_tracker.api.dto.AchievementDTO;
+import com.example.achievement_tracker.api.dto.AchievementPageDTO;
+import com.example.achievement_tracker.api.dto.CreateAchievementDTO;
+import com.example.achievement_tracker.service.AchievementService;
+import com.example.achievement_tracker.service.pagination.AchievementCursor;
+import com.example.achievement_tracker.service.pagination.AchievementSortKey;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * End-to-end service calls against an embedded H2 database seeded with {@code rows} achievements.
+ * Rows are seeded with JDBC batches, so the in-memory indexes only see the achievements created by
+ * the benchmark itself.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class AchievementServiceBenchmark {
+    private static final int SEED_BATCH_SIZE = 10_000;
+    private static final String[] STATUSES = {"TODO", "IN_PROGRESS", "COMPLETED"};
+
+    @Param({"1000", "100000", "1000000"})
+    int rows;
+
+    private ConfigurableApplicationContext context;
+    private AchievementService achievementService;
+    private final AtomicLong createdCount = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context =
+                new SpringApplicationBuilder(AchievementTrackerApplication.class)
+                        .web(WebApplicationType.NONE)
+                        .properties(
+                                "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                                "spring.jpa.hibernate.ddl-auto=create-drop",
+                                "spring.jpa.show-sql=false",
+                                "logging.level.root=WARN")
+                        .run();
+        seed(context.getBean(JdbcTemplate.class));
+        achievementService = context.getBean(AchievementService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public AchievementDTO create() {
+        long n = createdCount.incrementAndGet();
+        return achievementService.createAchievement(
+                CreateAchievementDTO.builder()
+                        .title("Benchmark " + n)
+                        .description("Created by the benchmark")
+                        .dateStarted(LocalDate.now())
+                        .tags(Set.of("benchmark", "tag-" + n % 100))
+                        .status("TODO")
+                        .build());
+    }
+
+    @Benchmark
+    public Optional<AchievementDTO> getById() {
+        return achievementService.getAchievementById(randomId());
+    }
+
+    @Benchmark
+    public AchievementPageDTO listPage() {
+        String cursor = new AchievementCursor(AchievementSortKey.ID, randomId(), null).encode();
+        return achievementService.getAchievementPage(cursor, 50, null);
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, rows + 1);
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        LocalDate start = LocalDate.of(2020, 1, 1);
+        jdbcTemplate.batchUpdate("insert into tags (name) values (?)", tagNames());
+        for (int from = 1; from <= rows; from += SEED_BATCH_SIZE) {
+            List<Object[]> achievements = new ArrayList<>();
+            List<Object[]> tags = new ArrayList<>();
+            for (long id = from; id < Math.min(from + SEED_BATCH_SIZE, rows + 1L); id++) {
+                LocalDate started = start.plusDays(id % 1500);
+                achievements.add(
+                        new Object[] {
+                            id,
+                            "Achievement " + id,
+                            "Seeded achievement number " + id,
+                            Date.valueOf(started),
+                            Date.valueOf(started.plusDays(id % 200)),
+                            STATUSES[(int) (id % STATUSES.length)]
+                        });
+                tags.add(new Object[] {id, "tag-" + id % 100});
+                tags.add(new Object[] {id, "tag-" + id % 7});
+            }
+            jdbcTemplate.batchUpdate(
+                    "insert into achievements (id, title, description, date_started,"
+                            + " date_completed, status, version) values (?, ?, ?, ?, ?, ?, 0)",
+                    achievements);
+            jdbcTemplate.batchUpdate(
+                    "insert into achievement_tag_ids (achievement_id, tag_id)"
+                            + " select ?, id from tags where name = ?",
+                    tags);
+        }
+        // Ids come from pools of 50 that end at the sequence value, start the pools after the seed
+        jdbcTemplate.execute("alter sequence achievements_seq restart with " + (rows + 51));
+    }
+
+    // The seeded tags are tag-0 to tag-99, one row each in the tags dictionary
+    private static List<Object[]> tagNames() {
+        List<Object[]> names = new ArrayList<>();
+        for (int tag = 0; tag < 100; tag++) {
+            names.add(new Object[] {"tag-" + tag});
+        }
+        return names;
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.validation.implementation;
+
+import com.example.achievement_tracker.persistence.model.StatusEnum;
+import com.example.achievement_tracker.validation.ValueOfEnum;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValueOfEnumValidatorBenchmark {
+
+    // First constant, last constant and a miss that scans every constant
+    @Param({"TODO", "COMPLETED", "ARCHIVED"})
+    String value;
+
+    private final ValueOfEnumValidator validator = new ValueOfEnumValidator();
+
+    @Setup
+    public void setUp() throws NoSuchFieldException {
+        validator.initialize(
+                AnnotatedHolder.class.getDeclaredField("status").getAnnotation(ValueOfEnum.class));
+    }
+
+    @Benchmark
+    public boolean isValid() {
+        return validator.isValid(value, null);
+    }
+
+    // Source of a ValueOfEnum instance configured like the one on the DTOs
+    private static class AnnotatedHolder {
+        @ValueOfEnum(enumClass = StatusEnum.class)
+        private String status;
+    }
+}
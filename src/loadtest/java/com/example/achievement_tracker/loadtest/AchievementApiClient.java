@@ -0,0 +1,148 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.loadtest;
+
+import com.example.achievement_tracker.api.dto.CreateAchievementDTO;
+import com.example.achievement_tracker.api.dto.UpdateAchievementDTO;
+import com.example.achievement_tracker.service.pagination.AchievementCursor;
+import com.example.achievement_tracker.service.pagination.AchievementSortKey;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.OptionalInt;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Blocking HTTP client for the achievement endpoints. Reads and updates target the seeded rows,
+ * deletes take the achievements created earlier in the run so the seeded rows stay readable.
+ */
+final class AchievementApiClient {
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final String JSON = "application/json";
+    private static final String[] STATUSES = {"TODO", "IN_PROGRESS", "COMPLETED"};
+
+    private final HttpClient httpClient =
+            HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(REQUEST_TIMEOUT)
+                    .build();
+    private final Queue<Long> createdIds = new ConcurrentLinkedQueue<>();
+    private final AtomicLong createdCount = new AtomicLong();
+    private final String baseUrl;
+    private final ObjectMapper objectMapper;
+    private final int seededRows;
+
+    AchievementApiClient(
+            int port, LoadTestConfig.Api api, ObjectMapper objectMapper, int seededRows) {
+        this.baseUrl = "http://localhost:" + port + api.path();
+        this.objectMapper = objectMapper;
+        this.seededRows = seededRows;
+    }
+
+    /**
+     * Sends one request and returns its status code, or an empty result when a delete had no
+     * created achievement left to remove.
+     */
+    OptionalInt send(Operation operation) throws IOException, InterruptedException {
+        return switch (operation) {
+            case CREATE -> create();
+            case GET -> status(get("/" + randomSeededId()));
+            case LIST -> status(get("?limit=50&cursor=" + randomCursor()));
+            case UPDATE -> update();
+            case DELETE -> delete();
+        };
+    }
+
+    private OptionalInt create() throws IOException, InterruptedException {
+        long n = createdCount.incrementAndGet();
+        CreateAchievementDTO body =
+                CreateAchievementDTO.builder()
+                        .title("Load test " + n)
+                        .description("Created by the load test")
+                        .dateStarted(LocalDate.now())
+                        .tags(Set.of("load-test", "tag-" + n % 100))
+                        .status("TODO")
+                        .build();
+        HttpResponse<String> response =
+                httpClient.send(
+                        json("/create").POST(bodyOf(body)).build(),
+                        HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() == 201) {
+            createdIds.add(objectMapper.readTree(response.body()).get("id").asLong());
+        }
+        return OptionalInt.of(response.statusCode());
+    }
+
+    private OptionalInt update() throws IOException, InterruptedException {
+        long id = randomSeededId();
+        // Titles are unique, so the update keeps the seeded one and changes the rest
+        UpdateAchievementDTO body =
+                UpdateAchievementDTO.builder()
+                        .id(id)
+                        .title("Achievement " + id)
+                        .description("Updated by the load test at " + System.nanoTime())
+                        .tags(Set.of("tag-" + id % 100, "load-test"))
+                        .status(STATUSES[ThreadLocalRandom.current().nextInt(STATUSES.length)])
+                        .build();
+        return status(json("/" + id).PUT(bodyOf(body)).build());
+    }
+
+    private OptionalInt delete() throws IOException, InterruptedException {
+        Long id = createdIds.poll();
+        if (id == null) {
+            return OptionalInt.empty();
+        }
+        return status(request("/" + id).DELETE().build());
+    }
+
+    private OptionalInt status(HttpRequest request) throws IOException, InterruptedException {
+        return OptionalInt.of(
+                httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode());
+    }
+
+    private HttpRequest get(String path) {
+        return request(path).GET().build();
+    }
+
+    private HttpRequest.Builder json(String path) {
+        return request(path).header("Content-Type", JSON).header("Accept", JSON);
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(REQUEST_TIMEOUT);
+    }
+
+    private HttpRequest.BodyPublisher bodyOf(Object body) throws IOException {
+        return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+    }
+
+    private long randomSeededId() {
+        return ThreadLocalRandom.current().nextLong(1, seededRows + 1L);
+    }
+
+    private String randomCursor() {
+        return new AchievementCursor(AchievementSortKey.ID, randomSeededId(), null).encode();
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Locale;
+import org.springframework.boot.convert.DurationStyle;
+
+/**
+ * Settings of one load test run, read from {@code loadtest.*} system properties:
+ *
+ * <ul>
+ *   <li>{@code rate}: requests started per second, 200 by default
+ *   <li>{@code arrivals}: {@code poisson} (default) or {@code uniform} gaps between requests
+ *   <li>{@code warmup}: unrecorded run before the measurement, 10s by default
+ *   <li>{@code duration}: measured run, 30s by default
+ *   <li>{@code rows}: achievements seeded before the run, 10000 by default
+ *   <li>{@code mix}: operation weights, {@code get=60,list=20,create=10,update=7,delete=3} by
+ *       default
+ *   <li>{@code api}: {@code v1} (default) for the blocking endpoints or {@code v2} for the reactive
+ *       ones, which only serve {@code get} and {@code list}
+ *   <li>{@code output}: directory the latency distributions are written to
+ * </ul>
+ */
+record LoadTestConfig(
+        double rate,
+        Arrivals arrivals,
+        Duration warmup,
+        Duration duration,
+        int rows,
+        OperationMix mix,
+        Api api,
+        Path output) {
+
+    private static final String PREFIX = "loadtest.";
+
+    /** How the gaps between two request starts are distributed around {@code 1 / rate}. */
+    enum Arrivals {
+        POISSON,
+        UNIFORM
+    }
+
+    /** The endpoints the requests go to. */
+    enum Api {
+        V1,
+        V2;
+
+        String path() {
+            return "/api/" + name().toLowerCase(Locale.ROOT) + "/achievements";
+        }
+    }
+
+    LoadTestConfig {
+        if (rate <= 0) {
+            throw new IllegalArgumentException("The rate must be positive");
+        }
+        if (duration.isNegative() || duration.isZero() || warmup.isNegative()) {
+            throw new IllegalArgumentException("The durations must not be negative or empty");
+        }
+        if (rows < 1) {
+            throw new IllegalArgumentException("At least one achievement has to be seeded");
+        }
+        if (api == Api.V2
+                && mix.weights().entrySet().stream()
+                        .anyMatch(
+                                entry ->
+                                        entry.getValue() > 0
+                                                && entry.getKey() != Operation.GET
+                                                && entry.getKey() != Operation.LIST)) {
+            throw new IllegalArgumentException("The v2 api only serves get and list");
+        }
+    }
+
+    static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig(
+                Double.parseDouble(property("rate", "200")),
+                Arrivals.valueOf(property("arrivals", "poisson").toUpperCase(Locale.ROOT)),
+                DurationStyle.detectAndParse(property("warmup", "10s")),
+                DurationStyle.detectAndParse(property("duration", "30s")),
+                Integer.parseInt(property("rows", "10000")),
+                OperationMix.parse(property("mix", "get=60,list=20,create=10,update=7,delete=3")),
+                Api.valueOf(property("api", "v1").toUpperCase(Locale.ROOT)),
+                Path.of(property("output", "build/results/loadtest")));
+    }
+
+    private static String property(String name, String defaultValue) {
+        return System.getProperty(PREFIX + name, defaultValue);
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Prints a percentile table of a run and writes the full corrected latency distributions as {@code
+ * .hgrm} files, which the HdrHistogram plotter can overlay across runs.
+ */
+final class LoadTestReport {
+    private static final double NANOS_PER_MILLI = 1e6;
+    private static final String ROW_FORMAT = "%-8s %9s %7s %9s %9s %9s %9s %9s   %9s %9s %9s%n";
+
+    private LoadTestReport() {}
+
+    static void print(
+            LoadTestConfig config, OpenModelLoadGenerator.Result result, PrintStream out) {
+        double seconds = result.elapsedNanos() / 1e9;
+        out.printf(
+                "%nTarget %.0f req/s with %s arrivals over %s after %s of warm-up, %d seeded rows,"
+                        + " mix %s on %s%n",
+                config.rate(),
+                config.arrivals().name().toLowerCase(Locale.ROOT),
+                format(config.duration()),
+                format(config.warmup()),
+                config.rows(),
+                config.mix(),
+                config.api().path());
+        out.printf("Scheduled %d requests, completed in %.1f s%n%n", result.scheduled(), seconds);
+        out.printf(ROW_FORMAT, "", "", "", "", "corrected", "", "", "", "service", "", "");
+        out.printf(
+                ROW_FORMAT,
+                "op",
+                "count",
+                "errors",
+                "req/s",
+                "p50 ms",
+                "p99 ms",
+                "p99.9 ms",
+                "max ms",
+                "p50 ms",
+                "p99 ms",
+                "p99.9 ms");
+        OperationStats total = new OperationStats();
+        long totalErrors = 0;
+        for (Map.Entry<Operation, OperationStats> entry : result.stats().entrySet()) {
+            OperationStats stats = entry.getValue();
+            printRow(out, entry.getKey().label(), stats, stats.errors(), seconds);
+            if (stats.skipped() > 0) {
+                out.printf("%-8s skipped %d with nothing left to delete%n", "", stats.skipped());
+            }
+            total.corrected().add(stats.corrected());
+            total.serviceTime().add(stats.serviceTime());
+            totalErrors += stats.errors();
+        }
+        printRow(out, "total", total, totalErrors, seconds);
+    }
+
+    static void write(OpenModelLoadGenerator.Result result, Path directory) throws IOException {
+        Files.createDirectories(directory);
+        for (Map.Entry<Operation, OperationStats> entry : result.stats().entrySet()) {
+            Path file = directory.resolve(entry.getKey().label() + ".hgrm");
+            try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+                entry.getValue().corrected().outputPercentileDistribution(out, NANOS_PER_MILLI);
+            }
+        }
+    }
+
+    private static void printRow(
+            PrintStream out, String label, OperationStats stats, long errors, double seconds) {
+        Histogram corrected = stats.corrected();
+        Histogram serviceTime = stats.serviceTime();
+        out.printf(
+                ROW_FORMAT,
+                label,
+                stats.count(),
+                errors,
+                String.format("%.1f", stats.count() / seconds),
+                millis(corrected, 50),
+                millis(corrected, 99),
+                millis(corrected, 99.9),
+                String.format("%.2f", corrected.getMaxValue() / NANOS_PER_MILLI),
+                millis(serviceTime, 50),
+                millis(serviceTime, 99),
+                millis(serviceTime, 99.9));
+    }
+
+    private static String format(Duration duration) {
+        return duration.toString().substring(2).toLowerCase(Locale.ROOT);
+    }
+
+    private static String millis(Histogram histogram, double percentile) {
+        return String.format("%.2f", histogram.getValueAtPercentile(percentile) / NANOS_PER_MILLI);
+    }
+}
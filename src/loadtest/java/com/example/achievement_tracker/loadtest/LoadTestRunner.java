@@ -0,0 +1,124 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.loadtest;
+
+import com.example.achievement_tracker.AchievementTrackerApplication;
+import com.example.achievement_tracker.service.stats.AchievementRollupReconciler;
+import com.example.achievement_tracker.service.stats.AchievementStatisticsReconciler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Boots the application on a random port against an in-memory H2 database, seeds it, and drives
+ * {@code /api/v1/achievements} with an open-model load. Run it with {@code ./gradlew loadTest}.
+ */
+public final class LoadTestRunner {
+    private static final int SEED_BATCH_SIZE = 10_000;
+    private static final String[] STATUSES = {"TODO", "IN_PROGRESS", "COMPLETED"};
+
+    private LoadTestRunner() {}
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        try (ConfigurableApplicationContext context =
+                new SpringApplicationBuilder(AchievementTrackerApplication.class)
+                        .properties(
+                                "server.port=0",
+                                "spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1",
+                                "spring.jpa.hibernate.ddl-auto=create-drop",
+                                "spring.jpa.show-sql=false",
+                                "logging.level.root=WARN")
+                        .listeners(seedOnStart(config.rows()))
+                        .run(args)) {
+            // The seed bypasses the writes that keep the statistics and rollups up to date
+            context.getBean(AchievementStatisticsReconciler.class).reconcile();
+            context.getBean(AchievementRollupReconciler.class).reconcile();
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            AchievementApiClient client =
+                    new AchievementApiClient(
+                            port, config.api(), context.getBean(ObjectMapper.class), config.rows());
+            OpenModelLoadGenerator generator = new OpenModelLoadGenerator(config, client);
+
+            if (!config.warmup().isZero()) {
+                System.out.printf("Warming up for %s%n", config.warmup());
+                generator.run(config.warmup());
+            }
+            System.out.printf("Measuring for %s%n", config.duration());
+            OpenModelLoadGenerator.Result result = generator.run(config.duration());
+
+            LoadTestReport.print(config, result, System.out);
+            LoadTestReport.write(result, config.output());
+            System.out.printf("%nLatency distributions written to %s%n", config.output());
+        }
+    }
+
+    // Seeds once the schema exists, before the ApplicationReadyEvent listeners build the in-memory
+    // search, column, timeline and tag indexes from the tables
+    private static ApplicationListener<ApplicationStartedEvent> seedOnStart(int rows) {
+        return event -> seed(event.getApplicationContext().getBean(JdbcTemplate.class), rows);
+    }
+
+    private static void seed(JdbcTemplate jdbcTemplate, int rows) {
+        LocalDate start = LocalDate.of(2020, 1, 1);
+        jdbcTemplate.batchUpdate("insert into tags (name) values (?)", tagNames());
+        for (int from = 1; from <= rows; from += SEED_BATCH_SIZE) {
+            List<Object[]> achievements = new ArrayList<>();
+            List<Object[]> tags = new ArrayList<>();
+            for (long id = from; id < Math.min(from + SEED_BATCH_SIZE, rows + 1L); id++) {
+                LocalDate started = start.plusDays(id % 1500);
+                achievements.add(
+                        new Object[] {
+                            id,
+                            "Achievement " + id,
+                            "Seeded achievement number " + id,
+                            Date.valueOf(started),
+                            Date.valueOf(started.plusDays(id % 200)),
+                            STATUSES[(int) (id % STATUSES.length)]
+                        });
+                tags.add(new Object[] {id, "tag-" + id % 100});
+                tags.add(new Object[] {id, "tag-" + id % 7});
+            }
+            jdbcTemplate.batchUpdate(
+                    "insert into achievements (id, title, description, date_started,"
+                            + " date_completed, status, version) values (?, ?, ?, ?, ?, ?, 0)",
+                    achievements);
+            jdbcTemplate.batchUpdate(
+                    "insert into achievement_tag_ids (achievement_id, tag_id)"
+                            + " select ?, id from tags where name = ?",
+                    tags);
+        }
+        // Ids come from pools of 50 that end at the sequence value, start the pools after the seed
+        jdbcTemplate.execute("alter sequence achievements_seq restart with " + (rows + 51));
+    }
+
+    // The seeded tags are tag-0 to tag-99, one row each in the tags dictionary
+    private static List<Object[]> tagNames() {
+        List<Object[]> names = new ArrayList<>();
+        for (int tag = 0; tag < 100; tag++) {
+            names.add(new Object[] {"tag-" + tag});
+        }
+        return names;
+    }
+}
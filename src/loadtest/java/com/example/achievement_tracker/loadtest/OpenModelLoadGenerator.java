@@ -0,0 +1,110 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.loadtest;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Starts requests on a fixed schedule, whether or not the earlier ones have completed. Every
+ * request runs on its own virtual thread, so a slow server builds up requests in flight instead of
+ * slowing the arrivals down, and latencies are taken from the scheduled start.
+ */
+final class OpenModelLoadGenerator {
+    private final LoadTestConfig config;
+    private final AchievementApiClient client;
+    private final SplittableRandom random = new SplittableRandom();
+
+    OpenModelLoadGenerator(LoadTestConfig config, AchievementApiClient client) {
+        this.config = config;
+        this.client = client;
+    }
+
+    /** Schedules requests for the given duration and waits until all of them have completed. */
+    Result run(Duration duration) {
+        Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+        config.mix()
+                .weights()
+                .keySet()
+                .forEach(operation -> stats.put(operation, new OperationStats()));
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        long scheduled = 0;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long intended = start + nextGapNanos();
+                    intended < end;
+                    intended += nextGapNanos()) {
+                waitUntil(intended);
+                Operation operation = config.mix().pick(random);
+                long intendedStart = intended;
+                executor.execute(() -> execute(operation, intendedStart, stats.get(operation)));
+                scheduled++;
+            }
+        }
+        return new Result(Collections.unmodifiableMap(stats), scheduled, System.nanoTime() - start);
+    }
+
+    private void execute(Operation operation, long intendedStart, OperationStats stats) {
+        long sent = System.nanoTime();
+        boolean error;
+        try {
+            OptionalInt status = client.send(operation);
+            if (status.isEmpty()) {
+                stats.skip();
+                return;
+            }
+            error = status.getAsInt() >= 400;
+        } catch (IOException exception) {
+            error = true;
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        long completed = System.nanoTime();
+        stats.record(completed - intendedStart, completed - sent, error);
+    }
+
+    private long nextGapNanos() {
+        double meanGap = 1e9 / config.rate();
+        return switch (config.arrivals()) {
+            case UNIFORM -> Math.round(meanGap);
+                // Exponential gaps give Poisson arrivals, bursts included
+            case POISSON -> Math.round(-meanGap * Math.log(1 - random.nextDouble()));
+        };
+    }
+
+    private static void waitUntil(long nanoTime) {
+        for (long remaining = nanoTime - System.nanoTime();
+                remaining > 0;
+                remaining = nanoTime - System.nanoTime()) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    /**
+     * Statistics of one run, with the wall-clock time from the first scheduled request until the
+     * last one completed.
+     */
+    record Result(Map<Operation, OperationStats> stats, long scheduled, long elapsedNanos) {}
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.loadtest;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * Relative weights of the operations, written as {@code get=60,list=20,create=10} on the command
+ * line. Operations without a weight are never sent.
+ */
+record OperationMix(Map<Operation, Integer> weights) {
+
+    OperationMix {
+        weights = Collections.unmodifiableMap(new EnumMap<>(weights));
+        if (weights.values().stream().anyMatch(weight -> weight < 0)) {
+            throw new IllegalArgumentException("Operation weights must not be negative");
+        }
+        if (total(weights) == 0) {
+            throw new IllegalArgumentException("At least one operation needs a positive weight");
+        }
+        // Deletes only target achievements created by the run, so they cannot outpace creates
+        if (weights.getOrDefault(Operation.DELETE, 0) > weights.getOrDefault(Operation.CREATE, 0)) {
+            throw new IllegalArgumentException("The delete weight cannot exceed the create weight");
+        }
+    }
+
+    static OperationMix parse(String value) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : value.split(",")) {
+            String[] parts = entry.split("=", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected operation=weight, got: " + entry);
+            }
+            weights.merge(
+                    Operation.fromName(parts[0]), Integer.parseInt(parts[1].trim()), Integer::sum);
+        }
+        return new OperationMix(weights);
+    }
+
+    Operation pick(RandomGenerator random) {
+        int remaining = random.nextInt(total(weights));
+        for (Map.Entry<Operation, Integer> entry : weights.entrySet()) {
+            remaining -= entry.getValue();
+            if (remaining < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Weights changed while picking an operation");
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        weights.forEach(
+                (operation, weight) -> {
+                    if (!builder.isEmpty()) {
+                        builder.append(',');
+                    }
+                    builder.append(operation.label()).append('=').append(weight);
+                });
+        return builder.toString();
+    }
+
+    private static int total(Map<Operation, Integer> weights) {
+        return weights.values().stream().mapToInt(Integer::intValue).sum();
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.loadtest;
+
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Latencies of one operation in nanoseconds. The corrected histogram measures from the moment the
+ * request was scheduled to start, so a stalled server is charged for the requests queued behind it.
+ * The service time histogram measures from the moment the request was actually sent, which is what
+ * a closed-loop client would report.
+ */
+final class OperationStats {
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final Histogram corrected = new ConcurrentHistogram(SIGNIFICANT_DIGITS);
+    private final Histogram serviceTime = new ConcurrentHistogram(SIGNIFICANT_DIGITS);
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+
+    void record(long correctedNanos, long serviceTimeNanos, boolean error) {
+        corrected.recordValue(correctedNanos);
+        serviceTime.recordValue(serviceTimeNanos);
+        if (error) {
+            errors.increment();
+        }
+    }
+
+    void skip() {
+        skipped.increment();
+    }
+
+    Histogram corrected() {
+        return corrected;
+    }
+
+    Histogram serviceTime() {
+        return serviceTime;
+    }
+
+    long count() {
+        return corrected.getTotalCount();
+    }
+
+    long errors() {
+        return errors.sum();
+    }
+
+    long skipped() {
+        return skipped.sum();
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.api.binary;
+
+import com.example.achievement_tracker.api.dto.AchievementDTO;
+import com.example.achievement_tracker.api.dto.CreateAchievementDTO;
+import com.example.achievement_tracker.api.dto.PatchAchievementDTO;
+import com.example.achievement_tracker.api.dto.StatusCountDTO;
+import com.example.achievement_tracker.api.dto.UpdateAchievementDTO;
+import com.example.achievement_tracker.persistence.model.StatusEnum;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import java.io.IOException;
+import java.time.LocalDate;
+
+/**
+ * Compact encodings for the binary media types: dates as epoch days and statuses as their ordinal.
+ * Both are still accepted in their JSON form when reading, so clients can switch field by field.
+ */
+public class BinaryFormatModule extends SimpleModule {
+    private static final StatusEnum[] STATUSES = StatusEnum.values();
+
+    public BinaryFormatModule() {
+        super("BinaryFormatModule");
+        addSerializer(LocalDate.class, new EpochDaySerializer());
+        addDeserializer(LocalDate.class, new EpochDayDeserializer());
+        setMixInAnnotation(AchievementDTO.class, StatusOrdinalMixin.class);
+        setMixInAnnotation(CreateAchievementDTO.class, StatusOrdinalMixin.class);
+        setMixInAnnotation(UpdateAchievementDTO.class, StatusOrdinalMixin.class);
+        setMixInAnnotation(PatchAchievementDTO.class, StatusOrdinalMixin.class);
+        setMixInAnnotation(StatusCountDTO.class, StatusOrdinalMixin.class);
+    }
+
+    // The DTOs carry the status as a name, only its wire form changes
+    abstract static class StatusOrdinalMixin {
+        @JsonSerialize(using = StatusOrdinalSerializer.class)
+        @JsonDeserialize(using = StatusOrdinalDeserializer.class)
+        abstract String status();
+    }
+
+    static class EpochDaySerializer extends JsonSerializer<LocalDate> {
+        @Override
+        public void serialize(LocalDate value, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            generator.writeNumber(value.toEpochDay());
+        }
+    }
+
+    static class EpochDayDeserializer extends JsonDeserializer<LocalDate> {
+        @Override
+        public LocalDate deserialize(JsonParser parser, DeserializationContext context)
+                throws IOException {
+            if (parser.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+                return LocalDate.ofEpochDay(parser.getLongValue());
+            }
+            if (parser.currentToken() == JsonToken.VALUE_STRING) {
+                return LocalDate.parse(parser.getText());
+            }
+            return (LocalDate) context.handleUnexpectedToken(LocalDate.class, parser);
+        }
+    }
+
+    // Names that are not a status are written as they are, and left to validation when read
+    static class StatusOrdinalSerializer extends JsonSerializer<String> {
+        @Override
+        public void serialize(String value, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            for (StatusEnum status : STATUSES) {
+                if (status.name().equals(value)) {
+                    generator.writeNumber(status.ordinal());
+                    return;
+                }
+            }
+            generator.writeString(value);
+        }
+    }
+
+    static class StatusOrdinalDeserializer extends JsonDeserializer<String> {
+        @Override
+        public String deserialize(JsonParser parser, DeserializationContext context)
+                throws IOException {
+            if (parser.currentToken() != JsonToken.VALUE_NUMBER_INT) {
+                return parser.getValueAsString();
+            }
+            int ordinal = parser.getIntValue();
+            if (ordinal < 0 || ordinal >= STATUSES.length) {
+                return (String)
+                        context.handleWeirdNumberValue(
+                                String.class, ordinal, "not a status ordinal");
+            }
+            return STATUSES[ordinal].name();
+        }
+    }
+}
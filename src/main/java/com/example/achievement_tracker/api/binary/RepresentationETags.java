@@ -0,0 +1,94 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.api.binary;
+
+import jakarta.servlet.http.HttpServletResponse;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Entity tags of the negotiated representation. JSON, CBOR and Smile bodies of the same URL differ,
+ * so a tag carries the format it was sent in, e.g. {@code "12-3+cbor"}, and a tag sent back with
+ * another Accept header does not match. JSON keeps the plain tag.
+ */
+public final class RepresentationETags {
+    // Producible formats in converter order, the first one wins for wildcards
+    private static final List<MediaType> FORMATS =
+            List.of(
+                    MediaType.APPLICATION_JSON,
+                    MediaType.APPLICATION_CBOR,
+                    MediaType.parseMediaType("application/x-jackson-smile"));
+    private static final List<String> SUFFIXES = List.of("", "+cbor", "+smile");
+
+    private RepresentationETags() {}
+
+    /**
+     * Tag of the representation the request negotiates, for a quoted base tag. The response is
+     * marked {@code Vary: Accept}, including the 304 answered from the tag.
+     */
+    public static String of(String baseTag, WebRequest request) {
+        if (request instanceof NativeWebRequest nativeRequest) {
+            HttpServletResponse response =
+                    nativeRequest.getNativeResponse(HttpServletResponse.class);
+            if (response != null && !response.getHeaders(HttpHeaders.VARY).contains("Accept")) {
+                response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+            }
+        }
+        String suffix = SUFFIXES.get(negotiatedFormat(request.getHeader(HttpHeaders.ACCEPT)));
+        return baseTag.substring(0, baseTag.length() - 1) + suffix + "\"";
+    }
+
+    // Quoted tag without its format suffix, as sent back in If-Match
+    public static String baseTag(String eTag) {
+        for (String suffix : SUFFIXES) {
+            if (!suffix.isEmpty() && eTag.endsWith(suffix + "\"")) {
+                return eTag.substring(0, eTag.length() - suffix.length() - 1) + "\"";
+            }
+        }
+        return eTag;
+    }
+
+    // Same choice as the converters: most specific acceptable type first, JSON for wildcards
+    private static int negotiatedFormat(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return 0;
+        }
+        List<MediaType> acceptable;
+        try {
+            acceptable = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        } catch (InvalidMediaTypeException e) {
+            return 0;
+        }
+        MimeTypeUtils.sortBySpecificity(acceptable);
+        for (MediaType type : acceptable) {
+            if (type.getQualityValue() == 0) {
+                continue;
+            }
+            for (int format = 0; format < FORMATS.size(); format++) {
+                if (type.isCompatibleWith(FORMATS.get(format))) {
+                    return format;
+                }
+            }
+        }
+        return 0;
+    }
+}
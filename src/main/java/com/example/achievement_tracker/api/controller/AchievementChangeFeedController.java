@@ -0,0 +1,63 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.api.controller;
+
+import com.example.achievement_tracker.service.feed.AchievementChangeFeed;
+import com.example.achievement_tracker.service.feed.Sequenced;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/v1/achievements/changes")
+public class AchievementChangeFeedController {
+
+    /**
+     * Sent with the data the page keeps up to date from the feed: the sequence of the latest change
+     * the data includes, so the changes up to it can be skipped.
+     */
+    public static final String CHANGE_SEQUENCE_HEADER = "X-Change-Sequence";
+
+    // The sequenced data as a response body with its sequence in the header
+    static <T> ResponseEntity<T> withSequence(Sequenced<T> sequenced) {
+        return ResponseEntity.ok()
+                .header(CHANGE_SEQUENCE_HEADER, Long.toString(sequenced.sequence()))
+                .body(sequenced.value());
+    }
+
+    private final AchievementChangeFeed achievementChangeFeed;
+
+    public AchievementChangeFeedController(AchievementChangeFeed achievementChangeFeed) {
+        this.achievementChangeFeed = achievementChangeFeed;
+    }
+
+    /**
+     * Server-sent events of the committed changes, one {@code change} event per create, update or
+     * delete with its sequence number as event id. The feed starts after the Last-Event-ID header
+     * sent by reconnecting clients, else after {@code since}, else at the latest change.
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter getChanges(
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+            @RequestParam(required = false) Long since) {
+        return achievementChangeFeed.subscribe(lastEventId != null ? lastEventId : since);
+    }
+}
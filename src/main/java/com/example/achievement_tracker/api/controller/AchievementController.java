@@ -15,26 +15,50 @@
  */
 package com.example.achievement_tracker.api.controller;
 
+import com.example.achievement_tracker.api.binary.RepresentationETags;
 import com.example.achievement_tracker.api.dto.AchievementDTO;
+import com.example.achievement_tracker.api.dto.AchievementPageDTO;
+import com.example.achievement_tracker.api.dto.BatchCreateResultDTO;
 import com.example.achievement_tracker.api.dto.CreateAchievementDTO;
+import com.example.achievement_tracker.api.dto.PatchAchievementDTO;
+import com.example.achievement_tracker.api.dto.SparseAchievementPageDTO;
 import com.example.achievement_tracker.api.dto.UpdateAchievementDTO;
+import com.example.achievement_tracker.exception.InvalidPageRequestException;
+import com.example.achievement_tracker.exception.VersionConflictException;
 import com.example.achievement_tracker.service.AchievementService;
+import com.example.achievement_tracker.service.export.ExportFormat;
+import io.micrometer.core.annotation.Timed;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
+@Timed(
+        value = "achievements.controller",
+        histogram = true,
+        percentiles = {0.5, 0.95, 0.99})
 @RequestMapping("/api/v1/achievements")
 public class AchievementController {
 
@@ -52,21 +76,135 @@ public class AchievementController {
                 .body(achievementService.createAchievement(createAchievementDTO));
     }
 
+    // Items are validated one by one, so invalid items are reported instead of failing the batch
+    @PostMapping("/batch")
+    public ResponseEntity<BatchCreateResultDTO> createAchievements(
+            @RequestBody @Size(max = 1000) List<CreateAchievementDTO> createAchievementDTOs) {
+        BatchCreateResultDTO result = achievementService.createAchievements(createAchievementDTOs);
+        return ResponseEntity.status(
+                        result.errors().isEmpty() ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS)
+                .body(result);
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<AchievementDTO> getAchievementById(@PathVariable Long id) {
+    public ResponseEntity<AchievementDTO> getAchievementById(
+            @PathVariable Long id, WebRequest webRequest) {
+        // Answer an unchanged achievement from its version column alone
+        Optional<Long> version = achievementService.getAchievementVersion(id);
+        if (version.isPresent()
+                && webRequest.checkNotModified(achievementETag(id, version.get(), webRequest))) {
+            return null;
+        }
         Optional<AchievementDTO> achievementDTO = achievementService.getAchievementById(id);
         return achievementDTO
-                .map(ResponseEntity::ok)
+                .map(
+                        dto ->
+                                ResponseEntity.ok()
+                                        .eTag(achievementETag(dto.id(), dto.version(), webRequest))
+                                        .body(dto))
+                .orElseGet(() -> ResponseEntity.noContent().build());
+    }
+
+    // Only the requested properties, e.g. ?fields=id,title,status, selecting only their columns
+    @GetMapping(value = "/{id}", params = "fields")
+    public ResponseEntity<Map<String, Object>> getAchievementFieldsById(
+            @PathVariable Long id, @RequestParam String fields, WebRequest webRequest) {
+        Optional<Long> version = achievementService.getAchievementVersion(id);
+        if (version.isEmpty()) {
+            return ResponseEntity.noContent().build();
+        }
+        if (webRequest.checkNotModified(achievementETag(id, version.get(), webRequest))) {
+            return null;
+        }
+        return achievementService
+                .getAchievementFieldsById(id, fields)
+                .map(
+                        item ->
+                                ResponseEntity.ok()
+                                        .eTag(achievementETag(id, version.get(), webRequest))
+                                        .body(item))
                 .orElseGet(() -> ResponseEntity.noContent().build());
     }
 
     @GetMapping
-    public ResponseEntity<List<AchievementDTO>> getAllAchievements() {
-        List<AchievementDTO> achievementsDTO = achievementService.getAllAchievements();
+    public ResponseEntity<AchievementPageDTO> getAllAchievements(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) Set<String> tags,
+            @RequestParam(defaultValue = "all") String match,
+            WebRequest webRequest) {
+        requireIdSortForTags(tags, sort);
+        // Read the counter before the page, so a concurrent write can only make the tag stale
+        String eTag =
+                RepresentationETags.of(
+                        "\"achievements-" + achievementService.getAchievementsChangeCount() + "\"",
+                        webRequest);
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        // Tag queries are answered from the tag index and are always ordered by id
+        AchievementPageDTO achievementPageDTO =
+                tags == null || tags.isEmpty()
+                        ? achievementService.getAchievementPage(cursor, limit, sort)
+                        : achievementService.getAchievementPageByTags(tags, match, cursor, limit);
 
-        return achievementsDTO.isEmpty()
+        return achievementPageDTO.items().isEmpty()
                 ? ResponseEntity.noContent().build()
-                : ResponseEntity.ok(achievementsDTO);
+                : ResponseEntity.ok().eTag(eTag).body(achievementPageDTO);
+    }
+
+    @GetMapping(params = "fields")
+    public ResponseEntity<SparseAchievementPageDTO> getAllAchievementFields(
+            @RequestParam String fields,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) Set<String> tags,
+            @RequestParam(defaultValue = "all") String match,
+            WebRequest webRequest) {
+        requireIdSortForTags(tags, sort);
+        String eTag =
+                RepresentationETags.of(
+                        "\"achievements-" + achievementService.getAchievementsChangeCount() + "\"",
+                        webRequest);
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        SparseAchievementPageDTO page =
+                tags == null || tags.isEmpty()
+                        ? achievementService.getSparseAchievementPage(fields, cursor, limit, sort)
+                        : achievementService.getSparseAchievementPageByTags(
+                                fields, tags, match, cursor, limit);
+
+        return page.items().isEmpty()
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.ok().eTag(eTag).body(page);
+    }
+
+    // The whole table, written row by row while it is read from the database
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportAchievements(
+            @RequestParam(defaultValue = "ndjson") String format) {
+        ExportFormat chosenFormat =
+                ExportFormat.fromParameter(format)
+                        .orElseThrow(
+                                () ->
+                                        new InvalidPageRequestException(
+                                                "Unknown export format '"
+                                                        + format
+                                                        + "', expected ndjson or csv"));
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(chosenFormat.getMediaType()))
+                .header(
+                        HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment()
+                                .filename("achievements." + chosenFormat.getExtension())
+                                .build()
+                                .toString())
+                .body(
+                        outputStream ->
+                                achievementService.exportAchievements(chosenFormat, outputStream));
     }
 
     @PutMapping("/{id}")
@@ -79,9 +217,64 @@ public class AchievementController {
                 .orElseGet(() -> ResponseEntity.noContent().build());
     }
 
+    // Compare-and-set: the version comes from the body or from an If-Match tag of this endpoint
+    @PatchMapping("/{id}")
+    public ResponseEntity<Void> patchAchievement(
+            @PathVariable Long id,
+            @Valid @RequestBody PatchAchievementDTO patchAchievementDTO,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion =
+                patchAchievementDTO.version() != null
+                        ? patchAchievementDTO.version()
+                        : versionFromETag(id, ifMatch);
+        if (expectedVersion == null) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED).build();
+        }
+        long newVersion =
+                achievementService.patchAchievement(id, patchAchievementDTO, expectedVersion);
+        return ResponseEntity.noContent().eTag(achievementETag(id, newVersion)).build();
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteAchievement(@PathVariable Long id) {
         achievementService.deleteAchievement(id);
         return ResponseEntity.noContent().build();
     }
+
+    // Strong entity tag of one achievement, changes whenever Hibernate bumps its version
+    private static String achievementETag(Long id, Long version) {
+        return "\"" + id + "-" + version + "\"";
+    }
+
+    // The same tag for the representation the request negotiates
+    private static String achievementETag(Long id, Long version, WebRequest webRequest) {
+        return RepresentationETags.of(achievementETag(id, version), webRequest);
+    }
+
+    // Tag queries walk the tag index in id order, so they cannot be sorted otherwise
+    private static void requireIdSortForTags(Set<String> tags, String sort) {
+        if (tags != null && !tags.isEmpty() && sort != null && !"id".equals(sort)) {
+            throw new InvalidPageRequestException(
+                    "Achievements filtered by tags are sorted by id, cannot sort by '"
+                            + sort
+                            + "'");
+        }
+    }
+
+    private static Long versionFromETag(Long id, String eTag) {
+        if (eTag == null) {
+            return null;
+        }
+        // A tag of any representation names the same version
+        eTag = RepresentationETags.baseTag(eTag);
+        String prefix = "\"" + id + "-";
+        if (!eTag.startsWith(prefix) || !eTag.endsWith("\"") || eTag.length() <= prefix.length()) {
+            throw new VersionConflictException("If-Match does not match achievement " + id);
+        }
+        try {
+            return Long.valueOf(eTag.substring(prefix.length(), eTag.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new VersionConflictException("If-Match does not match achievement " + id);
+        }
+    }
 }
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.api.controller;
+
+import com.example.achievement_tracker.api.dto.ImportResultDTO;
+import com.example.achievement_tracker.service.AchievementImportService;
+import com.example.achievement_tracker.service.imports.ImportFormat;
+import java.io.IOException;
+import java.io.InputStream;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/achievements/import")
+public class AchievementImportController {
+
+    private final AchievementImportService achievementImportService;
+
+    public AchievementImportController(AchievementImportService achievementImportService) {
+        this.achievementImportService = achievementImportService;
+    }
+
+    // The raw request body is parsed while it is uploaded, the format follows the Content-Type
+    @PostMapping(consumes = {"application/json", "application/x-ndjson"})
+    public ResponseEntity<ImportResultDTO> importJson(InputStream body) throws IOException {
+        return respond(achievementImportService.importAchievements(ImportFormat.JSON, body));
+    }
+
+    @PostMapping(consumes = "text/csv")
+    public ResponseEntity<ImportResultDTO> importCsv(InputStream body) throws IOException {
+        return respond(achievementImportService.importAchievements(ImportFormat.CSV, body));
+    }
+
+    private static ResponseEntity<ImportResultDTO> respond(ImportResultDTO result) {
+        return ResponseEntity.status(
+                        result.rejected() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS)
+                .body(result);
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.api.controller;
+
+import com.example.achievement_tracker.api.dto.AchievementSearchResultDTO;
+import com.example.achievement_tracker.service.AchievementSearchService;
+import jakarta.validation.constraints.NotBlank;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/achievements/search")
+public class AchievementSearchController {
+
+    private final AchievementSearchService achievementSearchService;
+
+    public AchievementSearchController(AchievementSearchService achievementSearchService) {
+        this.achievementSearchService = achievementSearchService;
+    }
+
+    @GetMapping
+    public ResponseEntity<AchievementSearchResultDTO> search(
+            @RequestParam @NotBlank String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(achievementSearchService.search(q, page, size));
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.api.controller;
+
+import com.example.achievement_tracker.api.dto.HistogramBucketDTO;
+import com.example.achievement_tracker.api.dto.RollupBucketDTO;
+import com.example.achievement_tracker.api.dto.StatusCountDTO;
+import com.example.achievement_tracker.api.dto.TagCountDTO;
+import com.example.achievement_tracker.persistence.model.RollupGranularity;
+import com.example.achievement_tracker.service.AchievementStatsService;
+import com.example.achievement_tracker.service.analytics.StatsFilter;
+import com.example.achievement_tracker.service.feed.AchievementChangeFeed;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import java.time.LocalDate;
+import java.util.List;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/achievements/stats")
+public class AchievementStatsController {
+
+    private final AchievementStatsService achievementStatsService;
+    private final AchievementChangeFeed achievementChangeFeed;
+
+    public AchievementStatsController(
+            AchievementStatsService achievementStatsService,
+            AchievementChangeFeed achievementChangeFeed) {
+        this.achievementStatsService = achievementStatsService;
+        this.achievementChangeFeed = achievementChangeFeed;
+    }
+
+    // Every endpoint takes the optional filters startedFrom, startedTo (ISO dates) and tag
+    @GetMapping("/status")
+    public ResponseEntity<List<StatusCountDTO>> getStatusCounts(StatsFilter filter) {
+        return AchievementChangeFeedController.withSequence(
+                achievementChangeFeed.read(() -> achievementStatsService.getStatusCounts(filter)));
+    }
+
+    @GetMapping("/tags")
+    public ResponseEntity<List<TagCountDTO>> getTopTags(
+            StatsFilter filter, @RequestParam(defaultValue = "50") @Min(1) @Max(500) int limit) {
+        return AchievementChangeFeedController.withSequence(
+                achievementChangeFeed.read(
+                        () -> achievementStatsService.getTopTags(filter, limit)));
+    }
+
+    @GetMapping("/time-to-completion")
+    public ResponseEntity<List<HistogramBucketDTO>> getTimeToCompletionHistogram(
+            StatsFilter filter,
+            @RequestParam(defaultValue = "7") @Min(1) @Max(3650) int bucketWidth) {
+        return AchievementChangeFeedController.withSequence(
+                achievementChangeFeed.read(
+                        () ->
+                                achievementStatsService.getTimeToCompletionHistogram(
+                                        filter, bucketWidth)));
+    }
+
+    /**
+     * Achievements started and completed per calendar period (DAY, WEEK or MONTH) from the period
+     * containing {@code from} to the one containing {@code to}, optionally restricted to a status
+     * and a tag. Without dates, the last twelve periods up to today.
+     */
+    @GetMapping("/rollup")
+    public ResponseEntity<List<RollupBucketDTO>> getRollup(
+            @RequestParam(defaultValue = "MONTH") RollupGranularity granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+                    LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+                    LocalDate to,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String tag) {
+        return ResponseEntity.ok(
+                achievementStatsService.getRollup(granularity, from, to, status, tag));
+    }
+}
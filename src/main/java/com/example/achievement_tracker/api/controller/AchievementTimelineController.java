@@ -0,0 +1,58 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.api.controller;
+
+import com.example.achievement_tracker.api.dto.TimelineDTO;
+import com.example.achievement_tracker.service.AchievementTimelineService;
+import com.example.achievement_tracker.service.feed.AchievementChangeFeed;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import java.time.LocalDate;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/achievements/timeline")
+public class AchievementTimelineController {
+
+    private final AchievementTimelineService achievementTimelineService;
+    private final AchievementChangeFeed achievementChangeFeed;
+
+    public AchievementTimelineController(
+            AchievementTimelineService achievementTimelineService,
+            AchievementChangeFeed achievementChangeFeed) {
+        this.achievementTimelineService = achievementTimelineService;
+        this.achievementChangeFeed = achievementChangeFeed;
+    }
+
+    // Achievements overlapping [from, to] (ISO dates), bucketed when more than maxItems match
+    @GetMapping
+    public ResponseEntity<TimelineDTO> getTimeline(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+                    LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+                    LocalDate to,
+            @RequestParam(defaultValue = "500") @Min(1) @Max(5000) int maxItems,
+            @RequestParam(defaultValue = "100") @Min(1) @Max(1000) int buckets) {
+        return AchievementChangeFeedController.withSequence(
+                achievementChangeFeed.read(
+                        () -> achievementTimelineService.getTimeline(from, to, maxItems, buckets)));
+    }
+}
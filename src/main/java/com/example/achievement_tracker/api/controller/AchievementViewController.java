@@ -17,26 +17,51 @@ package com.example.achievement_tracker.api.controller;
 
 import com.example.achievement_tracker.api.dto.AchievementDTO;
 import com.example.achievement_tracker.service.AchievementService;
-import java.util.List;
+import com.example.achievement_tracker.service.feed.AchievementChangeFeed;
+import com.example.achievement_tracker.service.feed.Sequenced;
+import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 
 @Controller
 @RequestMapping("/achievements")
 public class AchievementViewController {
 
     private final AchievementService achievementService;
+    private final AchievementChangeFeed achievementChangeFeed;
 
-    public AchievementViewController(AchievementService achievementService) {
+    public AchievementViewController(
+            AchievementService achievementService, AchievementChangeFeed achievementChangeFeed) {
         this.achievementService = achievementService;
+        this.achievementChangeFeed = achievementChangeFeed;
     }
 
     @GetMapping
-    public String showAchievements(Model model) {
-        List<AchievementDTO> achievements = achievementService.getAllAchievements();
-        model.addAttribute("achievements", achievements.isEmpty() ? List.of() : achievements);
+    public String showAchievements(
+            @RequestParam(required = false) String status,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(defaultValue = "asc") String dir,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer size,
+            Model model) {
+        // The page's change feed replays the changes after the ones the page shows
+        Sequenced<Page<AchievementDTO>> sequencedPage =
+                achievementChangeFeed.read(
+                        () ->
+                                achievementService.getAchievementViewPage(
+                                        status, sort, dir, page, size));
+        Page<AchievementDTO> achievementPage = sequencedPage.value();
+        model.addAttribute("achievements", achievementPage.getContent());
+        model.addAttribute("page", achievementPage);
+        // Echo the request so sort links and the pager keep the other parameters
+        model.addAttribute("status", status == null ? "" : status);
+        model.addAttribute("sort", sort);
+        model.addAttribute("dir", dir);
+        model.addAttribute("size", achievementPage.getSize());
+        model.addAttribute("changeSequence", sequencedPage.sequence());
         return "achievements";
     }
 }
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.api.controller;
+
+import com.example.achievement_tracker.api.dto.AchievementDTO;
+import com.example.achievement_tracker.api.dto.AchievementPageDTO;
+import com.example.achievement_tracker.service.ReactiveAchievementService;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Read-only v2 of the achievements API. Handlers return as soon as the query has been started, and
+ * the response is completed asynchronously once the reactive driver has delivered the rows, so no
+ * request thread waits on the database.
+ */
+@RestController
+@RequestMapping("/api/v2/achievements")
+public class ReactiveAchievementController {
+
+    private final ReactiveAchievementService reactiveAchievementService;
+
+    public ReactiveAchievementController(ReactiveAchievementService reactiveAchievementService) {
+        this.reactiveAchievementService = reactiveAchievementService;
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<AchievementDTO>> getAchievementById(@PathVariable Long id) {
+        return reactiveAchievementService
+                .getAchievementById(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.noContent().build());
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<AchievementPageDTO>> getAchievementPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return reactiveAchievementService
+                .getAchievementPage(cursor, limit)
+                .map(
+                        page ->
+                                page.items().isEmpty()
+                                        ? ResponseEntity.noContent().build()
+                                        : ResponseEntity.ok(page));
+    }
+
+    // Every achievement as a server-sent event or NDJSON line, read as fast as the client accepts
+    @GetMapping(
+            value = "/stream",
+            produces = {MediaType.TEXT_EVENT_STREAM_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<AchievementDTO> streamAchievements() {
+        return reactiveAchievementService.streamAchievements();
+    }
+}
@@ -0,0 +1,27 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.api.dto;
+
+import lombok.Builder;
+
+/**
+ * Committed change of an achievement, as published on the change feed. {@code before} is null for
+ * creations and {@code after} for deletions. Updates of the title or description only carry a
+ * partial {@code after} and no {@code before}.
+ */
+@Builder
+public record AchievementChangeDTO(
+        long sequence, String type, Long id, AchievementDTO before, AchievementDTO after) {}
@@ -30,4 +30,5 @@ public record AchievementDTO(
         LocalDate dateStarted,
         LocalDate dateCompleted,
         Set<String> tags,
-        @NotBlank String status) {}
+        @NotBlank String status,
+        Long version) {}
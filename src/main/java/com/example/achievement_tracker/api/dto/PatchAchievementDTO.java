@@ -0,0 +1,37 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.api.dto;
+
+import com.example.achievement_tracker.persistence.model.StatusEnum;
+import com.example.achievement_tracker.validation.ValueOfEnum;
+import jakarta.validation.constraints.Size;
+import java.time.LocalDate;
+import java.util.Set;
+import lombok.Builder;
+
+// Null fields are left unchanged; version is the one the client read, unless sent as If-Match
+@Builder
+public record PatchAchievementDTO(
+        @Size(min = 1, max = 50) String title,
+        String description,
+        LocalDate dateStarted,
+        LocalDate dateCompleted,
+        Set<String> tags,
+        @ValueOfEnum(
+                        enumClass = StatusEnum.class,
+                        message = "Must be any of TODO, IN_PROGRESS, or COMPLETED")
+                String status,
+        Long version) {}
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.api.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+import lombok.Builder;
+
+/**
+ * The achievements overlapping the window {@code [from, to]}. When there are few enough they are
+ * listed as items packed onto {@code lanes} rows, otherwise only their counts per bucket are sent.
+ * Exactly one of items and buckets is non-empty unless the window is empty.
+ */
+@Builder
+public record TimelineDTO(
+        LocalDate from,
+        LocalDate to,
+        int total,
+        int lanes,
+        List<TimelineItemDTO> items,
+        List<TimelineBucketDTO> buckets) {}
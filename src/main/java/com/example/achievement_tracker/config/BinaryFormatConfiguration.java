@@ -0,0 +1,81 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.config;
+
+import com.example.achievement_tracker.api.binary.BinaryFormatModule;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import java.util.List;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Serves and accepts CBOR ({@code application/cbor}) and Smile ({@code
+ * application/x-jackson-smile}) besides JSON, for machine clients that ask for them in Accept or
+ * Content-Type. Smile refers back to property names and tags already written, which suits lists of
+ * achievements best.
+ *
+ * <p>The binary converters take the place of Spring's defaults, behind the JSON one, so requests
+ * accepting any type still get JSON.
+ */
+@Configuration(proxyBeanMethods = false)
+public class BinaryFormatConfiguration implements WebMvcConfigurer {
+    private final Jackson2ObjectMapperBuilder objectMapperBuilder;
+
+    public BinaryFormatConfiguration(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        this.objectMapperBuilder = objectMapperBuilder;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.removeIf(
+                converter ->
+                        converter instanceof MappingJackson2CborHttpMessageConverter
+                                || converter instanceof MappingJackson2SmileHttpMessageConverter);
+        SmileFactory smileFactory =
+                SmileFactory.builder()
+                        .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                        .build();
+        int position = jsonConverterPosition(converters) + 1;
+        converters.add(
+                position, new MappingJackson2SmileHttpMessageConverter(mapper(smileFactory)));
+        converters.add(
+                position, new MappingJackson2CborHttpMessageConverter(mapper(new CBORFactory())));
+    }
+
+    // Same modules and settings as the JSON mapper, with the compact encodings on top
+    private ObjectMapper mapper(JsonFactory factory) {
+        ObjectMapper mapper = objectMapperBuilder.factory(factory).build();
+        return mapper.registerModule(new BinaryFormatModule());
+    }
+
+    private static int jsonConverterPosition(List<HttpMessageConverter<?>> converters) {
+        for (int i = 0; i < converters.size(); i++) {
+            if (converters.get(i) instanceof MappingJackson2HttpMessageConverter) {
+                return i;
+            }
+        }
+        return converters.size() - 1;
+    }
+}
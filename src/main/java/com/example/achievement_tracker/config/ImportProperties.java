@@ -0,0 +1,28 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+// Records per transaction of POST /api/v1/achievements/import, rejects listed in its response, and
+// the longest CSV field and record, in characters, read before the record is rejected
+@ConfigurationProperties(prefix = "achievements.import")
+public record ImportProperties(
+        @DefaultValue("1000") int chunkSize,
+        @DefaultValue("1000") int maxRejects,
+        @DefaultValue("65536") int maxFieldLength,
+        @DefaultValue("262144") int maxRecordLength) {}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.config;
+
+import com.example.achievement_tracker.exception.InvalidPageRequestException;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+// Page size limits applied to the paginated listing endpoints and the achievements view
+@ConfigurationProperties(prefix = "achievements.pagination")
+public record PaginationProperties(
+        @DefaultValue("50") int defaultLimit, @DefaultValue("200") int maxLimit) {
+
+    // The requested page size, the default when none was requested, capped at the maximum
+    public int pageSize(Integer limit) {
+        if (limit == null) {
+            return defaultLimit;
+        }
+        if (limit < 1) {
+            throw new InvalidPageRequestException("Page limit must be at least 1");
+        }
+        return Math.min(limit, maxLimit);
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.config;
+
+import com.example.achievement_tracker.persistence.reactive.ReactiveDatabase;
+import io.r2dbc.h2.H2ConnectionConfiguration;
+import io.r2dbc.h2.H2ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Connects the reactive read API to the same database as JPA, deriving the R2DBC connection from
+ * {@code spring.datasource.*}. An in-memory H2 database is shared with JDBC because the H2 driver
+ * runs embedded in the same JVM.
+ */
+@Configuration(proxyBeanMethods = false)
+public class ReactiveDatabaseConfiguration {
+    private static final String JDBC_PREFIX = "jdbc:";
+    private static final String H2_PREFIX = "jdbc:h2:";
+
+    @Bean
+    ReactiveDatabase reactiveDatabase(
+            DataSourceProperties dataSourceProperties, ReactiveDatabaseProperties properties) {
+        return new ReactiveDatabase(
+                connectionFactory(dataSourceProperties), properties.maxPoolSize());
+    }
+
+    private static ConnectionFactory connectionFactory(DataSourceProperties dataSource) {
+        String url = dataSource.determineUrl();
+        String username = dataSource.determineUsername();
+        String password = dataSource.determinePassword();
+        if (url.startsWith(H2_PREFIX)) {
+            H2ConnectionConfiguration.Builder h2 =
+                    H2ConnectionConfiguration.builder().url(url.substring(H2_PREFIX.length()));
+            if (username != null) {
+                h2.username(username);
+            }
+            if (password != null) {
+                h2.password(password);
+            }
+            return new H2ConnectionFactory(h2.build());
+        }
+        // jdbc:postgresql://host/db becomes r2dbc:postgresql://host/db
+        ConnectionFactoryOptions.Builder options =
+                ConnectionFactoryOptions.parse("r2dbc:" + url.substring(JDBC_PREFIX.length()))
+                        .mutate();
+        if (username != null) {
+            options.option(ConnectionFactoryOptions.USER, username);
+        }
+        if (password != null) {
+            options.option(ConnectionFactoryOptions.PASSWORD, password);
+        }
+        return ConnectionFactories.get(options.build());
+    }
+}
@@ -0,0 +1,26 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+// Page size limits of GET /api/v1/achievements/search; maxWindow bounds page * size + size
+@ConfigurationProperties(prefix = "achievements.search")
+public record SearchProperties(
+        @DefaultValue("20") int defaultSize,
+        @DefaultValue("100") int maxSize,
+        @DefaultValue("10000") int maxWindow) {}
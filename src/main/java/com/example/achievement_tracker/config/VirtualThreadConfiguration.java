@@ -0,0 +1,53 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.config;
+
+import com.example.achievement_tracker.persistence.datasource.ConnectionLimitingDataSource;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Opt-in execution mode, enabled by the {@code virtual-threads} profile. Spring Boot then serves
+ * requests, and runs the transactional service calls they make, on virtual threads. This
+ * configuration puts a semaphore in front of the connection pool, so that thousands of concurrent
+ * requests wait for a connection by parking.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfiguration {
+
+    @Bean
+    static BeanPostProcessor connectionLimitingDataSourcePostProcessor(
+            ObjectProvider<DataSourceConcurrencyProperties> properties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource)
+                        || bean instanceof ConnectionLimitingDataSource) {
+                    return bean;
+                }
+                DataSourceConcurrencyProperties limits = properties.getObject();
+                return new ConnectionLimitingDataSource(
+                        dataSource, limits.maxConcurrentConnections(), limits.acquireTimeout());
+            }
+        };
+    }
+}
@@ -15,18 +15,52 @@
  */
 package com.example.achievement_tracker.exception.global;
 
+import com.example.achievement_tracker.exception.InvalidPageRequestException;
 import com.example.achievement_tracker.exception.RecordDoesNotExistException;
+import com.example.achievement_tracker.exception.VersionConflictException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
 @ControllerAdvice
 public class GlobalExceptionHandler {
+    static final String EXCEPTIONS_METRIC = "achievements.exceptions";
+
+    private final MeterRegistry meterRegistry;
+
+    public GlobalExceptionHandler(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
 
     @ExceptionHandler(RecordDoesNotExistException.class)
     public ResponseEntity<Void> handleRecordDoesNotExistException(
             RecordDoesNotExistException exception) {
+        count(exception);
         // Returning 204 No Content to indicate that the resource does not exist
         return ResponseEntity.noContent().build();
     }
+
+    @ExceptionHandler(InvalidPageRequestException.class)
+    public ResponseEntity<String> handleInvalidPageRequestException(
+            InvalidPageRequestException exception) {
+        count(exception);
+        // Returning 400 Bad Request for malformed cursors, limits or sort keys
+        return ResponseEntity.badRequest().body(exception.getMessage());
+    }
+
+    @ExceptionHandler(VersionConflictException.class)
+    public ResponseEntity<String> handleVersionConflictException(
+            VersionConflictException exception) {
+        count(exception);
+        // Returning 412 Precondition Failed when a compare-and-set update lost the race
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(exception.getMessage());
+    }
+
+    private void count(Exception exception) {
+        meterRegistry
+                .counter(EXCEPTIONS_METRIC, "exception", exception.getClass().getSimpleName())
+                .increment();
+    }
 }
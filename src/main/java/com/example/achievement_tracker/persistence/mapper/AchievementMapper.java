@@ -19,6 +19,7 @@ import com.example.achievement_tracker.api.dto.AchievementDTO;
 import com.example.achievement_tracker.api.dto.CreateAchievementDTO;
 import com.example.achievement_tracker.api.dto.UpdateAchievementDTO;
 import com.example.achievement_tracker.persistence.model.Achievement;
+import org.mapstruct.InjectionStrategy;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
@@ -26,15 +27,22 @@ import org.mapstruct.NullValuePropertyMappingStrategy;
 
 @Mapper(
         componentModel = "spring",
+        uses = TagDictionary.class,
+        injectionStrategy = InjectionStrategy.CONSTRUCTOR,
         nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
 public interface AchievementMapper {
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "tagIds", source = "tags")
     Achievement toEntity(CreateAchievementDTO createAchievementDTO);
 
+    @Mapping(target = "tags", source = "tagIds")
     AchievementDTO toDTO(Achievement achievement);
 
     // Auto-generate logic to update an entity using a DTO
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "tagIds", source = "tags")
     void updateEntityFromDTO(
             UpdateAchievementDTO updateAchievementDTO, @MappingTarget Achievement entity);
 }
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.persistence.mapper;
+
+import com.example.achievement_tracker.persistence.model.Tag;
+import com.example.achievement_tracker.persistence.repository.TagRepository;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Translates between tag names and the ids achievements store, in both directions, from a cache of
+ * the {@code tags} table. Every name handed out is the same instance, so the tags of the
+ * achievements read by a request share their strings instead of allocating new ones.
+ *
+ * <p>The whole table is loaded once the application is ready, so the first pages read after a
+ * restart do not look their tags up row by row. Ids missing from the cache are read on first use.
+ * Names missing from the table are inserted in the caller's transaction, on the connection it
+ * already holds, and their ids are only cached once it commits, so an id is never cached for a row
+ * that a rollback could take away again. Until then the transaction translates them from a map of
+ * its own. Without a transaction the names are inserted in one that commits before the ids are
+ * cached.
+ */
+@Slf4j
+@Component
+public class TagDictionary {
+    private final Map<String, Integer> idsByName = new ConcurrentHashMap<>();
+    private final Map<Integer, String> namesById = new ConcurrentHashMap<>();
+    private final TagRepository tagRepository;
+    private final TransactionTemplate registration;
+
+    public TagDictionary(
+            TagRepository tagRepository, PlatformTransactionManager transactionManager) {
+        this.tagRepository = tagRepository;
+        this.registration = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        tagRepository.findAll().forEach(this::cache);
+        log.info("Tag dictionary loaded with {} tags", namesById.size());
+    }
+
+    // Names of the given tag ids, null when the achievement carries no tag collection
+    public Set<String> namesOf(Set<Integer> ids) {
+        if (ids == null) {
+            return null;
+        }
+        Pending pending = currentPending();
+        List<Integer> missing = new ArrayList<>();
+        for (Integer id : ids) {
+            if (!namesById.containsKey(id) && (pending == null || !pending.hasId(id))) {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            tagRepository.findAllById(missing).forEach(this::cache);
+        }
+        Set<String> names = new HashSet<>(ids.size() * 2);
+        for (Integer id : ids) {
+            String name = namesById.get(id);
+            if (name == null && pending != null) {
+                name = pending.namesById.get(id);
+            }
+            if (name == null) {
+                throw new IllegalStateException("Tag " + id + " is not in the dictionary");
+            }
+            names.add(name);
+        }
+        return names;
+    }
+
+    // Ids of the given tag names, registering the names seen for the first time
+    public Set<Integer> idsOf(Set<String> names) {
+        if (names == null) {
+            return null;
+        }
+        Pending pending = currentPending();
+        List<String> missing = new ArrayList<>();
+        for (String name : names) {
+            if (!idsByName.containsKey(name) && (pending == null || !pending.hasName(name))) {
+                missing.add(name);
+            }
+        }
+        if (!missing.isEmpty()) {
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                pending = pending == null ? bindPending() : pending;
+                insertAndRead(missing).forEach(pending::add);
+            } else {
+                register(missing);
+            }
+        }
+        Set<Integer> ids = new HashSet<>(names.size() * 2);
+        for (String name : names) {
+            Integer id = idsByName.get(name);
+            ids.add(id != null ? id : pending.idsByName.get(name));
+        }
+        return ids;
+    }
+
+    private Pending currentPending() {
+        return (Pending) TransactionSynchronizationManager.getResource(this);
+    }
+
+    // Tags the current transaction inserted, cached for everyone once it commits
+    private Pending bindPending() {
+        Pending pending = new Pending();
+        TransactionSynchronizationManager.bindResource(this, pending);
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        pending.tags.forEach(TagDictionary.this::cache);
+                    }
+
+                    @Override
+                    public void afterCompletion(int status) {
+                        TransactionSynchronizationManager.unbindResource(TagDictionary.this);
+                    }
+                });
+        return pending;
+    }
+
+    private void register(List<String> names) {
+        List<Tag> tags;
+        try {
+            tags = registration.execute(status -> insertAndRead(names));
+        } catch (DataIntegrityViolationException e) {
+            // Another transaction inserted one of the names first, the second attempt reads it
+            tags = registration.execute(status -> insertAndRead(names));
+        }
+        tags.forEach(this::cache);
+    }
+
+    private List<Tag> insertAndRead(List<String> names) {
+        tagRepository.insertMissing(names);
+        return tagRepository.findByNameIn(names);
+    }
+
+    // Package-private so a warm dictionary can be set up without a database
+    void cache(Tag tag) {
+        namesById.putIfAbsent(tag.getId(), tag.getName());
+        idsByName.putIfAbsent(tag.getName(), tag.getId());
+    }
+
+    private static final class Pending {
+        private final List<Tag> tags = new ArrayList<>();
+        private final Map<String, Integer> idsByName = new HashMap<>();
+        private final Map<Integer, String> namesById = new HashMap<>();
+
+        boolean hasName(String name) {
+            return idsByName.containsKey(name);
+        }
+
+        boolean hasId(Integer id) {
+            return namesById.containsKey(id);
+        }
+
+        void add(Tag tag) {
+            tags.add(tag);
+            idsByName.put(tag.getName(), tag.getId());
+            namesById.put(tag.getId(), tag.getName());
+        }
+    }
+}
@@ -15,6 +15,7 @@
  */
 package com.example.achievement_tracker.persistence.model;
 
+import jakarta.persistence.CollectionTable;
 import jakarta.persistence.Column;
 import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
@@ -23,7 +24,11 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotEmpty;
 import java.time.LocalDate;
 import java.util.HashSet;
@@ -33,18 +38,30 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.NonNull;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.validator.constraints.Length;
 
 @Entity
 @Data
-@Table(name = "achievements")
+@Table(
+        name = "achievements",
+        indexes = {
+            @Index(name = "idx_achievements_date_started_id", columnList = "date_started, id"),
+            @Index(name = "idx_achievements_status", columnList = "status")
+        })
 @Builder
 @NoArgsConstructor(force = true) // required by lombok to add force = true
 @AllArgsConstructor
 public class Achievement {
     // required field
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    // Pooled optimizer: one sequence call reserves allocationSize ids for batched inserts.
+    // allocationSize must match the increment of the existing achievements_seq sequence.
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "achievements_seq")
+    @SequenceGenerator(
+            name = "achievements_seq",
+            sequenceName = "achievements_seq",
+            allocationSize = 50)
     @Column(nullable = false, updatable = false)
     private Long id;
 
@@ -58,10 +75,24 @@ public class Achievement {
 
     @Column @Builder.Default private LocalDate dateCompleted = LocalDate.now();
 
-    @Column @ElementCollection @Builder.Default private Set<String> tags = new HashSet<>();
+    // Ids of the tags dictionary, the mapper translates them to and from the tag names
+    @ElementCollection
+    @CollectionTable(
+            name = "achievement_tag_ids",
+            joinColumns = @JoinColumn(name = "achievement_id"),
+            indexes = @Index(name = "idx_achievement_tag_ids_tag_id", columnList = "tag_id"))
+    @Column(name = "tag_id")
+    @Builder.Default
+    private Set<Integer> tagIds = new HashSet<>();
 
     // required field
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     @NonNull private StatusEnum status;
+
+    // Incremented by Hibernate on every update; the default covers rows created before the column
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
 }
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.persistence.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Number of achievements started or completed per calendar period, status and tag. Like the
+ * statistics, the rows are adjusted by the transactions that write achievements, so a trend over
+ * any range reads one row per period, status and series instead of the matching achievements.
+ */
+@Entity
+@Data
+@Table(
+        name = "achievement_rollups",
+        indexes =
+                @Index(
+                        name = "idx_achievement_rollups_period",
+                        columnList = "granularity, tag, period_start"))
+@NoArgsConstructor
+@AllArgsConstructor
+public class AchievementRollup {
+    @EmbeddedId private AchievementRollupKey key;
+
+    @Column(name = "achievement_count", nullable = false)
+    private long count;
+}
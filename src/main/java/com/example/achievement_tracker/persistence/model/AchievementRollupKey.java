@@ -0,0 +1,77 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.persistence.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Comparator;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AchievementRollupKey implements Comparable<AchievementRollupKey>, Serializable {
+    // Tag of the rollups that count every achievement, whatever its tags
+    public static final String ALL_TAGS = "";
+
+    private static final Comparator<AchievementRollupKey> ORDER =
+            Comparator.comparing(AchievementRollupKey::getSeries)
+                    .thenComparing(AchievementRollupKey::getGranularity)
+                    .thenComparing(AchievementRollupKey::getTag)
+                    .thenComparing(AchievementRollupKey::getPeriodStart)
+                    .thenComparing(AchievementRollupKey::getStatus);
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, updatable = false)
+    private RollupSeries series;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, updatable = false)
+    private RollupGranularity granularity;
+
+    @Column(nullable = false, updatable = false)
+    private String tag;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDate periodStart;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, updatable = false)
+    private StatusEnum status;
+
+    // Key of the period of the given granularity that contains the date
+    public static AchievementRollupKey of(
+            RollupSeries series,
+            RollupGranularity granularity,
+            String tag,
+            LocalDate date,
+            StatusEnum status) {
+        return new AchievementRollupKey(
+                series, granularity, tag, granularity.periodStart(date), status);
+    }
+
+    @Override
+    public int compareTo(AchievementRollupKey other) {
+        return ORDER.compare(this, other);
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.persistence.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Number of achievements per status, tag and days to completion. The rows are adjusted by the
+ * transactions that write achievements, so the dashboard reads them instead of aggregating the
+ * achievements table.
+ */
+@Entity
+@Data
+@Table(
+        name = "achievement_statistics",
+        indexes =
+                @Index(
+                        name = "idx_achievement_statistics_count",
+                        columnList = "dimension, achievement_count"))
+@NoArgsConstructor
+@AllArgsConstructor
+public class AchievementStatistic {
+    @EmbeddedId private AchievementStatisticKey key;
+
+    @Column(name = "achievement_count", nullable = false)
+    private long count;
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.persistence.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import java.io.Serializable;
+import java.util.Comparator;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AchievementStatisticKey implements Comparable<AchievementStatisticKey>, Serializable {
+    private static final Comparator<AchievementStatisticKey> ORDER =
+            Comparator.comparing(AchievementStatisticKey::getDimension)
+                    .thenComparing(AchievementStatisticKey::getBucket);
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, updatable = false)
+    private StatisticDimension dimension;
+
+    @Column(nullable = false, updatable = false)
+    private String bucket;
+
+    public static AchievementStatisticKey status(String status) {
+        return new AchievementStatisticKey(StatisticDimension.STATUS, status);
+    }
+
+    public static AchievementStatisticKey tag(String tag) {
+        return new AchievementStatisticKey(StatisticDimension.TAG, tag);
+    }
+
+    public static AchievementStatisticKey daysToCompletion(long days) {
+        return new AchievementStatisticKey(
+                StatisticDimension.DAYS_TO_COMPLETION, Long.toString(days));
+    }
+
+    @Override
+    public int compareTo(AchievementStatisticKey other) {
+        return ORDER.compare(this, other);
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.persistence.reactive;
+
+import com.example.achievement_tracker.api.dto.AchievementDTO;
+import io.r2dbc.spi.Readable;
+import java.time.LocalDate;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking reads of the {@code achievements}, {@code achievement_tag_ids} and {@code tags}
+ * tables written by JPA. Each query joins the tags and returns one row per tag, ordered by
+ * achievement id. Consecutive rows of an achievement are folded into a single {@link
+ * AchievementDTO} while they stream in.
+ */
+@Repository
+public class ReactiveAchievementRepository {
+    private static final String SELECT =
+            "select a.id, a.title, a.description, a.date_started, a.date_completed, a.status,"
+                    + " a.version, t.name as tag from %s a"
+                    + " left join achievement_tag_ids i on i.achievement_id = a.id"
+                    + " left join tags t on t.id = i.tag_id";
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveAchievementRepository(ReactiveDatabase reactiveDatabase) {
+        this.databaseClient = reactiveDatabase.client();
+    }
+
+    public Mono<AchievementDTO> findById(long id) {
+        return achievements(
+                        databaseClient
+                                .sql(SELECT.formatted("achievements") + " where a.id = :id")
+                                .bind("id", id))
+                .next();
+    }
+
+    // Keyset page ordered by id, the limit applies to achievements rather than joined rows
+    public Flux<AchievementDTO> findPage(Long afterId, int limit) {
+        String page =
+                afterId == null
+                        ? "(select * from achievements order by id limit :limit)"
+                        : "(select * from achievements where id > :afterId order by id"
+                                + " limit :limit)";
+        DatabaseClient.GenericExecuteSpec spec =
+                databaseClient.sql(SELECT.formatted(page) + " order by a.id").bind("limit", limit);
+        return achievements(afterId == null ? spec : spec.bind("afterId", afterId));
+    }
+
+    // Every achievement in id order, read as fast as the subscriber requests them
+    public Flux<AchievementDTO> streamAll() {
+        return achievements(
+                databaseClient.sql(SELECT.formatted("achievements") + " order by a.id"));
+    }
+
+    private static Flux<AchievementDTO> achievements(DatabaseClient.GenericExecuteSpec spec) {
+        return spec.map(ReactiveAchievementRepository::toRow)
+                .all()
+                .bufferUntilChanged(AchievementRow::id)
+                .map(ReactiveAchievementRepository::toDTO);
+    }
+
+    private static AchievementRow toRow(Readable row) {
+        return new AchievementRow(
+                row.get("id", Long.class),
+                row.get("title", String.class),
+                row.get("description", String.class),
+                row.get("date_started", LocalDate.class),
+                row.get("date_completed", LocalDate.class),
+                row.get("status", String.class),
+                row.get("version", Long.class),
+                row.get("tag", String.class));
+    }
+
+    private static AchievementDTO toDTO(List<AchievementRow> rows) {
+        AchievementRow first = rows.get(0);
+        Set<String> tags = new LinkedHashSet<>();
+        for (AchievementRow row : rows) {
+            if (row.tag() != null) {
+                tags.add(row.tag());
+            }
+        }
+        return AchievementDTO.builder()
+                .id(first.id())
+                .title(first.title())
+                .description(first.description())
+                .dateStarted(first.dateStarted())
+                .dateCompleted(first.dateCompleted())
+                .tags(tags)
+                .status(first.status())
+                .version(first.version())
+                .build();
+    }
+
+    // One joined row: an achievement with one of its tags, or with none
+    private record AchievementRow(
+            Long id,
+            String title,
+            String description,
+            LocalDate dateStarted,
+            LocalDate dateCompleted,
+            String status,
+            Long version,
+            String tag) {}
+}
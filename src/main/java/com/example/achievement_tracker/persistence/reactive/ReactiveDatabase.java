@@ -0,0 +1,52 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.persistence.reactive;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+/**
+ * Pooled reactive connections and the client that queries through them.
+ *
+ * <p>The pool is deliberately not exposed as a {@link ConnectionFactory} bean. Spring Boot backs
+ * off from the JDBC DataSource behind JPA as soon as it finds one.
+ */
+public class ReactiveDatabase implements DisposableBean {
+    private final ConnectionPool connectionPool;
+    private final DatabaseClient databaseClient;
+
+    public ReactiveDatabase(ConnectionFactory connectionFactory, int maxPoolSize) {
+        this.connectionPool =
+                new ConnectionPool(
+                        ConnectionPoolConfiguration.builder(connectionFactory)
+                                .initialSize(Math.min(2, maxPoolSize))
+                                .maxSize(maxPoolSize)
+                                .build());
+        this.databaseClient = DatabaseClient.create(connectionPool);
+    }
+
+    public DatabaseClient client() {
+        return databaseClient;
+    }
+
+    @Override
+    public void destroy() {
+        connectionPool.dispose();
+    }
+}
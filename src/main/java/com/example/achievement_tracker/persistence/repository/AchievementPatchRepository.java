@@ -0,0 +1,46 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.persistence.repository;
+
+import com.example.achievement_tracker.persistence.projection.AchievementStateView;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+// Bulk statements for partial updates, they bypass the persistence context
+public interface AchievementPatchRepository {
+
+    /**
+     * Sets the given attributes and increments the version in one UPDATE, provided the row is still
+     * at the expected version.
+     *
+     * @param values new values keyed by entity attribute name
+     * @return 1 if the row was updated, 0 if it does not exist or its version has moved on
+     */
+    int updateColumns(Long id, long expectedVersion, Map<String, Object> values);
+
+    /**
+     * Same UPDATE as {@link #updateColumns}, which also returns the columns and tag ids the row
+     * held before it, so the caller learns them without reading the row first.
+     *
+     * @return the previous state, empty if the row does not exist or its version has moved on
+     */
+    Optional<AchievementStateView> updateColumnsReturningPrevious(
+            Long id, long expectedVersion, Map<String, Object> values);
+
+    // Replaces the rows of achievement_tag_ids belonging to the achievement
+    void replaceTags(Long id, Set<Integer> tagIds);
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.persistence.repository;
+
+import com.example.achievement_tracker.persistence.model.Achievement;
+import com.example.achievement_tracker.persistence.model.StatusEnum;
+import com.example.achievement_tracker.persistence.projection.AchievementStateView;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Root;
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import org.hibernate.Session;
+
+public class AchievementPatchRepositoryImpl implements AchievementPatchRepository {
+    // H2 reads the overwritten row from the OLD TABLE of the UPDATE
+    private static final String H2_PATCH =
+            "select o.title, o.description, o.date_started, o.date_completed, o.status, (select"
+                    + " array_agg(t.tag_id) from achievement_tag_ids t where t.achievement_id ="
+                    + " o.id) from old table (update achievements set %s, version = version + 1"
+                    + " where id = ? and version = ?) o";
+    // RETURNING only sees the new row on PostgreSQL, the self-join keeps the old one. It cannot be
+    // stale: a row changed since the statement started fails the version check when rechecked.
+    private static final String POSTGRES_PATCH =
+            "update achievements a set %s, version = a.version + 1 from achievements o where o.id"
+                    + " = a.id and a.id = ? and a.version = ? returning o.title, o.description,"
+                    + " o.date_started, o.date_completed, o.status, (select array_agg(t.tag_id)"
+                    + " from achievement_tag_ids t where t.achievement_id = o.id)";
+    private static final Map<String, String> COLUMNS =
+            Map.of(
+                    "title", "title",
+                    "description", "description",
+                    "dateStarted", "date_started",
+                    "dateCompleted", "date_completed",
+                    "status", "status");
+
+    @PersistenceContext private EntityManager entityManager;
+
+    @Override
+    public int updateColumns(Long id, long expectedVersion, Map<String, Object> values) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Achievement> update =
+                criteriaBuilder.createCriteriaUpdate(Achievement.class);
+        Root<Achievement> achievement = update.from(Achievement.class);
+        values.forEach(update::set);
+        update.set(
+                achievement.<Long>get("version"),
+                criteriaBuilder.sum(achievement.<Long>get("version"), 1L));
+        update.where(
+                criteriaBuilder.equal(achievement.get("id"), id),
+                criteriaBuilder.equal(achievement.get("version"), expectedVersion));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    @Override
+    public Optional<AchievementStateView> updateColumnsReturningPrevious(
+            Long id, long expectedVersion, Map<String, Object> values) {
+        List<String> assignments = new ArrayList<>();
+        values.keySet().forEach(attribute -> assignments.add(COLUMNS.get(attribute) + " = ?"));
+        return entityManager
+                .unwrap(Session.class)
+                .doReturningWork(
+                        connection -> {
+                            String sql =
+                                    UpsertSql.isPostgreSql(connection) ? POSTGRES_PATCH : H2_PATCH;
+                            try (PreparedStatement update =
+                                    connection.prepareStatement(
+                                            sql.formatted(String.join(", ", assignments)))) {
+                                int position = 1;
+                                for (Object value : values.values()) {
+                                    update.setObject(
+                                            position++,
+                                            value instanceof Enum<?> constant
+                                                    ? constant.name()
+                                                    : value);
+                                }
+                                update.setLong(position++, id);
+                                update.setLong(position, expectedVersion);
+                                try (ResultSet previous = update.executeQuery()) {
+                                    return previous.next()
+                                            ? Optional.of(state(previous))
+                                            : Optional.empty();
+                                }
+                            }
+                        });
+    }
+
+    private static AchievementStateView state(ResultSet row) throws SQLException {
+        Set<Integer> tagIds = new HashSet<>();
+        Array tags = row.getArray(6);
+        if (tags != null) {
+            for (Object tagId : (Object[]) tags.getArray()) {
+                tagIds.add(((Number) tagId).intValue());
+            }
+        }
+        return new AchievementStateView(
+                row.getString(1),
+                row.getString(2),
+                row.getObject(3, LocalDate.class),
+                row.getObject(4, LocalDate.class),
+                StatusEnum.valueOf(row.getString(5)),
+                tagIds);
+    }
+
+    @Override
+    public void replaceTags(Long id, Set<Integer> tagIds) {
+        entityManager
+                .createNativeQuery("delete from achievement_tag_ids where achievement_id = ?1")
+                .setParameter(1, id)
+                .executeUpdate();
+        if (tagIds.isEmpty()) {
+            return;
+        }
+        // One multi-row insert instead of a statement per tag
+        String rows = String.join(", ", Collections.nCopies(tagIds.size(), "(?, ?)"));
+        Query insert =
+                entityManager.createNativeQuery(
+                        "insert into achievement_tag_ids (achievement_id, tag_id) values " + rows);
+        int position = 1;
+        for (Integer tagId : tagIds) {
+            insert.setParameter(position++, id);
+            insert.setParameter(position++, tagId);
+        }
+        insert.executeUpdate();
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.persistence.repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.springframework.data.domain.Limit;
+
+/**
+ * Reads of a chosen subset of the scalar columns, for clients that ask for some fields only. Each
+ * row is keyed by entity attribute name and always holds the id. The keyset pages follow the same
+ * orderings as the entity queries of {@link AchievementRepository}.
+ */
+public interface AchievementProjectionRepository {
+
+    Optional<Map<String, Object>> findColumnsById(Long id, Collection<String> attributes);
+
+    // Rows of the given ids in id order
+    List<Map<String, Object>> findColumnsByIdIn(
+            Collection<Long> ids, Collection<String> attributes);
+
+    // Ordered on (id), afterId is null for the first page
+    List<Map<String, Object>> findColumnsPageOrderById(
+            Collection<String> attributes, Long afterId, Limit limit);
+
+    // Ordered on (dateStarted, id) with rows without a start date first, afterId is null for the
+    // first page
+    List<Map<String, Object>> findColumnsPageOrderByDateStarted(
+            Collection<String> attributes, Long afterId, LocalDate afterDateStarted, Limit limit);
+}
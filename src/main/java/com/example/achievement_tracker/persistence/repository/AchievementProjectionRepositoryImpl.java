@@ -0,0 +1,138 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.persistence.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TupleElement;
+import jakarta.persistence.TypedQuery;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.springframework.data.domain.Limit;
+
+public class AchievementProjectionRepositoryImpl implements AchievementProjectionRepository {
+    // The select list is assembled from these names only, never from request input
+    private static final Set<String> SCALAR_ATTRIBUTES =
+            Set.of(
+                    "id",
+                    "title",
+                    "description",
+                    "dateStarted",
+                    "dateCompleted",
+                    "status",
+                    "version");
+    private static final String ORDER_BY_ID = " order by a.id asc";
+    private static final String ORDER_BY_DATE_STARTED =
+            " order by a.dateStarted asc nulls first, a.id asc";
+
+    @PersistenceContext private EntityManager entityManager;
+
+    @Override
+    public Optional<Map<String, Object>> findColumnsById(Long id, Collection<String> attributes) {
+        return query(attributes, " where a.id = :id")
+                .setParameter("id", id)
+                .getResultStream()
+                .findFirst()
+                .map(AchievementProjectionRepositoryImpl::toRow);
+    }
+
+    @Override
+    public List<Map<String, Object>> findColumnsByIdIn(
+            Collection<Long> ids, Collection<String> attributes) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return rows(
+                query(attributes, " where a.id in :ids" + ORDER_BY_ID).setParameter("ids", ids));
+    }
+
+    @Override
+    public List<Map<String, Object>> findColumnsPageOrderById(
+            Collection<String> attributes, Long afterId, Limit limit) {
+        if (afterId == null) {
+            return rows(query(attributes, ORDER_BY_ID), limit);
+        }
+        return rows(
+                query(attributes, " where a.id > :id" + ORDER_BY_ID).setParameter("id", afterId),
+                limit);
+    }
+
+    @Override
+    public List<Map<String, Object>> findColumnsPageOrderByDateStarted(
+            Collection<String> attributes, Long afterId, LocalDate afterDateStarted, Limit limit) {
+        if (afterId == null) {
+            return rows(query(attributes, ORDER_BY_DATE_STARTED), limit);
+        }
+        if (afterDateStarted == null) {
+            return rows(
+                    query(
+                                    attributes,
+                                    " where (a.dateStarted is null and a.id > :id)"
+                                            + " or a.dateStarted is not null"
+                                            + ORDER_BY_DATE_STARTED)
+                            .setParameter("id", afterId),
+                    limit);
+        }
+        return rows(
+                query(
+                                attributes,
+                                " where a.dateStarted > :dateStarted"
+                                        + " or (a.dateStarted = :dateStarted and a.id > :id)"
+                                        + ORDER_BY_DATE_STARTED)
+                        .setParameter("dateStarted", afterDateStarted)
+                        .setParameter("id", afterId),
+                limit);
+    }
+
+    private TypedQuery<Tuple> query(Collection<String> attributes, String clauses) {
+        for (String attribute : attributes) {
+            if (!SCALAR_ATTRIBUTES.contains(attribute)) {
+                throw new IllegalArgumentException("Not a scalar attribute: " + attribute);
+            }
+        }
+        String select =
+                attributes.stream()
+                        .filter(attribute -> !attribute.equals("id"))
+                        .map(attribute -> ", a." + attribute + " as " + attribute)
+                        .collect(Collectors.joining("", "select a.id as id", ""));
+        return entityManager.createQuery(select + " from Achievement a" + clauses, Tuple.class);
+    }
+
+    private static List<Map<String, Object>> rows(TypedQuery<Tuple> query, Limit limit) {
+        return rows(query.setMaxResults(limit.max()));
+    }
+
+    private static List<Map<String, Object>> rows(TypedQuery<Tuple> query) {
+        return query.getResultList().stream()
+                .map(AchievementProjectionRepositoryImpl::toRow)
+                .collect(Collectors.toList());
+    }
+
+    private static Map<String, Object> toRow(Tuple tuple) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (TupleElement<?> element : tuple.getElements()) {
+            row.put(element.getAlias(), tuple.get(element));
+        }
+        return row;
+    }
+}
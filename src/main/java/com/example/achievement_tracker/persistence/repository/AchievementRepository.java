@@ -17,13 +17,169 @@ package com.example.achievement_tracker.persistence.repository;
 
 import com.example.achievement_tracker.persistence.model.Achievement;
 import com.example.achievement_tracker.persistence.model.StatusEnum;
+import com.example.achievement_tracker.persistence.projection.AchievementColumnView;
+import com.example.achievement_tracker.persistence.projection.AchievementTagIdView;
+import com.example.achievement_tracker.persistence.projection.AchievementTagView;
+import com.example.achievement_tracker.persistence.projection.AchievementTextView;
+import com.example.achievement_tracker.persistence.projection.AchievementTimelineView;
+import com.example.achievement_tracker.persistence.projection.DayCountView;
+import com.example.achievement_tracker.persistence.projection.DayTagCountView;
+import com.example.achievement_tracker.persistence.projection.DurationCountView;
+import com.example.achievement_tracker.persistence.projection.StatusCountView;
+import com.example.achievement_tracker.persistence.projection.TagCountView;
+import jakarta.persistence.QueryHint;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+public interface AchievementRepository
+        extends JpaRepository<Achievement, Long>,
+                AchievementPatchRepository,
+                AchievementProjectionRepository {
+    // Single-row and unpaged reads join the tags in the same statement
+    @Override
+    @EntityGraph(attributePaths = "tagIds")
+    Optional<Achievement> findById(Long id);
+
+    @Override
+    @EntityGraph(attributePaths = "tagIds")
+    List<Achievement> findAll();
 
-public interface AchievementRepository extends JpaRepository<Achievement, Long> {
     // Custom query to find achievements by title
+    @EntityGraph(attributePaths = "tagIds")
     Optional<Achievement> findByTitle(String title);
 
-    // Custom query to find achievements by status
-    Optional<Achievement> findByStatus(StatusEnum status);
+    // Lets conditional requests be answered without loading the achievement
+    @Query("select a.version from Achievement a where a.id = :id")
+    Optional<Long> findVersionById(Long id);
+
+    // One page of the achievements with the given status
+    Page<Achievement> findByStatus(StatusEnum status, Pageable pageable);
+
+    // Titles among the given ones that are already taken
+    @Query("select a.title from Achievement a where a.title in :titles")
+    List<String> findExistingTitles(Collection<String> titles);
+
+    // Keyset pagination ordered on (id). A fetch join would make Hibernate paginate in memory,
+    // so the tags of a page are loaded by the batch fetch configured in application.properties
+    List<Achievement> findAllByOrderByIdAsc(Limit limit);
+
+    List<Achievement> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    // Keyset pagination ordered on (dateStarted, id), rows without a start date come first
+    @Query("select a from Achievement a order by a.dateStarted asc nulls first, a.id asc")
+    List<Achievement> findFirstPageOrderByDateStarted(Limit limit);
+
+    @Query(
+            "select a from Achievement a where (a.dateStarted is null and a.id > :id)"
+                    + " or a.dateStarted is not null"
+                    + " order by a.dateStarted asc nulls first, a.id asc")
+    List<Achievement> findPageAfterNullDateStarted(Long id, Limit limit);
+
+    @Query(
+            "select a from Achievement a where a.dateStarted > :dateStarted"
+                    + " or (a.dateStarted = :dateStarted and a.id > :id)"
+                    + " order by a.dateStarted asc, a.id asc")
+    List<Achievement> findPageAfterDateStarted(LocalDate dateStarted, Long id, Limit limit);
+
+    // Every achievement in id order for exports, read through a cursor into a read-only session
+    // that neither caches nor dirty-checks them. Must be consumed inside a transaction
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("select a from Achievement a order by a.id")
+    Stream<Achievement> streamAllByOrderByIdAsc();
+
+    // Every (achievement id, tag) pair, used to build the in-memory tag index
+    @Query(
+            "select a.id as id, t.name as tag from Achievement a join a.tagIds i"
+                    + " join Tag t on t.id = i")
+    Stream<AchievementTagView> streamAchievementTags();
+
+    // Tag ids of the given achievements, read from the join table alone
+    @Query("select a.id as id, i as tagId from Achievement a join a.tagIds i where a.id in :ids")
+    List<AchievementTagIdView> findTagIdsByIdIn(Collection<Long> ids);
+
+    // Status and dates of every achievement, used to build the in-memory analytics columns
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(
+            "select a.id as id, a.status as status, a.dateStarted as dateStarted,"
+                    + " a.dateCompleted as dateCompleted from Achievement a")
+    Stream<AchievementColumnView> streamAchievementColumns();
+
+    // Every started achievement, used to build the in-memory timeline
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(
+            "select a.id as id, a.title as title, a.status as status,"
+                    + " a.dateStarted as dateStarted, a.dateCompleted as dateCompleted"
+                    + " from Achievement a where a.dateStarted is not null")
+    Stream<AchievementTimelineView> streamAchievementTimeline();
+
+    @Query(
+            "select a.id as id, a.title as title, a.status as status,"
+                    + " a.dateStarted as dateStarted, a.dateCompleted as dateCompleted"
+                    + " from Achievement a where a.id = :id")
+    Optional<AchievementTimelineView> findTimelineById(Long id);
+
+    // Title and description of every achievement, used to build the full-text index
+    @Query("select a.id as id, a.title as title, a.description as description from Achievement a")
+    Stream<AchievementTextView> streamAchievementTexts();
+
+    @Query(
+            "select a.id as id, a.title as title, a.description as description from Achievement a"
+                    + " where a.id = :id")
+    Optional<AchievementTextView> findTextById(Long id);
+
+    // Dashboard aggregations computed by the database
+    @Query("select a.status as status, count(a) as count from Achievement a group by a.status")
+    List<StatusCountView> countByStatus();
+
+    @Query(
+            "select t.name as tag, count(a) as count from Achievement a join a.tagIds i"
+                    + " join Tag t on t.id = i group by t.name order by count(a) desc, t.name asc")
+    List<TagCountView> countByTag(Limit limit);
+
+    @Query(
+            "select ((a.dateCompleted - a.dateStarted) by day) as days, count(a) as count"
+                    + " from Achievement a"
+                    + " where a.dateStarted is not null and a.dateCompleted >= a.dateStarted"
+                    + " group by ((a.dateCompleted - a.dateStarted) by day)")
+    List<DurationCountView> countByDaysToCompletion();
+
+    // Day-level counts the rollups are rebuilt from
+    @Query(
+            "select a.dateStarted as day, a.status as status, count(a) as count from Achievement a"
+                    + " where a.dateStarted is not null group by a.dateStarted, a.status")
+    List<DayCountView> countByDateStarted();
+
+    @Query(
+            "select a.dateStarted as day, a.status as status, t.name as tag, count(a) as count"
+                    + " from Achievement a join a.tagIds i join Tag t on t.id = i"
+                    + " where a.dateStarted is not null group by a.dateStarted, a.status, t.name")
+    List<DayTagCountView> countByDateStartedAndTag();
+
+    @Query(
+            "select a.dateCompleted as day, a.status as status, count(a) as count"
+                    + " from Achievement a where a.dateCompleted is not null"
+                    + " group by a.dateCompleted, a.status")
+    List<DayCountView> countByDateCompleted();
+
+    @Query(
+            "select a.dateCompleted as day, a.status as status, t.name as tag, count(a) as count"
+                    + " from Achievement a join a.tagIds i join Tag t on t.id = i"
+                    + " where a.dateCompleted is not null"
+                    + " group by a.dateCompleted, a.status, t.name")
+    List<DayTagCountView> countByDateCompletedAndTag();
 }
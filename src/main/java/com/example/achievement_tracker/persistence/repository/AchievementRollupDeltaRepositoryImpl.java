@@ -0,0 +1,74 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.persistence.repository;
+
+import com.example.achievement_tracker.persistence.model.AchievementRollupKey;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.sql.Date;
+import java.util.Map;
+import java.util.TreeMap;
+import org.hibernate.Session;
+
+public class AchievementRollupDeltaRepositoryImpl implements AchievementRollupDeltaRepository {
+    // Same upsert as the statistics, keyed on the five rollup columns
+    private static final String MERGE_DELTA =
+            "merge into achievement_rollups r using (values (cast(? as varchar(255)),"
+                    + " cast(? as varchar(255)), cast(? as varchar(255)), cast(? as date),"
+                    + " cast(? as varchar(255)), cast(? as bigint))) as d (series, granularity,"
+                    + " tag, period_start, status, delta) on r.series = d.series and"
+                    + " r.granularity = d.granularity and r.tag = d.tag and r.period_start ="
+                    + " d.period_start and r.status = d.status when matched then update set"
+                    + " achievement_count = r.achievement_count + d.delta when not matched then"
+                    + " insert (series, granularity, tag, period_start, status,"
+                    + " achievement_count) values (d.series, d.granularity, d.tag, d.period_start,"
+                    + " d.status, d.delta)";
+    private static final String INSERT_DELTA =
+            "insert into achievement_rollups (series, granularity, tag, period_start, status,"
+                    + " achievement_count) values (?, ?, ?, ?, ?, ?) on conflict (series,"
+                    + " granularity, tag, period_start, status) do update set achievement_count ="
+                    + " achievement_rollups.achievement_count + excluded.achievement_count";
+
+    @PersistenceContext private EntityManager entityManager;
+
+    @Override
+    public void applyDeltas(Map<AchievementRollupKey, Long> deltas) {
+        // Rows are locked in key order, as for the statistics
+        Map<AchievementRollupKey, Long> sorted = new TreeMap<>(deltas);
+        sorted.values().removeIf(delta -> delta == 0);
+        if (sorted.isEmpty()) {
+            return;
+        }
+        entityManager
+                .unwrap(Session.class)
+                .doWork(
+                        connection ->
+                                UpsertSql.execute(
+                                        connection,
+                                        MERGE_DELTA,
+                                        INSERT_DELTA,
+                                        sorted.entrySet(),
+                                        (merge, entry) -> {
+                                            AchievementRollupKey key = entry.getKey();
+                                            merge.setString(1, key.getSeries().name());
+                                            merge.setString(2, key.getGranularity().name());
+                                            merge.setString(3, key.getTag());
+                                            merge.setDate(4, Date.valueOf(key.getPeriodStart()));
+                                            merge.setString(5, key.getStatus().name());
+                                            merge.setLong(6, entry.getValue());
+                                        }));
+    }
+}
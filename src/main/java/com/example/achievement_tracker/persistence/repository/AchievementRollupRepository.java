@@ -0,0 +1,56 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.persistence.repository;
+
+import com.example.achievement_tracker.persistence.model.AchievementRollup;
+import com.example.achievement_tracker.persistence.model.AchievementRollupKey;
+import com.example.achievement_tracker.persistence.model.RollupGranularity;
+import com.example.achievement_tracker.persistence.model.StatusEnum;
+import com.example.achievement_tracker.persistence.projection.RollupCountView;
+import java.time.LocalDate;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+public interface AchievementRollupRepository
+        extends JpaRepository<AchievementRollup, AchievementRollupKey>,
+                AchievementRollupDeltaRepository {
+
+    /**
+     * Counts per series and period of the periods starting within {@code [from, to]}, over the
+     * achievements with the tag (or {@link AchievementRollupKey#ALL_TAGS}) and the status (or any
+     * status when null). Empty periods are left out.
+     */
+    @Query(
+            "select r.key.series as series, r.key.periodStart as periodStart,"
+                    + " sum(r.count) as count from AchievementRollup r"
+                    + " where r.key.granularity = :granularity and r.key.tag = :tag"
+                    + " and r.key.periodStart between :from and :to"
+                    + " and (:status is null or r.key.status = :status)"
+                    + " group by r.key.series, r.key.periodStart"
+                    + " having sum(r.count) > 0")
+    List<RollupCountView> sumByPeriod(
+            RollupGranularity granularity,
+            String tag,
+            LocalDate from,
+            LocalDate to,
+            StatusEnum status);
+
+    @Modifying
+    @Query("delete from AchievementRollup r where r.count = 0")
+    int deleteEmpty();
+}
@@ -0,0 +1,29 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.persistence.repository;
+
+import com.example.achievement_tracker.persistence.model.AchievementStatisticKey;
+import java.util.Map;
+
+// Bulk statements adjusting the statistics, they bypass the persistence context
+public interface AchievementStatisticDeltaRepository {
+
+    /**
+     * Adds each delta to the count of its statistic, creating the statistics that do not exist yet.
+     * The whole map is sent as one JDBC batch.
+     */
+    void applyDeltas(Map<AchievementStatisticKey, Long> deltas);
+}
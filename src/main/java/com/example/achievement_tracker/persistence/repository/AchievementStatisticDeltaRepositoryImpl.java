@@ -0,0 +1,66 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.persistence.repository;
+
+import com.example.achievement_tracker.persistence.model.AchievementStatisticKey;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.Map;
+import java.util.TreeMap;
+import org.hibernate.Session;
+
+public class AchievementStatisticDeltaRepositoryImpl
+        implements AchievementStatisticDeltaRepository {
+    // Adds the delta to the row, creating it when missing, see UpsertSql
+    private static final String MERGE_DELTA =
+            "merge into achievement_statistics s using (values (cast(? as varchar(255)),"
+                    + " cast(? as varchar(255)), cast(? as bigint))) as d (dimension, bucket,"
+                    + " delta) on s.dimension = d.dimension and s.bucket = d.bucket when matched"
+                    + " then update set achievement_count = s.achievement_count + d.delta when not"
+                    + " matched then insert (dimension, bucket, achievement_count) values"
+                    + " (d.dimension, d.bucket, d.delta)";
+    private static final String INSERT_DELTA =
+            "insert into achievement_statistics (dimension, bucket, achievement_count) values"
+                    + " (?, ?, ?) on conflict (dimension, bucket) do update set achievement_count"
+                    + " = achievement_statistics.achievement_count + excluded.achievement_count";
+
+    @PersistenceContext private EntityManager entityManager;
+
+    @Override
+    public void applyDeltas(Map<AchievementStatisticKey, Long> deltas) {
+        // Concurrent transactions lock the rows in key order, so they cannot deadlock each other
+        Map<AchievementStatisticKey, Long> sorted = new TreeMap<>(deltas);
+        sorted.values().removeIf(delta -> delta == 0);
+        if (sorted.isEmpty()) {
+            return;
+        }
+        entityManager
+                .unwrap(Session.class)
+                .doWork(
+                        connection ->
+                                UpsertSql.execute(
+                                        connection,
+                                        MERGE_DELTA,
+                                        INSERT_DELTA,
+                                        sorted.entrySet(),
+                                        (merge, entry) -> {
+                                            merge.setString(
+                                                    1, entry.getKey().getDimension().name());
+                                            merge.setString(2, entry.getKey().getBucket());
+                                            merge.setLong(3, entry.getValue());
+                                        }));
+    }
+}
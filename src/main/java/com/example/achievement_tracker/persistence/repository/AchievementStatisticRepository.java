@@ -0,0 +1,46 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.persistence.repository;
+
+import com.example.achievement_tracker.persistence.model.AchievementStatistic;
+import com.example.achievement_tracker.persistence.model.AchievementStatisticKey;
+import com.example.achievement_tracker.persistence.model.StatisticDimension;
+import java.util.List;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+public interface AchievementStatisticRepository
+        extends JpaRepository<AchievementStatistic, AchievementStatisticKey>,
+                AchievementStatisticDeltaRepository {
+
+    // Statistics that count at least one achievement, those at zero wait for the reconciliation
+    @Query(
+            "select s from AchievementStatistic s"
+                    + " where s.key.dimension = :dimension and s.count > 0")
+    List<AchievementStatistic> findByDimension(StatisticDimension dimension);
+
+    @Query(
+            "select s from AchievementStatistic s"
+                    + " where s.key.dimension = :dimension and s.count > 0"
+                    + " order by s.count desc, s.key.bucket asc")
+    List<AchievementStatistic> findTopByDimension(StatisticDimension dimension, Limit limit);
+
+    @Modifying
+    @Query("delete from AchievementStatistic s where s.count = 0")
+    int deleteEmpty();
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.persistence.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.List;
+import org.hibernate.Session;
+
+public class TableChangeCounterInsertRepositoryImpl implements TableChangeCounterInsertRepository {
+    private static final String MERGE_COUNTER =
+            "merge into table_change_counters c using (values (cast(? as varchar(255)))) as n"
+                    + " (table_name) on c.table_name = n.table_name when not matched then insert"
+                    + " (table_name, change_count) values (n.table_name, 0)";
+    private static final String INSERT_COUNTER =
+            "insert into table_change_counters (table_name, change_count) values (?, 0)"
+                    + " on conflict (table_name) do nothing";
+
+    @PersistenceContext private EntityManager entityManager;
+
+    @Override
+    public void insertMissing(String tableName) {
+        entityManager
+                .unwrap(Session.class)
+                .doWork(
+                        connection ->
+                                UpsertSql.execute(
+                                        connection,
+                                        MERGE_COUNTER,
+                                        INSERT_COUNTER,
+                                        List.of(tableName),
+                                        (insert, name) -> insert.setString(1, name)));
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.persistence.repository;
+
+import com.example.achievement_tracker.persistence.model.TableChangeCounter;
+import jakarta.persistence.LockModeType;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface TableChangeCounterRepository
+        extends JpaRepository<TableChangeCounter, String>, TableChangeCounterInsertRepository {
+
+    // Returns the number of updated rows, 0 when the table has no counter yet
+    @Modifying
+    @Transactional
+    @Query(
+            "update TableChangeCounter c set c.changeCount = c.changeCount + :changes"
+                    + " where c.tableName = :tableName")
+    int increment(String tableName, long changes);
+
+    @Query("select c.changeCount from TableChangeCounter c where c.tableName = :tableName")
+    Optional<Long> findChangeCount(String tableName);
+
+    // Holds the row lock until the surrounding transaction ends
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from TableChangeCounter c where c.tableName = :tableName")
+    Optional<TableChangeCounter> lockByTableName(String tableName);
+
+    // Holds a shared row lock until the surrounding transaction ends, writers wait for it
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("select c from TableChangeCounter c where c.tableName = :tableName")
+    Optional<TableChangeCounter> shareByTableName(String tableName);
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.persistence.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.Collection;
+import java.util.TreeSet;
+import org.hibernate.Session;
+
+public class TagInsertRepositoryImpl implements TagInsertRepository {
+    // Concurrent registrations of a name leave a single row behind
+    private static final String MERGE_TAG =
+            "merge into tags t using (values (cast(? as varchar(255)))) as n (name)"
+                    + " on t.name = n.name when not matched then insert (name) values (n.name)";
+    private static final String INSERT_TAG =
+            "insert into tags (name) values (?) on conflict (name) do nothing";
+
+    @PersistenceContext private EntityManager entityManager;
+
+    @Override
+    public void insertMissing(Collection<String> names) {
+        if (names.isEmpty()) {
+            return;
+        }
+        // Concurrent transactions insert the names in the same order, so they cannot deadlock
+        Collection<String> sorted = new TreeSet<>(names);
+        entityManager
+                .unwrap(Session.class)
+                .doWork(
+                        connection ->
+                                UpsertSql.execute(
+                                        connection,
+                                        MERGE_TAG,
+                                        INSERT_TAG,
+                                        sorted,
+                                        (merge, name) -> merge.setString(1, name)));
+    }
+}
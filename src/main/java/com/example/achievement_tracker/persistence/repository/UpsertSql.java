@@ -0,0 +1,96 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.persistence.repository;
+
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Picks the upsert statement the connected database understands. The standard SQL {@code MERGE}
+ * with a {@code VALUES} source needs PostgreSQL 15 or later, so PostgreSQL gets the equivalent
+ * {@code INSERT ... ON CONFLICT}, which every supported version has, and H2 keeps the {@code
+ * MERGE}.
+ *
+ * <p>H2 checks a {@code MERGE} against committed rows only. A row that a concurrent transaction
+ * inserts first makes the statement wait for that transaction, then fail with a unique violation.
+ * Only the failed rows of the batch are rolled back, so {@link #execute} runs them once more, and
+ * they then match the committed row. {@code ON CONFLICT} already waits and matches on PostgreSQL.
+ */
+final class UpsertSql {
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    private UpsertSql() {}
+
+    static String choose(Connection connection, String merge, String insertOnConflict)
+            throws SQLException {
+        return isPostgreSql(connection) ? insertOnConflict : merge;
+    }
+
+    static boolean isPostgreSql(Connection connection) throws SQLException {
+        return "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+    }
+
+    // Runs the upsert chosen for the connection as one batch with a parameter row per item
+    static <T> void execute(
+            Connection connection,
+            String merge,
+            String insertOnConflict,
+            Collection<T> items,
+            Binder<T> binder)
+            throws SQLException {
+        List<T> pending = new ArrayList<>(items);
+        try (PreparedStatement statement =
+                connection.prepareStatement(choose(connection, merge, insertOnConflict))) {
+            for (int attempt = 1; ; attempt++) {
+                for (T item : pending) {
+                    binder.bind(statement, item);
+                    statement.addBatch();
+                }
+                try {
+                    statement.executeBatch();
+                    return;
+                } catch (BatchUpdateException e) {
+                    if (attempt > 1 || !UNIQUE_VIOLATION.equals(e.getSQLState())) {
+                        throw e;
+                    }
+                    pending = failed(pending, e.getUpdateCounts());
+                }
+            }
+        }
+    }
+
+    // Drivers that stop at the first failure only report the counts of the rows before it
+    private static <T> List<T> failed(List<T> items, int[] updateCounts) {
+        List<T> failed = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            if (i >= updateCounts.length || updateCounts[i] == Statement.EXECUTE_FAILED) {
+                failed.add(items.get(i));
+            }
+        }
+        return failed;
+    }
+
+    @FunctionalInterface
+    interface Binder<T> {
+        void bind(PreparedStatement statement, T item) throws SQLException;
+    }
+}
@@ -16,20 +16,57 @@
 package com.example.achievement_tracker.service;
 
 import com.example.achievement_tracker.api.dto.AchievementDTO;
+import com.example.achievement_tracker.api.dto.AchievementPageDTO;
+import com.example.achievement_tracker.api.dto.BatchCreateResultDTO;
 import com.example.achievement_tracker.api.dto.CreateAchievementDTO;
+import com.example.achievement_tracker.api.dto.PatchAchievementDTO;
+import com.example.achievement_tracker.api.dto.SparseAchievementPageDTO;
 import com.example.achievement_tracker.api.dto.UpdateAchievementDTO;
+import com.example.achievement_tracker.service.export.ExportFormat;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import org.springframework.data.domain.Page;
 
 public interface AchievementService {
     AchievementDTO createAchievement(CreateAchievementDTO createAchievementDTO);
 
+    BatchCreateResultDTO createAchievements(List<CreateAchievementDTO> createAchievementDTOs);
+
     Optional<AchievementDTO> getAchievementById(Long id);
 
+    Optional<Long> getAchievementVersion(Long id);
+
+    long getAchievementsChangeCount();
+
     List<AchievementDTO> getAllAchievements();
 
+    void exportAchievements(ExportFormat format, OutputStream outputStream) throws IOException;
+
+    AchievementPageDTO getAchievementPage(String cursor, Integer limit, String sort);
+
+    AchievementPageDTO getAchievementPageByTags(
+            Set<String> tags, String match, String cursor, Integer limit);
+
+    // Sparse variants reading only the comma-separated AchievementDTO properties in `fields`
+    Optional<Map<String, Object>> getAchievementFieldsById(Long id, String fields);
+
+    SparseAchievementPageDTO getSparseAchievementPage(
+            String fields, String cursor, Integer limit, String sort);
+
+    SparseAchievementPageDTO getSparseAchievementPageByTags(
+            String fields, Set<String> tags, String match, String cursor, Integer limit);
+
+    Page<AchievementDTO> getAchievementViewPage(
+            String status, String sort, String dir, int page, Integer size);
+
     Optional<AchievementDTO> updateAchievement(UpdateAchievementDTO updateAchievementDTO);
 
+    long patchAchievement(Long id, PatchAchievementDTO patchAchievementDTO, long expectedVersion);
+
     void deleteAchievement(Long id);
 
     Optional<AchievementDTO> getAchievementByTitle(String title);
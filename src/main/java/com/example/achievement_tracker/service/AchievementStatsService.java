@@ -0,0 +1,36 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.service;
+
+import com.example.achievement_tracker.api.dto.HistogramBucketDTO;
+import com.example.achievement_tracker.api.dto.RollupBucketDTO;
+import com.example.achievement_tracker.api.dto.StatusCountDTO;
+import com.example.achievement_tracker.api.dto.TagCountDTO;
+import com.example.achievement_tracker.persistence.model.RollupGranularity;
+import com.example.achievement_tracker.service.analytics.StatsFilter;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface AchievementStatsService {
+    List<StatusCountDTO> getStatusCounts(StatsFilter filter);
+
+    List<TagCountDTO> getTopTags(StatsFilter filter, int limit);
+
+    List<HistogramBucketDTO> getTimeToCompletionHistogram(StatsFilter filter, int bucketWidthDays);
+
+    List<RollupBucketDTO> getRollup(
+            RollupGranularity granularity, LocalDate from, LocalDate to, String status, String tag);
+}
@@ -0,0 +1,24 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.service;
+
+import com.example.achievement_tracker.api.dto.TimelineDTO;
+import java.time.LocalDate;
+
+public interface AchievementTimelineService {
+    // A missing bound defaults to the edge of the whole timeline
+    TimelineDTO getTimeline(LocalDate from, LocalDate to, int maxItems, int bucketCount);
+}
@@ -0,0 +1,329 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.service.analytics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Row-aligned primitive columns of the achievements: the status ordinal as a byte, the dates as
+ * epoch days and the tags as codes into a dictionary. The tag codes of all rows are stored back to
+ * back, each row pointing at its slice. Deleted rows and replaced tag slices stay behind as garbage
+ * until the data is compacted.
+ *
+ * <p>Not thread-safe, {@link AchievementColumns} guards it with a read-write lock.
+ */
+final class AchievementColumnData {
+    static final int NO_DATE = Integer.MIN_VALUE;
+    static final int ANY_TAG = -1;
+    private static final byte DELETED = -1;
+    private static final int MIN_CAPACITY = 1024;
+    static final int DENSE_BUCKETS = 4096;
+
+    private int rows;
+    private int deletedRows;
+    private long[] ids;
+    private byte[] statuses;
+    private int[] datesStarted;
+    private int[] datesCompleted;
+    private int[] tagStarts;
+    private int[] tagCounts;
+    private int[] tagCodes;
+    private int tagCodesUsed;
+    private int deadTagCodes;
+    private final LongIntHashMap rowById;
+    private final Map<String, Integer> codeByTag;
+    private final List<String> tagByCode;
+
+    AchievementColumnData(int capacity) {
+        this(capacity, new HashMap<>(), new ArrayList<>());
+    }
+
+    private AchievementColumnData(
+            int capacity, Map<String, Integer> codeByTag, List<String> tagByCode) {
+        int size = Math.max(capacity, MIN_CAPACITY);
+        ids = new long[size];
+        statuses = new byte[size];
+        datesStarted = new int[size];
+        datesCompleted = new int[size];
+        tagStarts = new int[size];
+        tagCounts = new int[size];
+        tagCodes = new int[size];
+        rowById = new LongIntHashMap(size);
+        this.codeByTag = codeByTag;
+        this.tagByCode = tagByCode;
+    }
+
+    // Rows in use, deleted ones included
+    int rows() {
+        return rows;
+    }
+
+    int liveRows() {
+        return rows - deletedRows;
+    }
+
+    int dictionarySize() {
+        return tagByCode.size();
+    }
+
+    String tag(int code) {
+        return tagByCode.get(code);
+    }
+
+    // Code of a known tag, or -1
+    int tagCode(String tag) {
+        return codeByTag.getOrDefault(tag, -1);
+    }
+
+    int row(long id) {
+        return rowById.get(id);
+    }
+
+    int encode(String tag) {
+        Integer code = codeByTag.get(tag);
+        if (code == null) {
+            code = tagByCode.size();
+            codeByTag.put(tag, code);
+            tagByCode.add(tag);
+        }
+        return code;
+    }
+
+    /** Inserts or overwrites the row of an achievement. */
+    void put(long id, byte status, int dateStarted, int dateCompleted, Collection<String> tags) {
+        int row = rowById.get(id);
+        if (row == LongIntHashMap.MISSING) {
+            row = appendRow(id, status, dateStarted, dateCompleted);
+        } else {
+            statuses[row] = status;
+            datesStarted[row] = dateStarted;
+            datesCompleted[row] = dateCompleted;
+        }
+        int count = tags == null ? 0 : tags.size();
+        // A slice that fits is reused, otherwise the new codes are appended
+        if (count > tagCounts[row]) {
+            deadTagCodes += tagCounts[row];
+            ensureTagCapacity(tagCodesUsed + count);
+            tagStarts[row] = tagCodesUsed;
+            tagCodesUsed += count;
+        } else {
+            deadTagCodes += tagCounts[row] - count;
+        }
+        tagCounts[row] = count;
+        int position = tagStarts[row];
+        if (tags != null) {
+            for (String tag : tags) {
+                tagCodes[position++] = encode(tag);
+            }
+        }
+    }
+
+    /** Appends an achievement without tags and returns its row. */
+    int appendRow(long id, byte status, int dateStarted, int dateCompleted) {
+        if (rows == ids.length) {
+            growRows(rows * 2);
+        }
+        int row = rows++;
+        ids[row] = id;
+        statuses[row] = status;
+        datesStarted[row] = dateStarted;
+        datesCompleted[row] = dateCompleted;
+        tagStarts[row] = tagCodesUsed;
+        tagCounts[row] = 0;
+        rowById.put(id, row);
+        return row;
+    }
+
+    /**
+     * Replaces the tags of every row with the given (row, code) pairs, laid out with a counting
+     * sort. Used once after the rows of a rebuild have been appended.
+     */
+    void setTags(int[] pairRows, int[] pairCodes, int pairs) {
+        Arrays.fill(tagCounts, 0, rows, 0);
+        for (int i = 0; i < pairs; i++) {
+            tagCounts[pairRows[i]]++;
+        }
+        tagCodes = new int[Math.max(pairs, MIN_CAPACITY)];
+        int start = 0;
+        for (int row = 0; row < rows; row++) {
+            tagStarts[row] = start;
+            start += tagCounts[row];
+        }
+        int[] next = Arrays.copyOf(tagStarts, rows);
+        for (int i = 0; i < pairs; i++) {
+            tagCodes[next[pairRows[i]]++] = pairCodes[i];
+        }
+        tagCodesUsed = pairs;
+        deadTagCodes = 0;
+    }
+
+    void remove(long id) {
+        int row = rowById.get(id);
+        if (row == LongIntHashMap.MISSING) {
+            return;
+        }
+        rowById.remove(id);
+        statuses[row] = DELETED;
+        deadTagCodes += tagCounts[row];
+        tagCounts[row] = 0;
+        deletedRows++;
+    }
+
+    // Worth compacting once garbage makes up half of the rows or of the tag codes
+    boolean needsCompaction() {
+        return rows >= MIN_CAPACITY && (deletedRows * 2 > rows || deadTagCodes * 2 > tagCodesUsed);
+    }
+
+    /** Copies the live rows and their tags into fresh columns, keeping the tag dictionary. */
+    AchievementColumnData compacted() {
+        AchievementColumnData compacted =
+                new AchievementColumnData(liveRows() + liveRows() / 2, codeByTag, tagByCode);
+        compacted.ensureTagCapacity(tagCodesUsed - deadTagCodes);
+        for (int row = 0; row < rows; row++) {
+            if (statuses[row] == DELETED) {
+                continue;
+            }
+            int copy =
+                    compacted.appendRow(
+                            ids[row], statuses[row], datesStarted[row], datesCompleted[row]);
+            System.arraycopy(
+                    tagCodes,
+                    tagStarts[row],
+                    compacted.tagCodes,
+                    compacted.tagCodesUsed,
+                    tagCounts[row]);
+            compacted.tagStarts[copy] = compacted.tagCodesUsed;
+            compacted.tagCounts[copy] = tagCounts[row];
+            compacted.tagCodesUsed += tagCounts[row];
+        }
+        return compacted;
+    }
+
+    // The scans below cover the rows in [from, to), so disjoint ranges can run in parallel
+
+    long[] countByStatus(int from, int to, Filter filter, int statuses) {
+        long[] counts = new long[statuses];
+        for (int row = from; row < to; row++) {
+            if (matches(row, filter)) {
+                counts[this.statuses[row]]++;
+            }
+        }
+        return counts;
+    }
+
+    long[] countByTag(int from, int to, Filter filter, int dictionarySize) {
+        long[] counts = new long[dictionarySize];
+        for (int row = from; row < to; row++) {
+            if (matches(row, filter)) {
+                for (int i = tagStarts[row], end = i + tagCounts[row]; i < end; i++) {
+                    counts[tagCodes[i]]++;
+                }
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Counts per bucket index of days between start and completion, without the empty buckets. The
+     * common short durations are counted in an array of at most {@link #DENSE_BUCKETS}, the rare
+     * longer ones in a map, so a single outlier does not size the result.
+     */
+    Map<Integer, Long> countByDaysToCompletion(int from, int to, Filter filter, int bucketWidth) {
+        long[] counts = new long[0];
+        Map<Integer, Long> sparse = new HashMap<>();
+        for (int row = from; row < to; row++) {
+            int started = datesStarted[row];
+            int completed = datesCompleted[row];
+            if (started == NO_DATE
+                    || completed == NO_DATE
+                    || completed < started
+                    || !matches(row, filter)) {
+                continue;
+            }
+            int bucket = (int) (((long) completed - started) / bucketWidth);
+            if (bucket >= DENSE_BUCKETS) {
+                sparse.merge(bucket, 1L, Long::sum);
+                continue;
+            }
+            if (bucket >= counts.length) {
+                counts =
+                        Arrays.copyOf(
+                                counts,
+                                Math.min(DENSE_BUCKETS, Math.max(bucket + 1, counts.length * 2)));
+            }
+            counts[bucket]++;
+        }
+        for (int bucket = 0; bucket < counts.length; bucket++) {
+            if (counts[bucket] > 0) {
+                sparse.put(bucket, counts[bucket]);
+            }
+        }
+        return sparse;
+    }
+
+    private boolean matches(int row, Filter filter) {
+        if (statuses[row] == DELETED) {
+            return false;
+        }
+        // An undated row only matches when neither bound is set, as in the SQL comparison
+        int started = datesStarted[row];
+        if (started == NO_DATE) {
+            if (filter.isDateBounded()) {
+                return false;
+            }
+        } else if (started < filter.startedFrom() || started > filter.startedTo()) {
+            return false;
+        }
+        return filter.tag() == ANY_TAG || hasTag(row, filter.tag());
+    }
+
+    private boolean hasTag(int row, int tag) {
+        for (int i = tagStarts[row], end = i + tagCounts[row]; i < end; i++) {
+            if (tagCodes[i] == tag) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void growRows(int capacity) {
+        ids = Arrays.copyOf(ids, capacity);
+        statuses = Arrays.copyOf(statuses, capacity);
+        datesStarted = Arrays.copyOf(datesStarted, capacity);
+        datesCompleted = Arrays.copyOf(datesCompleted, capacity);
+        tagStarts = Arrays.copyOf(tagStarts, capacity);
+        tagCounts = Arrays.copyOf(tagCounts, capacity);
+    }
+
+    private void ensureTagCapacity(int capacity) {
+        if (capacity > tagCodes.length) {
+            tagCodes = Arrays.copyOf(tagCodes, Math.max(capacity, tagCodes.length * 2));
+        }
+    }
+
+    /** A {@link StatsFilter} in column terms: epoch-day bounds and a tag code. */
+    record Filter(int startedFrom, int startedTo, int tag) {
+
+        boolean isDateBounded() {
+            return startedFrom != Integer.MIN_VALUE || startedTo != Integer.MAX_VALUE;
+        }
+    }
+}
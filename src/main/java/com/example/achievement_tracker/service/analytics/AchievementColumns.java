@@ -0,0 +1,276 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.service.analytics;
+
+import com.example.achievement_tracker.api.dto.AchievementDTO;
+import com.example.achievement_tracker.persistence.model.StatusEnum;
+import com.example.achievement_tracker.persistence.projection.AchievementColumnView;
+import com.example.achievement_tracker.persistence.projection.AchievementTagView;
+import com.example.achievement_tracker.persistence.repository.AchievementRepository;
+import com.example.achievement_tracker.service.event.AchievementChangedEvent;
+import com.example.achievement_tracker.service.event.AppliedVersions;
+import com.example.achievement_tracker.service.feed.AchievementChangeFeed;
+import jakarta.transaction.Transactional;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BinaryOperator;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * In-memory columnar copy of the status, dates and tags of every achievement, for dashboard
+ * statistics over an arbitrary filter. Aggregations are loops over primitive arrays, split over the
+ * common fork/join pool once the table is large enough to pay for it.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AchievementColumns {
+    private static final StatusEnum[] STATUSES = StatusEnum.values();
+    // Below this many rows a scan is cheaper than handing its ranges to other threads
+    static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    private final AchievementRepository achievementRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private AchievementColumnData data = new AchievementColumnData(0);
+    private final AppliedVersions appliedVersions = new AppliedVersions();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuild() {
+        // Writes committed while the table is scanned wait for the lock and are replayed on top
+        lock.writeLock().lock();
+        try {
+            AchievementColumnData rebuilt = new AchievementColumnData(0);
+            try (Stream<AchievementColumnView> rows =
+                    achievementRepository.streamAchievementColumns()) {
+                rows.forEach(
+                        row ->
+                                rebuilt.appendRow(
+                                        row.getId(),
+                                        (byte) row.getStatus().ordinal(),
+                                        epochDay(row.getDateStarted()),
+                                        epochDay(row.getDateCompleted())));
+            }
+            int[] pairRows = new int[rebuilt.rows()];
+            int[] pairCodes = new int[rebuilt.rows()];
+            int pairs = 0;
+            try (Stream<AchievementTagView> tags = achievementRepository.streamAchievementTags()) {
+                for (AchievementTagView tag : (Iterable<AchievementTagView>) tags::iterator) {
+                    int row = rebuilt.row(tag.getId());
+                    if (row == LongIntHashMap.MISSING) {
+                        continue;
+                    }
+                    if (pairs == pairRows.length) {
+                        pairRows = Arrays.copyOf(pairRows, Math.max(16, pairs * 2));
+                        pairCodes = Arrays.copyOf(pairCodes, pairRows.length);
+                    }
+                    pairRows[pairs] = row;
+                    pairCodes[pairs++] = rebuilt.encode(tag.getTag());
+                }
+            }
+            rebuilt.setTags(pairRows, pairCodes, pairs);
+            data = rebuilt;
+            log.info(
+                    "Analytics columns built with {} achievements and {} tags",
+                    rebuilt.rows(),
+                    rebuilt.dictionarySize());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Order(AchievementChangeFeed.VIEW_LISTENER_ORDER)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAchievementChanged(AchievementChangedEvent event) {
+        // Partial updates without previous state only change the title or description
+        if (event.type() == AchievementChangedEvent.ChangeType.UPDATED && event.before() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            // Each change carries the whole row, only its order matters
+            appliedVersions.apply(
+                    event,
+                    follows -> {
+                        if (event.type() == AchievementChangedEvent.ChangeType.DELETED) {
+                            data.remove(event.id());
+                        } else {
+                            AchievementDTO after = event.after();
+                            data.put(
+                                    event.id(),
+                                    (byte) StatusEnum.valueOf(after.status()).ordinal(),
+                                    epochDay(after.dateStarted()),
+                                    epochDay(after.dateCompleted()),
+                                    after.tags());
+                        }
+                    });
+            if (data.needsCompaction()) {
+                data = data.compacted();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Number of matching achievements per status, indexed by {@link StatusEnum#ordinal()}. */
+    public long[] countByStatus(StatsFilter filter) {
+        lock.readLock().lock();
+        try {
+            AchievementColumnData columns = data;
+            AchievementColumnData.Filter columnFilter = toColumnFilter(columns, filter);
+            if (columnFilter == null) {
+                return new long[STATUSES.length];
+            }
+            return scan(
+                    columns.rows(),
+                    (from, to) -> columns.countByStatus(from, to, columnFilter, STATUSES.length),
+                    AchievementColumns::sum);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Number of matching achievements per tag, for the tags used at least once. */
+    public Map<String, Long> countByTag(StatsFilter filter) {
+        lock.readLock().lock();
+        try {
+            AchievementColumnData columns = data;
+            AchievementColumnData.Filter columnFilter = toColumnFilter(columns, filter);
+            if (columnFilter == null) {
+                return Map.of();
+            }
+            int dictionarySize = columns.dictionarySize();
+            long[] counts =
+                    scan(
+                            columns.rows(),
+                            (from, to) ->
+                                    columns.countByTag(from, to, columnFilter, dictionarySize),
+                            AchievementColumns::sum);
+            Map<String, Long> countsByTag = new LinkedHashMap<>();
+            for (int code = 0; code < counts.length; code++) {
+                if (counts[code] > 0) {
+                    countsByTag.put(columns.tag(code), counts[code]);
+                }
+            }
+            return countsByTag;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of matching achievements per bucket of days to completion, in bucket order and without
+     * the empty buckets, where bucket {@code i} covers {@code [i * bucketWidthDays, (i + 1) *
+     * bucketWidthDays)}.
+     */
+    public SortedMap<Integer, Long> countByDaysToCompletion(
+            StatsFilter filter, int bucketWidthDays) {
+        lock.readLock().lock();
+        try {
+            AchievementColumnData columns = data;
+            AchievementColumnData.Filter columnFilter = toColumnFilter(columns, filter);
+            if (columnFilter == null) {
+                return new TreeMap<>();
+            }
+            Map<Integer, Long> counts =
+                    scan(
+                            columns.rows(),
+                            (from, to) ->
+                                    columns.countByDaysToCompletion(
+                                            from, to, columnFilter, bucketWidthDays),
+                            AchievementColumns::sumByKey);
+            return new TreeMap<>(counts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Null when the filter names a tag no achievement carries, so nothing can match
+    private static AchievementColumnData.Filter toColumnFilter(
+            AchievementColumnData columns, StatsFilter filter) {
+        int tag = AchievementColumnData.ANY_TAG;
+        if (filter.tag() != null) {
+            tag = columns.tagCode(filter.tag());
+            if (tag < 0) {
+                return null;
+            }
+        }
+        return new AchievementColumnData.Filter(
+                filter.startedFrom() == null ? Integer.MIN_VALUE : epochDay(filter.startedFrom()),
+                filter.startedTo() == null ? Integer.MAX_VALUE : epochDay(filter.startedTo()),
+                tag);
+    }
+
+    // Runs the scan over [0, rows), in ranges on the common pool for large tables
+    private static <T> T scan(int rows, RangeScan<T> scan, BinaryOperator<T> sum) {
+        if (rows < PARALLEL_THRESHOLD) {
+            return scan.count(0, rows);
+        }
+        int ranges = ForkJoinPool.getCommonPoolParallelism() * 4;
+        int rangeSize = (rows + ranges - 1) / ranges;
+        return IntStream.range(0, ranges)
+                .parallel()
+                .mapToObj(
+                        range ->
+                                scan.count(
+                                        range * rangeSize, Math.min(rows, (range + 1) * rangeSize)))
+                .reduce(sum)
+                .orElseGet(() -> scan.count(0, 0));
+    }
+
+    // Element-wise sum, as long as the longer input
+    private static long[] sum(long[] left, long[] right) {
+        long[] longer = left.length >= right.length ? left : right;
+        long[] shorter = longer == left ? right : left;
+        long[] result = longer.clone();
+        for (int i = 0; i < shorter.length; i++) {
+            result[i] += shorter[i];
+        }
+        return result;
+    }
+
+    // Key-wise sum, into the larger input
+    private static Map<Integer, Long> sumByKey(Map<Integer, Long> left, Map<Integer, Long> right) {
+        Map<Integer, Long> larger = left.size() >= right.size() ? left : right;
+        Map<Integer, Long> smaller = larger == left ? right : left;
+        smaller.forEach((bucket, count) -> larger.merge(bucket, count, Long::sum));
+        return larger;
+    }
+
+    private static int epochDay(LocalDate date) {
+        return date == null ? AchievementColumnData.NO_DATE : (int) date.toEpochDay();
+    }
+
+    @FunctionalInterface
+    private interface RangeScan<T> {
+        T count(int from, int to);
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.service.analytics;
+
+import java.time.LocalDate;
+import lombok.Builder;
+import org.springframework.format.annotation.DateTimeFormat;
+
+/**
+ * Restricts the dashboard statistics to the achievements started within an inclusive date range and
+ * carrying a tag. Null fields do not restrict; with a date bound set, achievements without a start
+ * date are left out.
+ */
+@Builder
+public record StatsFilter(
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startedFrom,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startedTo,
+        String tag) {
+    public static final StatsFilter NONE = new StatsFilter(null, null, null);
+
+    public boolean isEmpty() {
+        return startedFrom == null && startedTo == null && tag == null;
+    }
+}
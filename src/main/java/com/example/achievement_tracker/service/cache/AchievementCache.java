@@ -0,0 +1,124 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.service.cache;
+
+import com.example.achievement_tracker.api.dto.AchievementDTO;
+import com.example.achievement_tracker.config.AchievementCacheProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.Optional;
+import java.util.function.Function;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Read-through cache of achievements keyed by id, with a secondary index from title to id.
+ *
+ * <p>Only the id entry holds the achievement. A title entry is trusted only while the cached
+ * achievement still carries that title, so a renamed or deleted achievement can never be served
+ * under its old title even if the title entry outlives the change.
+ *
+ * <p>Hits, misses and evictions of both caches are published as {@code cache.*} meters.
+ */
+@Component
+public class AchievementCache implements MeterBinder {
+    private final Cache<Long, AchievementDTO> achievementsById;
+    private final Cache<String, Long> idsByTitle;
+
+    public AchievementCache(AchievementCacheProperties properties) {
+        this.achievementsById =
+                Caffeine.newBuilder()
+                        .maximumSize(properties.maximumSize())
+                        .expireAfterWrite(properties.expireAfterWrite())
+                        .recordStats()
+                        .build();
+        this.idsByTitle =
+                Caffeine.newBuilder()
+                        .maximumSize(properties.maximumSize())
+                        .expireAfterWrite(properties.expireAfterWrite())
+                        .recordStats()
+                        .build();
+    }
+
+    public Optional<AchievementDTO> getById(
+            Long id, Function<Long, Optional<AchievementDTO>> loader) {
+        // Absent achievements are not cached, the loader runs atomically per key
+        return Optional.ofNullable(achievementsById.get(id, key -> loader.apply(key).orElse(null)));
+    }
+
+    public Optional<AchievementDTO> getByTitle(
+            String title,
+            Function<String, Optional<AchievementDTO>> titleLoader,
+            Function<Long, Optional<AchievementDTO>> idLoader) {
+        Long id = idsByTitle.getIfPresent(title);
+        if (id != null) {
+            Optional<AchievementDTO> achievement = getById(id, idLoader);
+            if (achievement.isPresent() && title.equals(achievement.get().title())) {
+                return achievement;
+            }
+            idsByTitle.asMap().remove(title, id);
+        }
+
+        Optional<AchievementDTO> achievement = titleLoader.apply(title);
+        achievement.ifPresent(found -> idsByTitle.put(title, found.id()));
+        return achievement;
+    }
+
+    /**
+     * Evict an achievement and the given titles. The eviction is repeated after the surrounding
+     * transaction commits, so a concurrent read cannot re-cache the state from before the write.
+     */
+    public void evict(Long id, String... titles) {
+        invalidate(id, titles);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                            invalidate(id, titles);
+                        }
+                    });
+        }
+    }
+
+    private void invalidate(Long id, String... titles) {
+        achievementsById.invalidate(id);
+        for (String title : titles) {
+            if (title != null) {
+                idsByTitle.invalidate(title);
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, achievementsById, "achievementsById");
+        CaffeineCacheMetrics.monitor(registry, idsByTitle, "achievementIdsByTitle");
+    }
+
+    public CacheStats byIdStats() {
+        return achievementsById.stats();
+    }
+
+    public CacheStats byTitleStats() {
+        return idsByTitle.stats();
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.service.event;
+
+import com.example.achievement_tracker.api.dto.AchievementDTO;
+
+/**
+ * Published by the achievement service for every write, so in-memory read models can follow the
+ * table. Listeners that must not observe rolled back writes listen after commit.
+ *
+ * <p>A partial update of the title or description alone carries no previous state, and its {@code
+ * after} holds only the patched fields; the others are null and unchanged. A partial update of the
+ * status, dates or tags carries both states in full.
+ *
+ * @param before the state before the write, null for creations and some partial updates
+ * @param after the state after the write, null for deletions
+ */
+public record AchievementChangedEvent(
+        ChangeType type, Long id, AchievementDTO before, AchievementDTO after) {
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    public static AchievementChangedEvent created(AchievementDTO after) {
+        return new AchievementChangedEvent(ChangeType.CREATED, after.id(), null, after);
+    }
+
+    public static AchievementChangedEvent updated(AchievementDTO before, AchievementDTO after) {
+        return new AchievementChangedEvent(ChangeType.UPDATED, after.id(), before, after);
+    }
+
+    public static AchievementChangedEvent deleted(AchievementDTO before) {
+        return new AchievementChangedEvent(ChangeType.DELETED, before.id(), before, null);
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.service.event;
+
+import com.example.achievement_tracker.api.dto.AchievementDTO;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The version of each achievement an in-memory view last applied. The listeners of concurrent
+ * transactions run after their commits in any order, so a view applies a change only when it is
+ * newer than the one it holds. Only the achievements changed since the view was built have an
+ * entry; a deleted one keeps it, ids are not reused and a late update must not bring it back.
+ */
+public final class AppliedVersions {
+    private static final long DELETED = Long.MAX_VALUE;
+
+    private final ConcurrentMap<Long, Long> versions = new ConcurrentHashMap<>();
+
+    /** A change to a view, told whether the view holds the state the change was made from. */
+    @FunctionalInterface
+    public interface Update {
+        void apply(boolean follows);
+    }
+
+    /**
+     * Applies a change unless the view already holds a newer one of the same achievement. No other
+     * change of that achievement is applied meanwhile. Changes without a version are always
+     * applied, as following the state the view holds.
+     *
+     * @return whether the change was applied
+     */
+    public boolean apply(AchievementChangedEvent event, Update update) {
+        Long version = versionOf(event);
+        if (version == null) {
+            update.apply(true);
+            return true;
+        }
+        boolean[] applied = new boolean[1];
+        versions.compute(
+                event.id(),
+                (id, current) -> {
+                    if (current != null && current >= version) {
+                        return current;
+                    }
+                    update.apply(follows(event, current));
+                    applied[0] = true;
+                    return version;
+                });
+        return applied[0];
+    }
+
+    // The version a change leaves the achievement at
+    private static Long versionOf(AchievementChangedEvent event) {
+        AchievementDTO after = event.after();
+        if (after == null) {
+            return event.before() == null || event.before().version() == null ? null : DELETED;
+        }
+        return after.version();
+    }
+
+    // Without a change applied since the view was built its previous state is unknown
+    private static boolean follows(AchievementChangedEvent event, Long current) {
+        if (event.type() == AchievementChangedEvent.ChangeType.CREATED) {
+            return current == null;
+        }
+        if (current == null) {
+            return false;
+        }
+        // Partial updates carry no previous state, every write moves the version on by one
+        AchievementDTO before = event.before();
+        long previous =
+                before != null && before.version() != null
+                        ? before.version()
+                        : event.after().version() - 1;
+        return current == previous;
+    }
+}
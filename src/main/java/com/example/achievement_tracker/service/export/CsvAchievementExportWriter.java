@@ -0,0 +1,95 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.service.export;
+
+import com.example.achievement_tracker.api.dto.AchievementDTO;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.TreeSet;
+
+/**
+ * RFC 4180 CSV with a header row. Tags are sorted and joined with {@code ;} into a single column,
+ * fields are quoted only when they contain a separator, a quote or a line break.
+ */
+public class CsvAchievementExportWriter implements AchievementExportWriter {
+    private static final String HEADER =
+            "id,title,description,dateStarted,dateCompleted,status,tags,version";
+
+    private final Writer writer;
+
+    public CsvAchievementExportWriter(OutputStream outputStream) throws IOException {
+        this.writer =
+                new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        writer.write(HEADER);
+        writer.write("\r\n");
+    }
+
+    @Override
+    public void write(AchievementDTO achievement) throws IOException {
+        writeField(achievement.id());
+        writer.write(',');
+        writeField(achievement.title());
+        writer.write(',');
+        writeField(achievement.description());
+        writer.write(',');
+        writeField(achievement.dateStarted());
+        writer.write(',');
+        writeField(achievement.dateCompleted());
+        writer.write(',');
+        writeField(achievement.status());
+        writer.write(',');
+        writeField(
+                achievement.tags() == null
+                        ? null
+                        : String.join(";", new TreeSet<>(achievement.tags())));
+        writer.write(',');
+        writeField(achievement.version());
+        writer.write("\r\n");
+    }
+
+    private void writeField(Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        String field = Objects.toString(value);
+        if (field.indexOf(',') < 0
+                && field.indexOf('"') < 0
+                && field.indexOf('\n') < 0
+                && field.indexOf('\r') < 0) {
+            writer.write(field);
+            return;
+        }
+        writer.write('"');
+        writer.write(field.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    // Flushes without closing the response stream, which belongs to the servlet container
+    @Override
+    public void close() throws IOException {
+        writer.flush();
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.service.export;
+
+import com.example.achievement_tracker.api.dto.AchievementDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/** One JSON object per line, serialised like the responses of the REST API. */
+public class NdjsonAchievementExportWriter implements AchievementExportWriter {
+    private final ObjectWriter objectWriter;
+    private final JsonGenerator generator;
+
+    public NdjsonAchievementExportWriter(OutputStream outputStream, ObjectMapper objectMapper)
+            throws IOException {
+        // The generator is flushed once per chunk by the caller rather than after every row
+        this.objectWriter =
+                objectMapper
+                        .writerFor(AchievementDTO.class)
+                        .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        // The response stream belongs to the servlet container, lines are separated by hand
+        this.generator =
+                objectMapper
+                        .createGenerator(outputStream)
+                        .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                        .setRootValueSeparator(null);
+    }
+
+    @Override
+    public void write(AchievementDTO achievement) throws IOException {
+        objectWriter.writeValue(generator, achievement);
+        generator.writeRaw('\n');
+    }
+
+    @Override
+    public void flush() throws IOException {
+        generator.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+    }
+}
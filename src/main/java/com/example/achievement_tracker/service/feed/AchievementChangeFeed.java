@@ -0,0 +1,342 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.service.feed;
+
+import com.example.achievement_tracker.api.dto.AchievementChangeDTO;
+import com.example.achievement_tracker.config.ChangeFeedProperties;
+import com.example.achievement_tracker.service.event.AchievementChangedEvent;
+import com.example.achievement_tracker.service.version.AchievementChangeCounter;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Publishes the committed achievement changes to server-sent event subscribers. Each change is
+ * published under the sequence {@link AchievementChangeCounter} gave it when its transaction
+ * committed, used as its event id, and is kept in a ring buffer of the last {@code
+ * achievements.changes.buffer-size} changes so that reconnecting clients resume after the last id
+ * they received. The sequences are stored with the changes, so they carry on across restarts.
+ *
+ * <p>Transactions commit in sequence order, but their listeners can run in any order, so a change
+ * is only published once every change before it has been. Writers only append to the buffer and
+ * wake the subscribers. Each subscriber is then brought up to date by a sender of its own, a
+ * virtual thread that runs while it has something to send, so a slow client holds up neither a
+ * commit nor the other clients, and a burst of changes is sent in one pass. Subscribers that fell
+ * out of the buffer, a slow client among them, and those of a previous run of the application that
+ * missed changes receive a {@code reset} event and reload instead.
+ */
+@Slf4j
+@Component
+public class AchievementChangeFeed {
+    static final String CHANGE_EVENT = "change";
+    static final String RESET_EVENT = "reset";
+
+    /**
+     * Order of the listeners keeping the in-memory views up to date. They run before the feed
+     * publishes a change, so the views include every published change.
+     */
+    public static final int VIEW_LISTENER_ORDER = Ordered.LOWEST_PRECEDENCE - 1;
+
+    // How long a read waits for a committed change to be published before skipping it
+    static final Duration PUBLISH_TIMEOUT = Duration.ofSeconds(5);
+
+    private final AchievementChangeDTO[] buffer;
+    private final long timeoutMillis;
+    private final AchievementChangeCounter achievementChangeCounter;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor senders;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    // Sequence of the last published change, read from the counter on first use
+    private long published = -1;
+
+    @Autowired
+    public AchievementChangeFeed(
+            ChangeFeedProperties properties,
+            AchievementChangeCounter achievementChangeCounter,
+            PlatformTransactionManager transactionManager) {
+        this(
+                properties,
+                achievementChangeCounter,
+                transactionManager,
+                Executors.newThreadPerTaskExecutor(
+                        Thread.ofVirtual().name("change-feed-", 0).factory()));
+    }
+
+    // Package-private so tests can send on the calling thread
+    AchievementChangeFeed(
+            ChangeFeedProperties properties,
+            AchievementChangeCounter achievementChangeCounter,
+            PlatformTransactionManager transactionManager,
+            Executor senders) {
+        this.buffer = new AchievementChangeDTO[properties.bufferSize()];
+        this.timeoutMillis = properties.emitterTimeout().toMillis();
+        this.achievementChangeCounter = achievementChangeCounter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.senders = senders;
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAchievementChanged(AchievementChangedEvent event) {
+        OptionalLong stamped = achievementChangeCounter.sequenceOf(event);
+        if (stamped.isEmpty()) {
+            log.warn("Change of achievement {} has no sequence, it is not published", event.id());
+            return;
+        }
+        long sequence = stamped.getAsLong();
+        synchronized (this) {
+            if (published < 0) {
+                published = sequence - 1;
+            }
+            if (sequence <= published) {
+                return;
+            }
+            // A change that far ahead means the ones before it will never arrive
+            if (sequence - published > buffer.length) {
+                skipTo(sequence - buffer.length);
+            }
+            buffer[(int) (sequence % buffer.length)] =
+                    AchievementChangeDTO.builder()
+                            .sequence(sequence)
+                            .type(event.type().name())
+                            .id(event.id())
+                            .before(event.before())
+                            .after(event.after())
+                            .build();
+            long before = published;
+            while (isBuffered(published + 1)) {
+                published++;
+            }
+            if (published == before) {
+                return;
+            }
+            notifyAll();
+        }
+        subscribers.forEach(Subscriber::wake);
+    }
+
+    // Sequence of the last published change, the position a new subscriber starts from
+    public synchronized long latestSequence() {
+        return published();
+    }
+
+    /**
+     * Runs a read of the achievements, their statistics or their in-memory views while no change
+     * can commit, once every committed change has been published, and returns it with the sequence
+     * of the last change it includes. A client that applies the later changes of the feed to it
+     * therefore applies each change exactly once.
+     */
+    public <T> Sequenced<T> read(Supplier<T> reader) {
+        return transactionTemplate.execute(
+                status -> {
+                    long sequence = achievementChangeCounter.lockForRead();
+                    awaitPublished(sequence);
+                    return new Sequenced<>(sequence, reader.get());
+                });
+    }
+
+    /**
+     * Opens a feed that starts after the given sequence, or after the latest change when it is
+     * null.
+     */
+    public SseEmitter subscribe(Long lastSequence) {
+        return subscribe(lastSequence, new SseEmitter(timeoutMillis));
+    }
+
+    SseEmitter subscribe(Long lastSequence, SseEmitter emitter) {
+        Subscriber subscriber =
+                new Subscriber(emitter, lastSequence != null ? lastSequence : latestSequence());
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        subscriber.wake();
+        return emitter;
+    }
+
+    // Comments keep idle connections open through proxies and reveal the clients that went away
+    @Scheduled(fixedDelayString = "${achievements.changes.heartbeat-interval:30s}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.heartbeatDue = true;
+            subscriber.wake();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (senders instanceof ExecutorService executor) {
+            executor.shutdownNow();
+        }
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    private synchronized void awaitPublished(long sequence) {
+        long deadline = System.nanoTime() + PUBLISH_TIMEOUT.toNanos();
+        while (published() < sequence) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                // A listener failed after its commit, subscribers waiting for it are reset
+                log.warn("Changes up to {} were not published in time, skipping them", sequence);
+                skipTo(sequence);
+                break;
+            }
+            try {
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the change feed", e);
+            }
+        }
+    }
+
+    // Publishes up to the given sequence, subscribers that need the missing changes are reset
+    private void skipTo(long sequence) {
+        published = sequence;
+        while (isBuffered(published + 1)) {
+            published++;
+        }
+        notifyAll();
+        subscribers.forEach(Subscriber::wake);
+    }
+
+    private long published() {
+        if (published < 0) {
+            published = achievementChangeCounter.current();
+        }
+        return published;
+    }
+
+    private boolean isBuffered(long sequence) {
+        AchievementChangeDTO change = buffer[(int) (sequence % buffer.length)];
+        return change != null && change.sequence() == sequence;
+    }
+
+    // Published changes after the given sequence, null when some of them are not buffered
+    private synchronized List<AchievementChangeDTO> changesAfter(long sequence) {
+        long latest = published();
+        if (sequence > latest || latest - sequence > buffer.length) {
+            return null;
+        }
+        List<AchievementChangeDTO> changes = new ArrayList<>((int) (latest - sequence));
+        for (long next = sequence + 1; next <= latest; next++) {
+            if (!isBuffered(next)) {
+                return null;
+            }
+            changes.add(buffer[(int) (next % buffer.length)]);
+        }
+        return changes;
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        // Only read and written by the sender, which runs for one subscriber at a time
+        private long lastSequence;
+        private volatile boolean heartbeatDue;
+        private volatile boolean dirty;
+        private volatile boolean dropped;
+        private final AtomicBoolean sending = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter, long lastSequence) {
+            this.emitter = emitter;
+            this.lastSequence = lastSequence;
+        }
+
+        // Starts the sender unless it is running, in which case it sees the dirty flag
+        private void wake() {
+            dirty = true;
+            if (sending.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                dirty = false;
+                catchUp();
+                sending.set(false);
+            } while (dirty && sending.compareAndSet(false, true));
+        }
+
+        private void catchUp() {
+            if (heartbeatDue) {
+                heartbeatDue = false;
+                if (!send(SseEmitter.event().comment("heartbeat"))) {
+                    return;
+                }
+            }
+            List<AchievementChangeDTO> changes = changesAfter(lastSequence);
+            if (changes == null) {
+                long latest = latestSequence();
+                if (send(
+                        SseEmitter.event()
+                                .id(Long.toString(latest))
+                                .name(RESET_EVENT)
+                                .data(latest))) {
+                    lastSequence = latest;
+                }
+                return;
+            }
+            for (AchievementChangeDTO change : changes) {
+                if (!send(
+                        SseEmitter.event()
+                                .id(Long.toString(change.sequence()))
+                                .name(CHANGE_EVENT)
+                                .data(change, MediaType.APPLICATION_JSON))) {
+                    return;
+                }
+                lastSequence = change.sequence();
+            }
+        }
+
+        private boolean send(SseEmitter.SseEventBuilder event) {
+            if (dropped) {
+                return false;
+            }
+            try {
+                emitter.send(event);
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Dropping change feed subscriber: {}", e.getMessage());
+                dropped = true;
+                subscribers.remove(this);
+                emitter.completeWithError(e);
+                return false;
+            }
+        }
+    }
+}
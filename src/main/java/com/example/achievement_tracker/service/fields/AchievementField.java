@@ -0,0 +1,80 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.service.fields;
+
+import com.example.achievement_tracker.exception.InvalidPageRequestException;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// The AchievementDTO properties a client can ask for with the `fields` request parameter
+public enum AchievementField {
+    ID("id", "id"),
+    TITLE("title", "title"),
+    DESCRIPTION("description", "description"),
+    DATE_STARTED("dateStarted", "dateStarted"),
+    DATE_COMPLETED("dateCompleted", "dateCompleted"),
+    TAGS("tags", null),
+    STATUS("status", "status"),
+    VERSION("version", "version");
+
+    private final String parameter;
+    private final String attribute;
+
+    AchievementField(String parameter, String attribute) {
+        this.parameter = parameter;
+        this.attribute = attribute;
+    }
+
+    public String parameter() {
+        return parameter;
+    }
+
+    // Scalar attribute of the entity holding the field, null for the tags collection
+    public String attribute() {
+        return attribute;
+    }
+
+    // Resolve the comma-separated value of the `fields` request parameter, e.g. "id,title,status"
+    public static Set<AchievementField> fromParameter(String parameter) {
+        Set<AchievementField> fields = EnumSet.noneOf(AchievementField.class);
+        for (String name : parameter.split(",")) {
+            if (!name.isBlank()) {
+                fields.add(fromName(name.strip()));
+            }
+        }
+        if (fields.isEmpty()) {
+            throw new InvalidPageRequestException("Fields must name at least one field");
+        }
+        return fields;
+    }
+
+    private static AchievementField fromName(String name) {
+        return Arrays.stream(values())
+                .filter(field -> field.parameter.equals(name))
+                .findFirst()
+                .orElseThrow(
+                        () ->
+                                new InvalidPageRequestException(
+                                        "Unsupported field '"
+                                                + name
+                                                + "': must be any of "
+                                                + Arrays.stream(values())
+                                                        .map(AchievementField::parameter)
+                                                        .collect(Collectors.joining(", "))));
+    }
+}
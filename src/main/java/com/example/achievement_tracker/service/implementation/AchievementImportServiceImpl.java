@@ -0,0 +1,173 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.service.implementation;
+
+import com.example.achievement_tracker.api.dto.BatchCreateResultDTO;
+import com.example.achievement_tracker.api.dto.BatchItemErrorDTO;
+import com.example.achievement_tracker.api.dto.CreateAchievementDTO;
+import com.example.achievement_tracker.api.dto.ImportRejectDTO;
+import com.example.achievement_tracker.api.dto.ImportResultDTO;
+import com.example.achievement_tracker.config.ImportProperties;
+import com.example.achievement_tracker.service.AchievementImportService;
+import com.example.achievement_tracker.service.AchievementService;
+import com.example.achievement_tracker.service.imports.AchievementRecordReader;
+import com.example.achievement_tracker.service.imports.CsvAchievementRecordReader;
+import com.example.achievement_tracker.service.imports.ImportFormat;
+import com.example.achievement_tracker.service.imports.ImportRecord;
+import com.example.achievement_tracker.service.imports.JsonAchievementRecordReader;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+/**
+ * Imports an upload in chunks of {@code achievements.import.chunk-size} records.
+ *
+ * <p>Not transactional itself: every chunk is written by {@link
+ * AchievementService#createAchievements} in its own transaction, as JDBC batches of {@code
+ * hibernate.jdbc.batch_size} inserts. A failed chunk ends the import, chunks before it stay
+ * committed.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AchievementImportServiceImpl implements AchievementImportService {
+    static final String RECORDS_METRIC = "achievements.import.records";
+
+    private final AchievementService achievementService;
+    private final ImportProperties importProperties;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public ImportResultDTO importAchievements(ImportFormat format, InputStream inputStream)
+            throws IOException {
+        Progress progress =
+                new Progress(
+                        importProperties.maxRejects(),
+                        meterRegistry.counter(RECORDS_METRIC, "outcome", "rejected"));
+        try (AchievementRecordReader reader = openReader(format, inputStream)) {
+            List<ImportRecord> chunk = new ArrayList<>(importProperties.chunkSize());
+            for (ImportRecord record = reader.next(); record != null; record = reader.next()) {
+                if (record.isMalformed()) {
+                    progress.reject(record.line(), record.errors());
+                    continue;
+                }
+                chunk.add(record);
+                if (chunk.size() == importProperties.chunkSize()) {
+                    importChunk(chunk, progress);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(chunk, progress);
+            }
+        }
+        log.info(
+                "Import finished: {} records, {} imported, {} rejected",
+                progress.processed,
+                progress.imported,
+                progress.rejected);
+        return progress.toResult();
+    }
+
+    private AchievementRecordReader openReader(ImportFormat format, InputStream inputStream)
+            throws IOException {
+        return switch (format) {
+            case JSON -> new JsonAchievementRecordReader(inputStream, objectMapper);
+            case CSV -> new CsvAchievementRecordReader(
+                    inputStream,
+                    importProperties.maxFieldLength(),
+                    importProperties.maxRecordLength());
+        };
+    }
+
+    private void importChunk(List<ImportRecord> chunk, Progress progress) {
+        List<CreateAchievementDTO> achievements = new ArrayList<>(chunk.size());
+        for (ImportRecord record : chunk) {
+            achievements.add(record.achievement());
+        }
+        BatchCreateResultDTO result = achievementService.createAchievements(achievements);
+        progress.processed += result.created().size();
+        progress.imported += result.created().size();
+        meterRegistry
+                .counter(RECORDS_METRIC, "outcome", "imported")
+                .increment(result.created().size());
+        for (BatchItemErrorDTO error : result.errors()) {
+            progress.reject(chunk.get(error.index()).line(), error.messages());
+        }
+        chunk.clear();
+        // Open-in-view keeps one persistence context for the whole request, drop the written rows
+        entityManager.clear();
+        log.info(
+                "Import progress: {} records, {} imported, {} rejected",
+                progress.processed,
+                progress.imported,
+                progress.rejected);
+    }
+
+    private static final class Progress {
+        private final int maxRejects;
+        private final Counter rejectedRecords;
+        // The rejects with the lowest lines, the highest line on top to be evicted first
+        private final PriorityQueue<ImportRejectDTO> rejects =
+                new PriorityQueue<>(Comparator.comparingLong(ImportRejectDTO::line).reversed());
+        private long processed;
+        private long imported;
+        private long rejected;
+
+        private Progress(int maxRejects, Counter rejectedRecords) {
+            this.maxRejects = maxRejects;
+            this.rejectedRecords = rejectedRecords;
+        }
+
+        private void reject(long line, List<String> messages) {
+            processed++;
+            rejected++;
+            rejectedRecords.increment();
+            // Parse errors are reported as they are read, validation errors a chunk later
+            if (maxRejects == 0) {
+                return;
+            }
+            if (rejects.size() < maxRejects) {
+                rejects.add(new ImportRejectDTO(line, messages));
+            } else if (line < rejects.peek().line()) {
+                rejects.poll();
+                rejects.add(new ImportRejectDTO(line, messages));
+            }
+        }
+
+        private ImportResultDTO toResult() {
+            List<ImportRejectDTO> lowest = new ArrayList<>(rejects);
+            lowest.sort(Comparator.comparingLong(ImportRejectDTO::line));
+            return ImportResultDTO.builder()
+                    .processed(processed)
+                    .imported(imported)
+                    .rejected(rejected)
+                    .rejects(lowest)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.service.implementation;
+
+import com.example.achievement_tracker.api.dto.AchievementDTO;
+import com.example.achievement_tracker.api.dto.AchievementSearchResultDTO;
+import com.example.achievement_tracker.config.SearchProperties;
+import com.example.achievement_tracker.exception.InvalidPageRequestException;
+import com.example.achievement_tracker.persistence.mapper.AchievementMapper;
+import com.example.achievement_tracker.persistence.model.Achievement;
+import com.example.achievement_tracker.persistence.repository.AchievementRepository;
+import com.example.achievement_tracker.service.AchievementSearchService;
+import com.example.achievement_tracker.service.search.AchievementSearchIndex;
+import com.example.achievement_tracker.service.search.SearchHits;
+import jakarta.transaction.Transactional;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class AchievementSearchServiceImpl implements AchievementSearchService {
+    private final AchievementSearchIndex achievementSearchIndex;
+    private final AchievementRepository achievementRepository;
+    private final AchievementMapper achievementMapper;
+    private final SearchProperties searchProperties;
+
+    @Override
+    public AchievementSearchResultDTO search(String query, int page, Integer size) {
+        if (page < 0) {
+            throw new InvalidPageRequestException("Page must not be negative");
+        }
+        if (size != null && size < 1) {
+            throw new InvalidPageRequestException("Page size must be at least 1");
+        }
+        int pageSize =
+                size == null
+                        ? searchProperties.defaultSize()
+                        : Math.min(size, searchProperties.maxSize());
+        // Deep pages cost as much as collecting every match before them
+        if ((long) page * pageSize + pageSize > searchProperties.maxWindow()) {
+            throw new InvalidPageRequestException(
+                    "Search results are limited to the first "
+                            + searchProperties.maxWindow()
+                            + " matches");
+        }
+
+        SearchHits hits = achievementSearchIndex.search(query, page * pageSize, pageSize);
+        // Load the page in one statement and put it back in relevance order
+        Map<Long, Achievement> achievementsById =
+                achievementRepository.findAllById(hits.ids()).stream()
+                        .collect(Collectors.toMap(Achievement::getId, Function.identity()));
+        List<AchievementDTO> items =
+                hits.ids().stream()
+                        .map(achievementsById::get)
+                        .filter(Objects::nonNull)
+                        .map(achievementMapper::toDTO)
+                        .collect(Collectors.toList());
+        return AchievementSearchResultDTO.builder()
+                .items(items)
+                .totalHits(hits.totalHits())
+                .totalHitsExact(hits.totalHitsExact())
+                .page(page)
+                .size(pageSize)
+                .build();
+    }
+}
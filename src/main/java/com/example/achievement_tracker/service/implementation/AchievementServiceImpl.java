@@ -16,28 +16,98 @@
 package com.example.achievement_tracker.service.implementation;
 
 import com.example.achievement_tracker.api.dto.AchievementDTO;
+import com.example.achievement_tracker.api.dto.AchievementPageDTO;
+import com.example.achievement_tracker.api.dto.BatchCreateResultDTO;
+import com.example.achievement_tracker.api.dto.BatchItemErrorDTO;
 import com.example.achievement_tracker.api.dto.CreateAchievementDTO;
+import com.example.achievement_tracker.api.dto.PatchAchievementDTO;
+import com.example.achievement_tracker.api.dto.SparseAchievementPageDTO;
 import com.example.achievement_tracker.api.dto.UpdateAchievementDTO;
+import com.example.achievement_tracker.config.PaginationProperties;
+import com.example.achievement_tracker.exception.InvalidPageRequestException;
 import com.example.achievement_tracker.exception.RecordDoesNotExistException;
+import com.example.achievement_tracker.exception.VersionConflictException;
 import com.example.achievement_tracker.persistence.mapper.AchievementMapper;
+import com.example.achievement_tracker.persistence.mapper.TagDictionary;
 import com.example.achievement_tracker.persistence.model.Achievement;
+import com.example.achievement_tracker.persistence.model.StatusEnum;
+import com.example.achievement_tracker.persistence.projection.AchievementStateView;
+import com.example.achievement_tracker.persistence.projection.AchievementTagIdView;
 import com.example.achievement_tracker.persistence.repository.AchievementRepository;
 import com.example.achievement_tracker.service.AchievementService;
+import com.example.achievement_tracker.service.cache.AchievementCache;
+import com.example.achievement_tracker.service.event.AchievementChangedEvent;
+import com.example.achievement_tracker.service.export.AchievementExportWriter;
+import com.example.achievement_tracker.service.export.CsvAchievementExportWriter;
+import com.example.achievement_tracker.service.export.ExportFormat;
+import com.example.achievement_tracker.service.export.NdjsonAchievementExportWriter;
+import com.example.achievement_tracker.service.fields.AchievementField;
+import com.example.achievement_tracker.service.index.TagIndex;
+import com.example.achievement_tracker.service.index.TagMatch;
+import com.example.achievement_tracker.service.pagination.AchievementCursor;
+import com.example.achievement_tracker.service.pagination.AchievementSortKey;
+import com.example.achievement_tracker.service.version.AchievementChangeCounter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
+import org.roaringbitmap.longlong.PeekableLongIterator;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.annotation.Validated;
 
 @Service
+@Timed(
+        value = "achievements.service",
+        histogram = true,
+        percentiles = {0.5, 0.95, 0.99})
 @RequiredArgsConstructor
 @Transactional
 @Validated
 public class AchievementServiceImpl implements AchievementService {
+    // Columns the achievements view can be sorted by
+    private static final Set<String> VIEW_SORT_PROPERTIES =
+            Set.of("id", "title", "dateStarted", "dateCompleted", "status");
+    // Exported rows held in the persistence context at once, a multiple of the batch fetch size
+    private static final int EXPORT_CHUNK_SIZE = 1000;
+
     private final AchievementMapper achievementMapper;
+    private final TagDictionary tagDictionary;
     private final AchievementRepository achievementRepository;
+    private final PaginationProperties paginationProperties;
+    private final Validator validator;
+    private final AchievementCache achievementCache;
+    private final TagIndex tagIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AchievementChangeCounter achievementChangeCounter;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
 
     @Override
     public AchievementDTO createAchievement(CreateAchievementDTO createAchievementDTO) {
@@ -46,22 +116,119 @@ public class AchievementServiceImpl implements AchievementService {
         // save entity in a database
         Achievement savedAchievement = achievementRepository.save(achievement);
         // map entity to DTO
-        return achievementMapper.toDTO(savedAchievement);
+        AchievementDTO createdDTO = achievementMapper.toDTO(savedAchievement);
+        eventPublisher.publishEvent(AchievementChangedEvent.created(createdDTO));
+        return createdDTO;
+    }
+
+    @Override
+    public BatchCreateResultDTO createAchievements(
+            List<CreateAchievementDTO> createAchievementDTOs) {
+        List<BatchItemErrorDTO> errors = new ArrayList<>();
+        Map<Integer, CreateAchievementDTO> acceptedByIndex = new LinkedHashMap<>();
+        Set<String> titles = new HashSet<>();
+
+        // Validate every item on its own so one bad record does not fail the whole batch
+        for (int index = 0; index < createAchievementDTOs.size(); index++) {
+            CreateAchievementDTO createAchievementDTO = createAchievementDTOs.get(index);
+            List<String> messages = validate(createAchievementDTO);
+            if (messages.isEmpty() && !titles.add(createAchievementDTO.title())) {
+                messages = List.of("title: appears more than once in the batch");
+            }
+            if (messages.isEmpty()) {
+                acceptedByIndex.put(index, createAchievementDTO);
+            } else {
+                errors.add(new BatchItemErrorDTO(index, messages));
+            }
+        }
+
+        // Reject titles that are already taken with a single query for the whole batch
+        if (!titles.isEmpty()) {
+            Set<String> existingTitles =
+                    new HashSet<>(achievementRepository.findExistingTitles(titles));
+            acceptedByIndex
+                    .entrySet()
+                    .removeIf(
+                            entry -> {
+                                if (!existingTitles.contains(entry.getValue().title())) {
+                                    return false;
+                                }
+                                errors.add(
+                                        new BatchItemErrorDTO(
+                                                entry.getKey(), List.of("title: already exists")));
+                                return true;
+                            });
+        }
+        errors.sort(Comparator.comparingInt(BatchItemErrorDTO::index));
+
+        // Tags new to the dictionary are registered together rather than item by item
+        tagDictionary.idsOf(
+                acceptedByIndex.values().stream()
+                        .map(CreateAchievementDTO::tags)
+                        .filter(Objects::nonNull)
+                        .flatMap(Set::stream)
+                        .collect(Collectors.toSet()));
+
+        // Inserts are sent as JDBC batches when the persistence context is flushed
+        List<Achievement> achievements =
+                acceptedByIndex.values().stream()
+                        .map(achievementMapper::toEntity)
+                        .collect(Collectors.toList());
+        List<Achievement> savedAchievements = achievementRepository.saveAll(achievements);
+        achievementRepository.flush();
+
+        List<AchievementDTO> createdDTOs =
+                savedAchievements.stream()
+                        .map(achievementMapper::toDTO)
+                        .collect(Collectors.toList());
+        createdDTOs.forEach(
+                createdDTO ->
+                        eventPublisher.publishEvent(AchievementChangedEvent.created(createdDTO)));
+        return BatchCreateResultDTO.builder().created(createdDTOs).errors(errors).build();
+    }
+
+    private List<String> validate(CreateAchievementDTO createAchievementDTO) {
+        if (createAchievementDTO == null) {
+            return List.of("must not be null");
+        }
+        return validator.validate(createAchievementDTO).stream()
+                .map(this::describe)
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    private String describe(ConstraintViolation<CreateAchievementDTO> violation) {
+        return violation.getPropertyPath() + ": " + violation.getMessage();
     }
 
     @Override
     public Optional<AchievementDTO> getAchievementById(Long id) {
 
+        return achievementCache.getById(id, this::findAchievementById);
+    }
+
+    private Optional<AchievementDTO> findAchievementById(Long id) {
         return achievementRepository.findById(id).map(achievementMapper::toDTO);
     }
 
     @Override
     public Optional<AchievementDTO> getAchievementByTitle(String title) {
 
-        return achievementRepository
-                .findByTitle(title)
-                .map(achievementMapper::toDTO); // Map to DTO if present, otherwise return
-        // Optional.empty()
+        // Map to DTO if present, otherwise return Optional.empty()
+        return achievementCache.getByTitle(
+                title,
+                key -> achievementRepository.findByTitle(key).map(achievementMapper::toDTO),
+                this::findAchievementById);
+    }
+
+    @Override
+    public Optional<Long> getAchievementVersion(Long id) {
+        return achievementRepository.findVersionById(id);
+    }
+
+    @Override
+    public long getAchievementsChangeCount() {
+        return achievementChangeCounter.current();
     }
 
     @Override
@@ -72,6 +239,287 @@ public class AchievementServiceImpl implements AchievementService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public void exportAchievements(ExportFormat format, OutputStream outputStream)
+            throws IOException {
+        try (Stream<Achievement> achievements = achievementRepository.streamAllByOrderByIdAsc();
+                AchievementExportWriter writer = openExportWriter(format, outputStream)) {
+            // Rows are read a chunk at a time so the batch fetch can load their tags together
+            List<Achievement> chunk = new ArrayList<>(EXPORT_CHUNK_SIZE);
+            for (Iterator<Achievement> iterator = achievements.iterator(); iterator.hasNext(); ) {
+                chunk.add(iterator.next());
+                if (chunk.size() == EXPORT_CHUNK_SIZE) {
+                    writeExportChunk(chunk, writer);
+                }
+            }
+            writeExportChunk(chunk, writer);
+        }
+    }
+
+    private void writeExportChunk(List<Achievement> chunk, AchievementExportWriter writer)
+            throws IOException {
+        for (Achievement achievement : chunk) {
+            writer.write(achievementMapper.toDTO(achievement));
+        }
+        writer.flush();
+        // Written rows are dropped from the session, so memory stays flat
+        chunk.clear();
+        entityManager.clear();
+    }
+
+    private AchievementExportWriter openExportWriter(ExportFormat format, OutputStream outputStream)
+            throws IOException {
+        return switch (format) {
+            case NDJSON -> new NdjsonAchievementExportWriter(outputStream, objectMapper);
+            case CSV -> new CsvAchievementExportWriter(outputStream);
+        };
+    }
+
+    @Override
+    public AchievementPageDTO getAchievementPage(String cursor, Integer limit, String sort) {
+        int pageSize = paginationProperties.pageSize(limit);
+        AchievementCursor position = cursor == null ? null : AchievementCursor.decode(cursor);
+        AchievementSortKey sortKey = resolveSortKey(position, sort);
+
+        // Fetch one extra row to find out whether another page follows
+        List<Achievement> rows = findPageRows(sortKey, position, Limit.of(pageSize + 1));
+        return toPage(rows, pageSize, sortKey);
+    }
+
+    private static AchievementSortKey resolveSortKey(AchievementCursor position, String sort) {
+        AchievementSortKey requested = sort == null ? null : AchievementSortKey.fromParameter(sort);
+        if (position != null && requested != null && requested != position.sortKey()) {
+            throw new InvalidPageRequestException(
+                    "Cursor was issued for sort '"
+                            + position.sortKey().parameter()
+                            + "', not '"
+                            + sort
+                            + "'");
+        }
+        return position != null
+                ? position.sortKey()
+                : requested != null ? requested : AchievementSortKey.ID;
+    }
+
+    @Override
+    public AchievementPageDTO getAchievementPageByTags(
+            Set<String> tags, String match, String cursor, Integer limit) {
+        int pageSize = paginationProperties.pageSize(limit);
+        List<Long> ids = matchingPageIds(tags, match, cursor, pageSize);
+
+        List<Achievement> rows = new ArrayList<>(achievementRepository.findAllById(ids));
+        rows.sort(Comparator.comparing(Achievement::getId));
+        return toPage(rows, pageSize, AchievementSortKey.ID);
+    }
+
+    // Resolve the matching ids from the tag index, one more than the page to detect a next page
+    private List<Long> matchingPageIds(
+            Set<String> tags, String match, String cursor, int pageSize) {
+        AchievementCursor position = cursor == null ? null : AchievementCursor.decode(cursor);
+        if (position != null && position.sortKey() != AchievementSortKey.ID) {
+            throw new InvalidPageRequestException("Tag queries can only be paged by id");
+        }
+        Roaring64Bitmap matchingIds = tagIndex.match(tags, TagMatch.fromParameter(match));
+        PeekableLongIterator iterator =
+                position == null
+                        ? matchingIds.getLongIterator()
+                        : matchingIds.getLongIteratorFrom(position.lastId() + 1);
+        List<Long> ids = new ArrayList<>(pageSize + 1);
+        while (iterator.hasNext() && ids.size() <= pageSize) {
+            ids.add(iterator.next());
+        }
+        return ids;
+    }
+
+    @Override
+    public Optional<Map<String, Object>> getAchievementFieldsById(Long id, String fields) {
+        Set<AchievementField> requested = AchievementField.fromParameter(fields);
+        return achievementRepository
+                .findColumnsById(id, attributesOf(requested, false))
+                .map(row -> toSparseItems(List.of(row), requested).get(0));
+    }
+
+    @Override
+    public SparseAchievementPageDTO getSparseAchievementPage(
+            String fields, String cursor, Integer limit, String sort) {
+        Set<AchievementField> requested = AchievementField.fromParameter(fields);
+        int pageSize = paginationProperties.pageSize(limit);
+        AchievementCursor position = cursor == null ? null : AchievementCursor.decode(cursor);
+        AchievementSortKey sortKey = resolveSortKey(position, sort);
+        Long afterId = position == null ? null : position.lastId();
+        Limit rowLimit = Limit.of(pageSize + 1);
+
+        // The next cursor needs the start date of the last row, whether or not it was asked for
+        Collection<String> attributes =
+                attributesOf(requested, sortKey == AchievementSortKey.DATE_STARTED);
+        List<Map<String, Object>> rows =
+                sortKey == AchievementSortKey.ID
+                        ? achievementRepository.findColumnsPageOrderById(
+                                attributes, afterId, rowLimit)
+                        : achievementRepository.findColumnsPageOrderByDateStarted(
+                                attributes,
+                                afterId,
+                                position == null ? null : position.lastDateStarted(),
+                                rowLimit);
+        return toSparsePage(rows, pageSize, sortKey, requested);
+    }
+
+    @Override
+    public SparseAchievementPageDTO getSparseAchievementPageByTags(
+            String fields, Set<String> tags, String match, String cursor, Integer limit) {
+        Set<AchievementField> requested = AchievementField.fromParameter(fields);
+        int pageSize = paginationProperties.pageSize(limit);
+        List<Long> ids = matchingPageIds(tags, match, cursor, pageSize);
+
+        List<Map<String, Object>> rows =
+                achievementRepository.findColumnsByIdIn(ids, attributesOf(requested, false));
+        return toSparsePage(rows, pageSize, AchievementSortKey.ID, requested);
+    }
+
+    // Scalar columns to select, the tags are read from their own table only when requested
+    private static Collection<String> attributesOf(
+            Set<AchievementField> requested, boolean withDateStarted) {
+        Set<String> attributes = new LinkedHashSet<>();
+        for (AchievementField field : requested) {
+            if (field.attribute() != null) {
+                attributes.add(field.attribute());
+            }
+        }
+        if (withDateStarted) {
+            attributes.add(AchievementField.DATE_STARTED.attribute());
+        }
+        return attributes;
+    }
+
+    private SparseAchievementPageDTO toSparsePage(
+            List<Map<String, Object>> rows,
+            int pageSize,
+            AchievementSortKey sortKey,
+            Set<AchievementField> requested) {
+        boolean hasNext = rows.size() > pageSize;
+        List<Map<String, Object>> page = hasNext ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = null;
+        if (hasNext) {
+            Map<String, Object> last = page.get(pageSize - 1);
+            nextCursor =
+                    new AchievementCursor(
+                                    sortKey,
+                                    (Long) last.get(AchievementField.ID.attribute()),
+                                    (LocalDate) last.get(AchievementField.DATE_STARTED.attribute()))
+                            .encode();
+        }
+        return SparseAchievementPageDTO.builder()
+                .items(toSparseItems(page, requested))
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    // Items holding the requested properties only, in the order AchievementDTO declares them
+    private List<Map<String, Object>> toSparseItems(
+            List<Map<String, Object>> rows, Set<AchievementField> requested) {
+        Map<Long, Set<Integer>> tagIds = Map.of();
+        if (requested.contains(AchievementField.TAGS) && !rows.isEmpty()) {
+            tagIds =
+                    achievementRepository
+                            .findTagIdsByIdIn(
+                                    rows.stream()
+                                            .map(row -> (Long) row.get("id"))
+                                            .collect(Collectors.toList()))
+                            .stream()
+                            .collect(
+                                    Collectors.groupingBy(
+                                            AchievementTagIdView::getId,
+                                            Collectors.mapping(
+                                                    AchievementTagIdView::getTagId,
+                                                    Collectors.toSet())));
+        }
+        List<Map<String, Object>> items = new ArrayList<>(rows.size());
+        for (Map<String, Object> row : rows) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            for (AchievementField field : requested) {
+                item.put(field.parameter(), sparseValue(field, row, tagIds));
+            }
+            items.add(item);
+        }
+        return items;
+    }
+
+    private Object sparseValue(
+            AchievementField field, Map<String, Object> row, Map<Long, Set<Integer>> tagIds) {
+        return switch (field) {
+            case TAGS -> tagDictionary.namesOf(tagIds.getOrDefault((Long) row.get("id"), Set.of()));
+            case STATUS -> ((StatusEnum) row.get(field.attribute())).name();
+            default -> row.get(field.attribute());
+        };
+    }
+
+    @Override
+    public Page<AchievementDTO> getAchievementViewPage(
+            String status, String sort, String dir, int page, Integer size) {
+        if (page < 0) {
+            throw new InvalidPageRequestException("Page must not be negative");
+        }
+        String sortProperty = sort == null || sort.isBlank() ? "id" : sort;
+        if (!VIEW_SORT_PROPERTIES.contains(sortProperty)) {
+            throw new InvalidPageRequestException("Unknown sort: " + sort);
+        }
+        Sort.Direction direction =
+                Sort.Direction.fromOptionalString(dir == null || dir.isBlank() ? "asc" : dir)
+                        .orElseThrow(
+                                () -> new InvalidPageRequestException("Unknown direction: " + dir));
+        // Break ties on id so rows do not move between pages
+        Sort order = Sort.by(direction, sortProperty);
+        if (!"id".equals(sortProperty)) {
+            order = order.and(Sort.by("id"));
+        }
+        Pageable pageable = PageRequest.of(page, paginationProperties.pageSize(size), order);
+
+        Page<Achievement> achievements =
+                status == null || status.isBlank()
+                        ? achievementRepository.findAll(pageable)
+                        : achievementRepository.findByStatus(parseStatus(status), pageable);
+        return achievements.map(achievementMapper::toDTO);
+    }
+
+    private StatusEnum parseStatus(String status) {
+        try {
+            return StatusEnum.valueOf(status);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidPageRequestException("Unknown status: " + status);
+        }
+    }
+
+    private AchievementPageDTO toPage(
+            List<Achievement> rows, int pageSize, AchievementSortKey sortKey) {
+        boolean hasNext = rows.size() > pageSize;
+        List<Achievement> page = hasNext ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor =
+                hasNext ? AchievementCursor.after(sortKey, page.get(pageSize - 1)).encode() : null;
+        return AchievementPageDTO.builder()
+                .items(page.stream().map(achievementMapper::toDTO).collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    private List<Achievement> findPageRows(
+            AchievementSortKey sortKey, AchievementCursor position, Limit limit) {
+        if (sortKey == AchievementSortKey.ID) {
+            return position == null
+                    ? achievementRepository.findAllByOrderByIdAsc(limit)
+                    : achievementRepository.findByIdGreaterThanOrderByIdAsc(
+                            position.lastId(), limit);
+        }
+        if (position == null) {
+            return achievementRepository.findFirstPageOrderByDateStarted(limit);
+        }
+        return position.lastDateStarted() == null
+                ? achievementRepository.findPageAfterNullDateStarted(position.lastId(), limit)
+                : achievementRepository.findPageAfterDateStarted(
+                        position.lastDateStarted(), position.lastId(), limit);
+    }
+
     @Override
     public Optional<AchievementDTO> updateAchievement(UpdateAchievementDTO updateAchievementDTO) {
         // Check if achievement with the given ID exists
@@ -85,24 +533,147 @@ public class AchievementServiceImpl implements AchievementService {
 
         // Update DTO to entity
         Achievement existingAchievement = existingAchievementOptional.get();
+        AchievementDTO previousDTO = achievementMapper.toDTO(existingAchievement);
         achievementMapper.updateEntityFromDTO(updateAchievementDTO, existingAchievement);
 
-        // Save entity in the database
-        Achievement savedAchievement = achievementRepository.save(existingAchievement);
+        // Save entity in the database, flushing so the returned version is the incremented one
+        Achievement savedAchievement = achievementRepository.saveAndFlush(existingAchievement);
+        achievementCache.evict(id, previousDTO.title(), savedAchievement.getTitle());
 
         // Map entity to DTO
         AchievementDTO updatedDTO = achievementMapper.toDTO(savedAchievement);
+        eventPublisher.publishEvent(AchievementChangedEvent.updated(previousDTO, updatedDTO));
 
         // Return updated DTO wrapped in Optional
         return Optional.of(updatedDTO);
     }
 
     @Override
-    public void deleteAchievement(Long id) {
-        if (!achievementRepository.existsById(id)) {
-            throw new RecordDoesNotExistException(
-                    "Cannot delete: Achievement with ID " + id + " does not exist!");
+    public long patchAchievement(
+            Long id, PatchAchievementDTO patchAchievementDTO, long expectedVersion) {
+        // Only the supplied columns are written, without loading the achievement first
+        Map<String, Object> values = new LinkedHashMap<>();
+        if (patchAchievementDTO.title() != null) {
+            values.put("title", patchAchievementDTO.title());
+        }
+        if (patchAchievementDTO.description() != null) {
+            values.put("description", patchAchievementDTO.description());
+        }
+        if (patchAchievementDTO.dateStarted() != null) {
+            values.put("dateStarted", patchAchievementDTO.dateStarted());
+        }
+        if (patchAchievementDTO.dateCompleted() != null) {
+            values.put("dateCompleted", patchAchievementDTO.dateCompleted());
+        }
+        if (patchAchievementDTO.status() != null) {
+            values.put("status", StatusEnum.valueOf(patchAchievementDTO.status()));
+        }
+
+        // The statistics count status, dates and tags, and need their previous values to move.
+        // The UPDATE returns them, so they are exactly the ones of the version it replaced.
+        AchievementDTO previousDTO = null;
+        if (touchesStatistics(patchAchievementDTO)) {
+            AchievementStateView previous =
+                    achievementRepository
+                            .updateColumnsReturningPrevious(id, expectedVersion, values)
+                            .orElseThrow(() -> patchFailure(id, expectedVersion));
+            previousDTO =
+                    AchievementDTO.builder()
+                            .id(id)
+                            .title(previous.title())
+                            .description(previous.description())
+                            .dateStarted(previous.dateStarted())
+                            .dateCompleted(previous.dateCompleted())
+                            .tags(tagDictionary.namesOf(previous.tagIds()))
+                            .status(previous.status().name())
+                            .version(expectedVersion)
+                            .build();
+        } else if (achievementRepository.updateColumns(id, expectedVersion, values) == 0) {
+            throw patchFailure(id, expectedVersion);
         }
-        achievementRepository.deleteById(id);
+        if (patchAchievementDTO.tags() != null) {
+            achievementRepository.replaceTags(id, tagDictionary.idsOf(patchAchievementDTO.tags()));
+        }
+
+        long newVersion = expectedVersion + 1;
+        achievementCache.evict(id, patchAchievementDTO.title());
+        if (previousDTO != null) {
+            AchievementDTO before = previousDTO;
+            AchievementDTO after =
+                    AchievementDTO.builder()
+                            .id(id)
+                            .title(valueOr(patchAchievementDTO.title(), before.title()))
+                            .description(
+                                    valueOr(
+                                            patchAchievementDTO.description(),
+                                            before.description()))
+                            .dateStarted(
+                                    valueOr(
+                                            patchAchievementDTO.dateStarted(),
+                                            before.dateStarted()))
+                            .dateCompleted(
+                                    valueOr(
+                                            patchAchievementDTO.dateCompleted(),
+                                            before.dateCompleted()))
+                            .tags(valueOr(patchAchievementDTO.tags(), before.tags()))
+                            .status(valueOr(patchAchievementDTO.status(), before.status()))
+                            .version(newVersion)
+                            .build();
+            eventPublisher.publishEvent(AchievementChangedEvent.updated(before, after));
+            return newVersion;
+        }
+        // Listeners receive only the patched fields, there is no previous state to compare with
+        AchievementDTO patchedDTO =
+                AchievementDTO.builder()
+                        .id(id)
+                        .title(patchAchievementDTO.title())
+                        .description(patchAchievementDTO.description())
+                        .dateStarted(patchAchievementDTO.dateStarted())
+                        .dateCompleted(patchAchievementDTO.dateCompleted())
+                        .tags(patchAchievementDTO.tags())
+                        .status(patchAchievementDTO.status())
+                        .version(newVersion)
+                        .build();
+        eventPublisher.publishEvent(AchievementChangedEvent.updated(null, patchedDTO));
+        return newVersion;
+    }
+
+    private static boolean touchesStatistics(PatchAchievementDTO patchAchievementDTO) {
+        return patchAchievementDTO.status() != null
+                || patchAchievementDTO.dateStarted() != null
+                || patchAchievementDTO.dateCompleted() != null
+                || patchAchievementDTO.tags() != null;
+    }
+
+    // Tells a missing achievement from a lost race, only once the update has failed
+    private RuntimeException patchFailure(Long id, long expectedVersion) {
+        if (achievementRepository.findVersionById(id).isEmpty()) {
+            return new RecordDoesNotExistException(
+                    "Cannot patch: Achievement with ID " + id + " does not exist!");
+        }
+        return new VersionConflictException(
+                "Achievement with ID " + id + " is no longer at version " + expectedVersion);
+    }
+
+    private static <T> T valueOr(T value, T fallback) {
+        return value != null ? value : fallback;
+    }
+
+    @Override
+    public void deleteAchievement(Long id) {
+        // Load the achievement so listeners learn which tags it carried
+        Achievement achievement =
+                achievementRepository
+                        .findById(id)
+                        .orElseThrow(
+                                () ->
+                                        new RecordDoesNotExistException(
+                                                "Cannot delete: Achievement with ID "
+                                                        + id
+                                                        + " does not exist!"));
+        achievementRepository.delete(achievement);
+        achievementCache.evict(id);
+        eventPublisher.publishEvent(
+                AchievementChangedEvent.deleted(achievementMapper.toDTO(achievement)));
     }
 }
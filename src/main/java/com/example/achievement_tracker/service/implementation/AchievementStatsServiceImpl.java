@@ -0,0 +1,212 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.service.implementation;
+
+import com.example.achievement_tracker.api.dto.HistogramBucketDTO;
+import com.example.achievement_tracker.api.dto.RollupBucketDTO;
+import com.example.achievement_tracker.api.dto.StatusCountDTO;
+import com.example.achievement_tracker.api.dto.TagCountDTO;
+import com.example.achievement_tracker.exception.InvalidPageRequestException;
+import com.example.achievement_tracker.persistence.model.AchievementRollupKey;
+import com.example.achievement_tracker.persistence.model.AchievementStatistic;
+import com.example.achievement_tracker.persistence.model.RollupGranularity;
+import com.example.achievement_tracker.persistence.model.RollupSeries;
+import com.example.achievement_tracker.persistence.model.StatisticDimension;
+import com.example.achievement_tracker.persistence.model.StatusEnum;
+import com.example.achievement_tracker.persistence.projection.RollupCountView;
+import com.example.achievement_tracker.persistence.repository.AchievementRollupRepository;
+import com.example.achievement_tracker.persistence.repository.AchievementStatisticRepository;
+import com.example.achievement_tracker.service.AchievementStatsService;
+import com.example.achievement_tracker.service.analytics.AchievementColumns;
+import com.example.achievement_tracker.service.analytics.StatsFilter;
+import jakarta.transaction.Transactional;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+// Reads the statistics maintained by AchievementStatisticsUpdater instead of aggregating
+// achievements
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class AchievementStatsServiceImpl implements AchievementStatsService {
+    // Same order as the statistics query: most used first, ties by tag
+    private static final Comparator<Map.Entry<String, Long>> TOP_TAG_ORDER =
+            Map.Entry.<String, Long>comparingByValue()
+                    .reversed()
+                    .thenComparing(Map.Entry.comparingByKey());
+
+    // Periods a rollup response may span, ten years of days
+    static final int MAX_ROLLUP_PERIODS = 3660;
+    // Periods covered when the request gives no start
+    static final int DEFAULT_ROLLUP_PERIODS = 12;
+
+    private final AchievementStatisticRepository achievementStatisticRepository;
+    private final AchievementRollupRepository achievementRollupRepository;
+    private final AchievementColumns achievementColumns;
+
+    @Override
+    public List<StatusCountDTO> getStatusCounts(StatsFilter filter) {
+        if (!filter.isEmpty()) {
+            long[] counts = achievementColumns.countByStatus(filter);
+            List<StatusCountDTO> statusCounts = new ArrayList<>();
+            for (StatusEnum status : StatusEnum.values()) {
+                statusCounts.add(new StatusCountDTO(status.name(), counts[status.ordinal()]));
+            }
+            return statusCounts;
+        }
+        Map<String, Long> counts = new HashMap<>();
+        for (AchievementStatistic statistic :
+                achievementStatisticRepository.findByDimension(StatisticDimension.STATUS)) {
+            counts.put(statistic.getKey().getBucket(), statistic.getCount());
+        }
+        // Report every status, including the ones without achievements
+        List<StatusCountDTO> statusCounts = new ArrayList<>();
+        for (StatusEnum status : StatusEnum.values()) {
+            statusCounts.add(
+                    new StatusCountDTO(status.name(), counts.getOrDefault(status.name(), 0L)));
+        }
+        return statusCounts;
+    }
+
+    @Override
+    public List<TagCountDTO> getTopTags(StatsFilter filter, int limit) {
+        if (!filter.isEmpty()) {
+            return achievementColumns.countByTag(filter).entrySet().stream()
+                    .sorted(TOP_TAG_ORDER)
+                    .limit(limit)
+                    .map(entry -> new TagCountDTO(entry.getKey(), entry.getValue()))
+                    .collect(Collectors.toList());
+        }
+        return achievementStatisticRepository
+                .findTopByDimension(StatisticDimension.TAG, Limit.of(limit))
+                .stream()
+                .map(
+                        statistic ->
+                                new TagCountDTO(
+                                        statistic.getKey().getBucket(), statistic.getCount()))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<HistogramBucketDTO> getTimeToCompletionHistogram(
+            StatsFilter filter, int bucketWidthDays) {
+        if (!filter.isEmpty()) {
+            return toBuckets(
+                    achievementColumns.countByDaysToCompletion(filter, bucketWidthDays),
+                    bucketWidthDays);
+        }
+        // Counts are kept per exact duration, only the non-empty buckets are materialised
+        SortedMap<Integer, Long> counts = new TreeMap<>();
+        for (AchievementStatistic row :
+                achievementStatisticRepository.findByDimension(
+                        StatisticDimension.DAYS_TO_COMPLETION)) {
+            long days = Long.parseLong(row.getKey().getBucket());
+            counts.merge((int) (days / bucketWidthDays), row.getCount(), Long::sum);
+        }
+        return toBuckets(counts, bucketWidthDays);
+    }
+
+    @Override
+    public List<RollupBucketDTO> getRollup(
+            RollupGranularity granularity,
+            LocalDate from,
+            LocalDate to,
+            String status,
+            String tag) {
+        LocalDate windowTo = to != null ? to : LocalDate.now();
+        LocalDate windowFrom =
+                from != null
+                        ? from
+                        : granularity.plus(
+                                granularity.periodStart(windowTo), 1 - DEFAULT_ROLLUP_PERIODS);
+        if (windowFrom.isAfter(windowTo)) {
+            throw new InvalidPageRequestException(
+                    "Rollup window starts on " + windowFrom + ", after its end " + windowTo);
+        }
+        long periods = granularity.periodsBetween(windowFrom, windowTo);
+        if (periods > MAX_ROLLUP_PERIODS) {
+            throw new InvalidPageRequestException(
+                    "Rollup window spans "
+                            + periods
+                            + " periods, at most "
+                            + MAX_ROLLUP_PERIODS
+                            + " are allowed");
+        }
+        StatusEnum statusFilter = null;
+        if (status != null) {
+            try {
+                statusFilter = StatusEnum.valueOf(status);
+            } catch (IllegalArgumentException e) {
+                throw new InvalidPageRequestException("Unknown status: " + status);
+            }
+        }
+
+        // Reads at most two rows per period, one per series
+        LocalDate firstPeriod = granularity.periodStart(windowFrom);
+        long[] started = new long[(int) periods];
+        long[] completed = new long[(int) periods];
+        for (RollupCountView row :
+                achievementRollupRepository.sumByPeriod(
+                        granularity,
+                        tag != null ? tag : AchievementRollupKey.ALL_TAGS,
+                        firstPeriod,
+                        windowTo,
+                        statusFilter)) {
+            int period = (int) granularity.periodsBetween(firstPeriod, row.getPeriodStart()) - 1;
+            if (row.getSeries() == RollupSeries.STARTED) {
+                started[period] = row.getCount();
+            } else {
+                completed[period] = row.getCount();
+            }
+        }
+        // Every period of the window is reported, including the empty ones
+        List<RollupBucketDTO> buckets = new ArrayList<>((int) periods);
+        for (int period = 0; period < periods; period++) {
+            LocalDate periodStart = granularity.plus(firstPeriod, period);
+            buckets.add(
+                    RollupBucketDTO.builder()
+                            .from(periodStart)
+                            .to(granularity.plus(periodStart, 1).minusDays(1))
+                            .started(started[period])
+                            .completed(completed[period])
+                            .build());
+        }
+        return buckets;
+    }
+
+    // Only the non-empty buckets, so the response grows with the data rather than its range
+    private static List<HistogramBucketDTO> toBuckets(
+            SortedMap<Integer, Long> counts, int bucketWidthDays) {
+        List<HistogramBucketDTO> buckets = new ArrayList<>(counts.size());
+        counts.forEach(
+                (bucket, count) -> {
+                    long fromDays = (long) bucket * bucketWidthDays;
+                    buckets.add(
+                            new HistogramBucketDTO(fromDays, fromDays + bucketWidthDays, count));
+                });
+        return buckets;
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.service.implementation;
+
+import com.example.achievement_tracker.api.dto.TimelineBucketDTO;
+import com.example.achievement_tracker.api.dto.TimelineDTO;
+import com.example.achievement_tracker.api.dto.TimelineItemDTO;
+import com.example.achievement_tracker.exception.InvalidPageRequestException;
+import com.example.achievement_tracker.service.AchievementTimelineService;
+import com.example.achievement_tracker.service.timeline.AchievementTimeline;
+import com.example.achievement_tracker.service.timeline.TimelineEntry;
+import com.example.achievement_tracker.service.timeline.TimelineHistogram;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+// Lays out the timeline so the chart draws at most maxItems bars or bucketCount buckets
+@Service
+@RequiredArgsConstructor
+public class AchievementTimelineServiceImpl implements AchievementTimelineService {
+    private final AchievementTimeline achievementTimeline;
+
+    @Override
+    public TimelineDTO getTimeline(LocalDate from, LocalDate to, int maxItems, int bucketCount) {
+        LocalDate today = LocalDate.now();
+        LocalDate windowFrom = from;
+        if (windowFrom == null) {
+            LocalDate earliestStart = achievementTimeline.earliestStart();
+            windowFrom = earliestStart != null ? earliestStart : today;
+            if (to != null && windowFrom.isAfter(to)) {
+                windowFrom = to;
+            }
+        }
+        LocalDate windowTo = to;
+        if (windowTo == null) {
+            windowTo = achievementTimeline.latestEnd();
+            if (windowTo == null) {
+                // Open achievements run to today, or to their start when that is still ahead
+                LocalDate latestStart = achievementTimeline.latestStart();
+                windowTo = latestStart != null && latestStart.isAfter(today) ? latestStart : today;
+            }
+            if (windowTo.isBefore(windowFrom)) {
+                windowTo = windowFrom;
+            }
+        }
+        if (windowFrom.isAfter(windowTo)) {
+            throw new InvalidPageRequestException(
+                    "Timeline window starts on " + windowFrom + ", after its end " + windowTo);
+        }
+
+        // One entry past maxItems is enough to know the window has to be bucketed
+        List<TimelineEntry> entries =
+                achievementTimeline.overlapping(windowFrom, windowTo, maxItems + 1);
+        TimelineDTO.TimelineDTOBuilder timeline =
+                TimelineDTO.builder().from(windowFrom).to(windowTo);
+        if (entries.size() > maxItems) {
+            int days = (int) (windowTo.toEpochDay() - windowFrom.toEpochDay()) + 1;
+            int width = (days + bucketCount - 1) / bucketCount;
+            TimelineHistogram histogram =
+                    achievementTimeline.histogram(windowFrom, windowTo, width);
+            return timeline.total(histogram.total())
+                    .lanes(0)
+                    .items(List.of())
+                    .buckets(buckets(histogram.active(), windowFrom, windowTo, width))
+                    .build();
+        }
+        int[] lanes = packLanes(entries);
+        int laneCount = 0;
+        List<TimelineItemDTO> items = new ArrayList<>(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            items.add(toItem(entries.get(i), lanes[i]));
+            laneCount = Math.max(laneCount, lanes[i] + 1);
+        }
+        return timeline.total(entries.size())
+                .lanes(laneCount)
+                .items(items)
+                .buckets(List.of())
+                .build();
+    }
+
+    /**
+     * Greedy interval packing: entries ordered by start take the lowest lane that is free on their
+     * first day. This uses as many lanes as there are achievements active on the busiest day, which
+     * is the fewest possible.
+     */
+    static int[] packLanes(List<TimelineEntry> entries) {
+        int[] lanes = new int[entries.size()];
+        // Occupied lanes as {last day, lane}, the one that frees up first on top
+        PriorityQueue<int[]> occupied =
+                new PriorityQueue<>(Comparator.comparingInt(lane -> lane[0]));
+        PriorityQueue<Integer> free = new PriorityQueue<>();
+        int opened = 0;
+        for (int i = 0; i < entries.size(); i++) {
+            TimelineEntry entry = entries.get(i);
+            while (!occupied.isEmpty() && occupied.peek()[0] < entry.start()) {
+                free.add(occupied.poll()[1]);
+            }
+            int lane = free.isEmpty() ? opened++ : free.poll();
+            lanes[i] = lane;
+            occupied.add(new int[] {entry.end(), lane});
+        }
+        return lanes;
+    }
+
+    // Level of detail for zoomed-out windows: equal-width buckets of whole days
+    static List<TimelineBucketDTO> buckets(long[] active, LocalDate from, LocalDate to, int width) {
+        int first = (int) from.toEpochDay();
+        int last = (int) to.toEpochDay();
+        List<TimelineBucketDTO> buckets = new ArrayList<>(active.length);
+        for (int bucket = 0; bucket < active.length; bucket++) {
+            int bucketStart = first + bucket * width;
+            buckets.add(
+                    TimelineBucketDTO.builder()
+                            .from(LocalDate.ofEpochDay(bucketStart))
+                            .to(LocalDate.ofEpochDay(Math.min(bucketStart + width - 1, last)))
+                            .count(active[bucket])
+                            .build());
+        }
+        return buckets;
+    }
+
+    private static TimelineItemDTO toItem(TimelineEntry entry, int lane) {
+        return TimelineItemDTO.builder()
+                .id(entry.id())
+                .title(entry.title())
+                .status(entry.status().name())
+                .dateStarted(LocalDate.ofEpochDay(entry.start()))
+                .dateCompleted(entry.isOpen() ? null : LocalDate.ofEpochDay(entry.end()))
+                .lane(lane)
+                .build();
+    }
+}
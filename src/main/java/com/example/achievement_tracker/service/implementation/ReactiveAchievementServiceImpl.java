@@ -0,0 +1,90 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.service.implementation;
+
+import com.example.achievement_tracker.api.dto.AchievementDTO;
+import com.example.achievement_tracker.api.dto.AchievementPageDTO;
+import com.example.achievement_tracker.config.PaginationProperties;
+import com.example.achievement_tracker.exception.InvalidPageRequestException;
+import com.example.achievement_tracker.persistence.reactive.ReactiveAchievementRepository;
+import com.example.achievement_tracker.service.ReactiveAchievementService;
+import com.example.achievement_tracker.service.pagination.AchievementCursor;
+import com.example.achievement_tracker.service.pagination.AchievementSortKey;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Read-only: every call is a single statement, so no transaction is opened
+@Service
+@RequiredArgsConstructor
+public class ReactiveAchievementServiceImpl implements ReactiveAchievementService {
+    private final ReactiveAchievementRepository reactiveAchievementRepository;
+    private final PaginationProperties paginationProperties;
+
+    @Override
+    public Mono<AchievementDTO> getAchievementById(Long id) {
+        return reactiveAchievementRepository.findById(id);
+    }
+
+    // Cursors are interchangeable with v1 cursors for the id ordering, the only one v2 offers
+    @Override
+    public Mono<AchievementPageDTO> getAchievementPage(String cursor, Integer limit) {
+        return Mono.defer(
+                () -> {
+                    int pageSize = paginationProperties.pageSize(limit);
+                    Long afterId = null;
+                    if (cursor != null) {
+                        AchievementCursor position = AchievementCursor.decode(cursor);
+                        if (position.sortKey() != AchievementSortKey.ID) {
+                            throw new InvalidPageRequestException(
+                                    "Cursor was issued for sort '"
+                                            + position.sortKey().parameter()
+                                            + "', v2 pages are ordered by id");
+                        }
+                        afterId = position.lastId();
+                    }
+                    // Fetch one extra achievement to find out whether another page follows
+                    return reactiveAchievementRepository
+                            .findPage(afterId, pageSize + 1)
+                            .collectList()
+                            .map(rows -> toPage(rows, pageSize));
+                });
+    }
+
+    @Override
+    public Flux<AchievementDTO> streamAchievements() {
+        return reactiveAchievementRepository.streamAll();
+    }
+
+    private static AchievementPageDTO toPage(List<AchievementDTO> rows, int pageSize) {
+        boolean hasNext = rows.size() > pageSize;
+        List<AchievementDTO> page = hasNext ? rows.subList(0, pageSize) : rows;
+        AchievementDTO last = hasNext ? page.get(pageSize - 1) : null;
+        return AchievementPageDTO.builder()
+                .items(page)
+                .nextCursor(
+                        hasNext
+                                ? new AchievementCursor(
+                                                AchievementSortKey.ID,
+                                                last.id(),
+                                                last.dateStarted())
+                                        .encode()
+                                : null)
+                .build();
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.service.imports;
+
+import com.example.achievement_tracker.api.dto.CreateAchievementDTO;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Reads RFC 4180 CSV whose header row names the columns, in the layout the CSV export writes.
+ *
+ * <p>Columns are matched by name, so {@code id}, {@code version} and unknown columns are ignored.
+ * Quoted fields may contain separators, doubled quotes and line breaks. Empty fields are null and
+ * tags are split on {@code ;}. A record with a field or a total longer than the given limits is
+ * read to its end without keeping the excess and rejected, so one runaway quote cannot exhaust the
+ * heap.
+ */
+public class CsvAchievementRecordReader implements AchievementRecordReader {
+    private final BufferedReader reader;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private final int maxFieldLength;
+    private final int maxRecordLength;
+    // Line the next row starts on
+    private long line = 1;
+    private boolean unterminatedQuote;
+    // Characters kept for the current row, and why some were not
+    private int rowLength;
+    private String oversized;
+
+    public CsvAchievementRecordReader(
+            InputStream inputStream, int maxFieldLength, int maxRecordLength) throws IOException {
+        this.reader =
+                new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        this.maxFieldLength = maxFieldLength;
+        this.maxRecordLength = maxRecordLength;
+        List<String> header = readRow();
+        if (header != null) {
+            for (int index = 0; index < header.size(); index++) {
+                columns.put(header.get(index).strip(), index);
+            }
+        }
+    }
+
+    @Override
+    public ImportRecord next() throws IOException {
+        long rowLine;
+        List<String> row;
+        do {
+            rowLine = line;
+            row = readRow();
+            if (row == null) {
+                return null;
+            }
+        } while (row.size() == 1 && row.get(0).isBlank());
+
+        if (unterminatedQuote) {
+            return ImportRecord.malformed(rowLine, "unterminated quoted field");
+        }
+        if (oversized != null) {
+            return ImportRecord.malformed(rowLine, oversized);
+        }
+        try {
+            return ImportRecord.parsed(
+                    rowLine,
+                    CreateAchievementDTO.builder()
+                            .title(field(row, "title"))
+                            .description(field(row, "description"))
+                            .dateStarted(date(row, "dateStarted"))
+                            .dateCompleted(date(row, "dateCompleted"))
+                            .tags(tags(field(row, "tags")))
+                            .status(field(row, "status"))
+                            .build());
+        } catch (DateTimeParseException e) {
+            return ImportRecord.malformed(
+                    rowLine, "dates must be ISO dates, found '" + e.getParsedString() + "'");
+        }
+    }
+
+    private String field(List<String> row, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= row.size() || row.get(index).isEmpty()) {
+            return null;
+        }
+        return row.get(index);
+    }
+
+    private LocalDate date(List<String> row, String column) {
+        String value = field(row, column);
+        return value == null ? null : LocalDate.parse(value.strip());
+    }
+
+    private static Set<String> tags(String value) {
+        if (value == null) {
+            return null;
+        }
+        return Arrays.stream(value.split(";"))
+                .map(String::strip)
+                .filter(tag -> !tag.isEmpty())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    // One row, possibly spanning several lines inside quotes, or null at the end of the upload
+    private List<String> readRow() throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        unterminatedQuote = false;
+        rowLength = 0;
+        oversized = null;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    unterminatedQuote = true;
+                    fields.add(field.toString());
+                    return fields;
+                }
+                if (c == '"') {
+                    c = reader.read();
+                    if (c != '"') {
+                        quoted = false;
+                        continue;
+                    }
+                } else if (c == '\n') {
+                    line++;
+                }
+                append(field, c);
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == -1) {
+                if (c == '\n') {
+                    line++;
+                }
+                fields.add(field.toString());
+                return fields;
+            } else if (c != '\r') {
+                append(field, c);
+            }
+            c = reader.read();
+        }
+    }
+
+    private void append(StringBuilder field, int c) {
+        if (field.length() >= maxFieldLength) {
+            tooLong("field longer than " + maxFieldLength + " characters");
+        } else if (rowLength >= maxRecordLength) {
+            tooLong("record longer than " + maxRecordLength + " characters");
+        } else {
+            rowLength++;
+            field.append((char) c);
+        }
+    }
+
+    private void tooLong(String message) {
+        if (oversized == null) {
+            oversized = message;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.service.imports;
+
+import com.example.achievement_tracker.api.dto.CreateAchievementDTO;
+import java.util.List;
+
+/** One record of an upload, or the reasons it could not be parsed. */
+public record ImportRecord(long line, CreateAchievementDTO achievement, List<String> errors) {
+
+    public static ImportRecord parsed(long line, CreateAchievementDTO achievement) {
+        return new ImportRecord(line, achievement, List.of());
+    }
+
+    public static ImportRecord malformed(long line, String error) {
+        return new ImportRecord(line, null, List.of(error));
+    }
+
+    public boolean isMalformed() {
+        return !errors.isEmpty();
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.service.imports;
+
+import com.example.achievement_tracker.api.dto.CreateAchievementDTO;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads a JSON array or a sequence of newline-delimited objects with the streaming parser.
+ *
+ * <p>An object that does not bind is skipped and reported. Malformed JSON cannot be resynchronised
+ * and ends the upload after it is reported.
+ */
+public class JsonAchievementRecordReader implements AchievementRecordReader {
+    private final MappingIterator<CreateAchievementDTO> records;
+    private boolean finished;
+
+    public JsonAchievementRecordReader(InputStream inputStream, ObjectMapper objectMapper)
+            throws IOException {
+        this.records = objectMapper.readerFor(CreateAchievementDTO.class).readValues(inputStream);
+    }
+
+    @Override
+    public ImportRecord next() throws IOException {
+        if (finished) {
+            return null;
+        }
+        long line = records.getParser().currentLocation().getLineNr();
+        try {
+            if (!records.hasNextValue()) {
+                finished = true;
+                return null;
+            }
+            line = records.getParser().currentTokenLocation().getLineNr();
+            return ImportRecord.parsed(line, records.nextValue());
+        } catch (JsonParseException e) {
+            finished = true;
+            return ImportRecord.malformed(e.getLocation().getLineNr(), e.getOriginalMessage());
+        } catch (JsonMappingException e) {
+            return ImportRecord.malformed(line, e.getOriginalMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        records.close();
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.service.index;
+
+import com.example.achievement_tracker.api.dto.AchievementDTO;
+import com.example.achievement_tracker.persistence.projection.AchievementTagView;
+import com.example.achievement_tracker.persistence.repository.AchievementRepository;
+import com.example.achievement_tracker.service.event.AchievementChangedEvent;
+import com.example.achievement_tracker.service.event.AppliedVersions;
+import jakarta.transaction.Transactional;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * In-memory inverted index from tag to a compressed bitmap of achievement ids. Multi-tag queries
+ * are answered with bitmap intersections and unions instead of joins on achievement_tags.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TagIndex {
+    private final AchievementRepository achievementRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<String, Roaring64Bitmap> idsByTag = new HashMap<>();
+    private final AppliedVersions appliedVersions = new AppliedVersions();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuild() {
+        // Writes committed while the table is scanned wait for the lock and are replayed on top
+        lock.writeLock().lock();
+        try (Stream<AchievementTagView> rows = achievementRepository.streamAchievementTags()) {
+            Map<String, Roaring64Bitmap> rebuilt = new HashMap<>();
+            rows.forEach(
+                    row ->
+                            rebuilt.computeIfAbsent(row.getTag(), tag -> new Roaring64Bitmap())
+                                    .addLong(row.getId()));
+            rebuilt.values().forEach(Roaring64Bitmap::runOptimize);
+            idsByTag = rebuilt;
+            log.info("Tag index built with {} tags", rebuilt.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAchievementChanged(AchievementChangedEvent event) {
+        AchievementDTO before = event.before();
+        AchievementDTO after = event.after();
+        // Nothing to do when an update leaves the tags untouched
+        if (event.type() == AchievementChangedEvent.ChangeType.UPDATED
+                && (after.tags() == null
+                        || (before != null && after.tags().equals(before.tags())))) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            appliedVersions.apply(
+                    event,
+                    follows -> {
+                        // The previous tags are the indexed ones only if no change came between
+                        if (event.type() != AchievementChangedEvent.ChangeType.CREATED) {
+                            remove(event.id(), follows && before != null ? before.tags() : null);
+                        }
+                        if (after != null && after.tags() != null) {
+                            for (String tag : after.tags()) {
+                                idsByTag.computeIfAbsent(tag, key -> new Roaring64Bitmap())
+                                        .addLong(event.id());
+                            }
+                        }
+                    });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void remove(Long id, Collection<String> tags) {
+        // Without the previous tags the id is cleared from every bitmap
+        Collection<String> candidates = tags == null ? idsByTag.keySet() : tags;
+        for (String tag : candidates) {
+            Roaring64Bitmap ids = idsByTag.get(tag);
+            if (ids != null) {
+                ids.removeLong(id);
+            }
+        }
+        idsByTag.values().removeIf(Roaring64Bitmap::isEmpty);
+    }
+
+    // Ids of the achievements carrying every (ALL) or at least one (ANY) of the given tags
+    public Roaring64Bitmap match(Collection<String> tags, TagMatch match) {
+        lock.readLock().lock();
+        try {
+            Roaring64Bitmap result = null;
+            for (String tag : tags) {
+                Roaring64Bitmap ids = idsByTag.get(tag);
+                if (ids == null) {
+                    if (match == TagMatch.ALL) {
+                        return new Roaring64Bitmap();
+                    }
+                    continue;
+                }
+                if (result == null) {
+                    result = ids.clone();
+                } else if (match == TagMatch.ALL) {
+                    result.and(ids);
+                } else {
+                    result.or(ids);
+                }
+            }
+            return result == null ? new Roaring64Bitmap() : result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.service.index;
+
+import com.example.achievement_tracker.exception.InvalidPageRequestException;
+import java.util.Arrays;
+
+public enum TagMatch {
+    ALL("all"),
+    ANY("any");
+
+    private final String parameter;
+
+    TagMatch(String parameter) {
+        this.parameter = parameter;
+    }
+
+    // Resolve the value of the `match` request parameter, e.g. "any"
+    public static TagMatch fromParameter(String parameter) {
+        return Arrays.stream(values())
+                .filter(match -> match.parameter.equals(parameter))
+                .findFirst()
+                .orElseThrow(
+                        () ->
+                                new InvalidPageRequestException(
+                                        "Unsupported match '"
+                                                + parameter
+                                                + "': must be any of all or any"));
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.service.pagination;
+
+import com.example.achievement_tracker.exception.InvalidPageRequestException;
+import com.example.achievement_tracker.persistence.model.Achievement;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+/**
+ * Position of the last row of a page in a keyset ordering. It is handed to clients as an opaque
+ * URL-safe token, so the encoding can change without breaking the API contract.
+ */
+public record AchievementCursor(
+        AchievementSortKey sortKey, Long lastId, LocalDate lastDateStarted) {
+
+    private static final String SEPARATOR = ":";
+    private static final String NULL_DATE = "-";
+
+    public static AchievementCursor after(AchievementSortKey sortKey, Achievement achievement) {
+        return new AchievementCursor(sortKey, achievement.getId(), achievement.getDateStarted());
+    }
+
+    public String encode() {
+        String date = lastDateStarted == null ? NULL_DATE : lastDateStarted.toString();
+        String raw = sortKey.name() + SEPARATOR + lastId + SEPARATOR + date;
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static AchievementCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(SEPARATOR, -1);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Unexpected number of cursor parts");
+            }
+            AchievementSortKey sortKey = AchievementSortKey.valueOf(parts[0]);
+            Long lastId = Long.valueOf(parts[1]);
+            LocalDate lastDateStarted =
+                    NULL_DATE.equals(parts[2]) ? null : LocalDate.parse(parts[2]);
+            return new AchievementCursor(sortKey, lastId, lastDateStarted);
+        } catch (RuntimeException exception) {
+            throw new InvalidPageRequestException("Malformed cursor: " + token);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.service.pagination;
+
+import com.example.achievement_tracker.exception.InvalidPageRequestException;
+import java.util.Arrays;
+
+public enum AchievementSortKey {
+    ID("id"),
+    DATE_STARTED("dateStarted");
+
+    private final String parameter;
+
+    AchievementSortKey(String parameter) {
+        this.parameter = parameter;
+    }
+
+    public String parameter() {
+        return parameter;
+    }
+
+    // Resolve the value of the `sort` request parameter, e.g. "dateStarted"
+    public static AchievementSortKey fromParameter(String parameter) {
+        return Arrays.stream(values())
+                .filter(sortKey -> sortKey.parameter.equals(parameter))
+                .findFirst()
+                .orElseThrow(
+                        () ->
+                                new InvalidPageRequestException(
+                                        "Unsupported sort '"
+                                                + parameter
+                                                + "': must be any of id or dateStarted"));
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.service.search;
+
+import com.example.achievement_tracker.api.dto.AchievementDTO;
+import com.example.achievement_tracker.persistence.projection.AchievementTextView;
+import com.example.achievement_tracker.persistence.repository.AchievementRepository;
+import com.example.achievement_tracker.service.event.AchievementChangedEvent;
+import com.example.achievement_tracker.service.event.AppliedVersions;
+import jakarta.annotation.PreDestroy;
+import jakarta.transaction.Transactional;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TopScoreDocCollectorManager;
+import org.apache.lucene.search.TotalHits;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Embedded Lucene index over achievement titles and descriptions. Only the id is stored, callers
+ * load the matching achievements themselves. Searches see a write as soon as it has been committed
+ * to the database.
+ */
+@Slf4j
+@Component
+public class AchievementSearchIndex {
+    private static final String ID = "id";
+    private static final String TITLE = "title";
+    private static final String DESCRIPTION = "description";
+
+    // Matches counted exactly before the total becomes a lower bound, Lucene's own default
+    static final int TOTAL_HITS_THRESHOLD = 1000;
+
+    // A term found in the title ranks above the same term found in the description
+    private static final Map<String, Float> FIELD_WEIGHTS = Map.of(TITLE, 2f, DESCRIPTION, 1f);
+
+    private final AchievementRepository achievementRepository;
+    private final Analyzer analyzer = new StandardAnalyzer();
+    // Writes share the read lock, a rebuild takes the write lock
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final IndexWriter indexWriter;
+    private final SearcherManager searcherManager;
+    // Set by writes, the next search reopens the reader instead of every write doing it
+    private final AtomicBoolean stale = new AtomicBoolean();
+    private final AppliedVersions appliedVersions = new AppliedVersions();
+
+    public AchievementSearchIndex(AchievementRepository achievementRepository) throws IOException {
+        this.achievementRepository = achievementRepository;
+        this.indexWriter =
+                new IndexWriter(new ByteBuffersDirectory(), new IndexWriterConfig(analyzer));
+        this.searcherManager = new SearcherManager(indexWriter, null);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        searcherManager.close();
+        indexWriter.close();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuild() {
+        // Writes committed while the table is scanned wait for the lock and are replayed on top
+        lock.writeLock().lock();
+        try (Stream<AchievementTextView> rows = achievementRepository.streamAchievementTexts()) {
+            indexWriter.deleteAll();
+            rows.forEach(row -> index(row.getId(), row.getTitle(), row.getDescription()));
+            indexWriter.forceMerge(1);
+            searcherManager.maybeRefreshBlocking();
+            log.info("Search index built with {} documents", indexWriter.getDocStats().numDocs);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot build the search index", e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAchievementChanged(AchievementChangedEvent event) {
+        AchievementDTO before = event.before();
+        AchievementDTO after = event.after();
+        String title = after == null ? null : after.title();
+        String description = after == null ? null : after.description();
+        if (event.type() == AchievementChangedEvent.ChangeType.UPDATED && before != null) {
+            if (Objects.equals(title, before.title())
+                    && Objects.equals(description, before.description())) {
+                return;
+            }
+        } else if (event.type() == AchievementChangedEvent.ChangeType.UPDATED) {
+            // A partial update names only the fields it changed
+            if (title == null && description == null) {
+                return;
+            }
+            if (title == null || description == null) {
+                Optional<AchievementTextView> text = achievementRepository.findTextById(event.id());
+                if (text.isEmpty()) {
+                    return;
+                }
+                title = text.get().getTitle();
+                description = text.get().getDescription();
+            }
+        }
+        String indexedTitle = title;
+        String indexedDescription = description;
+        lock.readLock().lock();
+        try {
+            // Each change replaces the whole document, only its order matters
+            appliedVersions.apply(
+                    event,
+                    follows -> {
+                        if (after == null) {
+                            delete(event.id());
+                        } else {
+                            index(event.id(), indexedTitle, indexedDescription);
+                        }
+                    });
+            stale.set(true);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the achievements matching a query in simple query syntax: terms are required by
+     * default, {@code |} means or, {@code -} negates, {@code "..."} matches a phrase and a trailing
+     * {@code *} a prefix.
+     *
+     * @param offset number of best matches to skip
+     * @param limit maximum number of ids to return
+     */
+    public SearchHits search(String text, int offset, int limit) {
+        SimpleQueryParser parser = new SimpleQueryParser(analyzer, FIELD_WEIGHTS);
+        parser.setDefaultOperator(BooleanClause.Occur.MUST);
+        Query query = parser.parse(text);
+        try {
+            if (stale.getAndSet(false)) {
+                searcherManager.maybeRefreshBlocking();
+            }
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                // Counting stops at the threshold, past it the matches are only skipped
+                TopDocs topDocs =
+                        searcher.search(
+                                query,
+                                new TopScoreDocCollectorManager(
+                                        offset + limit,
+                                        Math.max(offset + limit, TOTAL_HITS_THRESHOLD)));
+                StoredFields storedFields = searcher.storedFields();
+                List<Long> ids = new ArrayList<>(limit);
+                ScoreDoc[] scoreDocs = topDocs.scoreDocs;
+                for (int i = offset; i < scoreDocs.length; i++) {
+                    ids.add(Long.valueOf(storedFields.document(scoreDocs[i].doc).get(ID)));
+                }
+                return new SearchHits(
+                        ids,
+                        topDocs.totalHits.value,
+                        topDocs.totalHits.relation == TotalHits.Relation.EQUAL_TO);
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot search the search index", e);
+        }
+    }
+
+    private void delete(Long id) {
+        try {
+            indexWriter.deleteDocuments(new Term(ID, id.toString()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot update the search index", e);
+        }
+    }
+
+    private void index(Long id, String title, String description) {
+        Document document = new Document();
+        document.add(new StringField(ID, id.toString(), Field.Store.YES));
+        if (title != null) {
+            document.add(new TextField(TITLE, title, Field.Store.NO));
+        }
+        if (description != null) {
+            document.add(new TextField(DESCRIPTION, description, Field.Store.NO));
+        }
+        try {
+            indexWriter.updateDocument(new Term(ID, id.toString()), document);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot index achievement " + id, e);
+        }
+    }
+}
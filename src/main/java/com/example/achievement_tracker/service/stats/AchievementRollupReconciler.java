@@ -0,0 +1,152 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.service.stats;
+
+import com.example.achievement_tracker.persistence.model.AchievementRollup;
+import com.example.achievement_tracker.persistence.model.AchievementRollupKey;
+import com.example.achievement_tracker.persistence.model.RollupGranularity;
+import com.example.achievement_tracker.persistence.model.RollupSeries;
+import com.example.achievement_tracker.persistence.projection.DayCountView;
+import com.example.achievement_tracker.persistence.projection.DayTagCountView;
+import com.example.achievement_tracker.persistence.repository.AchievementRepository;
+import com.example.achievement_tracker.persistence.repository.AchievementRollupRepository;
+import com.example.achievement_tracker.service.version.AchievementChangeCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Rebuilds the rollups from day-level aggregations of the achievements table and corrects the rows
+ * that drifted. At startup this also fills the rollups of achievements written before they existed.
+ * It runs every {@code achievements.rollups.reconcile-interval}.
+ */
+@Slf4j
+@Component
+public class AchievementRollupReconciler {
+    private final AchievementRepository achievementRepository;
+    private final AchievementRollupRepository achievementRollupRepository;
+    private final AchievementChangeCounter achievementChangeCounter;
+    private final TransactionTemplate transaction;
+    private final MeterRegistry meterRegistry;
+
+    public AchievementRollupReconciler(
+            AchievementRepository achievementRepository,
+            AchievementRollupRepository achievementRollupRepository,
+            AchievementChangeCounter achievementChangeCounter,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.achievementRepository = achievementRepository;
+        this.achievementRollupRepository = achievementRollupRepository;
+        this.achievementChangeCounter = achievementChangeCounter;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+    }
+
+    // Corrects the drifted rollups and returns how many were corrected, see the statistics
+    @Scheduled(fixedDelayString = "${achievements.rollups.reconcile-interval:1h}")
+    public int reconcile() {
+        Map<AchievementRollupKey, Long> corrections = null;
+        for (int attempt = 1; corrections == null; attempt++) {
+            if (attempt == AchievementStatisticsReconciler.MAX_ATTEMPTS) {
+                corrections =
+                        transaction.execute(
+                                status -> {
+                                    achievementChangeCounter.lock();
+                                    return apply(computeCorrections());
+                                });
+            } else {
+                long seen = achievementChangeCounter.current();
+                Map<AchievementRollupKey, Long> computed =
+                        transaction.execute(status -> computeCorrections());
+                corrections =
+                        transaction.execute(
+                                status -> {
+                                    achievementChangeCounter.lock();
+                                    return achievementChangeCounter.current() == seen
+                                            ? apply(computed)
+                                            : null;
+                                });
+            }
+        }
+        if (!corrections.isEmpty()) {
+            log.warn("Corrected {} drifted achievement rollups", corrections.size());
+            meterRegistry.counter("achievements.rollups.corrections").increment(corrections.size());
+        }
+        return corrections.size();
+    }
+
+    private Map<AchievementRollupKey, Long> computeCorrections() {
+        Map<AchievementRollupKey, Long> corrections = new HashMap<>();
+        count(RollupSeries.STARTED, achievementRepository.countByDateStarted(), corrections);
+        countTags(
+                RollupSeries.STARTED,
+                achievementRepository.countByDateStartedAndTag(),
+                corrections);
+        count(RollupSeries.COMPLETED, achievementRepository.countByDateCompleted(), corrections);
+        countTags(
+                RollupSeries.COMPLETED,
+                achievementRepository.countByDateCompletedAndTag(),
+                corrections);
+        for (AchievementRollup rollup : achievementRollupRepository.findAll()) {
+            corrections.merge(rollup.getKey(), -rollup.getCount(), Long::sum);
+        }
+        corrections.values().removeIf(delta -> delta == 0);
+        return corrections;
+    }
+
+    private Map<AchievementRollupKey, Long> apply(Map<AchievementRollupKey, Long> corrections) {
+        achievementRollupRepository.applyDeltas(corrections);
+        achievementRollupRepository.deleteEmpty();
+        return corrections;
+    }
+
+    private static void count(
+            RollupSeries series, List<DayCountView> rows, Map<AchievementRollupKey, Long> counts) {
+        for (DayCountView row : rows) {
+            add(series, AchievementRollupKey.ALL_TAGS, row, counts);
+        }
+    }
+
+    private static void countTags(
+            RollupSeries series,
+            List<DayTagCountView> rows,
+            Map<AchievementRollupKey, Long> counts) {
+        for (DayTagCountView row : rows) {
+            add(series, row.getTag(), row, counts);
+        }
+    }
+
+    // Days are summed into the week and month containing them
+    private static void add(
+            RollupSeries series,
+            String tag,
+            DayCountView row,
+            Map<AchievementRollupKey, Long> counts) {
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            counts.merge(
+                    AchievementRollupKey.of(
+                            series, granularity, tag, row.getDay(), row.getStatus()),
+                    row.getCount(),
+                    Long::sum);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.service.stats;
+
+import com.example.achievement_tracker.api.dto.AchievementDTO;
+import com.example.achievement_tracker.persistence.model.AchievementRollupKey;
+import com.example.achievement_tracker.persistence.model.RollupGranularity;
+import com.example.achievement_tracker.persistence.model.RollupSeries;
+import com.example.achievement_tracker.persistence.model.StatusEnum;
+import com.example.achievement_tracker.persistence.repository.AchievementRollupRepository;
+import com.example.achievement_tracker.service.event.AchievementChangedEvent;
+import com.example.achievement_tracker.service.version.AchievementChangeCounter;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keeps the start and completion rollups in step with the writes, the same way {@link
+ * AchievementStatisticsUpdater} keeps the statistics: deltas are summed over the writing
+ * transaction and applied in one batch before it commits.
+ */
+@Component
+@RequiredArgsConstructor
+public class AchievementRollupUpdater {
+    private final AchievementRollupRepository achievementRollupRepository;
+
+    @EventListener
+    public void onAchievementChanged(AchievementChangedEvent event) {
+        // A partial update without previous state leaves the dates, status and tags untouched
+        if (event.type() == AchievementChangedEvent.ChangeType.UPDATED && event.before() == null) {
+            return;
+        }
+        Map<AchievementRollupKey, Long> deltas = new HashMap<>();
+        if (event.before() != null) {
+            count(event.before(), -1, deltas);
+        }
+        if (event.after() != null) {
+            count(event.after(), 1, deltas);
+        }
+        deltas.values().removeIf(delta -> delta == 0);
+        if (deltas.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            achievementRollupRepository.applyDeltas(deltas);
+            return;
+        }
+        deltas.forEach((key, delta) -> pendingDeltas().merge(key, delta, Long::sum));
+    }
+
+    // Deltas of the current transaction, registered for commit on first use
+    @SuppressWarnings("unchecked")
+    private Map<AchievementRollupKey, Long> pendingDeltas() {
+        Map<AchievementRollupKey, Long> pending =
+                (Map<AchievementRollupKey, Long>)
+                        TransactionSynchronizationManager.getResource(this);
+        if (pending != null) {
+            return pending;
+        }
+        Map<AchievementRollupKey, Long> deltas = new HashMap<>();
+        TransactionSynchronizationManager.bindResource(this, deltas);
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public int getOrder() {
+                        return AchievementChangeCounter.SYNCHRONIZATION_ORDER + 1;
+                    }
+
+                    @Override
+                    public void beforeCommit(boolean readOnly) {
+                        achievementRollupRepository.applyDeltas(deltas);
+                    }
+
+                    @Override
+                    public void afterCompletion(int status) {
+                        TransactionSynchronizationManager.unbindResource(
+                                AchievementRollupUpdater.this);
+                    }
+                });
+        return deltas;
+    }
+
+    private static void count(
+            AchievementDTO achievement, long sign, Map<AchievementRollupKey, Long> deltas) {
+        if (achievement.status() == null) {
+            return;
+        }
+        StatusEnum status = StatusEnum.valueOf(achievement.status());
+        count(achievement, RollupSeries.STARTED, achievement.dateStarted(), status, sign, deltas);
+        count(
+                achievement,
+                RollupSeries.COMPLETED,
+                achievement.dateCompleted(),
+                status,
+                sign,
+                deltas);
+    }
+
+    // One rollup per granularity over all tags, and one per granularity and tag
+    private static void count(
+            AchievementDTO achievement,
+            RollupSeries series,
+            LocalDate date,
+            StatusEnum status,
+            long sign,
+            Map<AchievementRollupKey, Long> deltas) {
+        if (date == null) {
+            return;
+        }
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            deltas.merge(
+                    AchievementRollupKey.of(
+                            series, granularity, AchievementRollupKey.ALL_TAGS, date, status),
+                    sign,
+                    Long::sum);
+            if (achievement.tags() != null) {
+                for (String tag : achievement.tags()) {
+                    deltas.merge(
+                            AchievementRollupKey.of(series, granularity, tag, date, status),
+                            sign,
+                            Long::sum);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.service.stats;
+
+import com.example.achievement_tracker.persistence.model.AchievementStatistic;
+import com.example.achievement_tracker.persistence.model.AchievementStatisticKey;
+import com.example.achievement_tracker.persistence.projection.DurationCountView;
+import com.example.achievement_tracker.persistence.projection.StatusCountView;
+import com.example.achievement_tracker.persistence.projection.TagCountView;
+import com.example.achievement_tracker.persistence.repository.AchievementRepository;
+import com.example.achievement_tracker.persistence.repository.AchievementStatisticRepository;
+import com.example.achievement_tracker.service.version.AchievementChangeCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Recomputes the achievement statistics from the achievements table and corrects the rows that
+ * drifted, for example after writes that bypass the service such as SQL scripts. It runs at startup
+ * and then every {@code achievements.statistics.reconcile-interval}.
+ */
+@Slf4j
+@Component
+public class AchievementStatisticsReconciler {
+    // Attempts without the lock are bounded, so a busy table cannot starve the reconciliation
+    static final int MAX_ATTEMPTS = 3;
+
+    private final AchievementRepository achievementRepository;
+    private final AchievementStatisticRepository achievementStatisticRepository;
+    private final AchievementChangeCounter achievementChangeCounter;
+    private final TransactionTemplate transaction;
+    private final MeterRegistry meterRegistry;
+
+    public AchievementStatisticsReconciler(
+            AchievementRepository achievementRepository,
+            AchievementStatisticRepository achievementStatisticRepository,
+            AchievementChangeCounter achievementChangeCounter,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.achievementRepository = achievementRepository;
+        this.achievementStatisticRepository = achievementStatisticRepository;
+        this.achievementChangeCounter = achievementChangeCounter;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Corrects the drifted statistics and returns how many were corrected. The aggregations run
+     * without holding the change counter, so writers are not held up by them. The corrections are
+     * then applied under the counter lock, unless a writer committed in the meantime, in which case
+     * they are computed again. The last attempt computes them under the lock, as writers cannot
+     * commit while it is held: every writer bumps the counter before it applies its own deltas.
+     */
+    @Scheduled(fixedDelayString = "${achievements.statistics.reconcile-interval:1h}")
+    public int reconcile() {
+        Map<AchievementStatisticKey, Long> corrections = null;
+        for (int attempt = 1; corrections == null; attempt++) {
+            if (attempt == MAX_ATTEMPTS) {
+                corrections =
+                        transaction.execute(
+                                status -> {
+                                    achievementChangeCounter.lock();
+                                    return apply(computeCorrections());
+                                });
+            } else {
+                long seen = achievementChangeCounter.current();
+                Map<AchievementStatisticKey, Long> computed =
+                        transaction.execute(status -> computeCorrections());
+                corrections =
+                        transaction.execute(
+                                status -> {
+                                    achievementChangeCounter.lock();
+                                    return achievementChangeCounter.current() == seen
+                                            ? apply(computed)
+                                            : null;
+                                });
+            }
+        }
+        if (!corrections.isEmpty()) {
+            log.warn("Corrected {} drifted achievement statistics", corrections.size());
+            meterRegistry
+                    .counter("achievements.statistics.corrections")
+                    .increment(corrections.size());
+        }
+        return corrections.size();
+    }
+
+    private Map<AchievementStatisticKey, Long> computeCorrections() {
+        Map<AchievementStatisticKey, Long> corrections = countAchievements();
+        for (AchievementStatistic statistic : achievementStatisticRepository.findAll()) {
+            corrections.merge(statistic.getKey(), -statistic.getCount(), Long::sum);
+        }
+        corrections.values().removeIf(delta -> delta == 0);
+        return corrections;
+    }
+
+    private Map<AchievementStatisticKey, Long> apply(
+            Map<AchievementStatisticKey, Long> corrections) {
+        achievementStatisticRepository.applyDeltas(corrections);
+        achievementStatisticRepository.deleteEmpty();
+        return corrections;
+    }
+
+    private Map<AchievementStatisticKey, Long> countAchievements() {
+        Map<AchievementStatisticKey, Long> counts = new HashMap<>();
+        for (StatusCountView row : achievementRepository.countByStatus()) {
+            counts.put(AchievementStatisticKey.status(row.getStatus().name()), row.getCount());
+        }
+        for (TagCountView row : achievementRepository.countByTag(Limit.unlimited())) {
+            counts.put(AchievementStatisticKey.tag(row.getTag()), row.getCount());
+        }
+        for (DurationCountView row : achievementRepository.countByDaysToCompletion()) {
+            counts.put(AchievementStatisticKey.daysToCompletion(row.getDays()), row.getCount());
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.service.stats;
+
+import com.example.achievement_tracker.api.dto.AchievementDTO;
+import com.example.achievement_tracker.persistence.model.AchievementStatisticKey;
+import com.example.achievement_tracker.persistence.repository.AchievementStatisticRepository;
+import com.example.achievement_tracker.service.event.AchievementChangedEvent;
+import com.example.achievement_tracker.service.version.AchievementChangeCounter;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keeps the achievement statistics in step with the writes. Each change is turned into deltas that
+ * are summed over the writing transaction and applied with one batch before it commits, so the
+ * statistics commit or roll back together with the achievements.
+ */
+@Component
+@RequiredArgsConstructor
+public class AchievementStatisticsUpdater {
+    private final AchievementStatisticRepository achievementStatisticRepository;
+
+    @EventListener
+    public void onAchievementChanged(AchievementChangedEvent event) {
+        // A partial update without previous state leaves the counted fields untouched
+        if (event.type() == AchievementChangedEvent.ChangeType.UPDATED && event.before() == null) {
+            return;
+        }
+        Map<AchievementStatisticKey, Long> deltas = new HashMap<>();
+        if (event.before() != null) {
+            count(event.before(), -1, deltas);
+        }
+        if (event.after() != null) {
+            count(event.after(), 1, deltas);
+        }
+        deltas.values().removeIf(delta -> delta == 0);
+        if (deltas.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            achievementStatisticRepository.applyDeltas(deltas);
+            return;
+        }
+        deltas.forEach((key, delta) -> pendingDeltas().merge(key, delta, Long::sum));
+    }
+
+    // Deltas of the current transaction, registered for commit on first use
+    @SuppressWarnings("unchecked")
+    private Map<AchievementStatisticKey, Long> pendingDeltas() {
+        Map<AchievementStatisticKey, Long> pending =
+                (Map<AchievementStatisticKey, Long>)
+                        TransactionSynchronizationManager.getResource(this);
+        if (pending != null) {
+            return pending;
+        }
+        Map<AchievementStatisticKey, Long> deltas = new HashMap<>();
+        TransactionSynchronizationManager.bindResource(this, deltas);
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    // After the change counter, whose lock the reconciliation waits on
+                    @Override
+                    public int getOrder() {
+                        return AchievementChangeCounter.SYNCHRONIZATION_ORDER + 1;
+                    }
+
+                    @Override
+                    public void beforeCommit(boolean readOnly) {
+                        achievementStatisticRepository.applyDeltas(deltas);
+                    }
+
+                    @Override
+                    public void afterCompletion(int status) {
+                        TransactionSynchronizationManager.unbindResource(
+                                AchievementStatisticsUpdater.this);
+                    }
+                });
+        return deltas;
+    }
+
+    private static void count(
+            AchievementDTO achievement, long sign, Map<AchievementStatisticKey, Long> deltas) {
+        if (achievement.status() != null) {
+            deltas.merge(AchievementStatisticKey.status(achievement.status()), sign, Long::sum);
+        }
+        if (achievement.tags() != null) {
+            for (String tag : achievement.tags()) {
+                deltas.merge(AchievementStatisticKey.tag(tag), sign, Long::sum);
+            }
+        }
+        // Same rule as the histogram query: both dates set, completed on or after the start
+        if (achievement.dateStarted() != null
+                && achievement.dateCompleted() != null
+                && !achievement.dateCompleted().isBefore(achievement.dateStarted())) {
+            long days =
+                    ChronoUnit.DAYS.between(achievement.dateStarted(), achievement.dateCompleted());
+            deltas.merge(AchievementStatisticKey.daysToCompletion(days), sign, Long::sum);
+        }
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.service.timeline;
+
+import com.example.achievement_tracker.api.dto.AchievementDTO;
+import com.example.achievement_tracker.persistence.model.StatusEnum;
+import com.example.achievement_tracker.persistence.projection.AchievementTimelineView;
+import com.example.achievement_tracker.persistence.repository.AchievementRepository;
+import com.example.achievement_tracker.service.event.AchievementChangedEvent;
+import com.example.achievement_tracker.service.event.AppliedVersions;
+import com.example.achievement_tracker.service.feed.AchievementChangeFeed;
+import jakarta.transaction.Transactional;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * In-memory interval index of every started achievement over {@code [dateStarted, dateCompleted]},
+ * so the timeline reads only the achievements overlapping its window. Built at startup and kept in
+ * step with committed writes.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AchievementTimeline {
+    private final AchievementRepository achievementRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private IntervalTree tree = new IntervalTree();
+    // Current entry of each indexed achievement, its start locates it in the tree
+    private Map<Long, TimelineEntry> entries = new HashMap<>();
+    private final AppliedVersions appliedVersions = new AppliedVersions();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuild() {
+        // Writes committed while the table is scanned wait for the lock and are replayed on top
+        lock.writeLock().lock();
+        try {
+            IntervalTree rebuiltTree = new IntervalTree();
+            Map<Long, TimelineEntry> rebuiltEntries = new HashMap<>();
+            try (Stream<AchievementTimelineView> rows =
+                    achievementRepository.streamAchievementTimeline()) {
+                rows.forEach(
+                        row -> {
+                            TimelineEntry entry =
+                                    entry(
+                                            row.getId(),
+                                            row.getTitle(),
+                                            row.getStatus(),
+                                            row.getDateStarted(),
+                                            row.getDateCompleted());
+                            rebuiltTree.insert(entry);
+                            rebuiltEntries.put(entry.id(), entry);
+                        });
+            }
+            tree = rebuiltTree;
+            entries = rebuiltEntries;
+            log.info("Timeline built with {} achievements", rebuiltTree.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Order(AchievementChangeFeed.VIEW_LISTENER_ORDER)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAchievementChanged(AchievementChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            appliedVersions.apply(event, follows -> apply(event, follows));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(AchievementChangedEvent event, boolean follows) {
+        AchievementDTO after = event.after();
+        if (event.type() == AchievementChangedEvent.ChangeType.DELETED) {
+            remove(event.id());
+        } else if (event.before() == null
+                && event.type() == AchievementChangedEvent.ChangeType.UPDATED) {
+            // Partial updates without previous state only change the title or description
+            if (after.title() == null) {
+                return;
+            }
+            TimelineEntry current = entries.get(event.id());
+            if (follows) {
+                if (current != null) {
+                    remove(event.id());
+                    add(current.withTitle(after.title()));
+                }
+                return;
+            }
+            // The entry may miss a change that is yet to arrive, the row has it
+            remove(event.id());
+            achievementRepository
+                    .findTimelineById(event.id())
+                    .filter(row -> row.getDateStarted() != null)
+                    .ifPresent(
+                            row ->
+                                    add(
+                                            entry(
+                                                    row.getId(),
+                                                    row.getTitle(),
+                                                    row.getStatus(),
+                                                    row.getDateStarted(),
+                                                    row.getDateCompleted())));
+        } else {
+            remove(event.id());
+            if (after.dateStarted() != null) {
+                add(
+                        entry(
+                                event.id(),
+                                after.title(),
+                                StatusEnum.valueOf(after.status()),
+                                after.dateStarted(),
+                                after.dateCompleted()));
+            }
+        }
+    }
+
+    /** Achievements active on any day of {@code [from, to]}, ordered by start date then id. */
+    public List<TimelineEntry> overlapping(LocalDate from, LocalDate to) {
+        lock.readLock().lock();
+        try {
+            return tree.overlapping((int) from.toEpochDay(), (int) to.toEpochDay());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // The first limit achievements active on any day of [from, to], in the same order
+    public List<TimelineEntry> overlapping(LocalDate from, LocalDate to, int limit) {
+        lock.readLock().lock();
+        try {
+            return tree.overlapping((int) from.toEpochDay(), (int) to.toEpochDay(), limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Counts the achievements active in {@code [from, to]} and in each bucket of width days. */
+    public TimelineHistogram histogram(LocalDate from, LocalDate to, int width) {
+        lock.readLock().lock();
+        try {
+            return tree.histogram((int) from.toEpochDay(), (int) to.toEpochDay(), width);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Earliest start date on the timeline, null when it is empty
+    public LocalDate earliestStart() {
+        lock.readLock().lock();
+        try {
+            Integer start = tree.minStart();
+            return start == null ? null : LocalDate.ofEpochDay(start);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Latest start date on the timeline, null when it is empty
+    public LocalDate latestStart() {
+        lock.readLock().lock();
+        try {
+            Integer start = tree.maxStart();
+            return start == null ? null : LocalDate.ofEpochDay(start);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Latest completion date on the timeline, null when it is empty or an achievement is open
+    public LocalDate latestEnd() {
+        lock.readLock().lock();
+        try {
+            Integer end = tree.maxEnd();
+            return end == null || end == TimelineEntry.OPEN_END ? null : LocalDate.ofEpochDay(end);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(TimelineEntry entry) {
+        tree.insert(entry);
+        entries.put(entry.id(), entry);
+    }
+
+    private void remove(long id) {
+        TimelineEntry current = entries.remove(id);
+        if (current != null) {
+            tree.remove(current.start(), id);
+        }
+    }
+
+    // A completion before the start is drawn as a single day
+    private static TimelineEntry entry(
+            long id, String title, StatusEnum status, LocalDate started, LocalDate completed) {
+        int start = (int) started.toEpochDay();
+        int end =
+                completed == null
+                        ? TimelineEntry.OPEN_END
+                        : Math.max(start, (int) completed.toEpochDay());
+        return new TimelineEntry(id, title, status, start, end);
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.service.timeline;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Predicate;
+
+/**
+ * Treap of timeline entries ordered on {@code (start, id)}, where every node also holds the latest
+ * end in its subtree. An overlap query skips each subtree that ends before the window or starts
+ * after it, so it costs {@code O(log n + k)} for {@code k} matches. Not thread-safe.
+ */
+class IntervalTree {
+    private final SplittableRandom random = new SplittableRandom();
+    private Node root;
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    // Earliest start of all entries, null when the tree is empty
+    Integer minStart() {
+        if (root == null) {
+            return null;
+        }
+        Node node = root;
+        while (node.left != null) {
+            node = node.left;
+        }
+        return node.entry.start();
+    }
+
+    // Latest start of all entries, null when the tree is empty
+    Integer maxStart() {
+        if (root == null) {
+            return null;
+        }
+        Node node = root;
+        while (node.right != null) {
+            node = node.right;
+        }
+        return node.entry.start();
+    }
+
+    // Latest end of all entries, null when the tree is empty
+    Integer maxEnd() {
+        return root == null ? null : root.maxEnd;
+    }
+
+    void insert(TimelineEntry entry) {
+        Node[] parts = split(root, entry.start(), entry.id());
+        root = merge(merge(parts[0], new Node(entry, random.nextInt())), parts[1]);
+        size++;
+    }
+
+    // Removes the entry with the given key, returns whether there was one
+    boolean remove(int start, long id) {
+        Node[] lower = split(root, start, id);
+        Node[] upper = split(lower[1], start, id + 1);
+        boolean removed = upper[0] != null;
+        if (removed) {
+            size--;
+        }
+        root = merge(lower[0], upper[1]);
+        return removed;
+    }
+
+    /** Entries overlapping the epoch days {@code [from, to]}, ordered on {@code (start, id)}. */
+    List<TimelineEntry> overlapping(int from, int to) {
+        return overlapping(from, to, Integer.MAX_VALUE);
+    }
+
+    // The first limit entries overlapping [from, to], the traversal stops once it has them
+    List<TimelineEntry> overlapping(int from, int to, int limit) {
+        List<TimelineEntry> entries = new ArrayList<>();
+        visit(
+                root,
+                from,
+                to,
+                entry -> {
+                    entries.add(entry);
+                    return entries.size() < limit;
+                });
+        return entries;
+    }
+
+    /**
+     * Counts the entries overlapping {@code [from, to]} and the ones active in each of its buckets
+     * of {@code width} days, without collecting them.
+     */
+    TimelineHistogram histogram(int from, int to, int width) {
+        int count = (to - from + width) / width;
+        // Each entry adds one to the buckets it spans: +1 where it enters, -1 after it leaves
+        long[] changes = new long[count + 1];
+        int[] total = new int[1];
+        visit(
+                root,
+                from,
+                to,
+                entry -> {
+                    total[0]++;
+                    changes[(Math.max(entry.start(), from) - from) / width]++;
+                    changes[(Math.min(entry.end(), to) - from) / width + 1]--;
+                    return true;
+                });
+        long[] active = new long[count];
+        long running = 0;
+        for (int bucket = 0; bucket < count; bucket++) {
+            running += changes[bucket];
+            active[bucket] = running;
+        }
+        return new TimelineHistogram(total[0], active);
+    }
+
+    // Passes the entries overlapping [from, to] to action in order, returns false once it stopped
+    private static boolean visit(Node node, int from, int to, Predicate<TimelineEntry> action) {
+        if (node == null || node.maxEnd < from) {
+            return true;
+        }
+        if (!visit(node.left, from, to, action)) {
+            return false;
+        }
+        // Everything after this node starts at least as late
+        if (node.entry.start() > to) {
+            return false;
+        }
+        if (node.entry.end() >= from && !action.test(node.entry)) {
+            return false;
+        }
+        return visit(node.right, from, to, action);
+    }
+
+    // Splits into the nodes ordered before (start, id) and the others
+    private static Node[] split(Node node, int start, long id) {
+        if (node == null) {
+            return new Node[2];
+        }
+        if (before(node.entry, start, id)) {
+            Node[] parts = split(node.right, start, id);
+            node.right = parts[0];
+            node.update();
+            parts[0] = node;
+            return parts;
+        }
+        Node[] parts = split(node.left, start, id);
+        node.left = parts[1];
+        node.update();
+        parts[1] = node;
+        return parts;
+    }
+
+    // Every node of left is ordered before every node of right
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    private static boolean before(TimelineEntry entry, int start, long id) {
+        return entry.start() < start || (entry.start() == start && entry.id() < id);
+    }
+
+    private static final class Node {
+        private final TimelineEntry entry;
+        private final int priority;
+        private int maxEnd;
+        private Node left;
+        private Node right;
+
+        private Node(TimelineEntry entry, int priority) {
+            this.entry = entry;
+            this.priority = priority;
+            this.maxEnd = entry.end();
+        }
+
+        private void update() {
+            maxEnd = entry.end();
+            if (left != null && left.maxEnd > maxEnd) {
+                maxEnd = left.maxEnd;
+            }
+            if (right != null && right.maxEnd > maxEnd) {
+                maxEnd = right.maxEnd;
+            }
+        }
+    }
+}
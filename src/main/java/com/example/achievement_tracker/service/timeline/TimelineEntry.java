@@ -0,0 +1,34 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.service.timeline;
+
+import com.example.achievement_tracker.persistence.model.StatusEnum;
+
+/**
+ * An achievement on the timeline, spanning the epoch days {@code [start, end]}. Achievements that
+ * are not completed yet run to {@link #OPEN_END}.
+ */
+public record TimelineEntry(long id, String title, StatusEnum status, int start, int end) {
+    public static final int OPEN_END = Integer.MAX_VALUE;
+
+    public boolean isOpen() {
+        return end == OPEN_END;
+    }
+
+    TimelineEntry withTitle(String newTitle) {
+        return new TimelineEntry(id, newTitle, status, start, end);
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.service.version;
+
+import com.example.achievement_tracker.persistence.model.TableChangeCounter;
+import com.example.achievement_tracker.persistence.repository.TableChangeCounterRepository;
+import com.example.achievement_tracker.service.event.AchievementChangedEvent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Counts the changes committed on the achievements table, and numbers them: the count after a
+ * change is its sequence. The counter row is updated in the writing transaction itself, under its
+ * row lock, so the sequences follow the commit order and a reader that sees an unchanged count has
+ * not missed a write.
+ */
+@Component
+@RequiredArgsConstructor
+public class AchievementChangeCounter {
+    static final String TABLE_NAME = "achievements";
+
+    /**
+     * Order of the commit-time increment among the transaction synchronizations. Work that must
+     * happen while the counter row is locked registers with a higher order.
+     */
+    public static final int SYNCHRONIZATION_ORDER = 0;
+
+    private final TableChangeCounterRepository tableChangeCounterRepository;
+    // The last change published without a transaction, for the listeners that run after it
+    private final ThreadLocal<Stamp> unsynchronized = new ThreadLocal<>();
+
+    public long current() {
+        return tableChangeCounterRepository.findChangeCount(TABLE_NAME).orElse(0L);
+    }
+
+    /**
+     * Locks the counter row until the current transaction ends. Writers that have already counted
+     * themselves commit first, the others wait for the lock at commit time.
+     */
+    public void lock() {
+        // On a fresh database there is no row to lock until one is created
+        if (tableChangeCounterRepository.lockByTableName(TABLE_NAME).isEmpty()) {
+            tableChangeCounterRepository.insertMissing(TABLE_NAME);
+            tableChangeCounterRepository.lockByTableName(TABLE_NAME);
+        }
+    }
+
+    /**
+     * Share-locks the counter row until the current transaction ends and returns the count. Until
+     * then no change can commit, so the transaction reads exactly the changes up to the count.
+     */
+    public long lockForRead() {
+        Optional<TableChangeCounter> counter =
+                tableChangeCounterRepository.shareByTableName(TABLE_NAME);
+        if (counter.isEmpty()) {
+            tableChangeCounterRepository.insertMissing(TABLE_NAME);
+            counter = tableChangeCounterRepository.shareByTableName(TABLE_NAME);
+        }
+        return counter.map(TableChangeCounter::getChangeCount).orElse(0L);
+    }
+
+    /**
+     * Sequence of a change once its transaction is committing, for listeners that run after the
+     * commit. Empty for a change this counter has not numbered.
+     */
+    public OptionalLong sequenceOf(AchievementChangedEvent event) {
+        if (TransactionSynchronizationManager.getResource(this) instanceof Pending pending) {
+            return pending.sequenceOf(event);
+        }
+        Stamp stamp = unsynchronized.get();
+        return stamp != null && stamp.event() == event
+                ? OptionalLong.of(stamp.sequence())
+                : OptionalLong.empty();
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener
+    public void onAchievementChanged(AchievementChangedEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            unsynchronized.set(new Stamp(event, increment(1)));
+            return;
+        }
+        // One increment per transaction, however many achievements it writes
+        if (TransactionSynchronizationManager.getResource(this) instanceof Pending pending) {
+            pending.changes.add(event);
+            return;
+        }
+        Pending pending = new Pending();
+        pending.changes.add(event);
+        TransactionSynchronizationManager.bindResource(this, pending);
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public int getOrder() {
+                        return SYNCHRONIZATION_ORDER;
+                    }
+
+                    @Override
+                    public void beforeCommit(boolean readOnly) {
+                        pending.last = increment(pending.changes.size());
+                    }
+
+                    @Override
+                    public void afterCompletion(int status) {
+                        TransactionSynchronizationManager.unbindResource(
+                                AchievementChangeCounter.this);
+                    }
+                });
+    }
+
+    // The first writers race to create the row, the upsert lets each of them count once
+    private long increment(int changes) {
+        if (tableChangeCounterRepository.increment(TABLE_NAME, changes) == 0) {
+            tableChangeCounterRepository.insertMissing(TABLE_NAME);
+            tableChangeCounterRepository.increment(TABLE_NAME, changes);
+        }
+        // The row stays locked by the increment, so the count read is this transaction's
+        return current();
+    }
+
+    // Changes of the current transaction, numbered up to last once it commits
+    private static final class Pending {
+        private final List<AchievementChangedEvent> changes = new ArrayList<>();
+        private long last;
+
+        OptionalLong sequenceOf(AchievementChangedEvent event) {
+            if (last == 0) {
+                return OptionalLong.empty();
+            }
+            for (int i = 0; i < changes.size(); i++) {
+                if (changes.get(i) == event) {
+                    return OptionalLong.of(last - changes.size() + 1 + i);
+                }
+            }
+            return OptionalLong.empty();
+        }
+    }
+
+    private record Stamp(AchievementChangedEvent event, long sequence) {}
+}
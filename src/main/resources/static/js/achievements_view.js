@@ -1,45 +1,117 @@
-document.getElementById("searchInput").addEventListener("keyup", function() {
-    let filter = this.value.toLowerCase();
-    let rows = document.querySelectorAll("#achievementsTable tr");
-    rows.forEach(row => {
-        let title = row.cells[0].textContent.toLowerCase();
-        row.style.display = title.includes(filter) ? "" : "none";
-    });
+// Rows rendered by the server, restored when the search box is cleared. Changes are applied to
+// these too, so the restored page is current.
+const pageRows = document.getElementById("achievementsTable").cloneNode(true);
+let searchTimer;
+
+document.getElementById("searchInput").addEventListener("input", function() {
+    clearTimeout(searchTimer);
+    let query = this.value.trim();
+    searchTimer = setTimeout(() => searchAchievements(query), 250);
 });
 
+function searchAchievements(query) {
+    let tbody = document.getElementById("achievementsTable");
+    if (query === "") {
+        tbody.replaceChildren(...pageRows.cloneNode(true).children);
+        applyStatusFilter();
+        return;
+    }
+    fetch(`/api/v1/achievements/search?q=${encodeURIComponent(query)}&size=100`)
+        .then(response => response.json())
+        .then(result => {
+            tbody.innerHTML = "";
+            if (result.items.length === 0) {
+                let row = tbody.insertRow();
+                let cell = row.insertCell();
+                cell.colSpan = 6;
+                cell.className = "text-center text-muted";
+                cell.textContent = "No achievements found";
+            }
+            result.items.forEach(achievement => tbody.appendChild(renderRow(achievement)));
+            applyStatusFilter();
+        })
+        .catch(error => console.error("Error searching achievements:", error));
+}
+
+function renderRow(achievement) {
+    let row = document.createElement("tr");
+    row.setAttribute("data-id", achievement.id);
+    row.setAttribute("data-status", achievement.status);
+    [achievement.title, achievement.description, achievement.dateStarted, achievement.dateCompleted]
+        .forEach(value => row.insertCell().textContent = value ?? "");
+    let status = row.insertCell();
+    status.textContent = achievement.status;
+    status.className = achievement.status === "COMPLETED" ? "text-success"
+        : achievement.status === "IN_PROGRESS" ? "text-warning" : "text-danger";
+    let tags = row.insertCell();
+    (achievement.tags || []).forEach(tag => {
+        let badge = document.createElement("span");
+        badge.className = "badge bg-info me-1";
+        badge.textContent = tag;
+        tags.appendChild(badge);
+    });
+    return row;
+}
+
+// Filtering by status reloads the first page of the filtered view from the server
 document.getElementById("statusFilter").addEventListener("change", function() {
-    let filter = this.value;
-    let rows = document.querySelectorAll("#achievementsTable tr");
+    let params = new URLSearchParams(window.location.search);
+    if (this.value === "") {
+        params.delete("status");
+    } else {
+        params.set("status", this.value);
+    }
+    params.delete("page");
+    window.location.search = params.toString();
+});
+
+// Search results are not filtered by the server, so hide the ones with another status
+
+function applyStatusFilter() {
+    let filter = document.getElementById("statusFilter").value;
+    let rows = document.querySelectorAll("#achievementsTable tr[data-status]");
     rows.forEach(row => {
         let status = row.getAttribute("data-status");
         row.style.display = (filter === "" || status === filter) ? "" : "none";
     });
-});
-
-let sortDirections = {}; // Store sorting state for each column
-
-function sortTable(n) {
-    document.querySelector(".table");
-    let tbody = document.querySelector("#achievementsTable");
-    let rows = Array.from(tbody.querySelectorAll("tr")).filter(row => row.style.display !== "none");
-
-    // Determine sorting direction (toggle)
-    sortDirections[n] = !sortDirections[n]; // Flip sorting order
-    let ascending = sortDirections[n];
+}
 
-    rows.sort((a, b) => {
-        let aValue = a.cells[n].textContent.trim();
-        let bValue = b.cells[n].textContent.trim();
+// Committed changes update or remove the rows shown, wherever on the page they happen
+let addedAchievements = 0;
 
-        // Convert date values to proper Date objects for sorting
-        if (n === 2 || n === 3) {
-            aValue = new Date(aValue);
-            bValue = new Date(bValue);
+changeFeed.onChange(change => {
+    if (change.type === "CREATED") {
+        // The new achievement's position depends on the sort, the server places it on reload
+        addedAchievements++;
+        showChangeNotice(addedAchievements === 1 ? "1 achievement was added."
+            : `${addedAchievements} achievements were added.`);
+        return;
+    }
+    [pageRows, document.getElementById("achievementsTable")].forEach(tbody => {
+        let row = tbody.querySelector(`tr[data-id="${change.id}"]`);
+        if (!row) {
+            return;
+        }
+        if (change.type === "DELETED") {
+            row.remove();
+        } else if (changeFeed.isPartial(change)) {
+            // Only the fields sent changed
+            if (change.after.title != null) {
+                row.cells[0].textContent = change.after.title;
+            }
+            if (change.after.description != null) {
+                row.cells[1].textContent = change.after.description;
+            }
+        } else {
+            row.replaceWith(renderRow(change.after));
         }
-
-        return ascending ? aValue > bValue ? 1 : -1 : aValue < bValue ? 1 : -1;
     });
+    applyStatusFilter();
+});
+
+changeFeed.onReset(() => showChangeNotice("Some changes could not be shown."));
 
-    // Append sorted rows back to the table
-    rows.forEach(row => tbody.appendChild(row));
-}
\ No newline at end of file
+function showChangeNotice(text) {
+    document.getElementById("changeNoticeText").textContent = text;
+    document.getElementById("changeNotice").style.display = "block";
+}
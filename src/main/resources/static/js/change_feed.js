@@ -0,0 +1,77 @@
+// Committed changes pushed by the server, shared by the table and chart scripts. The feed starts
+// where the page was rendered, and the browser resends the last event id when it reconnects, so
+// no change is missed. When the server no longer holds the missed changes it sends a reset instead.
+const changeFeed = (() => {
+    const changeListeners = [];
+    const resetListeners = [];
+    const since = document.body.dataset.changeSequence;
+    const source = new EventSource('/api/v1/achievements/changes' + (since ? `?since=${since}` : ''));
+    source.addEventListener('change', event => {
+        const change = JSON.parse(event.data);
+        changeListeners.forEach(listener => listener(change));
+    });
+    source.addEventListener('reset', () => resetListeners.forEach(listener => listener()));
+
+    return {
+        onChange: listener => changeListeners.push(listener),
+        onReset: listener => resetListeners.push(listener),
+
+        // Updates of the title or description only carry those fields and no previous state
+        isPartial: change => change.type === 'UPDATED' && !change.before,
+
+        // Fetches JSON along with the sequence of the latest change it includes, null if unknown
+        fetchJson(url) {
+            return fetch(url).then(response => {
+                if (!response.ok) {
+                    throw new Error(`${url} answered ${response.status}`);
+                }
+                const sequence = response.headers.get('X-Change-Sequence');
+                return response.json().then(data => ({data, sequence: sequence === null ? null : Number(sequence)}));
+            });
+        },
+
+        // Runs load() now and after every reset. load() resolves to the sequence its data
+        // includes, and only the changes after it are passed to apply(), those arriving while it
+        // loads included. Without a sequence, changes arriving while it loads trigger one more load.
+        track(load, apply) {
+            let loading = null;
+            let stale = false;
+            let loadedSequence = null;
+            let arrived = [];
+            const reload = () => {
+                if (loading) {
+                    stale = true;
+                    return;
+                }
+                arrived = [];
+                loading = Promise.resolve(load())
+                    .then(sequence => {
+                        loadedSequence = sequence ?? null;
+                        if (loadedSequence === null) {
+                            stale = stale || arrived.length > 0;
+                        } else {
+                            arrived.filter(change => change.sequence > loadedSequence).forEach(apply);
+                        }
+                    })
+                    .catch(error => console.error('Error loading achievement data:', error))
+                    .finally(() => {
+                        loading = null;
+                        arrived = [];
+                        if (stale) {
+                            stale = false;
+                            reload();
+                        }
+                    });
+            };
+            changeListeners.push(change => {
+                if (loading) {
+                    arrived.push(change);
+                } else if (loadedSequence === null || change.sequence > loadedSequence) {
+                    apply(change);
+                }
+            });
+            resetListeners.push(reload);
+            reload();
+        }
+    };
+})();
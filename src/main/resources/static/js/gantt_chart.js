@@ -1,51 +1,135 @@
-d3.json('/api/v1/achievements').then(data => {
-    // Parse dates and prepare data for timeline
-    data.forEach(d => {
-        d.dateStarted = new Date(d.dateStarted);
-        d.dateCompleted = new Date(d.dateCompleted);
-    });
-
-    // Define dimensions and scales
-    const margin = {top: 20, right: 20, bottom: 30, left: 50};
-    const width = document.getElementById('progressTimeline').clientWidth - margin.left - margin.right;  // Dynamically get the width
-    const height = 200 - margin.top - margin.bottom;
-
-    const xScale = d3.scaleTime()
-        .domain([d3.min(data, d => d.dateStarted), d3.max(data, d => d.dateCompleted)])
-        .range([0, width]);
-
-    const svg = d3.select("#progressTimeline")
-        .append("svg")
-        .attr("width", width + margin.left + margin.right)
-        .attr("height", height + margin.top + margin.bottom)
-        .append("g")
-        .attr("transform", `translate(${margin.left}, ${margin.top})`);
-
-    // Draw timeline bars for each achievement
-    svg.selectAll("line")
-        .data(data)
-        .enter()
-        .append("line")
-        .attr("x1", d => xScale(d.dateStarted))
-        .attr("x2", d => xScale(d.dateCompleted))
-        .attr("y1", (d, i) => i * 30)  // Adjusted spacing for clarity
-        .attr("y2", (d, i) => i * 30)
-        .attr("stroke", "steelblue")
-        .attr("stroke-width", 5);
-
-    // Add task names (titles) next to each bar
-    svg.selectAll("text")
-        .data(data)
-        .enter()
-        .append("text")
-        .attr("x", d => xScale(d.dateStarted) - 10)  // Position text slightly after the start of the bar
-        .attr("y", (d, i) => i * 30 - 10)  // Position text a little above the bar for readability
-        .attr("font-size", "12px")
-        .attr("fill", "black")
-        .text(d => d.title);  // Display task name (title of the achievement)
+// The server lays the achievements out in lanes and buckets them when too many overlap the window
+const timelineUrl = '/api/v1/achievements/timeline';
+const maxItems = 500;
+const laneHeight = 30;
+const maxChartHeight = 600;
+const bucketChartHeight = 150;
+const parseDate = d3.timeParse('%Y-%m-%d');
+const formatDate = d3.timeFormat('%Y-%m-%d');
+
+const margin = {top: 20, right: 20, bottom: 30, left: 50};
+const width = document.getElementById('progressTimeline').clientWidth - margin.left - margin.right;  // Dynamically get the width
+
+const svgRoot = d3.select("#progressTimeline")
+    .append("svg")
+    .attr("width", width + margin.left + margin.right);
+const svg = svgRoot.append("g")
+    .attr("transform", `translate(${margin.left}, ${margin.top})`);
+const chart = svg.append("g");
+const xAxis = svg.append("g");
+
+let baseScale = null;
+let xScale = null;
+let refetchTimer = null;
+
+function drawTimeline(timeline) {
+    const from = parseDate(timeline.from);
+    // The window includes its last day
+    const to = d3.timeDay.offset(parseDate(timeline.to), 1);
+    if (!baseScale) {
+        baseScale = d3.scaleTime().domain([from, to]).range([0, width]);
+        xScale = baseScale;
+    }
+
+    const height = timeline.items.length > 0
+        ? Math.min(Math.max(timeline.lanes, 1) * laneHeight, maxChartHeight)
+        : bucketChartHeight;
+    svgRoot.attr("height", height + margin.top + margin.bottom);
+    chart.selectAll("*").remove();
+
+    if (timeline.items.length > 0) {
+        // Lanes past the height limit share the last row rather than growing the SVG
+        const laneY = lane => Math.min(lane, maxChartHeight / laneHeight - 1) * laneHeight + laneHeight / 2;
+        const items = timeline.items.map(d => ({
+            ...d,
+            start: parseDate(d.dateStarted),
+            // Open achievements run to the end of the window
+            end: d.dateCompleted ? d3.timeDay.offset(parseDate(d.dateCompleted), 1) : to
+        }));
+
+        chart.selectAll("line")
+            .data(items)
+            .enter()
+            .append("line")
+            .attr("x1", d => xScale(d.start))
+            .attr("x2", d => xScale(d.end))
+            .attr("y1", d => laneY(d.lane))
+            .attr("y2", d => laneY(d.lane))
+            .attr("stroke", "steelblue")
+            .attr("stroke-width", 5);
+
+        // Add task names (titles) above each bar
+        chart.selectAll("text")
+            .data(items)
+            .enter()
+            .append("text")
+            .attr("x", d => Math.max(xScale(d.start), 0))
+            .attr("y", d => laneY(d.lane) - 6)
+            .attr("font-size", "12px")
+            .attr("fill", "black")
+            .text(d => d.title);
+    } else {
+        // Zoomed out: one bar per bucket, as tall as the number of achievements active in it
+        const buckets = timeline.buckets.map(d => ({
+            ...d,
+            start: parseDate(d.from),
+            end: d3.timeDay.offset(parseDate(d.to), 1)
+        }));
+        const yScale = d3.scaleLinear()
+            .domain([0, d3.max(buckets, d => d.count) || 1])
+            .range([height, 0]);
+
+        chart.selectAll("rect")
+            .data(buckets)
+            .enter()
+            .append("rect")
+            .attr("x", d => xScale(d.start))
+            .attr("width", d => Math.max(xScale(d.end) - xScale(d.start) - 1, 1))
+            .attr("y", d => yScale(d.count))
+            .attr("height", d => height - yScale(d.count))
+            .attr("fill", "steelblue")
+            .append("title")
+            .text(d => `${d.from} – ${d.to}: ${d.count}`);
+    }
 
     // Add X axis
-    svg.append("g")
-        .attr("transform", `translate(0, ${height})`)
+    xAxis.attr("transform", `translate(0, ${height})`)
         .call(d3.axisBottom(xScale));
-});
+}
+
+function loadTimeline(from, to) {
+    const params = new URLSearchParams({maxItems});
+    if (from && to) {
+        params.set('from', formatDate(from));
+        params.set('to', formatDate(d3.timeDay.offset(to, -1)));
+    }
+    return d3.json(`${timelineUrl}?${params}`).then(drawTimeline);
+}
+
+// Window currently shown, the whole timeline until the first draw
+function loadVisibleTimeline() {
+    if (!xScale) {
+        return loadTimeline();
+    }
+    const [from, to] = xScale.domain();
+    return loadTimeline(d3.timeDay.floor(from), d3.timeDay.ceil(to));
+}
+
+function scheduleRefetch() {
+    clearTimeout(refetchTimer);
+    refetchTimer = setTimeout(loadVisibleTimeline, 250);
+}
+
+// Panning and zooming rescale immediately and fetch the visible window once the gesture settles
+svgRoot.call(d3.zoom()
+    .scaleExtent([0.01, 1000])
+    .on("zoom", event => {
+        if (!baseScale) {
+            return;
+        }
+        xScale = event.transform.rescaleX(baseScale);
+        scheduleRefetch();
+    }));
+
+// Lanes are packed by the server, so a change refetches the visible window rather than moving bars
+changeFeed.track(loadVisibleTimeline, scheduleRefetch);
@@ -1,22 +1,35 @@
-// Fetch achievement data from the API endpoint
-d3.json('/api/v1/achievements').then(data => {
-    // Count occurrences of each status
-    const statusCount = {
-        "TODO": 0,
-        "IN_PROGRESS": 0,
-        "COMPLETED": 0
-    };
+// Status counts aggregated by the server, then kept up to date from the change feed
+let statusCounts = [];
 
-    data.forEach(d => {
-        if (statusCount.hasOwnProperty(d.status)) {
-            statusCount[d.status]++;
-        }
+function loadStatusCounts() {
+    return changeFeed.fetchJson('/api/v1/achievements/stats/status').then(({data, sequence}) => {
+        statusCounts = data;
+        drawStatusDistribution();
+        return sequence;
     });
+}
+
+// A change moves one achievement from its previous status to its new one
+function applyStatusChange(change) {
+    if (changeFeed.isPartial(change)) {
+        return;
+    }
+    const adjust = (achievement, delta) => {
+        const entry = achievement && statusCounts.find(d => d.status === achievement.status);
+        if (entry) {
+            entry.count = Math.max(entry.count + delta, 0);
+        }
+    };
+    adjust(change.before, -1);
+    adjust(change.after, 1);
+    drawStatusDistribution();
+}
 
+function drawStatusDistribution() {
     // Prepare data for the bar chart
-    const chartData = Object.keys(statusCount).map(status => ({
-        status: status,
-        count: statusCount[status]
+    const chartData = statusCounts.map(d => ({
+        status: d.status,
+        count: d.count
     }));
 
     // Set up chart dimensions and margins
@@ -24,7 +37,8 @@ d3.json('/api/v1/achievements').then(data => {
     const width = 800 - margin.left - margin.right;
     const height = 400 - margin.top - margin.bottom;
 
-    // Create the SVG element
+    // Create the SVG element, replacing the previous drawing
+    d3.select("#statusDistributionChart").selectAll("*").remove();
     const svg = d3.select("#statusDistributionChart")
         .append("svg")
         .attr("width", width + margin.left + margin.right)
@@ -44,7 +58,7 @@ d3.json('/api/v1/achievements').then(data => {
         .padding(0.1);
 
     const y = d3.scaleLinear()
-        .domain([0, d3.max(chartData, d => d.count)])
+        .domain([0, d3.max(chartData, d => d.count) || 1])
         .nice()
         .range([height, 0]);
 
@@ -89,4 +103,6 @@ d3.json('/api/v1/achievements').then(data => {
         .text(d => d.count)
         .style("font-weight", "bold")
         .style("font-size", "14px");  // Increase font size to make it more visible
-});
\ No newline at end of file
+}
+
+changeFeed.track(loadStatusCounts, applyStatusChange);
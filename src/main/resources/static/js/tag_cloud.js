@@ -1,37 +1,56 @@
-// Fetch achievement data from the API
-fetch('/api/v1/achievements')
-    .then(response => response.json())
-    .then(data => {
-        // Debugging log to check the fetched data
-        console.log('Fetched achievements:', data);
+// The most frequent tags aggregated by the server, then kept up to date from the change feed
+const tagCloudLimit = 50;
+let tagCounts = new Map();
+let tagCloudTimer;
 
-        const tags = [];
-        data.forEach(achievement => {
-            // Check if tags exist and push to the array
-            if (achievement.tags && achievement.tags.length > 0) {
-                achievement.tags.forEach(tag => {
-                    tags.push(tag);
-                });
-            }
+function loadTagCounts() {
+    return changeFeed.fetchJson(`/api/v1/achievements/stats/tags?limit=${tagCloudLimit}`)
+        .then(({data, sequence}) => {
+            tagCounts = new Map(data.map(tag => [tag.tag, tag.count]));
+            drawTags();
+            return sequence;
         });
+}
 
-        // Debugging log to check the tags array
-        console.log('Extracted tags:', tags);
-
-        // If there are no tags, show "No tags found" message
-        if (tags.length === 0) {
-            document.getElementById("noTagsMessage").style.display = "block";
+// Tags outside the cloud are only known by the achievements that change, so a tag that enters
+// the cloud this way starts from the count seen since the page loaded
+function applyTagChange(change) {
+    if (changeFeed.isPartial(change)) {
+        return;
+    }
+    const adjust = (achievement, delta) => (achievement && achievement.tags || []).forEach(tag => {
+        const count = (tagCounts.get(tag) || 0) + delta;
+        if (count > 0) {
+            tagCounts.set(tag, count);
         } else {
-            // Hide the "No tags found" message if tags are available
-            document.getElementById("noTagsMessage").style.display = "none";
-
-            // Process the tag data to create the tag cloud
-            createTagCloud(tags);
+            tagCounts.delete(tag);
         }
-    })
-    .catch(error => {
-        console.error('Error fetching achievement data:', error);
     });
+    adjust(change.before, -1);
+    adjust(change.after, 1);
+    // The layout is recomputed from scratch, so wait for bursts of changes to settle
+    clearTimeout(tagCloudTimer);
+    tagCloudTimer = setTimeout(drawTags, 1000);
+}
+
+function drawTags() {
+    const tags = [...tagCounts]
+        .map(([tag, count]) => ({tag, count}))
+        .sort((a, b) => b.count - a.count || a.tag.localeCompare(b.tag))
+        .slice(0, tagCloudLimit);
+    d3.select("#tagCloud").selectAll("*").remove();
+
+    // If there are no tags, show "No tags found" message
+    if (tags.length === 0) {
+        document.getElementById("noTagsMessage").style.display = "block";
+    } else {
+        // Hide the "No tags found" message if tags are available
+        document.getElementById("noTagsMessage").style.display = "none";
+
+        // Process the tag data to create the tag cloud
+        createTagCloud(tags);
+    }
+}
 
 // Function to create the tag cloud using D3.js
 function createTagCloud(tags) {
@@ -46,17 +65,13 @@ function createTagCloud(tags) {
         .append("g")
         .attr("transform", "translate(" + width / 2 + "," + height / 2 + ")");
 
-    // Count the frequency of each tag using d3.groups() for grouping
-    const tagCounts = d3.groups(tags, d => d)
-        .map(([key, value]) => ({ key, value: value.length }));
-
-    // Debugging log to check the frequency data
-    console.log('Tag counts:', tagCounts);
+    // Scale the font size relative to the most frequent tag
+    const maxCount = d3.max(tags, d => d.count);
 
     // Prepare the data for word cloud layout
-    const tagData = tagCounts.map(tag => ({
-        text: tag.key,
-        size: tag.value * 50 // Adjust the size factor as needed
+    const tagData = tags.map(tag => ({
+        text: tag.tag,
+        size: 10 + (tag.count / maxCount) * 50 // Adjust the size factor as needed
     }));
 
     // Define the word cloud layout
@@ -84,4 +99,6 @@ function createTagCloud(tags) {
             .attr("transform", d => `translate(${d.x},${d.y})rotate(${d.rotate})`)
             .text(d => d.text);  // Add the text of each tag to the cloud
     }
-}
\ No newline at end of file
+}
+
+changeFeed.track(loadTagCounts, applyTagChange);
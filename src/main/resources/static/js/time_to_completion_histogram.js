@@ -1,18 +1,60 @@
-d3.json('/api/v1/achievements').then(data => {
-    // Parse the dates and calculate time to completion for each achievement
-    let timeToCompletion = data.map(d => {
-        let dateStarted = new Date(d.dateStarted);
-        let dateCompleted = new Date(d.dateCompleted);
-        let timeDiff = (dateCompleted - dateStarted) / (1000 * 60 * 60 * 24); // Difference in days
-        return timeDiff;
-    });
+// Time to completion histogram bucketed by the server (bucket width in days), then kept up to date
+// from the change feed
+const completionBucketWidth = 7;
+let completionBins = [];
+
+function loadCompletionHistogram() {
+    return changeFeed.fetchJson(`/api/v1/achievements/stats/time-to-completion?bucketWidth=${completionBucketWidth}`)
+        .then(({data, sequence}) => {
+            completionBins = data;
+            drawCompletionHistogram();
+            return sequence;
+        });
+}
+
+// Same rule as the server: both dates set, completed on or after the start
+function daysToCompletion(achievement) {
+    if (!achievement || !achievement.dateStarted || !achievement.dateCompleted) {
+        return null;
+    }
+    const days = Math.round((Date.parse(achievement.dateCompleted) - Date.parse(achievement.dateStarted)) / 86400000);
+    return days >= 0 ? days : null;
+}
+
+function applyCompletionChange(change) {
+    if (changeFeed.isPartial(change)) {
+        return;
+    }
+    const adjust = (achievement, delta) => {
+        const days = daysToCompletion(achievement);
+        if (days === null) {
+            return;
+        }
+        // The server only sends the non-empty buckets, kept in order of fromDays
+        const fromDays = Math.floor(days / completionBucketWidth) * completionBucketWidth;
+        let bin = completionBins.find(candidate => candidate.fromDays === fromDays);
+        if (!bin) {
+            bin = {fromDays, toDays: fromDays + completionBucketWidth, count: 0};
+            completionBins.push(bin);
+            completionBins.sort((left, right) => left.fromDays - right.fromDays);
+        }
+        bin.count = Math.max(bin.count + delta, 0);
+    };
+    adjust(change.before, -1);
+    adjust(change.after, 1);
+    drawCompletionHistogram();
+}
+
+function drawCompletionHistogram() {
+    const bins = completionBins;
 
     // Set up dimensions and margins for the chart
     const margin = { top: 20, right: 20, bottom: 40, left: 40 },
         width = 800 - margin.left - margin.right,
         height = 400 - margin.top - margin.bottom;
 
-    // Create SVG container for the chart
+    // Create SVG container for the chart, replacing the previous drawing
+    d3.select("#timeToCompletionChart").selectAll("*").remove();
     const svg = d3.select("#timeToCompletionChart")
         .append("svg")
         .attr("width", width + margin.left + margin.right)
@@ -22,15 +64,11 @@ d3.json('/api/v1/achievements').then(data => {
 
     // Set up scales for the histogram
     const x = d3.scaleLinear()
-        .domain([0, d3.max(timeToCompletion)])
+        .domain([0, d3.max(bins, d => d.toDays) || 1])
         .range([0, width]);
 
-    const bins = d3.histogram()
-        .domain(x.domain())
-        .thresholds(x.ticks(10))(timeToCompletion);
-
     const y = d3.scaleLinear()
-        .domain([0, d3.max(bins, d => d.length)])
+        .domain([0, d3.max(bins, d => d.count) || 1])
         .range([height, 0]);
 
     // Create the bars for the histogram
@@ -39,10 +77,10 @@ d3.json('/api/v1/achievements').then(data => {
         .enter()
         .append("rect")
         .attr("class", "bar")
-        .attr("x", d => x(d.x0))
-        .attr("y", d => y(d.length))
-        .attr("width", d => x(d.x1) - x(d.x0) - 1)
-        .attr("height", d => height - y(d.length))
+        .attr("x", d => x(d.fromDays))
+        .attr("y", d => y(d.count))
+        .attr("width", d => Math.max(x(d.toDays) - x(d.fromDays) - 1, 0))
+        .attr("height", d => height - y(d.count))
         .attr("fill", "#69b3a2");
 
     // Add x-axis
@@ -61,6 +99,6 @@ d3.json('/api/v1/achievements').then(data => {
         .attr("x", -height / 2)
         .attr("transform", "rotate(-90)")
         .attr("text-anchor", "middle");
-}).catch(error => {
-    console.error("Error fetching achievement data:", error);
-});
\ No newline at end of file
+}
+
+changeFeed.track(loadCompletionHistogram, applyCompletionChange);
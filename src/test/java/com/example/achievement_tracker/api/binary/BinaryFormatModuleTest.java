@@ -0,0 +1,85 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.api.binary;
+
+import com.example.achievement_tracker.api.dto.AchievementDTO;
+import com.example.achievement_tracker.api.dto.PatchAchievementDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class BinaryFormatModuleTest {
+    private ObjectMapper cborMapper;
+
+    @BeforeEach
+    void setUp() {
+        cborMapper =
+                new ObjectMapper(new CBORFactory())
+                        .registerModule(new JavaTimeModule())
+                        .registerModule(new BinaryFormatModule());
+    }
+
+    @Test
+    @DisplayName("Should round-trip an achievement through the compact encoding")
+    void shouldRoundTripAchievement() throws Exception {
+        AchievementDTO achievement =
+                AchievementDTO.builder()
+                        .id(7L)
+                        .title("Marathon")
+                        .description("Run 42km")
+                        .dateStarted(LocalDate.of(2024, 1, 10))
+                        .dateCompleted(LocalDate.of(2024, 9, 29))
+                        .tags(Set.of("sport"))
+                        .status("COMPLETED")
+                        .version(2L)
+                        .build();
+
+        byte[] encoded = cborMapper.writeValueAsBytes(achievement);
+
+        Assertions.assertEquals(achievement, cborMapper.readValue(encoded, AchievementDTO.class));
+    }
+
+    @Test
+    @DisplayName("Should accept ISO dates and status names from clients still sending them")
+    void shouldAcceptJsonFormsWhenReading() throws Exception {
+        byte[] encoded =
+                cborMapper.writeValueAsBytes(
+                        Map.of("dateStarted", "2024-01-10", "status", "IN_PROGRESS"));
+
+        PatchAchievementDTO patch = cborMapper.readValue(encoded, PatchAchievementDTO.class);
+
+        Assertions.assertEquals(LocalDate.of(2024, 1, 10), patch.dateStarted());
+        Assertions.assertEquals("IN_PROGRESS", patch.status());
+    }
+
+    @Test
+    @DisplayName("Should reject a status ordinal outside the known statuses")
+    void shouldRejectUnknownStatusOrdinal() throws Exception {
+        byte[] encoded = cborMapper.writeValueAsBytes(Map.of("status", 99));
+
+        Assertions.assertThrows(
+                InvalidFormatException.class,
+                () -> cborMapper.readValue(encoded, PatchAchievementDTO.class));
+    }
+}
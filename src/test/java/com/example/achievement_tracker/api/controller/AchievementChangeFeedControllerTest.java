@@ -0,0 +1,78 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.api.controller;
+
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.achievement_tracker.service.feed.AchievementChangeFeed;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@WebMvcTest(controllers = AchievementChangeFeedController.class)
+class AchievementChangeFeedControllerTest {
+
+    // The @MockitoBean annotation is used to create a Mockito mock for a specific bean.
+    @MockitoBean private AchievementChangeFeed achievementChangeFeedMock;
+
+    // The @Autowired annotation is used to inject the MockMvc instance into the test class.
+    @Autowired private MockMvc mockMvc;
+
+    @Test
+    @DisplayName(
+            "Given a since parameter, when opening the change feed, then it should stream from"
+                    + " that sequence.")
+    void getChanges() throws Exception {
+        when(achievementChangeFeedMock.subscribe(41L)).thenReturn(new SseEmitter());
+
+        mockMvc.perform(
+                        get("/api/v1/achievements/changes")
+                                .param("since", "41")
+                                .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isOk())
+                .andExpect(request().asyncStarted());
+
+        verify(achievementChangeFeedMock, times(1)).subscribe(41L);
+    }
+
+    @Test
+    @DisplayName(
+            "Given a Last-Event-ID header, when a client reconnects, then the feed should resume"
+                    + " after it rather than after since.")
+    void getChangesAfterReconnect() throws Exception {
+        when(achievementChangeFeedMock.subscribe(57L)).thenReturn(new SseEmitter());
+
+        mockMvc.perform(
+                        get("/api/v1/achievements/changes")
+                                .param("since", "41")
+                                .header("Last-Event-ID", "57")
+                                .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isOk())
+                .andExpect(request().asyncStarted());
+
+        verify(achievementChangeFeedMock, times(1)).subscribe(57L);
+    }
+}
@@ -15,40 +15,72 @@
  */
 package com.example.achievement_tracker.api.controller;
 
+import static org.hamcrest.Matchers.hasItem;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.example.achievement_tracker.api.binary.BinaryFormatModule;
 import com.example.achievement_tracker.api.dto.AchievementDTO;
+import com.example.achievement_tracker.api.dto.AchievementPageDTO;
+import com.example.achievement_tracker.api.dto.BatchCreateResultDTO;
+import com.example.achievement_tracker.api.dto.BatchItemErrorDTO;
 import com.example.achievement_tracker.api.dto.CreateAchievementDTO;
+import com.example.achievement_tracker.api.dto.PatchAchievementDTO;
+import com.example.achievement_tracker.api.dto.SparseAchievementPageDTO;
 import com.example.achievement_tracker.api.dto.UpdateAchievementDTO;
+import com.example.achievement_tracker.exception.InvalidPageRequestException;
 import com.example.achievement_tracker.exception.RecordDoesNotExistException;
+import com.example.achievement_tracker.exception.VersionConflictException;
+import com.example.achievement_tracker.persistence.model.StatusEnum;
 import com.example.achievement_tracker.service.AchievementService;
+import com.example.achievement_tracker.service.export.ExportFormat;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 @WebMvcTest(controllers = AchievementController.class)
 class AchievementControllerUnitTest {
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
 
     // The @MockitoBean annotation is used to create a Mockito mock for a specific bean.
     @MockitoBean private AchievementService achievementServiceMock;
@@ -66,6 +98,10 @@ class AchievementControllerUnitTest {
     private String status;
     private Long id;
 
+    // Client-side mappers for the binary media types, with the same compact encodings
+    private ObjectMapper cborMapper;
+    private ObjectMapper smileMapper;
+
     @BeforeEach
     void setUp() {
         title = "This is a Title";
@@ -81,6 +117,8 @@ class AchievementControllerUnitTest {
 
         objectMapper = new ObjectMapper();
         objectMapper.registerModule(new JavaTimeModule());
+        cborMapper = new ObjectMapper(new CBORFactory()).registerModule(new BinaryFormatModule());
+        smileMapper = new ObjectMapper(new SmileFactory()).registerModule(new BinaryFormatModule());
     }
 
     @Test
@@ -217,6 +255,134 @@ class AchievementControllerUnitTest {
         verifyNoInteractions(achievementServiceMock);
     }
 
+    @Test
+    @DisplayName(
+            "Given a batch of valid CreateAchievementDTOs, when creating achievements, then it"
+                    + " should return a response with status code 201.")
+    void createAchievements() throws Exception {
+        // Given: Stub the service to create every item
+        when(achievementServiceMock.createAchievements(anyList()))
+                .thenReturn(
+                        BatchCreateResultDTO.builder()
+                                .created(List.of(achievementDTO))
+                                .errors(List.of())
+                                .build());
+        // When & Then: Perform a POST request to the /api/v1/achievements/batch endpoint
+        mockMvc.perform(
+                        post("/api/v1/achievements/batch")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(
+                                        objectMapper.writeValueAsString(
+                                                List.of(createAchievementDTO))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.created[0].title").value(title))
+                .andExpect(jsonPath("$.errors").isEmpty());
+
+        // Verify that the createAchievements method was called once
+        verify(achievementServiceMock, times(1)).createAchievements(anyList());
+    }
+
+    @Test
+    @DisplayName(
+            "Given a batch with an invalid item, when creating achievements, then it should return"
+                    + " a response with status code 207 listing the rejected item.")
+    void createAchievementsWithInvalidItem() throws Exception {
+        // Given: Stub the service to reject the second item
+        when(achievementServiceMock.createAchievements(anyList()))
+                .thenReturn(
+                        BatchCreateResultDTO.builder()
+                                .created(List.of(achievementDTO))
+                                .errors(
+                                        List.of(
+                                                new BatchItemErrorDTO(
+                                                        1, List.of("title: must not be blank"))))
+                                .build());
+        // When & Then: The item errors are reported without failing the batch
+        mockMvc.perform(
+                        post("/api/v1/achievements/batch")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(
+                                        objectMapper.writeValueAsString(
+                                                List.of(
+                                                        createAchievementDTO,
+                                                        CreateAchievementDTO.builder()
+                                                                .status(status)
+                                                                .build()))))
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$.created[0].title").value(title))
+                .andExpect(jsonPath("$.errors[0].index").value(1));
+
+        // Verify that the createAchievements method was called once
+        verify(achievementServiceMock, times(1)).createAchievements(anyList());
+    }
+
+    @Test
+    @DisplayName(
+            "Given a patch carrying the version, when patching an achievement, then it should"
+                    + " return 204 with the entity tag of the new version.")
+    void patchAchievement() throws Exception {
+        // Given: Stub the service to accept the patch at version 2
+        PatchAchievementDTO patch =
+                PatchAchievementDTO.builder().status("COMPLETED").version(2L).build();
+        when(achievementServiceMock.patchAchievement(id, patch, 2L)).thenReturn(3L);
+        // When & Then: Perform a PATCH request and expect a 204 No Content status
+        mockMvc.perform(
+                        patch("/api/v1/achievements/{id}", id)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(patch)))
+                .andExpect(status().isNoContent())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + id + "-3\""));
+    }
+
+    @Test
+    @DisplayName(
+            "Given an If-Match header, when patching an achievement, then its version should be"
+                    + " used for the compare-and-set.")
+    void patchAchievementWithIfMatch() throws Exception {
+        PatchAchievementDTO patch = PatchAchievementDTO.builder().status("COMPLETED").build();
+        when(achievementServiceMock.patchAchievement(id, patch, 7L)).thenReturn(8L);
+
+        mockMvc.perform(
+                        patch("/api/v1/achievements/{id}", id)
+                                .header(HttpHeaders.IF_MATCH, "\"" + id + "-7\"")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(patch)))
+                .andExpect(status().isNoContent());
+
+        verify(achievementServiceMock, times(1)).patchAchievement(id, patch, 7L);
+    }
+
+    @Test
+    @DisplayName(
+            "Given no version, when patching an achievement, then it should return a response"
+                    + " with status code 428.")
+    void patchAchievementWithoutVersion() throws Exception {
+        mockMvc.perform(
+                        patch("/api/v1/achievements/{id}", id)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"status\":\"COMPLETED\"}"))
+                .andExpect(status().isPreconditionRequired());
+
+        verifyNoInteractions(achievementServiceMock);
+    }
+
+    @Test
+    @DisplayName(
+            "Given the achievement has moved on, when patching it, then it should return a"
+                    + " response with status code 412.")
+    void patchAchievementWithStaleVersion() throws Exception {
+        PatchAchievementDTO patch =
+                PatchAchievementDTO.builder().status("COMPLETED").version(1L).build();
+        when(achievementServiceMock.patchAchievement(id, patch, 1L))
+                .thenThrow(new VersionConflictException("Stale"));
+
+        mockMvc.perform(
+                        patch("/api/v1/achievements/{id}", id)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(patch)))
+                .andExpect(status().isPreconditionFailed());
+    }
+
     @Test
     @DisplayName(
             "Given a valid achievement exists, when updating an achievement, then it should return"
@@ -288,6 +454,220 @@ class AchievementControllerUnitTest {
         verify(achievementServiceMock, times(1)).getAchievementById(id);
     }
 
+    @Test
+    @DisplayName(
+            "Given a versioned achievement, when fetching it by ID, then the response should carry"
+                    + " its entity tag.")
+    void getAchievementByIdWithETag() throws Exception {
+        // Given: Stub the service to return a versioned achievement
+        when(achievementServiceMock.getAchievementVersion(id)).thenReturn(Optional.of(3L));
+        when(achievementServiceMock.getAchievementById(id))
+                .thenReturn(
+                        Optional.of(
+                                AchievementDTO.builder()
+                                        .id(id)
+                                        .title(title)
+                                        .status(status)
+                                        .version(3L)
+                                        .build()));
+        // When & Then: Perform a GET request without a cached tag and expect the body and tag
+        mockMvc.perform(get("/api/v1/achievements/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + id + "-3\""))
+                .andExpect(jsonPath("$.version").value(3));
+    }
+
+    @Test
+    @DisplayName(
+            "Given a client accepting CBOR, when fetching an achievement by ID, then it should"
+                    + " return the compact binary encoding.")
+    void getAchievementByIdAsCbor() throws Exception {
+        // Given: Stub the service to return a started achievement
+        LocalDate started = LocalDate.of(2024, 3, 1);
+        when(achievementServiceMock.getAchievementById(id))
+                .thenReturn(
+                        Optional.of(
+                                AchievementDTO.builder()
+                                        .id(id)
+                                        .title(title)
+                                        .status(status)
+                                        .dateStarted(started)
+                                        .build()));
+        // When: Perform a GET request asking for CBOR
+        MvcResult result =
+                mockMvc.perform(
+                                get("/api/v1/achievements/{id}", id)
+                                        .accept(MediaType.APPLICATION_CBOR))
+                        .andExpect(status().isOk())
+                        .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                        .andExpect(header().stringValues(HttpHeaders.VARY, hasItem("Accept")))
+                        .andReturn();
+
+        // Then: The date is sent as epoch days and the status as its ordinal
+        JsonNode body = cborMapper.readTree(result.getResponse().getContentAsByteArray());
+        Assertions.assertEquals(started.toEpochDay(), body.get("dateStarted").asLong());
+        Assertions.assertEquals(StatusEnum.IN_PROGRESS.ordinal(), body.get("status").asInt());
+        Assertions.assertEquals(title, body.get("title").asText());
+    }
+
+    @Test
+    @DisplayName(
+            "Given a client accepting any type, when fetching an achievement by ID, then it should"
+                    + " still return JSON.")
+    void getAchievementByIdDefaultsToJson() throws Exception {
+        // Given: Stub the service to return a predefined achievementDTO
+        when(achievementServiceMock.getAchievementById(id)).thenReturn(Optional.of(achievementDTO));
+        // When & Then: Perform a GET request the way browsers do and expect JSON
+        mockMvc.perform(get("/api/v1/achievements/{id}", id).accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem("Accept")))
+                .andExpect(jsonPath("$.status").value(status));
+    }
+
+    @Test
+    @DisplayName(
+            "Given a batch encoded as Smile, when creating achievements, then it should decode"
+                    + " compact dates and statuses.")
+    void createAchievementsFromSmile() throws Exception {
+        // Given: Stub the service to create every item
+        when(achievementServiceMock.createAchievements(anyList()))
+                .thenReturn(
+                        BatchCreateResultDTO.builder()
+                                .created(List.of(achievementDTO))
+                                .errors(List.of())
+                                .build());
+        LocalDate started = LocalDate.of(2024, 3, 1);
+        byte[] batch =
+                smileMapper.writeValueAsBytes(
+                        List.of(
+                                CreateAchievementDTO.builder()
+                                        .title(title)
+                                        .status(status)
+                                        .dateStarted(started)
+                                        .build()));
+        // When & Then: Perform a POST request with a Smile body and expect a Smile response
+        mockMvc.perform(
+                        post("/api/v1/achievements/batch")
+                                .contentType(SMILE)
+                                .accept(SMILE)
+                                .content(batch))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(SMILE));
+
+        // Verify that the items reached the service in their usual form
+        verify(achievementServiceMock, times(1))
+                .createAchievements(
+                        argThat(
+                                items ->
+                                        items.size() == 1
+                                                && status.equals(items.get(0).status())
+                                                && started.equals(items.get(0).dateStarted())));
+    }
+
+    @Test
+    @DisplayName(
+            "Given a fields parameter, when fetching an achievement by ID, then only the requested"
+                    + " properties should be returned.")
+    void getAchievementFieldsById() throws Exception {
+        // Given: Stub the service to return the requested properties only
+        when(achievementServiceMock.getAchievementVersion(id)).thenReturn(Optional.of(3L));
+        when(achievementServiceMock.getAchievementFieldsById(id, "title,status"))
+                .thenReturn(Optional.of(Map.of("title", title, "status", status)));
+        // When & Then: Perform a GET request with fields and expect the sparse body
+        mockMvc.perform(get("/api/v1/achievements/{id}", id).param("fields", "title,status"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + id + "-3\""))
+                .andExpect(jsonPath("$.title").value(title))
+                .andExpect(jsonPath("$.status").value(status))
+                .andExpect(jsonPath("$.description").doesNotExist());
+
+        // Verify that the full achievement was never loaded
+        verify(achievementServiceMock, never()).getAchievementById(any());
+    }
+
+    @Test
+    @DisplayName(
+            "Given an unknown field, when fetching an achievement by ID, then it should return a"
+                    + " response with status code 400.")
+    void getAchievementFieldsByIdWithUnknownField() throws Exception {
+        // Given: Stub the service to reject the field
+        when(achievementServiceMock.getAchievementVersion(id)).thenReturn(Optional.of(3L));
+        when(achievementServiceMock.getAchievementFieldsById(id, "secret"))
+                .thenThrow(new InvalidPageRequestException("Unsupported field 'secret'"));
+        // When & Then: Perform a GET request with the unknown field
+        mockMvc.perform(get("/api/v1/achievements/{id}", id).param("fields", "secret"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName(
+            "Given the client holds the current entity tag, when fetching an achievement by ID,"
+                    + " then it should return 304 without loading the achievement.")
+    void getAchievementByIdNotModified() throws Exception {
+        // Given: Stub the version lookup only
+        when(achievementServiceMock.getAchievementVersion(id)).thenReturn(Optional.of(3L));
+        // When & Then: Perform a conditional GET request and expect a 304 Not Modified status
+        mockMvc.perform(
+                        get("/api/v1/achievements/{id}", id)
+                                .header(HttpHeaders.IF_NONE_MATCH, "\"" + id + "-3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        // Verify that the achievement itself was never loaded
+        verify(achievementServiceMock, never()).getAchievementById(any());
+    }
+
+    @Test
+    @DisplayName(
+            "Given the client holds the current entity tag, when revalidating, then the 304 should"
+                    + " also vary by Accept.")
+    void getAchievementByIdNotModifiedVariesByAccept() throws Exception {
+        // Given: Stub the version lookup only
+        when(achievementServiceMock.getAchievementVersion(id)).thenReturn(Optional.of(3L));
+        // When & Then: Perform a conditional GET request and expect Vary on the 304
+        mockMvc.perform(
+                        get("/api/v1/achievements/{id}", id)
+                                .header(HttpHeaders.IF_NONE_MATCH, "\"" + id + "-3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem("Accept")));
+    }
+
+    @Test
+    @DisplayName(
+            "Given the entity tag of the JSON representation, when revalidating a CBOR request,"
+                    + " then it should return the CBOR body with its own tag.")
+    void getAchievementByIdTagsEachRepresentation() throws Exception {
+        // Given: Stub the version lookup and the achievement
+        when(achievementServiceMock.getAchievementVersion(id)).thenReturn(Optional.of(0L));
+        when(achievementServiceMock.getAchievementById(id))
+                .thenReturn(
+                        Optional.of(
+                                AchievementDTO.builder().id(id).title(title).version(0L).build()));
+        // When: Fetch the JSON representation
+        String jsonETag =
+                mockMvc.perform(get("/api/v1/achievements/{id}", id))
+                        .andExpect(status().isOk())
+                        .andReturn()
+                        .getResponse()
+                        .getHeader(HttpHeaders.ETAG);
+
+        // Then: The same tag does not validate the CBOR representation
+        mockMvc.perform(
+                        get("/api/v1/achievements/{id}", id)
+                                .accept(MediaType.APPLICATION_CBOR)
+                                .header(HttpHeaders.IF_NONE_MATCH, jsonETag))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + id + "-0+cbor\""));
+        // And: The CBOR tag validates the CBOR representation
+        mockMvc.perform(
+                        get("/api/v1/achievements/{id}", id)
+                                .accept(MediaType.APPLICATION_CBOR)
+                                .header(HttpHeaders.IF_NONE_MATCH, "\"" + id + "-0+cbor\""))
+                .andExpect(status().isNotModified());
+    }
+
     @Test
     @DisplayName(
             "Given an achievement does not exist, when fetching an achievement by ID, then it"
@@ -312,8 +692,13 @@ class AchievementControllerUnitTest {
             "Given a valid achievement exists, when fetching all achievements, then it should"
                     + " return a response with status code 200.")
     void getAllAchievements() throws Exception {
-        // Given: Stub the service to return a predefined achievementDTO
-        when(achievementServiceMock.getAllAchievements()).thenReturn(List.of(achievementDTO));
+        // Given: Stub the service to return a page holding the predefined achievementDTO
+        when(achievementServiceMock.getAchievementPage(isNull(), isNull(), isNull()))
+                .thenReturn(
+                        AchievementPageDTO.builder()
+                                .items(List.of(achievementDTO))
+                                .nextCursor("next")
+                                .build());
         // When & Then: Perform a GET request to the /api/v1/achievements endpoint with a valid
         // achievement ID and return a 200 OK status
         mockMvc.perform(
@@ -324,11 +709,93 @@ class AchievementControllerUnitTest {
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 // jsonPath assertions ensure the response structure and content align with
                 // expectations.
-                .andExpect(jsonPath("$[0].title").value(title))
-                .andExpect(jsonPath("$[0].status").value(status));
+                .andExpect(jsonPath("$.items[0].title").value(title))
+                .andExpect(jsonPath("$.items[0].status").value(status))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
 
-        // Verify that the getAllAchievements method was called once
-        verify(achievementServiceMock, times(1)).getAllAchievements();
+        // Verify that the getAchievementPage method was called once
+        verify(achievementServiceMock, times(1)).getAchievementPage(null, null, null);
+    }
+
+    @Test
+    @DisplayName(
+            "Given a fields parameter, when fetching achievements, then each item should hold only"
+                    + " the requested properties.")
+    void getAllAchievementFields() throws Exception {
+        // Given: Stub the service to return a sparse page
+        when(achievementServiceMock.getAchievementsChangeCount()).thenReturn(7L);
+        when(achievementServiceMock.getSparseAchievementPage("id,title", null, null, null))
+                .thenReturn(
+                        SparseAchievementPageDTO.builder()
+                                .items(List.of(Map.of("id", id, "title", title)))
+                                .nextCursor("next")
+                                .build());
+        // When & Then: Perform a GET request with fields and expect the sparse page
+        mockMvc.perform(get("/api/v1/achievements").param("fields", "id,title"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"achievements-7\""))
+                .andExpect(jsonPath("$.items[0].title").value(title))
+                .andExpect(jsonPath("$.items[0].status").doesNotExist())
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+
+        // Verify that full pages were never loaded
+        verify(achievementServiceMock, never()).getAchievementPage(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName(
+            "Given fields, tags and a date sort, when fetching achievements, then it should return"
+                    + " a response with status code 400 and the reason.")
+    void getAllAchievementFieldsByTagsWithDateSort() throws Exception {
+        // When & Then: Sparse tag queries are ordered by id only, as full ones
+        mockMvc.perform(
+                        get("/api/v1/achievements")
+                                .param("fields", "id,title")
+                                .param("tags", "java")
+                                .param("sort", "dateStarted"))
+                .andExpect(status().isBadRequest())
+                .andExpect(
+                        content()
+                                .string(
+                                        "Achievements filtered by tags are sorted by id, cannot"
+                                                + " sort by 'dateStarted'"));
+
+        verifyNoInteractions(achievementServiceMock);
+    }
+
+    @Test
+    @DisplayName(
+            "Given the table has not changed since the client's last poll, when fetching"
+                    + " achievements, then it should return 304 without loading the page.")
+    void getAllAchievementsNotModified() throws Exception {
+        // Given: Stub the table change counter
+        when(achievementServiceMock.getAchievementsChangeCount()).thenReturn(7L);
+        // When & Then: Perform a conditional GET request and expect a 304 Not Modified status
+        mockMvc.perform(
+                        get("/api/v1/achievements")
+                                .param("limit", "10")
+                                .header(HttpHeaders.IF_NONE_MATCH, "\"achievements-7\""))
+                .andExpect(status().isNotModified());
+
+        // Verify that no page was loaded
+        verify(achievementServiceMock, never()).getAchievementPage(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName(
+            "Given the table has changed since the client's last poll, when fetching"
+                    + " achievements, then it should return the page with the new entity tag.")
+    void getAllAchievementsModified() throws Exception {
+        // Given: Stub the table change counter and the page
+        when(achievementServiceMock.getAchievementsChangeCount()).thenReturn(8L);
+        when(achievementServiceMock.getAchievementPage(isNull(), isNull(), isNull()))
+                .thenReturn(AchievementPageDTO.builder().items(List.of(achievementDTO)).build());
+        // When & Then: Perform a conditional GET request with an outdated tag
+        mockMvc.perform(
+                        get("/api/v1/achievements")
+                                .header(HttpHeaders.IF_NONE_MATCH, "\"achievements-7\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"achievements-8\""));
     }
 
     @Test
@@ -336,8 +803,9 @@ class AchievementControllerUnitTest {
             "Given no achievement exists, when fetching all achievements, then it should return a"
                     + " response with status code 204.")
     void getAllAchievementsNoContent() throws Exception {
-        // Given: Stub the service to return an empty list
-        when(achievementServiceMock.getAllAchievements()).thenReturn(List.of());
+        // Given: Stub the service to return an empty page
+        when(achievementServiceMock.getAchievementPage(isNull(), isNull(), isNull()))
+                .thenReturn(AchievementPageDTO.builder().items(List.of()).build());
         // When & Then: Perform a GET request to the /api/v1/achievements endpoint with an empty
         // list and return a 204 No Content status
         mockMvc.perform(
@@ -346,8 +814,88 @@ class AchievementControllerUnitTest {
                                 .content(objectMapper.writeValueAsString(List.of())))
                 .andExpect(status().isNoContent());
 
-        // Verify that the getAllAchievements method was called once
-        verify(achievementServiceMock, times(1)).getAllAchievements();
+        // Verify that the getAchievementPage method was called once
+        verify(achievementServiceMock, times(1)).getAchievementPage(null, null, null);
+    }
+
+    @Test
+    @DisplayName(
+            "Given a cursor, limit and sort, when fetching achievements, then they should be passed"
+                    + " through to the service.")
+    void getAllAchievementsWithCursor() throws Exception {
+        // Given: Stub the service to return the last page
+        when(achievementServiceMock.getAchievementPage("abc", 10, "dateStarted"))
+                .thenReturn(AchievementPageDTO.builder().items(List.of(achievementDTO)).build());
+        // When & Then: Perform a GET request with paging parameters and return a 200 OK status
+        mockMvc.perform(
+                        get("/api/v1/achievements")
+                                .param("cursor", "abc")
+                                .param("limit", "10")
+                                .param("sort", "dateStarted"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].title").value(title))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+        // Verify that the getAchievementPage method was called once with the given parameters
+        verify(achievementServiceMock, times(1)).getAchievementPage("abc", 10, "dateStarted");
+    }
+
+    @Test
+    @DisplayName(
+            "Given a malformed cursor, when fetching achievements, then it should return a"
+                    + " response with status code 400.")
+    void getAllAchievementsWithMalformedCursor() throws Exception {
+        // Given: Stub the service to reject the cursor
+        when(achievementServiceMock.getAchievementPage("bad", null, null))
+                .thenThrow(new InvalidPageRequestException("Malformed cursor: bad"));
+        // When & Then: Perform a GET request and expect a 400 Bad Request status
+        mockMvc.perform(get("/api/v1/achievements").param("cursor", "bad"))
+                .andExpect(status().isBadRequest());
+
+        // Verify that the getAchievementPage method was called once with the given cursor
+        verify(achievementServiceMock, times(1)).getAchievementPage("bad", null, null);
+    }
+
+    @Test
+    @DisplayName(
+            "Given tags and a match mode, when fetching achievements, then the tag query should"
+                    + " be used.")
+    void getAllAchievementsByTags() throws Exception {
+        // Given: Stub the service to return the matching page
+        when(achievementServiceMock.getAchievementPageByTags(
+                        Set.of("java", "spring"), "any", null, null))
+                .thenReturn(AchievementPageDTO.builder().items(List.of(achievementDTO)).build());
+        // When & Then: Perform a GET request with tag parameters and return a 200 OK status
+        mockMvc.perform(
+                        get("/api/v1/achievements")
+                                .param("tags", "java", "spring")
+                                .param("match", "any"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].title").value(title));
+
+        // Verify that the plain listing was not used
+        verify(achievementServiceMock, never()).getAchievementPage(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName(
+            "Given tags and a date sort, when fetching achievements, then it should return a"
+                    + " response with status code 400.")
+    void getAllAchievementsByTagsWithDateSort() throws Exception {
+        // When & Then: Tag queries are ordered by id only
+        mockMvc.perform(
+                        get("/api/v1/achievements")
+                                .param("tags", "java")
+                                .param("sort", "dateStarted"))
+                .andExpect(status().isBadRequest())
+                .andExpect(
+                        content()
+                                .string(
+                                        "Achievements filtered by tags are sorted by id, cannot"
+                                                + " sort by 'dateStarted'"));
+
+        verify(achievementServiceMock, never())
+                .getAchievementPageByTags(any(), any(), any(), any());
     }
 
     @Test
@@ -390,4 +938,47 @@ class AchievementControllerUnitTest {
         // Verify that the deleteAchievement method was called once with the given ID
         verify(achievementServiceMock, times(1)).deleteAchievement(id);
     }
+
+    @Test
+    @DisplayName(
+            "Given format=csv, when exporting achievements, then the service output should be"
+                    + " streamed as a CSV attachment.")
+    void exportAchievementsAsCsv() throws Exception {
+        doAnswer(
+                        invocation -> {
+                            OutputStream outputStream = invocation.getArgument(1);
+                            outputStream.write("id\r\n1\r\n".getBytes(StandardCharsets.UTF_8));
+                            return null;
+                        })
+                .when(achievementServiceMock)
+                .exportAchievements(any(ExportFormat.class), any(OutputStream.class));
+
+        MvcResult result =
+                mockMvc.perform(get("/api/v1/achievements/export").param("format", "csv"))
+                        .andExpect(request().asyncStarted())
+                        .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(
+                        header().string(
+                                        HttpHeaders.CONTENT_DISPOSITION,
+                                        "attachment; filename=\"achievements.csv\""))
+                .andExpect(content().string("id\r\n1\r\n"));
+        verify(achievementServiceMock, times(1))
+                .exportAchievements(any(ExportFormat.class), any(OutputStream.class));
+    }
+
+    @Test
+    @DisplayName(
+            "Given an unknown format, when exporting achievements, then it should return 400 Bad"
+                    + " Request.")
+    void exportAchievementsWithUnknownFormat() throws Exception {
+        mockMvc.perform(get("/api/v1/achievements/export").param("format", "xml"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Unknown export format 'xml', expected ndjson or csv"));
+
+        verifyNoInteractions(achievementServiceMock);
+    }
 }
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.api.controller;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.achievement_tracker.api.dto.ImportRejectDTO;
+import com.example.achievement_tracker.api.dto.ImportResultDTO;
+import com.example.achievement_tracker.service.AchievementImportService;
+import com.example.achievement_tracker.service.imports.ImportFormat;
+import java.io.InputStream;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+@WebMvcTest(controllers = AchievementImportController.class)
+class AchievementImportControllerTest {
+
+    // The @MockitoBean annotation is used to create a Mockito mock for a specific bean.
+    @MockitoBean private AchievementImportService achievementImportServiceMock;
+
+    // The @Autowired annotation is used to inject the MockMvc instance into the test class.
+    @Autowired private MockMvc mockMvc;
+
+    @Test
+    @DisplayName(
+            "Given a CSV upload without rejects, when importing achievements, then it should"
+                    + " return 201 Created with the counts.")
+    void importCsv() throws Exception {
+        when(achievementImportServiceMock.importAchievements(
+                        eq(ImportFormat.CSV), any(InputStream.class)))
+                .thenReturn(
+                        ImportResultDTO.builder()
+                                .processed(2)
+                                .imported(2)
+                                .rejected(0)
+                                .rejects(List.of())
+                                .build());
+
+        mockMvc.perform(
+                        post("/api/v1/achievements/import")
+                                .contentType("text/csv")
+                                .content("title,status\r\nFirst,TODO\r\nSecond,TODO\r\n"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.rejects").isEmpty());
+
+        verify(achievementImportServiceMock, times(1))
+                .importAchievements(eq(ImportFormat.CSV), any(InputStream.class));
+    }
+
+    @Test
+    @DisplayName(
+            "Given newline-delimited JSON with a reject, when importing achievements, then it"
+                    + " should return 207 Multi-Status listing the rejected line.")
+    void importNdjsonWithRejects() throws Exception {
+        when(achievementImportServiceMock.importAchievements(
+                        eq(ImportFormat.JSON), any(InputStream.class)))
+                .thenReturn(
+                        ImportResultDTO.builder()
+                                .processed(2)
+                                .imported(1)
+                                .rejected(1)
+                                .rejects(
+                                        List.of(
+                                                new ImportRejectDTO(
+                                                        2, List.of("title: must not be blank"))))
+                                .build());
+
+        mockMvc.perform(
+                        post("/api/v1/achievements/import")
+                                .contentType("application/x-ndjson")
+                                .content(
+                                        "{\"title\":\"First\",\"status\":\"TODO\"}\n"
+                                                + "{\"title\":\"\",\"status\":\"TODO\"}\n"))
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.rejects[0].line").value(2));
+    }
+
+    @Test
+    @DisplayName(
+            "Given an unsupported content type, when importing achievements, then it should"
+                    + " return 415 Unsupported Media Type.")
+    void importUnsupportedMediaType() throws Exception {
+        mockMvc.perform(
+                        post("/api/v1/achievements/import")
+                                .contentType(MediaType.APPLICATION_XML)
+                                .content("<achievements/>"))
+                .andExpect(status().isUnsupportedMediaType());
+
+        verifyNoInteractions(achievementImportServiceMock);
+    }
+}
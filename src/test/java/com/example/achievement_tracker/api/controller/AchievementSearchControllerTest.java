@@ -0,0 +1,98 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.api.controller;
+
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.achievement_tracker.api.dto.AchievementDTO;
+import com.example.achievement_tracker.api.dto.AchievementSearchResultDTO;
+import com.example.achievement_tracker.exception.InvalidPageRequestException;
+import com.example.achievement_tracker.service.AchievementSearchService;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+@WebMvcTest(controllers = AchievementSearchController.class)
+class AchievementSearchControllerTest {
+
+    // The @MockitoBean annotation is used to create a Mockito mock for a specific bean.
+    @MockitoBean private AchievementSearchService achievementSearchServiceMock;
+
+    // The @Autowired annotation is used to inject the MockMvc instance into the test class.
+    @Autowired private MockMvc mockMvc;
+
+    @Test
+    @DisplayName(
+            "Given a query, page and size, when searching achievements, then it should return the"
+                    + " matching page.")
+    void search() throws Exception {
+        AchievementDTO achievementDTO = AchievementDTO.builder().id(1L).title("Learn Java").build();
+        when(achievementSearchServiceMock.search("java", 2, 10))
+                .thenReturn(
+                        AchievementSearchResultDTO.builder()
+                                .items(List.of(achievementDTO))
+                                .totalHits(21)
+                                .totalHitsExact(true)
+                                .page(2)
+                                .size(10)
+                                .build());
+
+        mockMvc.perform(
+                        get("/api/v1/achievements/search")
+                                .param("q", "java")
+                                .param("page", "2")
+                                .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].title").value("Learn Java"))
+                .andExpect(jsonPath("$.totalHits").value(21))
+                .andExpect(jsonPath("$.totalHitsExact").value(true));
+
+        verify(achievementSearchServiceMock, times(1)).search("java", 2, 10);
+    }
+
+    @Test
+    @DisplayName(
+            "Given a blank query, when searching achievements, then it should return a response"
+                    + " with status code 400.")
+    void searchWithBlankQuery() throws Exception {
+        mockMvc.perform(get("/api/v1/achievements/search").param("q", " "))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(achievementSearchServiceMock);
+    }
+
+    @Test
+    @DisplayName(
+            "Given a page beyond the search window, when searching achievements, then it should"
+                    + " return a response with status code 400.")
+    void searchBeyondWindow() throws Exception {
+        when(achievementSearchServiceMock.search("java", 5000, null))
+                .thenThrow(new InvalidPageRequestException("Too deep"));
+
+        mockMvc.perform(get("/api/v1/achievements/search").param("q", "java").param("page", "5000"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.api.controller;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.achievement_tracker.api.dto.HistogramBucketDTO;
+import com.example.achievement_tracker.api.dto.RollupBucketDTO;
+import com.example.achievement_tracker.api.dto.StatusCountDTO;
+import com.example.achievement_tracker.api.dto.TagCountDTO;
+import com.example.achievement_tracker.persistence.model.RollupGranularity;
+import com.example.achievement_tracker.service.AchievementStatsService;
+import com.example.achievement_tracker.service.analytics.StatsFilter;
+import com.example.achievement_tracker.service.feed.AchievementChangeFeed;
+import com.example.achievement_tracker.service.feed.Sequenced;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+@WebMvcTest(controllers = AchievementStatsController.class)
+class AchievementStatsControllerTest {
+
+    // The @MockitoBean annotation is used to create a Mockito mock for a specific bean.
+    @MockitoBean private AchievementStatsService achievementStatsServiceMock;
+    @MockitoBean private AchievementChangeFeed achievementChangeFeedMock;
+
+    // The @Autowired annotation is used to inject the MockMvc instance into the test class.
+    @Autowired private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        // The feed runs each read as soon as the changes up to sequence 42 are published
+        when(achievementChangeFeedMock.read(any()))
+                .thenAnswer(
+                        invocation ->
+                                new Sequenced<>(42L, invocation.<Supplier<?>>getArgument(0).get()));
+    }
+
+    @Test
+    @DisplayName(
+            "Given achievements exist, when fetching status counts, then it should return a count"
+                    + " per status.")
+    void getStatusCounts() throws Exception {
+        when(achievementStatsServiceMock.getStatusCounts(StatsFilter.NONE))
+                .thenReturn(List.of(new StatusCountDTO("TODO", 3), new StatusCountDTO("DONE", 0)));
+
+        mockMvc.perform(get("/api/v1/achievements/stats/status"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Change-Sequence", "42"))
+                .andExpect(jsonPath("$[0].status").value("TODO"))
+                .andExpect(jsonPath("$[0].count").value(3));
+
+        verify(achievementStatsServiceMock, times(1)).getStatusCounts(StatsFilter.NONE);
+    }
+
+    @Test
+    @DisplayName(
+            "Given a date range and a tag, when fetching status counts, then the filter should be"
+                    + " passed to the service.")
+    void getStatusCountsWithFilter() throws Exception {
+        StatsFilter filter =
+                new StatsFilter(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 6, 30), "java");
+        when(achievementStatsServiceMock.getStatusCounts(filter))
+                .thenReturn(List.of(new StatusCountDTO("TODO", 1)));
+
+        mockMvc.perform(
+                        get("/api/v1/achievements/stats/status")
+                                .param("startedFrom", "2024-01-01")
+                                .param("startedTo", "2024-06-30")
+                                .param("tag", "java"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].count").value(1));
+
+        verify(achievementStatsServiceMock, times(1)).getStatusCounts(filter);
+    }
+
+    @Test
+    @DisplayName(
+            "Given a limit, when fetching top tags, then the limit should be passed to the"
+                    + " service.")
+    void getTopTags() throws Exception {
+        when(achievementStatsServiceMock.getTopTags(StatsFilter.NONE, 5))
+                .thenReturn(List.of(new TagCountDTO("java", 7)));
+
+        mockMvc.perform(get("/api/v1/achievements/stats/tags").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].tag").value("java"))
+                .andExpect(jsonPath("$[0].count").value(7));
+
+        verify(achievementStatsServiceMock, times(1)).getTopTags(StatsFilter.NONE, 5);
+    }
+
+    @Test
+    @DisplayName(
+            "Given a bucket width, when fetching the time to completion histogram, then it should"
+                    + " return the buckets.")
+    void getTimeToCompletionHistogram() throws Exception {
+        when(achievementStatsServiceMock.getTimeToCompletionHistogram(StatsFilter.NONE, 30))
+                .thenReturn(List.of(new HistogramBucketDTO(0, 30, 4)));
+
+        mockMvc.perform(
+                        get("/api/v1/achievements/stats/time-to-completion")
+                                .param("bucketWidth", "30"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].fromDays").value(0))
+                .andExpect(jsonPath("$[0].toDays").value(30))
+                .andExpect(jsonPath("$[0].count").value(4));
+
+        verify(achievementStatsServiceMock, times(1))
+                .getTimeToCompletionHistogram(StatsFilter.NONE, 30);
+    }
+
+    @Test
+    @DisplayName(
+            "Given a bucket width of zero, when fetching the histogram, then it should return a"
+                    + " response with status code 400.")
+    void getTimeToCompletionHistogramWithInvalidWidth() throws Exception {
+        mockMvc.perform(
+                        get("/api/v1/achievements/stats/time-to-completion")
+                                .param("bucketWidth", "0"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(achievementStatsServiceMock);
+    }
+
+    @Test
+    @DisplayName(
+            "Given a granularity, a window and filters, when fetching the rollup, then it should"
+                    + " return the started and completed counts per period.")
+    void getRollup() throws Exception {
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        LocalDate to = LocalDate.of(2024, 1, 7);
+        when(achievementStatsServiceMock.getRollup(
+                        RollupGranularity.WEEK, from, to, "COMPLETED", "java"))
+                .thenReturn(List.of(new RollupBucketDTO(from, to, 2, 1)));
+
+        mockMvc.perform(
+                        get("/api/v1/achievements/stats/rollup")
+                                .param("granularity", "WEEK")
+                                .param("from", "2024-01-01")
+                                .param("to", "2024-01-07")
+                                .param("status", "COMPLETED")
+                                .param("tag", "java"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].from").value("2024-01-01"))
+                .andExpect(jsonPath("$[0].to").value("2024-01-07"))
+                .andExpect(jsonPath("$[0].started").value(2))
+                .andExpect(jsonPath("$[0].completed").value(1));
+
+        verify(achievementStatsServiceMock, times(1))
+                .getRollup(RollupGranularity.WEEK, from, to, "COMPLETED", "java");
+    }
+
+    @Test
+    @DisplayName(
+            "Given an unknown granularity, when fetching the rollup, then it should return a"
+                    + " response with status code 400.")
+    void getRollupWithInvalidGranularity() throws Exception {
+        mockMvc.perform(get("/api/v1/achievements/stats/rollup").param("granularity", "YEAR"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(achievementStatsServiceMock);
+    }
+}
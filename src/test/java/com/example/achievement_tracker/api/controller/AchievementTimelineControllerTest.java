@@ -0,0 +1,131 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.api.controller;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.achievement_tracker.api.dto.TimelineDTO;
+import com.example.achievement_tracker.api.dto.TimelineItemDTO;
+import com.example.achievement_tracker.exception.InvalidPageRequestException;
+import com.example.achievement_tracker.service.AchievementTimelineService;
+import com.example.achievement_tracker.service.feed.AchievementChangeFeed;
+import com.example.achievement_tracker.service.feed.Sequenced;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+@WebMvcTest(controllers = AchievementTimelineController.class)
+class AchievementTimelineControllerTest {
+
+    private static final LocalDate FROM = LocalDate.of(2024, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2024, 12, 31);
+
+    // The @MockitoBean annotation is used to create a Mockito mock for a specific bean.
+    @MockitoBean private AchievementTimelineService achievementTimelineServiceMock;
+    @MockitoBean private AchievementChangeFeed achievementChangeFeedMock;
+
+    // The @Autowired annotation is used to inject the MockMvc instance into the test class.
+    @Autowired private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        // The feed runs each read as soon as the changes up to sequence 42 are published
+        when(achievementChangeFeedMock.read(any()))
+                .thenAnswer(
+                        invocation ->
+                                new Sequenced<>(42L, invocation.<Supplier<?>>getArgument(0).get()));
+    }
+
+    @Test
+    @DisplayName(
+            "Given a window, when fetching the timeline, then it should return the achievements"
+                    + " with their lanes.")
+    void getTimeline() throws Exception {
+        TimelineItemDTO item =
+                TimelineItemDTO.builder()
+                        .id(1L)
+                        .title("Learn Java")
+                        .status("IN_PROGRESS")
+                        .dateStarted(FROM)
+                        .lane(0)
+                        .build();
+        when(achievementTimelineServiceMock.getTimeline(FROM, TO, 200, 100))
+                .thenReturn(
+                        TimelineDTO.builder()
+                                .from(FROM)
+                                .to(TO)
+                                .total(1)
+                                .lanes(1)
+                                .items(List.of(item))
+                                .buckets(List.of())
+                                .build());
+
+        mockMvc.perform(
+                        get("/api/v1/achievements/timeline")
+                                .param("from", "2024-01-01")
+                                .param("to", "2024-12-31")
+                                .param("maxItems", "200"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Change-Sequence", "42"))
+                .andExpect(jsonPath("$.lanes").value(1))
+                .andExpect(jsonPath("$.items[0].title").value("Learn Java"))
+                .andExpect(jsonPath("$.items[0].dateStarted").value("2024-01-01"))
+                .andExpect(jsonPath("$.items[0].lane").value(0));
+
+        verify(achievementTimelineServiceMock, times(1)).getTimeline(FROM, TO, 200, 100);
+    }
+
+    @Test
+    @DisplayName(
+            "Given a window that ends before it starts, when fetching the timeline, then it should"
+                    + " return a response with status code 400.")
+    void getTimelineWithInvalidWindow() throws Exception {
+        when(achievementTimelineServiceMock.getTimeline(TO, FROM, 500, 100))
+                .thenThrow(new InvalidPageRequestException("Timeline window is empty"));
+
+        mockMvc.perform(
+                        get("/api/v1/achievements/timeline")
+                                .param("from", "2024-12-31")
+                                .param("to", "2024-01-01"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName(
+            "Given a maxItems of zero, when fetching the timeline, then it should return a"
+                    + " response with status code 400.")
+    void getTimelineWithInvalidMaxItems() throws Exception {
+        mockMvc.perform(get("/api/v1/achievements/timeline").param("maxItems", "0"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(achievementTimelineServiceMock);
+    }
+}
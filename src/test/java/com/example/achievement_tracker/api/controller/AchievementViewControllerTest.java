@@ -17,6 +17,9 @@ package com.example.achievement_tracker.api.controller;
 
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
@@ -25,13 +28,21 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.view;
 
 import com.example.achievement_tracker.api.dto.AchievementDTO;
+import com.example.achievement_tracker.exception.InvalidPageRequestException;
 import com.example.achievement_tracker.service.AchievementService;
+import com.example.achievement_tracker.service.feed.AchievementChangeFeed;
+import com.example.achievement_tracker.service.feed.Sequenced;
 import java.util.List;
+import java.util.function.Supplier;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.ui.Model;
@@ -41,6 +52,8 @@ class AchievementViewControllerTest {
     // The @MockitoBean annotation is used to create a Mockito mock for a specific bean.
     @MockitoBean private AchievementService achievementServiceMock;
 
+    @MockitoBean private AchievementChangeFeed achievementChangeFeedMock;
+
     // The @Autowired annotation is used to inject the MockMvc instance into the test class.
     @Autowired private MockMvc mockMvc;
 
@@ -53,6 +66,11 @@ class AchievementViewControllerTest {
 
     @BeforeEach
     void setUp() {
+        // The feed runs each read as soon as the changes up to sequence 42 are published
+        when(achievementChangeFeedMock.read(any()))
+                .thenAnswer(
+                        invocation ->
+                                new Sequenced<>(42L, invocation.<Supplier<?>>getArgument(0).get()));
         title = "This is a Title";
         status = "IN_PROGRESS";
         Long id = 1L;
@@ -65,7 +83,8 @@ class AchievementViewControllerTest {
                     + " model should contain the list of achievements")
     void showAchievements() throws Exception {
         // Given
-        when(achievementServiceMock.getAllAchievements()).thenReturn(List.of(achievementDTO));
+        when(achievementServiceMock.getAchievementViewPage(null, "id", "asc", 0, null))
+                .thenReturn(new PageImpl<>(List.of(achievementDTO)));
 
         // Perform GET request and verify response
         mockMvc.perform(get("/achievements"))
@@ -75,7 +94,13 @@ class AchievementViewControllerTest {
                         model().attributeExists("achievements")) // Ensure model contains attribute
                 .andExpect(model().attribute("achievements", hasSize(1))) // Expect list of size 1
                 .andExpect(content().string(containsString(title))) // Expect title in response
-                .andExpect(content().string(containsString(status))); // Expect status in response
+                .andExpect(content().string(containsString(status))) // Expect status in response
+                .andExpect(
+                        content()
+                                .string(
+                                        containsString(
+                                                "data-change-sequence=\"42\""))); // Feed resumes
+        // here
     }
 
     @Test
@@ -84,7 +109,8 @@ class AchievementViewControllerTest {
                     + " achievements")
     void showAchievements_emptyList() throws Exception {
         // Mock Service to Return Empty List
-        when(achievementServiceMock.getAllAchievements()).thenReturn(List.of());
+        when(achievementServiceMock.getAchievementViewPage(null, "id", "asc", 0, null))
+                .thenReturn(Page.empty());
 
         // Perform GET request and verify response
         mockMvc.perform(get("/achievements"))
@@ -95,4 +121,49 @@ class AchievementViewControllerTest {
                 .andExpect(model().attribute("achievements", hasSize(0))) // Expect empty list
                 .andExpect(content().string(containsString("No achievements found")));
     }
+
+    @Test
+    @DisplayName(
+            "Given status, sort, direction, page and size, when showAchievements is called, then"
+                    + " they should be passed to the service and kept in the pager links")
+    void showAchievements_filteredSortedPage() throws Exception {
+        // Given: the second page of three
+        when(achievementServiceMock.getAchievementViewPage("IN_PROGRESS", "title", "desc", 1, 1))
+                .thenReturn(
+                        new PageImpl<>(
+                                List.of(achievementDTO),
+                                PageRequest.of(1, 1, Sort.by(Sort.Direction.DESC, "title")),
+                                3));
+
+        mockMvc.perform(
+                        get("/achievements")
+                                .param("status", "IN_PROGRESS")
+                                .param("sort", "title")
+                                .param("dir", "desc")
+                                .param("page", "1")
+                                .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("achievements", hasSize(1)))
+                .andExpect(content().string(containsString("Page 2 of 3")))
+                .andExpect(
+                        content()
+                                .string(
+                                        containsString(
+                                                "/achievements?status=IN_PROGRESS&amp;sort=title&amp;dir=desc&amp;page=2&amp;size=1")));
+
+        verify(achievementServiceMock, times(1))
+                .getAchievementViewPage("IN_PROGRESS", "title", "desc", 1, 1);
+    }
+
+    @Test
+    @DisplayName(
+            "Given an unknown sort column, when showAchievements is called, then it should return"
+                    + " a response with status code 400")
+    void showAchievements_unknownSort() throws Exception {
+        when(achievementServiceMock.getAchievementViewPage(null, "secret", "asc", 0, null))
+                .thenThrow(new InvalidPageRequestException("Unknown sort: secret"));
+
+        mockMvc.perform(get("/achievements").param("sort", "secret"))
+                .andExpect(status().isBadRequest());
+    }
 }
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.api.controller;
+
+import static org.hamcrest.Matchers.stringContainsInOrder;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.achievement_tracker.api.dto.AchievementDTO;
+import com.example.achievement_tracker.api.dto.AchievementPageDTO;
+import com.example.achievement_tracker.exception.InvalidPageRequestException;
+import com.example.achievement_tracker.service.ReactiveAchievementService;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@WebMvcTest(controllers = ReactiveAchievementController.class)
+class ReactiveAchievementControllerTest {
+
+    // The @MockitoBean annotation is used to create a Mockito mock for a specific bean.
+    @MockitoBean private ReactiveAchievementService reactiveAchievementServiceMock;
+
+    // The @Autowired annotation is used to inject the MockMvc instance into the test class.
+    @Autowired private MockMvc mockMvc;
+
+    @Test
+    @DisplayName(
+            "Given an existing achievement, when getting it by id, then it should return 200 OK"
+                    + " once the query completes.")
+    void getAchievementById() throws Exception {
+        when(reactiveAchievementServiceMock.getAchievementById(1L))
+                .thenReturn(Mono.just(achievement(1L)));
+
+        mockMvc.perform(asyncDispatch(started(get("/api/v2/achievements/1"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Title 1"));
+    }
+
+    @Test
+    @DisplayName(
+            "Given a missing achievement, when getting it by id, then it should return 204 No"
+                    + " Content like v1.")
+    void getMissingAchievementById() throws Exception {
+        when(reactiveAchievementServiceMock.getAchievementById(2L)).thenReturn(Mono.empty());
+
+        mockMvc.perform(asyncDispatch(started(get("/api/v2/achievements/2"))))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    @DisplayName(
+            "Given a malformed cursor, when getting a page, then it should return 400 Bad"
+                    + " Request.")
+    void getAchievementPageWithMalformedCursor() throws Exception {
+        when(reactiveAchievementServiceMock.getAchievementPage("bad", null))
+                .thenReturn(Mono.error(new InvalidPageRequestException("Malformed cursor: bad")));
+
+        mockMvc.perform(asyncDispatch(started(get("/api/v2/achievements").param("cursor", "bad"))))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName(
+            "Given a page of achievements, when getting it, then it should return the items and"
+                    + " the next cursor.")
+    void getAchievementPage() throws Exception {
+        when(reactiveAchievementServiceMock.getAchievementPage(null, 1))
+                .thenReturn(
+                        Mono.just(
+                                AchievementPageDTO.builder()
+                                        .items(List.of(achievement(1L)))
+                                        .nextCursor("next")
+                                        .build()));
+
+        mockMvc.perform(asyncDispatch(started(get("/api/v2/achievements").param("limit", "1"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(1))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+    }
+
+    @Test
+    @DisplayName(
+            "Given two achievements, when streaming them, then each should be sent as a"
+                    + " server-sent event.")
+    void streamAchievements() throws Exception {
+        when(reactiveAchievementServiceMock.streamAchievements())
+                .thenReturn(Flux.just(achievement(1L), achievement(2L)));
+
+        mockMvc.perform(
+                        asyncDispatch(
+                                started(
+                                        get("/api/v2/achievements/stream")
+                                                .accept(MediaType.TEXT_EVENT_STREAM))))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(
+                        content()
+                                .string(stringContainsInOrder("data:{\"id\":1", "data:{\"id\":2")));
+    }
+
+    private MvcResult started(MockHttpServletRequestBuilder requestBuilder) throws Exception {
+        return mockMvc.perform(requestBuilder).andExpect(request().asyncStarted()).andReturn();
+    }
+
+    private static AchievementDTO achievement(Long id) {
+        return AchievementDTO.builder().id(id).title("Title " + id).status("TODO").build();
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+public class StatementCountFilterTest {
+    private SimpleMeterRegistry registry;
+    private StatementCountFilter filter;
+    private StatementCountingInspector inspector;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        filter = new StatementCountFilter(registry);
+        inspector = new StatementCountingInspector();
+    }
+
+    @Test
+    @DisplayName(
+            "Given a request that issues two statements, when it completes, then two statements"
+                    + " should be recorded against its URI template.")
+    void recordsStatementsPerRequest() throws Exception {
+        // Statements from before the request must not be attributed to it
+        inspector.inspect("select 1");
+        MockHttpServletRequest request =
+                new MockHttpServletRequest("GET", "/api/v1/achievements/1");
+
+        filter.doFilter(
+                request,
+                new MockHttpServletResponse(),
+                (servletRequest, servletResponse) -> {
+                    servletRequest.setAttribute(
+                            HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE,
+                            "/api/v1/achievements/{id}");
+                    inspector.inspect("select a from achievements a where a.id = ?");
+                    inspector.inspect(
+                            "select t from achievement_tags t where t.achievement_id = ?");
+                });
+
+        DistributionSummary summary =
+                registry.get(StatementCountFilter.METRIC_NAME)
+                        .tags("method", "GET", "uri", "/api/v1/achievements/{id}")
+                        .summary();
+        assertEquals(1, summary.count());
+        assertEquals(2, summary.totalAmount());
+    }
+}
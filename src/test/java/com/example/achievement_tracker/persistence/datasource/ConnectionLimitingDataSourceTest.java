@@ -0,0 +1,89 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.persistence.datasource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public class ConnectionLimitingDataSourceTest {
+
+    @Mock private DataSource pool;
+
+    @Mock private Connection pooledConnection;
+
+    private ConnectionLimitingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new ConnectionLimitingDataSource(pool, 1, Duration.ofMillis(50));
+    }
+
+    @Test
+    @DisplayName("Should time out while every permit is held and admit again once it is returned")
+    void getConnection_WaitsForPermit() throws SQLException {
+        Mockito.when(pool.getConnection()).thenReturn(pooledConnection);
+
+        Connection connection = dataSource.getConnection();
+        Assertions.assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+
+        connection.close();
+        Mockito.verify(pooledConnection).close();
+        Assertions.assertNotNull(dataSource.getConnection());
+    }
+
+    @Test
+    @DisplayName("Should return the permit once however often a connection is closed")
+    void close_ReleasesOnce() throws SQLException {
+        Mockito.when(pool.getConnection()).thenReturn(pooledConnection);
+
+        Connection connection = dataSource.getConnection();
+        connection.close();
+        connection.close();
+
+        Assertions.assertEquals(1, dataSource.availablePermits());
+    }
+
+    @Test
+    @DisplayName("Should return the permit when the pool fails to hand out a connection")
+    void getConnection_PoolFailure() throws SQLException {
+        Mockito.when(pool.getConnection()).thenThrow(new SQLException("pool exhausted"));
+
+        Assertions.assertThrows(SQLException.class, dataSource::getConnection);
+
+        Assertions.assertEquals(1, dataSource.availablePermits());
+    }
+
+    @Test
+    @DisplayName("Should delegate other calls to the pooled connection")
+    void delegatesToPooledConnection() throws SQLException {
+        Mockito.when(pool.getConnection()).thenReturn(pooledConnection);
+        Mockito.when(pooledConnection.getAutoCommit()).thenReturn(false);
+
+        Assertions.assertFalse(dataSource.getConnection().getAutoCommit());
+    }
+}
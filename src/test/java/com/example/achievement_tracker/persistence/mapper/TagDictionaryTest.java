@@ -0,0 +1,141 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.persistence.mapper;
+
+import com.example.achievement_tracker.persistence.model.Tag;
+import com.example.achievement_tracker.persistence.repository.TagRepository;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.locks.LockSupport;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.transaction.TestTransaction;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@DataJpaTest
+@Import(TagDictionary.class)
+public class TagDictionaryTest {
+
+    @Autowired private TagDictionary tagDictionary;
+    @Autowired private TagRepository tagRepository;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("Should register new names once and translate them back")
+    void registersNewNames() {
+        Set<Integer> ids = tagDictionary.idsOf(Set.of("dictionary-a", "dictionary-b"));
+
+        Assertions.assertEquals(2, ids.size(), "Each name should get an id of its own.");
+        Assertions.assertEquals(ids, tagDictionary.idsOf(Set.of("dictionary-a", "dictionary-b")));
+        Assertions.assertEquals(Set.of("dictionary-a", "dictionary-b"), tagDictionary.namesOf(ids));
+        Assertions.assertEquals(
+                2,
+                tagRepository.findByNameIn(List.of("dictionary-a", "dictionary-b")).size(),
+                "The names should be stored once.");
+    }
+
+    @Test
+    @DisplayName("Should only cache the names a transaction registered once it commits")
+    void forgetsRolledBackNames() {
+        Integer rolledBack = tagDictionary.idsOf(Set.of("dictionary-d")).iterator().next();
+        Assertions.assertEquals(
+                Set.of("dictionary-d"),
+                tagDictionary.namesOf(Set.of(rolledBack)),
+                "The registering transaction should translate its own names.");
+        TestTransaction.end();
+
+        TestTransaction.start();
+        Integer id = tagDictionary.idsOf(Set.of("dictionary-d")).iterator().next();
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+
+        Assertions.assertEquals(
+                "dictionary-d",
+                tagRepository.findById(id).map(Tag::getName).orElse(null),
+                "The name should be inserted again after the rollback.");
+        Assertions.assertEquals(Set.of(id), tagDictionary.idsOf(Set.of("dictionary-d")));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Should register a name that a concurrent transaction inserts first")
+    void registersConcurrentlyInsertedName() throws InterruptedException {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        CountDownLatch inserted = new CountDownLatch(1);
+        Thread other =
+                Thread.ofPlatform()
+                        .start(
+                                () ->
+                                        transaction.executeWithoutResult(
+                                                status -> {
+                                                    tagRepository.insertMissing(
+                                                            List.of("dictionary-e"));
+                                                    inserted.countDown();
+                                                    // Commits while the dictionary waits on it
+                                                    LockSupport.parkNanos(500_000_000L);
+                                                }));
+        inserted.await();
+
+        Set<Integer> ids =
+                transaction.execute(status -> tagDictionary.idsOf(Set.of("dictionary-e")));
+        other.join();
+
+        Assertions.assertEquals(
+                Set.of(tagRepository.findByNameIn(List.of("dictionary-e")).get(0).getId()), ids);
+    }
+
+    @Test
+    @DisplayName("Should read ids written elsewhere and hand out the same name instances")
+    void readsUnknownIds() {
+        tagRepository.insertMissing(List.of("dictionary-c"));
+        Tag tag = tagRepository.findByNameIn(List.of("dictionary-c")).get(0);
+
+        String first = tagDictionary.namesOf(Set.of(tag.getId())).iterator().next();
+        String second = tagDictionary.namesOf(Set.of(tag.getId())).iterator().next();
+
+        Assertions.assertEquals("dictionary-c", first);
+        Assertions.assertSame(first, second, "Names should be interned by the dictionary.");
+    }
+
+    @Test
+    @DisplayName("Should translate the ids of the whole table without reading it again")
+    void preloadsTable() {
+        tagRepository.insertMissing(List.of("dictionary-f", "dictionary-g"));
+        List<Tag> tags = tagRepository.findByNameIn(List.of("dictionary-f", "dictionary-g"));
+        tagDictionary.preload();
+        tagRepository.deleteAll(tags);
+        tagRepository.flush();
+
+        Assertions.assertEquals(
+                Set.of("dictionary-f", "dictionary-g"),
+                tagDictionary.namesOf(Set.of(tags.get(0).getId(), tags.get(1).getId())));
+    }
+
+    @Test
+    @DisplayName("Should leave missing tag collections missing")
+    void passesNullThrough() {
+        Assertions.assertNull(tagDictionary.idsOf(null));
+        Assertions.assertNull(tagDictionary.namesOf(null));
+    }
+}
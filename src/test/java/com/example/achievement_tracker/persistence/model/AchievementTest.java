@@ -123,6 +123,6 @@ public class AchievementTest {
             "Given `tags` are not provided, when initializing an achievement, then it should"
                     + " default to empty set.")
     void checkDefaultValueForTagsField() {
-        assertTrue(achievement.getTags().isEmpty());
+        assertTrue(achievement.getTagIds().isEmpty());
     }
 }
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.persistence.reactive;
+
+import com.example.achievement_tracker.api.dto.AchievementDTO;
+import io.r2dbc.h2.H2ConnectionFactory;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+public class ReactiveAchievementRepositoryTest {
+    private ReactiveDatabase reactiveDatabase;
+    private ReactiveAchievementRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        reactiveDatabase =
+                new ReactiveDatabase(
+                        H2ConnectionFactory.inMemory("reactive-" + UUID.randomUUID()), 2);
+        repository = new ReactiveAchievementRepository(reactiveDatabase);
+        DatabaseClient client = reactiveDatabase.client();
+        Flux.just(
+                        "create table achievements (id bigint primary key, title varchar(50),"
+                                + " description varchar(255), date_started date,"
+                                + " date_completed date, status varchar(20), version bigint)",
+                        "create table tags (id int primary key, name varchar(255))",
+                        "create table achievement_tag_ids (achievement_id bigint, tag_id int)",
+                        "insert into achievements values"
+                                + " (1, 'First', 'One', date '2024-01-01', null, 'TODO', 0),"
+                                + " (2, 'Second', null, null, null, 'COMPLETED', 3),"
+                                + " (3, 'Third', null, null, null, 'IN_PROGRESS', 1)",
+                        "insert into tags values (1, 'java'), (2, 'books'), (3, 'run')",
+                        "insert into achievement_tag_ids values (1, 1), (1, 2), (3, 3)")
+                .concatMap(sql -> client.sql(sql).then())
+                .blockLast();
+    }
+
+    @AfterEach
+    void tearDown() {
+        reactiveDatabase.destroy();
+    }
+
+    @Test
+    @DisplayName(
+            "Given an achievement with two tags, when finding it by id, then its rows should be"
+                    + " folded into one DTO.")
+    void findById() {
+        StepVerifier.create(repository.findById(1L))
+                .expectNext(
+                        AchievementDTO.builder()
+                                .id(1L)
+                                .title("First")
+                                .description("One")
+                                .dateStarted(LocalDate.of(2024, 1, 1))
+                                .tags(Set.of("java", "books"))
+                                .status("TODO")
+                                .version(0L)
+                                .build())
+                .verifyComplete();
+        StepVerifier.create(repository.findById(4L)).verifyComplete();
+    }
+
+    @Test
+    @DisplayName(
+            "Given three achievements, when reading the page after the first, then the limit"
+                    + " should count achievements rather than tag rows.")
+    void findPage() {
+        StepVerifier.create(repository.findPage(null, 1).map(AchievementDTO::id))
+                .expectNext(1L)
+                .verifyComplete();
+        StepVerifier.create(repository.findPage(1L, 2).map(AchievementDTO::id))
+                .expectNext(2L, 3L)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName(
+            "Given a subscriber requesting one achievement at a time, when streaming, then"
+                    + " achievements should only be emitted on demand.")
+    void streamAllHonoursDemand() {
+        StepVerifier.create(repository.streamAll().map(AchievementDTO::id), 1)
+                .expectNext(1L)
+                .expectNoEvent(Duration.ofMillis(50))
+                .thenRequest(2)
+                .expectNext(2L, 3L)
+                .verifyComplete();
+    }
+}
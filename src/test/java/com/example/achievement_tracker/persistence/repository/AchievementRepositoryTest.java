@@ -18,27 +18,46 @@ package com.example.achievement_tracker.persistence.repository;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.example.achievement_tracker.persistence.model.Achievement;
 import com.example.achievement_tracker.persistence.model.StatusEnum;
+import com.example.achievement_tracker.persistence.model.Tag;
+import com.example.achievement_tracker.persistence.projection.AchievementStateView;
+import com.example.achievement_tracker.persistence.projection.AchievementTagIdView;
+import com.example.achievement_tracker.persistence.projection.DurationCountView;
+import com.example.achievement_tracker.persistence.projection.StatusCountView;
+import com.example.achievement_tracker.persistence.projection.TagCountView;
+import jakarta.persistence.EntityManager;
 import java.time.LocalDate;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.transaction.annotation.Transactional;
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 @Transactional
 public class AchievementRepositoryTest {
 
     @Autowired private AchievementRepository achievementRepository;
+    @Autowired private TagRepository tagRepository;
+    @Autowired private EntityManager entityManager;
     private Achievement achievement1;
     private Achievement achievement2;
 
@@ -63,7 +82,7 @@ public class AchievementRepositoryTest {
                 Achievement.builder()
                         .status(status2)
                         .title(title2)
-                        .tags(Set.of("tagA", "tagB"))
+                        .tagIds(tagIds("tagA", "tagB"))
                         .build();
         achievementRepository.save(achievement2);
     }
@@ -119,17 +138,398 @@ public class AchievementRepositoryTest {
             "Given an achievement exists, when finding by status, then the achievement should be"
                     + " retrievable.")
     void findByStatus() {
-        Optional<Achievement> optionalAchievement = achievementRepository.findByStatus(status1);
-        Achievement foundAchievement =
-                optionalAchievement.orElseThrow(
-                        () ->
-                                new NoSuchElementException(
-                                        "Achievement with status '" + status1 + "' not found"));
+        Page<Achievement> page = achievementRepository.findByStatus(status1, PageRequest.of(0, 10));
 
+        assertEquals(1, page.getTotalElements(), "Only one achievement has the status");
+        Achievement foundAchievement = page.getContent().get(0);
         assertEquals(status1, foundAchievement.getStatus(), "Status should match the expected");
         assertEquals(title1, foundAchievement.getTitle(), "Title should match the expected");
     }
 
+    @Test
+    @DisplayName(
+            "Given an achievement is updated, when reading its version, then it should have been"
+                    + " incremented.")
+    void versionIncrementsOnUpdate() {
+        achievementRepository.flush();
+        Long initialVersion =
+                achievementRepository.findVersionById(achievement1.getId()).orElseThrow();
+
+        achievement1.setDescription("Changed");
+        achievementRepository.saveAndFlush(achievement1);
+
+        assertEquals(0L, initialVersion, "New achievements should start at version 0");
+        assertEquals(
+                Optional.of(1L),
+                achievementRepository.findVersionById(achievement1.getId()),
+                "The update should bump the version");
+        assertEquals(1L, achievement1.getVersion(), "The entity should carry the new version");
+    }
+
+    @Test
+    @DisplayName(
+            "Given several achievements share a status, when finding by status, then they should"
+                    + " be returned one page at a time.")
+    void findByStatusPaged() {
+        achievementRepository.save(
+                Achievement.builder().status(status1).title("Another Achievement").build());
+        PageRequest firstPage = PageRequest.of(0, 1, Sort.by("title"));
+
+        Page<Achievement> page = achievementRepository.findByStatus(status1, firstPage);
+        Page<Achievement> next = achievementRepository.findByStatus(status1, page.nextPageable());
+
+        assertEquals(2, page.getTotalElements(), "Both achievements should be counted");
+        assertEquals(2, page.getTotalPages(), "One achievement per page");
+        assertEquals("Another Achievement", page.getContent().get(0).getTitle());
+        assertEquals(title1, next.getContent().get(0).getTitle());
+    }
+
+    @Test
+    @DisplayName(
+            "Given achievements exist, when paging by id, then each page should continue after"
+                    + " the previous one.")
+    void keysetPageById() {
+        List<Achievement> firstPage = achievementRepository.findAllByOrderByIdAsc(Limit.of(1));
+        assertEquals(List.of(achievement1), firstPage, "First page should hold the lowest id");
+
+        List<Achievement> secondPage =
+                achievementRepository.findByIdGreaterThanOrderByIdAsc(
+                        firstPage.get(0).getId(), Limit.of(1));
+        assertEquals(List.of(achievement2), secondPage, "Second page should follow the cursor");
+    }
+
+    @Test
+    @DisplayName(
+            "Given achievements exist, when paging by dateStarted, then rows should be ordered by"
+                    + " start date and then id.")
+    void keysetPageByDateStarted() {
+        achievement1.setDateStarted(LocalDate.of(2024, 5, 1));
+        achievement2.setDateStarted(LocalDate.of(2024, 1, 1));
+        Achievement undated =
+                achievementRepository.save(
+                        Achievement.builder()
+                                .status(StatusEnum.TODO)
+                                .title("Undated")
+                                .dateStarted(null)
+                                .build());
+        achievementRepository.flush();
+
+        assertEquals(
+                List.of(undated, achievement2),
+                achievementRepository.findFirstPageOrderByDateStarted(Limit.of(2)),
+                "Rows without a start date should come first");
+        assertEquals(
+                List.of(achievement2, achievement1),
+                achievementRepository.findPageAfterNullDateStarted(undated.getId(), Limit.of(2)),
+                "Dated rows should follow the last undated row");
+        assertEquals(
+                List.of(achievement1),
+                achievementRepository.findPageAfterDateStarted(
+                        achievement2.getDateStarted(), achievement2.getId(), Limit.of(2)),
+                "Only later start dates should follow a dated cursor");
+    }
+
+    @Test
+    @DisplayName(
+            "Given a page of tagged achievements, when reading their tags, then the statement"
+                    + " count should not depend on the number of rows.")
+    void keysetPageLoadsTagsWithConstantStatements() {
+        for (int i = 0; i < 30; i++) {
+            achievementRepository.save(
+                    Achievement.builder()
+                            .status(StatusEnum.TODO)
+                            .title("Tagged " + i)
+                            .tagIds(tagIds("tag" + i, "shared"))
+                            .build());
+        }
+        Statistics statistics = clearPersistenceContextAndStatistics();
+
+        List<Achievement> page = achievementRepository.findAllByOrderByIdAsc(Limit.of(32));
+        page.forEach(achievement -> achievement.getTagIds().size());
+
+        assertEquals(32, page.size(), "Expected the whole page to be loaded");
+        assertEquals(
+                2,
+                statistics.getPrepareStatementCount(),
+                "Expected one statement for the page and one for all of its tags");
+    }
+
+    @Test
+    @DisplayName(
+            "Given tagged achievements, when finding all achievements, then the tags should be"
+                    + " joined in a single statement.")
+    void findAllLoadsTagsWithSingleStatement() {
+        Statistics statistics = clearPersistenceContextAndStatistics();
+
+        List<Achievement> achievements = achievementRepository.findAll();
+        achievements.forEach(achievement -> achievement.getTagIds().size());
+
+        assertEquals(
+                1,
+                statistics.getPrepareStatementCount(),
+                "Expected the tags to be fetched with the achievements");
+    }
+
+    @Test
+    @DisplayName(
+            "Given the expected version, when patching the status, then a single UPDATE should"
+                    + " change only that column and bump the version.")
+    void updateColumnsWithExpectedVersion() {
+        Long id = achievement2.getId();
+        Statistics statistics = clearPersistenceContextAndStatistics();
+
+        int updated =
+                achievementRepository.updateColumns(id, 0L, Map.of("status", StatusEnum.COMPLETED));
+
+        assertEquals(1, updated, "The row should be updated");
+        assertEquals(1, statistics.getPrepareStatementCount(), "Expected a single statement");
+        Achievement patched = achievementRepository.findById(id).orElseThrow();
+        assertEquals(StatusEnum.COMPLETED, patched.getStatus(), "Status should be patched");
+        assertEquals(title2, patched.getTitle(), "Title should be left unchanged");
+        assertEquals(Set.of("tagA", "tagB"), tagNames(patched), "Tags should be left unchanged");
+        assertEquals(1L, patched.getVersion(), "Version should be bumped");
+    }
+
+    @Test
+    @DisplayName(
+            "Given a stale version, when patching an achievement, then nothing should be"
+                    + " updated.")
+    void updateColumnsWithStaleVersion() {
+        Long id = achievement2.getId();
+        clearPersistenceContextAndStatistics();
+
+        int updated = achievementRepository.updateColumns(id, 5L, Map.of("title", "Stale"));
+
+        assertEquals(0, updated, "The stale update should not match the row");
+        assertEquals(title2, achievementRepository.findById(id).orElseThrow().getTitle());
+    }
+
+    @Test
+    @DisplayName(
+            "Given the expected version, when patching the status, then the UPDATE should return"
+                    + " the columns and tags the row held before it.")
+    void updateColumnsReturningPrevious() {
+        Long id = achievement2.getId();
+        Achievement before = achievementRepository.findById(id).orElseThrow();
+        Set<Integer> tagIds = Set.copyOf(before.getTagIds());
+        StatusEnum status = before.getStatus();
+        clearPersistenceContextAndStatistics();
+
+        AchievementStateView previous =
+                achievementRepository
+                        .updateColumnsReturningPrevious(
+                                id, 0L, Map.of("status", StatusEnum.COMPLETED, "title", "Patched"))
+                        .orElseThrow();
+
+        assertEquals(title2, previous.title(), "The previous title should be returned");
+        assertEquals(status, previous.status(), "The previous status should be returned");
+        assertEquals(tagIds, previous.tagIds(), "The tags should be returned");
+        Achievement patched = achievementRepository.findById(id).orElseThrow();
+        assertEquals(StatusEnum.COMPLETED, patched.getStatus(), "Status should be patched");
+        assertEquals("Patched", patched.getTitle(), "Title should be patched");
+        assertEquals(1L, patched.getVersion(), "Version should be bumped");
+    }
+
+    @Test
+    @DisplayName(
+            "Given a stale version, when patching with the previous state returned, then nothing"
+                    + " should be updated or returned.")
+    void updateColumnsReturningPreviousWithStaleVersion() {
+        Long id = achievement2.getId();
+        clearPersistenceContextAndStatistics();
+
+        assertTrue(
+                achievementRepository
+                        .updateColumnsReturningPrevious(
+                                id, 5L, Map.of("status", StatusEnum.COMPLETED))
+                        .isEmpty(),
+                "The stale update should not match the row");
+        assertEquals(0L, achievementRepository.findVersionById(id).orElseThrow());
+    }
+
+    @Test
+    @DisplayName(
+            "Given new tags, when replacing the tags of an achievement, then only its tag rows"
+                    + " should change.")
+    void replaceTags() {
+        Long id = achievement2.getId();
+        clearPersistenceContextAndStatistics();
+
+        achievementRepository.replaceTags(id, tagIds("tagB", "tagC", "tagD"));
+        entityManager.clear();
+
+        assertEquals(
+                Set.of("tagB", "tagC", "tagD"),
+                tagNames(achievementRepository.findById(id).orElseThrow()));
+        assertEquals(
+                Set.of(),
+                achievementRepository.findById(achievement1.getId()).orElseThrow().getTagIds());
+    }
+
+    @Test
+    @DisplayName(
+            "Given some names are already in the tags dictionary, when inserting missing tags,"
+                    + " then only the new names should be added.")
+    void insertMissingTags() {
+        Tag existing = tagRepository.findByNameIn(List.of("tagA")).get(0);
+
+        tagRepository.insertMissing(List.of("tagA", "tagE", "tagE"));
+
+        List<Tag> tags = tagRepository.findByNameIn(List.of("tagA", "tagE"));
+        assertEquals(2, tags.size(), "Each name should be stored once");
+        assertEquals(
+                existing.getId(),
+                tags.stream()
+                        .filter(tag -> tag.getName().equals("tagA"))
+                        .findFirst()
+                        .orElseThrow()
+                        .getId(),
+                "Existing names should keep their id");
+    }
+
+    @Test
+    @DisplayName(
+            "Given some fields are requested, when reading a page of columns, then each row should"
+                    + " hold only the id and those fields.")
+    void findColumnsPageOrderById() {
+        Statistics statistics = clearPersistenceContextAndStatistics();
+
+        List<Map<String, Object>> rows =
+                achievementRepository.findColumnsPageOrderById(
+                        List.of("title", "status"), null, Limit.of(10));
+
+        assertEquals(2, rows.size(), "Both achievements should be read");
+        assertEquals(Set.of("id", "title", "status"), rows.get(0).keySet());
+        assertEquals(title1, rows.get(0).get("title"));
+        assertEquals(status2, rows.get(1).get("status"));
+        assertEquals(
+                0, statistics.getEntityLoadCount(), "Expected scalar columns rather than entities");
+    }
+
+    @Test
+    @DisplayName(
+            "Given a cursor after the first row, when reading a page of columns by start date,"
+                    + " then the page should continue after it.")
+    void findColumnsPageOrderByDateStarted() {
+        List<Map<String, Object>> first =
+                achievementRepository.findColumnsPageOrderByDateStarted(
+                        List.of("dateStarted"), null, null, Limit.of(1));
+        Map<String, Object> last = first.get(0);
+
+        List<Map<String, Object>> next =
+                achievementRepository.findColumnsPageOrderByDateStarted(
+                        List.of("dateStarted"),
+                        (Long) last.get("id"),
+                        (LocalDate) last.get("dateStarted"),
+                        Limit.of(10));
+
+        assertEquals(1, next.size(), "Only the other achievement should follow");
+        assertFalse(next.get(0).get("id").equals(last.get("id")));
+    }
+
+    @Test
+    @DisplayName(
+            "Given tagged achievements, when reading their tag ids, then only tagged achievements"
+                    + " should have rows.")
+    void findTagIdsByIdIn() {
+        List<AchievementTagIdView> rows =
+                achievementRepository.findTagIdsByIdIn(
+                        List.of(achievement1.getId(), achievement2.getId()));
+
+        assertEquals(2, rows.size(), "achievement2 carries two tags");
+        rows.forEach(row -> assertEquals(achievement2.getId(), row.getId()));
+        assertEquals(
+                tagIds("tagA", "tagB"),
+                rows.stream().map(AchievementTagIdView::getTagId).collect(Collectors.toSet()));
+    }
+
+    // Ids of the given names in the tags dictionary, adding the names it does not hold yet
+    private Set<Integer> tagIds(String... names) {
+        Set<Integer> ids = new HashSet<>();
+        for (String name : names) {
+            tagRepository.insertMissing(List.of(name));
+            ids.add(tagRepository.findByNameIn(List.of(name)).get(0).getId());
+        }
+        return ids;
+    }
+
+    private Set<String> tagNames(Achievement achievement) {
+        return tagRepository.findAllById(achievement.getTagIds()).stream()
+                .map(Tag::getName)
+                .collect(Collectors.toSet());
+    }
+
+    private Statistics clearPersistenceContextAndStatistics() {
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics =
+                entityManager
+                        .getEntityManagerFactory()
+                        .unwrap(SessionFactory.class)
+                        .getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    @Test
+    @DisplayName(
+            "Given achievements exist, when looking up titles, then only the taken titles should"
+                    + " be returned.")
+    void findExistingTitles() {
+        assertEquals(
+                List.of(title1),
+                achievementRepository.findExistingTitles(List.of(title1, "Free Title")),
+                "Only the stored title should be reported");
+    }
+
+    @Test
+    @DisplayName(
+            "Given achievements exist, when counting by status, then each status should be"
+                    + " counted once per achievement.")
+    void countByStatus() {
+        List<StatusCountView> counts = achievementRepository.countByStatus();
+
+        assertEquals(2, counts.size(), "Expected one row per status in use");
+        counts.forEach(row -> assertEquals(1L, row.getCount(), "Each status is used once"));
+    }
+
+    @Test
+    @DisplayName(
+            "Given tagged achievements exist, when counting by tag, then the most frequent tags"
+                    + " should come first.")
+    void countByTag() {
+        achievementRepository.save(
+                Achievement.builder()
+                        .status(StatusEnum.TODO)
+                        .title("Test Achievement 3")
+                        .tagIds(tagIds("tagB"))
+                        .build());
+
+        List<TagCountView> counts = achievementRepository.countByTag(Limit.of(1));
+
+        assertEquals(1, counts.size(), "The limit should bound the number of tags");
+        assertEquals("tagB", counts.get(0).getTag(), "tagB is used by two achievements");
+        assertEquals(2L, counts.get(0).getCount(), "tagB is used by two achievements");
+    }
+
+    @Test
+    @DisplayName(
+            "Given achievements with start and completion dates, when counting by duration, then"
+                    + " rows should be grouped by the number of days in between.")
+    void countByDaysToCompletion() {
+        achievement1.setDateStarted(LocalDate.of(2024, 1, 1));
+        achievement1.setDateCompleted(LocalDate.of(2024, 1, 11));
+        achievement2.setDateStarted(LocalDate.of(2024, 3, 1));
+        achievement2.setDateCompleted(LocalDate.of(2024, 3, 11));
+        achievementRepository.flush();
+
+        List<DurationCountView> counts = achievementRepository.countByDaysToCompletion();
+
+        assertEquals(1, counts.size(), "Both achievements took the same number of days");
+        assertEquals(10L, counts.get(0).getDays(), "Duration should be measured in days");
+        assertEquals(2L, counts.get(0).getCount(), "Both achievements should be counted");
+    }
+
     @Test
     @DisplayName(
             "Given an achievement is saved, when fetching by dynamic ID, then the achievement"
@@ -206,7 +606,7 @@ public class AchievementRepositoryTest {
 
         assertEquals(
                 Set.of("tagA", "tagB"),
-                foundAchievement.getTags(),
+                tagNames(foundAchievement),
                 "Tags should match the saved set");
     }
 
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.service.analytics;
+
+import com.example.achievement_tracker.api.dto.AchievementDTO;
+import com.example.achievement_tracker.persistence.repository.AchievementRepository;
+import com.example.achievement_tracker.service.event.AchievementChangedEvent;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public class AchievementColumnsTest {
+
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+
+    @InjectMocks private AchievementColumns achievementColumns;
+
+    @Mock private AchievementRepository achievementRepository;
+
+    @BeforeEach
+    void setUp() {
+        create(1L, "TODO", START, 3, Set.of("java"));
+        create(2L, "COMPLETED", START.plusDays(10), 9, Set.of("java", "sql"));
+        create(3L, "COMPLETED", START.plusDays(20), 1, Set.of("sql"));
+        create(4L, "IN_PROGRESS", null, 0, Set.of());
+    }
+
+    @Test
+    @DisplayName("Should count every achievement per status without a filter")
+    void countByStatus() {
+        Assertions.assertArrayEquals(
+                new long[] {1, 1, 2}, achievementColumns.countByStatus(StatsFilter.NONE));
+    }
+
+    @Test
+    @DisplayName("Should only count achievements started in the range and carrying the tag")
+    void countByStatus_Filtered() {
+        StatsFilter filter = new StatsFilter(START.plusDays(5), START.plusDays(20), "sql");
+
+        Assertions.assertArrayEquals(
+                new long[] {0, 0, 2}, achievementColumns.countByStatus(filter));
+        Assertions.assertArrayEquals(
+                new long[] {0, 0, 0},
+                achievementColumns.countByStatus(StatsFilter.builder().tag("unknown").build()),
+                "An unknown tag should match nothing.");
+    }
+
+    @Test
+    @DisplayName("Should leave undated achievements out as soon as one date bound is set")
+    void upperBoundOnlyExcludesUndated() {
+        StatsFilter filter = StatsFilter.builder().startedTo(START.plusDays(30)).build();
+
+        Assertions.assertArrayEquals(
+                new long[] {1, 0, 2}, achievementColumns.countByStatus(filter));
+        Assertions.assertEquals(
+                Map.of("java", 2L, "sql", 2L), achievementColumns.countByTag(filter));
+        Assertions.assertEquals(
+                Map.of(0, 2L, 1, 1L), achievementColumns.countByDaysToCompletion(filter, 7));
+    }
+
+    @Test
+    @DisplayName("Should count the tags of the matching achievements")
+    void countByTag() {
+        Assertions.assertEquals(
+                Map.of("java", 1L, "sql", 2L),
+                achievementColumns.countByTag(
+                        StatsFilter.builder().startedFrom(START.plusDays(1)).build()));
+    }
+
+    @Test
+    @DisplayName("Should bucket the days to completion, leaving the empty buckets out")
+    void countByDaysToCompletion() {
+        create(5L, "COMPLETED", START, 36_500, Set.of());
+
+        Assertions.assertEquals(
+                Map.of(0, 2L, 1, 1L, 5214, 1L),
+                achievementColumns.countByDaysToCompletion(StatsFilter.NONE, 7));
+        Assertions.assertEquals(
+                Map.of(0, 1L),
+                achievementColumns.countByDaysToCompletion(
+                        StatsFilter.builder().tag("java").startedTo(START).build(), 7));
+    }
+
+    @Test
+    @DisplayName("Should follow updates and deletions, and ignore title-only partial updates")
+    void followsChanges() {
+        AchievementDTO before = achievement(1L, "TODO", START, 3, Set.of("java"));
+        AchievementDTO after = achievement(1L, "COMPLETED", START, 3, Set.of("java", "web", "api"));
+        achievementColumns.onAchievementChanged(AchievementChangedEvent.updated(before, after));
+        achievementColumns.onAchievementChanged(
+                AchievementChangedEvent.deleted(
+                        achievement(3L, "COMPLETED", START, 1, Set.of("sql"))));
+        achievementColumns.onAchievementChanged(
+                AchievementChangedEvent.updated(
+                        null, AchievementDTO.builder().id(2L).title("Renamed").build()));
+
+        Assertions.assertArrayEquals(
+                new long[] {0, 1, 2}, achievementColumns.countByStatus(StatsFilter.NONE));
+        Assertions.assertEquals(
+                Map.of("java", 2L, "sql", 1L, "web", 1L, "api", 1L),
+                achievementColumns.countByTag(StatsFilter.NONE));
+    }
+
+    @Test
+    @DisplayName("Should drop a change that arrives after a newer one of the same achievement")
+    void dropsStaleChanges() {
+        AchievementDTO original = versioned(achievement(1L, "TODO", START, 3, Set.of("java")), 0);
+        AchievementDTO second =
+                versioned(achievement(1L, "IN_PROGRESS", START, 3, Set.of("sql")), 1);
+        AchievementDTO third = versioned(achievement(1L, "COMPLETED", START, 3, Set.of("web")), 2);
+
+        achievementColumns.onAchievementChanged(AchievementChangedEvent.updated(second, third));
+        achievementColumns.onAchievementChanged(AchievementChangedEvent.updated(original, second));
+
+        Assertions.assertArrayEquals(
+                new long[] {0, 1, 3}, achievementColumns.countByStatus(StatsFilter.NONE));
+        Assertions.assertEquals(
+                Map.of("java", 1L, "sql", 2L, "web", 1L),
+                achievementColumns.countByTag(StatsFilter.NONE));
+    }
+
+    @Test
+    @DisplayName("Should give the same counts when scanning in parallel and after compaction")
+    void largeTables() {
+        int rows = AchievementColumns.PARALLEL_THRESHOLD * 2;
+        for (long id = 100; id < 100 + rows; id++) {
+            create(id, id % 2 == 0 ? "TODO" : "COMPLETED", START, (int) (id % 14), Set.of("bulk"));
+        }
+        // Deleting most of the rows triggers a compaction on the way
+        for (long id = 100; id < 100 + rows - 1000; id++) {
+            achievementColumns.onAchievementChanged(
+                    AchievementChangedEvent.deleted(AchievementDTO.builder().id(id).build()));
+        }
+
+        Assertions.assertArrayEquals(
+                new long[] {501, 1, 502}, achievementColumns.countByStatus(StatsFilter.NONE));
+        Assertions.assertEquals(1000L, achievementColumns.countByTag(StatsFilter.NONE).get("bulk"));
+    }
+
+    private void create(
+            Long id, String status, LocalDate started, int daysToCompletion, Set<String> tags) {
+        achievementColumns.onAchievementChanged(
+                AchievementChangedEvent.created(
+                        achievement(id, status, started, daysToCompletion, tags)));
+    }
+
+    private static AchievementDTO achievement(
+            Long id, String status, LocalDate started, int daysToCompletion, Set<String> tags) {
+        return AchievementDTO.builder()
+                .id(id)
+                .title("Achievement " + id)
+                .status(status)
+                .dateStarted(started)
+                .dateCompleted(started == null ? null : started.plusDays(daysToCompletion))
+                .tags(tags)
+                .build();
+    }
+
+    private static AchievementDTO versioned(AchievementDTO achievement, long version) {
+        return AchievementDTO.builder()
+                .id(achievement.id())
+                .title(achievement.title())
+                .status(achievement.status())
+                .dateStarted(achievement.dateStarted())
+                .dateCompleted(achievement.dateCompleted())
+                .tags(achievement.tags())
+                .version(version)
+                .build();
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.service.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import com.example.achievement_tracker.api.dto.AchievementDTO;
+import com.example.achievement_tracker.config.AchievementCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class AchievementCacheTest {
+    private AchievementCache achievementCache;
+    private Map<Long, AchievementDTO> database;
+    private AtomicInteger idLoads;
+    private AtomicInteger titleLoads;
+
+    @BeforeEach
+    void setUp() {
+        achievementCache =
+                new AchievementCache(new AchievementCacheProperties(100, Duration.ofMinutes(1)));
+        database = new HashMap<>();
+        database.put(1L, achievement(1L, "First Title"));
+        idLoads = new AtomicInteger();
+        titleLoads = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName(
+            "Given an achievement was looked up by id, when looking it up again, then it should be"
+                    + " served from the cache.")
+    void getByIdIsReadThrough() {
+        assertEquals(Optional.of(database.get(1L)), getById(1L));
+        assertEquals(Optional.of(database.get(1L)), getById(1L));
+
+        assertEquals(1, idLoads.get(), "The second lookup should be a cache hit");
+        assertEquals(1, achievementCache.byIdStats().hitCount(), "Expected one recorded hit");
+        assertEquals(1, achievementCache.byIdStats().missCount(), "Expected one recorded miss");
+    }
+
+    @Test
+    @DisplayName(
+            "Given the cache is bound to a registry, when an achievement is looked up twice, then"
+                    + " the hit and the miss should be published as meters.")
+    void bindToPublishesHitsAndMisses() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        achievementCache.bindTo(registry);
+
+        getById(1L);
+        getById(1L);
+
+        assertEquals(
+                1,
+                registry.get("cache.gets")
+                        .tags("cache", "achievementsById", "result", "hit")
+                        .functionCounter()
+                        .count());
+        assertEquals(
+                1,
+                registry.get("cache.gets")
+                        .tags("cache", "achievementsById", "result", "miss")
+                        .functionCounter()
+                        .count());
+    }
+
+    @Test
+    @DisplayName(
+            "Given an absent achievement, when looking it up twice, then the absence should not"
+                    + " be cached.")
+    void getByIdDoesNotCacheAbsence() {
+        assertFalse(getById(2L).isPresent());
+        database.put(2L, achievement(2L, "Second Title"));
+
+        assertEquals(Optional.of(database.get(2L)), getById(2L));
+    }
+
+    @Test
+    @DisplayName(
+            "Given a cached achievement, when it is evicted, then the next lookup should reload"
+                    + " it.")
+    void evictReloadsById() {
+        getById(1L);
+        database.put(1L, achievement(1L, "Updated Title"));
+
+        achievementCache.evict(1L, "First Title", "Updated Title");
+
+        assertEquals("Updated Title", getById(1L).orElseThrow().title());
+        assertEquals(2, idLoads.get(), "The evicted entry should be reloaded");
+    }
+
+    @Test
+    @DisplayName(
+            "Given an achievement was looked up by title, when it is renamed, then the old title"
+                    + " should no longer resolve to it.")
+    void renamedAchievementIsNotServedUnderOldTitle() {
+        assertEquals(1L, getByTitle("First Title").orElseThrow().id());
+        assertEquals(1L, getByTitle("First Title").orElseThrow().id());
+        assertEquals(1, titleLoads.get(), "The second title lookup should use the title index");
+
+        database.put(1L, achievement(1L, "Renamed Title"));
+        achievementCache.evict(1L);
+
+        assertFalse(getByTitle("First Title").isPresent(), "The old title should be gone");
+        assertEquals(1L, getByTitle("Renamed Title").orElseThrow().id());
+    }
+
+    private Optional<AchievementDTO> getById(Long id) {
+        return achievementCache.getById(id, this::loadById);
+    }
+
+    private Optional<AchievementDTO> getByTitle(String title) {
+        return achievementCache.getByTitle(title, this::loadByTitle, this::loadById);
+    }
+
+    private Optional<AchievementDTO> loadById(Long id) {
+        idLoads.incrementAndGet();
+        return Optional.ofNullable(database.get(id));
+    }
+
+    private Optional<AchievementDTO> loadByTitle(String title) {
+        titleLoads.incrementAndGet();
+        return database.values().stream()
+                .filter(achievement -> achievement.title().equals(title))
+                .findFirst();
+    }
+
+    private static AchievementDTO achievement(Long id, String title) {
+        return AchievementDTO.builder().id(id).title(title).status("TODO").build();
+    }
+}
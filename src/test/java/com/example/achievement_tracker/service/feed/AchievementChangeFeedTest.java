@@ -0,0 +1,292 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.service.feed;
+
+import com.example.achievement_tracker.api.dto.AchievementChangeDTO;
+import com.example.achievement_tracker.api.dto.AchievementDTO;
+import com.example.achievement_tracker.config.ChangeFeedProperties;
+import com.example.achievement_tracker.service.event.AchievementChangedEvent;
+import com.example.achievement_tracker.service.version.AchievementChangeCounter;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public class AchievementChangeFeedTest {
+
+    private final AchievementChangeCounter achievementChangeCounter =
+            Mockito.mock(AchievementChangeCounter.class);
+    // The sequences the counter gave the published changes at commit time
+    private final Map<AchievementChangedEvent, Long> sequences =
+            Collections.synchronizedMap(new IdentityHashMap<>());
+    private long lastSequence;
+    private AchievementChangeFeed achievementChangeFeed;
+
+    @BeforeEach
+    void setUp() {
+        Mockito.when(achievementChangeCounter.sequenceOf(ArgumentMatchers.any()))
+                .thenAnswer(
+                        invocation -> {
+                            Long sequence = sequences.get(invocation.getArgument(0));
+                            return sequence != null
+                                    ? OptionalLong.of(sequence)
+                                    : OptionalLong.empty();
+                        });
+        // Dispatching on the calling thread makes every send happen before the call returns
+        achievementChangeFeed = newFeed(Runnable::run);
+    }
+
+    @Test
+    @DisplayName(
+            "Should replay the buffered changes after the given sequence, then stream new ones")
+    void resumesAfterSequence() {
+        long first = achievementChangeFeed.latestSequence() + 1;
+        publish(AchievementChangedEvent.created(achievement(1L)));
+        publish(AchievementChangedEvent.updated(achievement(1L), achievement(1L)));
+        RecordingEmitter emitter = new RecordingEmitter();
+
+        achievementChangeFeed.subscribe(first, emitter);
+        publish(AchievementChangedEvent.deleted(achievement(1L)));
+
+        Assertions.assertEquals(
+                List.of("change " + (first + 1) + " UPDATED", "change " + (first + 2) + " DELETED"),
+                emitter.events);
+    }
+
+    @Test
+    @DisplayName("Should start a subscription without a sequence at the latest change")
+    void startsAtLatestChange() {
+        publish(AchievementChangedEvent.created(achievement(1L)));
+        RecordingEmitter emitter = new RecordingEmitter();
+
+        achievementChangeFeed.subscribe(null, emitter);
+        publish(AchievementChangedEvent.created(achievement(2L)));
+
+        Assertions.assertEquals(
+                List.of("change " + achievementChangeFeed.latestSequence() + " CREATED"),
+                emitter.events);
+    }
+
+    @Test
+    @DisplayName("Should reset subscribers whose next change is no longer buffered or never was")
+    void resetsWhenChangesAreMissing() {
+        long first = achievementChangeFeed.latestSequence() + 1;
+        for (long id = 1; id <= 5; id++) {
+            publish(AchievementChangedEvent.created(achievement(id)));
+        }
+        long latest = achievementChangeFeed.latestSequence();
+        RecordingEmitter evicted = new RecordingEmitter();
+        RecordingEmitter previousRun = new RecordingEmitter();
+        RecordingEmitter buffered = new RecordingEmitter();
+
+        achievementChangeFeed.subscribe(first, evicted);
+        achievementChangeFeed.subscribe(latest + 100, previousRun);
+        achievementChangeFeed.subscribe(latest - 3, buffered);
+        publish(AchievementChangedEvent.created(achievement(6L)));
+
+        List<String> reset = List.of("reset " + latest, "change " + (latest + 1) + " CREATED");
+        Assertions.assertEquals(reset, evicted.events);
+        Assertions.assertEquals(reset, previousRun.events);
+        Assertions.assertEquals(
+                List.of(
+                        "change " + (latest - 2) + " CREATED",
+                        "change " + (latest - 1) + " CREATED",
+                        "change " + latest + " CREATED",
+                        "change " + (latest + 1) + " CREATED"),
+                buffered.events,
+                "The three changes after the sequence are still buffered.");
+    }
+
+    @Test
+    @DisplayName("Should drop a subscriber once sending to it fails")
+    void dropsFailedSubscribers() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        emitter.failing = true;
+        achievementChangeFeed.subscribe(null, emitter);
+
+        publish(AchievementChangedEvent.created(achievement(1L)));
+        publish(AchievementChangedEvent.created(achievement(2L)));
+        achievementChangeFeed.heartbeat();
+
+        Assertions.assertEquals(1, emitter.attempts, "Nothing is sent after the failure.");
+    }
+
+    @Test
+    @DisplayName("Should keep sending to the other subscribers while one of them is stuck")
+    void slowSubscriberDoesNotStallOthers() throws InterruptedException {
+        ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+        achievementChangeFeed = newFeed(senders);
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter stuck =
+                new RecordingEmitter() {
+                    @Override
+                    public void send(SseEventBuilder builder) throws IOException {
+                        try {
+                            release.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        super.send(builder);
+                    }
+                };
+        RecordingEmitter healthy = new RecordingEmitter();
+        achievementChangeFeed.subscribe(null, stuck);
+        achievementChangeFeed.subscribe(null, healthy);
+
+        publish(AchievementChangedEvent.created(achievement(1L)));
+        achievementChangeFeed.heartbeat();
+        publish(AchievementChangedEvent.created(achievement(2L)));
+
+        try {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (healthy.events.size() < 2 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            Assertions.assertEquals(2, healthy.events.size(), "Both changes should arrive.");
+        } finally {
+            release.countDown();
+            senders.shutdown();
+            senders.awaitTermination(5, TimeUnit.SECONDS);
+        }
+        Assertions.assertEquals(healthy.events, stuck.events, "The stuck one catches up after.");
+    }
+
+    @Test
+    @DisplayName("Should publish changes in sequence order when their listeners run out of order")
+    void publishesInSequenceOrder() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        achievementChangeFeed.subscribe(0L, emitter);
+
+        publish(AchievementChangedEvent.created(achievement(2L)), 2);
+        Assertions.assertEquals(List.of(), emitter.events, "Change 1 is not published yet.");
+        publish(AchievementChangedEvent.created(achievement(1L)), 1);
+
+        Assertions.assertEquals(List.of("change 1 CREATED", "change 2 CREATED"), emitter.events);
+        Assertions.assertEquals(2, achievementChangeFeed.latestSequence());
+    }
+
+    @Test
+    @DisplayName(
+            "Should hold a read until the changes committed before it are published, so that it"
+                    + " includes them")
+    void readWaitsForCommittedChanges() throws InterruptedException {
+        // A view that its listener updates before the feed publishes the change
+        List<Long> view = new CopyOnWriteArrayList<>();
+        view.add(1L);
+        publish(AchievementChangedEvent.created(achievement(1L)), 1);
+        // Change 2 committed, but its listeners have not run yet
+        Mockito.when(achievementChangeCounter.lockForRead()).thenReturn(2L);
+        AtomicReference<Sequenced<List<Long>>> read = new AtomicReference<>();
+        Thread reader =
+                new Thread(() -> read.set(achievementChangeFeed.read(() -> List.copyOf(view))));
+
+        reader.start();
+        reader.join(500);
+        Assertions.assertTrue(reader.isAlive(), "The read should wait for change 2.");
+        view.add(2L);
+        publish(AchievementChangedEvent.created(achievement(2L)), 2);
+        reader.join(TimeUnit.SECONDS.toMillis(5));
+
+        Assertions.assertEquals(new Sequenced<>(2L, List.of(1L, 2L)), read.get());
+    }
+
+    private AchievementChangeFeed newFeed(Executor senders) {
+        return new AchievementChangeFeed(
+                new ChangeFeedProperties(3, Duration.ofMinutes(1)),
+                achievementChangeCounter,
+                Mockito.mock(PlatformTransactionManager.class),
+                senders);
+    }
+
+    private void publish(AchievementChangedEvent event) {
+        publish(event, ++lastSequence);
+    }
+
+    private void publish(AchievementChangedEvent event, long sequence) {
+        lastSequence = Math.max(lastSequence, sequence);
+        sequences.put(event, sequence);
+        achievementChangeFeed.onAchievementChanged(event);
+    }
+
+    private static AchievementDTO achievement(Long id) {
+        return AchievementDTO.builder()
+                .id(id)
+                .title("Achievement " + id)
+                .status("TODO")
+                .tags(Set.of("java"))
+                .build();
+    }
+
+    // Records each event as "<name> <id> <change type>", or "<name> <id>" for other payloads
+    private static class RecordingEmitter extends SseEmitter {
+        private static final Pattern ID = Pattern.compile("id:(\\d+)");
+        private static final Pattern NAME = Pattern.compile("event:(\\w+)");
+
+        private final List<String> events = new CopyOnWriteArrayList<>();
+        private int attempts;
+        private boolean failing;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            attempts++;
+            if (failing) {
+                throw new IOException("Broken pipe");
+            }
+            StringBuilder text = new StringBuilder();
+            Object payload = null;
+            for (ResponseBodyEmitter.DataWithMediaType part : builder.build()) {
+                if (part.getData() instanceof String string) {
+                    text.append(string);
+                } else {
+                    payload = part.getData();
+                }
+            }
+            Matcher name = NAME.matcher(text);
+            Matcher id = ID.matcher(text);
+            if (!name.find() || !id.find()) {
+                return;
+            }
+            String event = name.group(1) + " " + id.group(1);
+            if (payload instanceof AchievementChangeDTO change) {
+                Assertions.assertEquals(Long.parseLong(id.group(1)), change.sequence());
+                event += " " + change.type();
+            }
+            events.add(event);
+        }
+    }
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.service.implementation;
+
+import com.example.achievement_tracker.api.dto.AchievementDTO;
+import com.example.achievement_tracker.api.dto.BatchCreateResultDTO;
+import com.example.achievement_tracker.api.dto.BatchItemErrorDTO;
+import com.example.achievement_tracker.api.dto.CreateAchievementDTO;
+import com.example.achievement_tracker.api.dto.ImportRejectDTO;
+import com.example.achievement_tracker.api.dto.ImportResultDTO;
+import com.example.achievement_tracker.config.ImportProperties;
+import com.example.achievement_tracker.service.AchievementService;
+import com.example.achievement_tracker.service.imports.ImportFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public class AchievementImportServiceImplTest {
+
+    @InjectMocks private AchievementImportServiceImpl achievementImportService;
+
+    @Mock private AchievementService achievementService;
+
+    @Spy private ImportProperties importProperties = new ImportProperties(2, 10, 1000, 2000);
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Mock private EntityManager entityManager;
+
+    @Spy private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private List<List<CreateAchievementDTO>> chunks;
+
+    @BeforeEach
+    void setUp() {
+        // Accept every record, remembering the chunks the import was split into
+        chunks = new ArrayList<>();
+        Mockito.lenient()
+                .when(achievementService.createAchievements(Mockito.anyList()))
+                .thenAnswer(
+                        invocation -> {
+                            List<CreateAchievementDTO> chunk = invocation.getArgument(0);
+                            chunks.add(List.copyOf(chunk));
+                            return created(chunk.size());
+                        });
+    }
+
+    @Test
+    @DisplayName("Should import CSV in chunks and read quoted fields spanning several lines")
+    void importAchievements_Csv() throws Exception {
+        String csv =
+                "id,title,description,dateStarted,dateCompleted,status,tags,version\r\n"
+                        + "1,\"Read, \"\"Dune\"\"\",\"First line\nsecond line\",2024-01-02,,TODO,"
+                        + "books;scifi,0\r\n"
+                        + "2,Second,,,,TODO,,0\r\n"
+                        + "\r\n"
+                        + "3,Third,,,,COMPLETED,,0\r\n";
+
+        ImportResultDTO result = importCsv(csv);
+
+        Assertions.assertEquals(3, result.processed());
+        Assertions.assertEquals(3, result.imported());
+        Assertions.assertEquals(0, result.rejected());
+        Assertions.assertEquals(2, chunks.size(), "Expected chunks of at most two records.");
+        Assertions.assertEquals(
+                CreateAchievementDTO.builder()
+                        .title("Read, \"Dune\"")
+                        .description("First line\nsecond line")
+                        .dateStarted(LocalDate.of(2024, 1, 2))
+                        .tags(Set.of("books", "scifi"))
+                        .status("TODO")
+                        .build(),
+                chunks.get(0).get(0));
+        Assertions.assertEquals("Third", chunks.get(1).get(0).title());
+        Mockito.verify(entityManager, Mockito.times(2)).clear();
+    }
+
+    @Test
+    @DisplayName("Should report the line of records rejected while parsing or validating")
+    void importAchievements_CsvRejects() throws Exception {
+        Mockito.when(achievementService.createAchievements(Mockito.anyList()))
+                .thenReturn(
+                        BatchCreateResultDTO.builder()
+                                .created(List.of(AchievementDTO.builder().id(1L).build()))
+                                .errors(
+                                        List.of(
+                                                new BatchItemErrorDTO(
+                                                        1, List.of("title: already exists"))))
+                                .build());
+        String csv =
+                "title,dateStarted,status\r\n"
+                        + "First,2024-01-01,TODO\r\n"
+                        + "Broken,yesterday,TODO\r\n"
+                        + "Taken,,TODO\r\n";
+
+        ImportResultDTO result = importCsv(csv);
+
+        Assertions.assertEquals(3, result.processed());
+        Assertions.assertEquals(1, result.imported());
+        Assertions.assertEquals(2, result.rejected());
+        Assertions.assertEquals(
+                List.of(
+                        new ImportRejectDTO(
+                                3, List.of("dates must be ISO dates, found 'yesterday'")),
+                        new ImportRejectDTO(4, List.of("title: already exists"))),
+                result.rejects());
+    }
+
+    @Test
+    @DisplayName("Should import newline-delimited JSON and skip objects that do not bind")
+    void importAchievements_Ndjson() throws Exception {
+        String ndjson =
+                "{\"title\":\"First\",\"status\":\"TODO\",\"tags\":[\"a\"]}\n"
+                        + "{\"title\":\"Second\",\"status\":\"TODO\",\"dateStarted\":\"soon\"}\n"
+                        + "{\"title\":\"Third\",\"status\":\"TODO\"}\n";
+
+        ImportResultDTO result = importJson(ndjson);
+
+        Assertions.assertEquals(3, result.processed());
+        Assertions.assertEquals(2, result.imported());
+        Assertions.assertEquals(1, result.rejected());
+        Assertions.assertEquals(2, result.rejects().get(0).line());
+        Assertions.assertEquals(
+                List.of("First", "Third"),
+                chunks.get(0).stream().map(CreateAchievementDTO::title).toList());
+    }
+
+    @Test
+    @DisplayName("Should import a JSON array and stop at malformed JSON")
+    void importAchievements_JsonArrayMalformed() throws Exception {
+        String json = "[{\"title\":\"First\",\"status\":\"TODO\"},\n{\"title\" \"Second\"}]";
+
+        ImportResultDTO result = importJson(json);
+
+        Assertions.assertEquals(1, result.imported());
+        Assertions.assertEquals(1, result.rejected());
+        Assertions.assertEquals(2, result.rejects().get(0).line());
+    }
+
+    @Test
+    @DisplayName("Should count every reject but list no more than the configured maximum")
+    void importAchievements_RejectsAreCapped() throws Exception {
+        StringBuilder csv = new StringBuilder("title,dateStarted,status\r\n");
+        for (int i = 0; i < 15; i++) {
+            csv.append("Title ").append(i).append(",someday,TODO\r\n");
+        }
+
+        ImportResultDTO result = importCsv(csv.toString());
+
+        Assertions.assertEquals(15, result.rejected());
+        Assertions.assertEquals(10, result.rejects().size());
+        Assertions.assertEquals(11, result.rejects().get(9).line());
+        Mockito.verifyNoInteractions(achievementService);
+    }
+
+    @Test
+    @DisplayName("Should reject a quoted field that is never closed")
+    void importAchievements_UnterminatedQuote() throws Exception {
+        ImportResultDTO result = importCsv("title,status\r\nFirst,TODO\r\n\"Second,TODO\r\n");
+
+        Assertions.assertEquals(1, result.imported());
+        Assertions.assertEquals(
+                List.of(new ImportRejectDTO(3, List.of("unterminated quoted field"))),
+                result.rejects());
+    }
+
+    @Test
+    @DisplayName("Should reject records with an overlong field or in total, and read on after them")
+    void importAchievements_OversizedRecords() throws Exception {
+        String longField = "x".repeat(600);
+        String longRecord = "y".repeat(999);
+        ImportResultDTO result =
+                importCsv(
+                        "title,description,status\r\n\""
+                                + longField
+                                + "\r\n"
+                                + longField
+                                + "\",,TODO\r\n"
+                                + longRecord
+                                + ","
+                                + longRecord
+                                + ",TODO\r\nLast,,TODO\r\n");
+
+        Assertions.assertEquals(1, result.imported());
+        Assertions.assertEquals(
+                List.of(
+                        new ImportRejectDTO(2, List.of("field longer than 1000 characters")),
+                        new ImportRejectDTO(4, List.of("record longer than 2000 characters"))),
+                result.rejects());
+    }
+
+    @Test
+    @DisplayName("Should list the rejects with the lowest lines when there are too many")
+    void importAchievements_KeepsLowestRejectLines() throws Exception {
+        // Validation rejects of a chunk are reported after the parse rejects read behind it
+        Mockito.when(achievementService.createAchievements(Mockito.anyList()))
+                .thenAnswer(
+                        invocation ->
+                                BatchCreateResultDTO.builder()
+                                        .created(List.of())
+                                        .errors(
+                                                List.of(
+                                                        new BatchItemErrorDTO(
+                                                                0, List.of("title: blank")),
+                                                        new BatchItemErrorDTO(
+                                                                1, List.of("title: blank"))))
+                                        .build());
+        StringBuilder csv = new StringBuilder("title,dateStarted,status\r\n");
+        csv.append(" ,,TODO\r\n ,,TODO\r\n");
+        for (int i = 0; i < 15; i++) {
+            csv.append("Title ").append(i).append(",someday,TODO\r\n");
+        }
+
+        ImportResultDTO result = importCsv(csv.toString());
+
+        Assertions.assertEquals(17, result.rejected());
+        Assertions.assertEquals(10, result.rejects().size());
+        Assertions.assertEquals(2, result.rejects().get(0).line());
+        Assertions.assertEquals(11, result.rejects().get(9).line());
+    }
+
+    private ImportResultDTO importCsv(String csv) throws Exception {
+        return achievementImportService.importAchievements(
+                ImportFormat.CSV, new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private ImportResultDTO importJson(String json) throws Exception {
+        return achievementImportService.importAchievements(
+                ImportFormat.JSON, new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static BatchCreateResultDTO created(int count) {
+        List<AchievementDTO> created = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            created.add(AchievementDTO.builder().id((long) i).build());
+        }
+        return BatchCreateResultDTO.builder().created(created).errors(List.of()).build();
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.service.implementation;
+
+import com.example.achievement_tracker.api.dto.AchievementDTO;
+import com.example.achievement_tracker.api.dto.AchievementSearchResultDTO;
+import com.example.achievement_tracker.config.SearchProperties;
+import com.example.achievement_tracker.exception.InvalidPageRequestException;
+import com.example.achievement_tracker.persistence.mapper.AchievementMapper;
+import com.example.achievement_tracker.persistence.model.Achievement;
+import com.example.achievement_tracker.persistence.model.StatusEnum;
+import com.example.achievement_tracker.persistence.repository.AchievementRepository;
+import com.example.achievement_tracker.service.search.AchievementSearchIndex;
+import com.example.achievement_tracker.service.search.SearchHits;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public class AchievementSearchServiceImplTest {
+
+    @InjectMocks private AchievementSearchServiceImpl achievementSearchService;
+
+    @Mock private AchievementSearchIndex achievementSearchIndex;
+
+    @Mock private AchievementRepository achievementRepository;
+
+    @Mock private AchievementMapper achievementMapper;
+
+    @Spy private SearchProperties searchProperties = new SearchProperties(2, 5, 10);
+
+    @Test
+    @DisplayName("Should return the matches of a page in relevance order")
+    void search_KeepsRelevanceOrder() {
+        Achievement first = achievement(7L, "First");
+        Achievement second = achievement(3L, "Second");
+        AchievementDTO firstDTO = AchievementDTO.builder().id(7L).title("First").build();
+        AchievementDTO secondDTO = AchievementDTO.builder().id(3L).title("Second").build();
+        Mockito.when(achievementSearchIndex.search("java", 2, 2))
+                .thenReturn(new SearchHits(List.of(7L, 3L), 9, true));
+        Mockito.when(achievementRepository.findAllById(List.of(7L, 3L)))
+                .thenReturn(List.of(second, first));
+        Mockito.when(achievementMapper.toDTO(first)).thenReturn(firstDTO);
+        Mockito.when(achievementMapper.toDTO(second)).thenReturn(secondDTO);
+
+        AchievementSearchResultDTO result = achievementSearchService.search("java", 1, null);
+
+        Assertions.assertEquals(List.of(firstDTO, secondDTO), result.items());
+        Assertions.assertEquals(9, result.totalHits());
+        Assertions.assertTrue(result.totalHitsExact());
+        Assertions.assertEquals(2, result.size(), "The default size should be used.");
+    }
+
+    @Test
+    @DisplayName("Should reject pages beyond the search window")
+    void search_BeyondWindow() {
+        Assertions.assertThrows(
+                InvalidPageRequestException.class,
+                () -> achievementSearchService.search("java", 2, 5));
+        Mockito.verifyNoInteractions(achievementSearchIndex);
+    }
+
+    private static Achievement achievement(Long id, String title) {
+        return Achievement.builder().id(id).title(title).status(StatusEnum.TODO).build();
+    }
+}
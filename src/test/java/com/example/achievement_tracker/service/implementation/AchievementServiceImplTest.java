@@ -16,19 +16,50 @@
 package com.example.achievement_tracker.service.implementation;
 
 import com.example.achievement_tracker.api.dto.AchievementDTO;
+import com.example.achievement_tracker.api.dto.AchievementPageDTO;
+import com.example.achievement_tracker.api.dto.BatchCreateResultDTO;
+import com.example.achievement_tracker.api.dto.BatchItemErrorDTO;
 import com.example.achievement_tracker.api.dto.CreateAchievementDTO;
+import com.example.achievement_tracker.api.dto.PatchAchievementDTO;
+import com.example.achievement_tracker.api.dto.SparseAchievementPageDTO;
 import com.example.achievement_tracker.api.dto.UpdateAchievementDTO;
+import com.example.achievement_tracker.config.AchievementCacheProperties;
+import com.example.achievement_tracker.config.PaginationProperties;
+import com.example.achievement_tracker.exception.InvalidPageRequestException;
 import com.example.achievement_tracker.exception.RecordDoesNotExistException;
+import com.example.achievement_tracker.exception.VersionConflictException;
 import com.example.achievement_tracker.persistence.mapper.AchievementMapper;
+import com.example.achievement_tracker.persistence.mapper.TagDictionary;
 import com.example.achievement_tracker.persistence.model.Achievement;
 import com.example.achievement_tracker.persistence.model.StatusEnum;
+import com.example.achievement_tracker.persistence.projection.AchievementStateView;
+import com.example.achievement_tracker.persistence.projection.AchievementTagIdView;
 import com.example.achievement_tracker.persistence.repository.AchievementRepository;
+import com.example.achievement_tracker.service.cache.AchievementCache;
+import com.example.achievement_tracker.service.event.AchievementChangedEvent;
+import com.example.achievement_tracker.service.export.ExportFormat;
+import com.example.achievement_tracker.service.index.TagIndex;
+import com.example.achievement_tracker.service.index.TagMatch;
+import com.example.achievement_tracker.service.pagination.AchievementCursor;
+import com.example.achievement_tracker.service.pagination.AchievementSortKey;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -37,7 +68,16 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
 @ExtendWith(MockitoExtension.class)
 @Transactional
@@ -49,6 +89,28 @@ public class AchievementServiceImplTest {
 
     @Mock private AchievementMapper achievementMapper;
 
+    @Mock private TagDictionary tagDictionary;
+
+    @Spy private PaginationProperties paginationProperties = new PaginationProperties(1, 2);
+
+    @Spy private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Spy
+    private AchievementCache achievementCache =
+            new AchievementCache(new AchievementCacheProperties(100, Duration.ofMinutes(1)));
+
+    @Mock private TagIndex tagIndex;
+
+    @Mock private ApplicationEventPublisher eventPublisher;
+
+    @Mock private EntityManager entityManager;
+
+    @Spy
+    private ObjectMapper objectMapper =
+            new ObjectMapper()
+                    .registerModule(new JavaTimeModule())
+                    .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
     private AchievementDTO achievementDTO;
     private CreateAchievementDTO createAchievementDTO;
     private UpdateAchievementDTO updateAchievementDTO;
@@ -103,7 +165,7 @@ public class AchievementServiceImplTest {
                         .description(description)
                         .dateStarted(dateStarted)
                         .dateCompleted(dateCompleted)
-                        .tags(tags)
+                        .tagIds(Set.of(1, 2))
                         .status(status)
                         .build();
     }
@@ -123,6 +185,44 @@ public class AchievementServiceImplTest {
                 achievementDTO, result, "Created AchievementDTO should match the expected value.");
     }
 
+    @Test
+    @DisplayName("Should create the valid items of a batch and report the rejected ones")
+    void createAchievements_PartialSuccess() {
+        CreateAchievementDTO invalid = CreateAchievementDTO.builder().status("INVALID").build();
+        CreateAchievementDTO duplicate =
+                CreateAchievementDTO.builder().title("Test Title").status("TODO").build();
+        CreateAchievementDTO taken =
+                CreateAchievementDTO.builder().title("Taken").status("TODO").build();
+        Mockito.when(achievementRepository.findExistingTitles(Set.of("Test Title", "Taken")))
+                .thenReturn(List.of("Taken"));
+        Mockito.when(achievementMapper.toEntity(createAchievementDTO)).thenReturn(achievement);
+        Mockito.when(achievementRepository.saveAll(List.of(achievement)))
+                .thenReturn(List.of(achievement));
+        Mockito.when(achievementMapper.toDTO(achievement)).thenReturn(achievementDTO);
+
+        BatchCreateResultDTO result =
+                achievementService.createAchievements(
+                        List.of(createAchievementDTO, invalid, duplicate, taken));
+
+        Assertions.assertEquals(
+                List.of(achievementDTO),
+                result.created(),
+                "Only the first item should be created.");
+        Assertions.assertEquals(
+                List.of(1, 2, 3),
+                result.errors().stream().map(BatchItemErrorDTO::index).toList(),
+                "Rejected items should be reported in submission order.");
+        Assertions.assertEquals(
+                List.of("title: appears more than once in the batch"),
+                result.errors().get(1).messages(),
+                "Duplicate titles within the batch should be rejected.");
+        Assertions.assertEquals(
+                List.of("title: already exists"),
+                result.errors().get(2).messages(),
+                "Titles already stored should be rejected.");
+        Mockito.verify(achievementRepository, Mockito.times(1)).flush();
+    }
+
     @Test
     @DisplayName("Should return AchievementDTO for a valid ID")
     void getAchievementById_Success() {
@@ -141,6 +241,21 @@ public class AchievementServiceImplTest {
                 "Returned AchievementDTO should match the expected value.");
     }
 
+    @Test
+    @DisplayName("Should serve repeated lookups by ID from the cache")
+    void getAchievementById_Cached() {
+        Mockito.when(achievementRepository.findById(achievement.getId()))
+                .thenReturn(Optional.of(achievement));
+        Mockito.when(achievementMapper.toDTO(achievement)).thenReturn(achievementDTO);
+
+        achievementService.getAchievementById(achievement.getId());
+        Optional<AchievementDTO> result =
+                achievementService.getAchievementById(achievement.getId());
+
+        Assertions.assertEquals(Optional.of(achievementDTO), result, "Cached DTO should match.");
+        Mockito.verify(achievementRepository, Mockito.times(1)).findById(achievement.getId());
+    }
+
     @Test
     @DisplayName("Should return an empty result for a non-existent ID")
     void getAchievementByNonExistentId() {
@@ -169,41 +284,377 @@ public class AchievementServiceImplTest {
                 "The retrieved AchievementDTO should match the expected value.");
     }
 
+    @Test
+    @DisplayName("Should return the first page with a cursor when more rows follow")
+    void getAchievementPage_FirstPage() {
+        Achievement next =
+                Achievement.builder().id(2L).title("Next").status(StatusEnum.TODO).build();
+        Mockito.when(achievementRepository.findAllByOrderByIdAsc(Limit.of(2)))
+                .thenReturn(List.of(achievement, next));
+        Mockito.when(achievementMapper.toDTO(achievement)).thenReturn(achievementDTO);
+
+        AchievementPageDTO result = achievementService.getAchievementPage(null, null, null);
+
+        Assertions.assertEquals(
+                List.of(achievementDTO), result.items(), "Only one row should fit the page.");
+        Assertions.assertEquals(
+                new AchievementCursor(AchievementSortKey.ID, 1L, achievement.getDateStarted()),
+                AchievementCursor.decode(result.nextCursor()),
+                "The cursor should point at the last row of the page.");
+    }
+
+    @Test
+    @DisplayName("Should continue after the cursor position when ordering by dateStarted")
+    void getAchievementPage_AfterCursor() {
+        String cursor =
+                new AchievementCursor(
+                                AchievementSortKey.DATE_STARTED, 1L, achievement.getDateStarted())
+                        .encode();
+        Mockito.when(
+                        achievementRepository.findPageAfterDateStarted(
+                                achievement.getDateStarted(), 1L, Limit.of(3)))
+                .thenReturn(List.of(achievement));
+        Mockito.when(achievementMapper.toDTO(achievement)).thenReturn(achievementDTO);
+
+        AchievementPageDTO result = achievementService.getAchievementPage(cursor, 5, null);
+
+        Assertions.assertEquals(List.of(achievementDTO), result.items(), "Page should match.");
+        Assertions.assertNull(result.nextCursor(), "The last page should not carry a cursor.");
+    }
+
+    @Test
+    @DisplayName("Should reject a cursor that does not match the requested sort")
+    void getAchievementPage_SortMismatch() {
+        String cursor = new AchievementCursor(AchievementSortKey.ID, 1L, null).encode();
+
+        Assertions.assertThrows(
+                InvalidPageRequestException.class,
+                () -> achievementService.getAchievementPage(cursor, null, "dateStarted"));
+    }
+
+    @Test
+    @DisplayName("Should reject a malformed cursor")
+    void getAchievementPage_MalformedCursor() {
+        Assertions.assertThrows(
+                InvalidPageRequestException.class,
+                () -> achievementService.getAchievementPage("not-a-cursor", null, null));
+    }
+
+    @Test
+    @DisplayName("Should page through the ids matched by the tag index")
+    void getAchievementPageByTags_FirstPage() {
+        Achievement other =
+                Achievement.builder().id(5L).title("Other").status(StatusEnum.TODO).build();
+        Achievement last =
+                Achievement.builder().id(9L).title("Last").status(StatusEnum.TODO).build();
+        Mockito.when(tagIndex.match(Set.of("tagA"), TagMatch.ALL))
+                .thenReturn(Roaring64Bitmap.bitmapOf(1L, 5L, 9L));
+        // The repository does not guarantee the order of findAllById
+        Mockito.when(achievementRepository.findAllById(List.of(1L, 5L, 9L)))
+                .thenReturn(List.of(last, achievement, other));
+        Mockito.when(achievementMapper.toDTO(Mockito.any(Achievement.class)))
+                .thenReturn(achievementDTO);
+
+        AchievementPageDTO result =
+                achievementService.getAchievementPageByTags(Set.of("tagA"), "all", null, 2);
+
+        Assertions.assertEquals(2, result.items().size(), "Page should hold the limit.");
+        Assertions.assertEquals(
+                5L,
+                AchievementCursor.decode(result.nextCursor()).lastId(),
+                "Cursor should point after the last returned id.");
+    }
+
+    @Test
+    @DisplayName("Should continue a tag query after the cursor")
+    void getAchievementPageByTags_AfterCursor() {
+        String cursor = new AchievementCursor(AchievementSortKey.ID, 1L, null).encode();
+        Mockito.when(tagIndex.match(Set.of("tagA", "tagB"), TagMatch.ANY))
+                .thenReturn(Roaring64Bitmap.bitmapOf(1L, 5L));
+        Mockito.when(achievementRepository.findAllById(List.of(5L)))
+                .thenReturn(List.of(achievement));
+        Mockito.when(achievementMapper.toDTO(achievement)).thenReturn(achievementDTO);
+
+        AchievementPageDTO result =
+                achievementService.getAchievementPageByTags(
+                        Set.of("tagA", "tagB"), "any", cursor, null);
+
+        Assertions.assertEquals(List.of(achievementDTO), result.items(), "Page should match.");
+        Assertions.assertNull(result.nextCursor(), "The last page should not carry a cursor.");
+    }
+
+    @Test
+    @DisplayName("Should reject a date cursor for a tag query")
+    void getAchievementPageByTags_SortMismatch() {
+        String cursor =
+                new AchievementCursor(AchievementSortKey.DATE_STARTED, 1L, LocalDate.now())
+                        .encode();
+
+        Assertions.assertThrows(
+                InvalidPageRequestException.class,
+                () ->
+                        achievementService.getAchievementPageByTags(
+                                Set.of("tagA"), "all", cursor, 1));
+    }
+
+    @Test
+    @DisplayName("Should select only the requested columns and leave the tags unread")
+    void getSparseAchievementPage_ScalarFields() {
+        Map<String, Object> first = new LinkedHashMap<>(Map.of("id", 1L, "title", "First"));
+        first.put("status", StatusEnum.TODO);
+        Map<String, Object> second = new LinkedHashMap<>(Map.of("id", 2L, "title", "Second"));
+        second.put("status", StatusEnum.COMPLETED);
+        Mockito.when(
+                        achievementRepository.findColumnsPageOrderById(
+                                Set.of("title", "status"), null, Limit.of(2)))
+                .thenReturn(List.of(first, second));
+
+        SparseAchievementPageDTO result =
+                achievementService.getSparseAchievementPage("status,title", null, null, null);
+
+        Assertions.assertEquals(
+                List.of(Map.of("title", "First", "status", "TODO")),
+                result.items(),
+                "Items should hold the requested fields only.");
+        Assertions.assertEquals(
+                List.of("title", "status"),
+                List.copyOf(result.items().get(0).keySet()),
+                "Fields should follow the order of AchievementDTO.");
+        Assertions.assertEquals(
+                new AchievementCursor(AchievementSortKey.ID, 1L, null),
+                AchievementCursor.decode(result.nextCursor()),
+                "The cursor should point at the last row of the page.");
+        Mockito.verify(achievementRepository, Mockito.never()).findTagIdsByIdIn(Mockito.any());
+    }
+
+    @Test
+    @DisplayName("Should read the tags of the page only when they are requested")
+    void getSparseAchievementPage_WithTags() {
+        LocalDate started = LocalDate.of(2024, 1, 1);
+        Mockito.when(
+                        achievementRepository.findColumnsPageOrderByDateStarted(
+                                Set.of("id", "dateStarted"), null, null, Limit.of(2)))
+                .thenReturn(List.of(Map.of("id", 1L, "dateStarted", started)));
+        Mockito.when(achievementRepository.findTagIdsByIdIn(List.of(1L)))
+                .thenReturn(List.of(tagIdView(1L, 3)));
+        Mockito.when(tagDictionary.namesOf(Set.of(3))).thenReturn(Set.of("tagC"));
+
+        SparseAchievementPageDTO result =
+                achievementService.getSparseAchievementPage("id,tags", null, null, "dateStarted");
+
+        Assertions.assertEquals(
+                List.of(Map.of("id", 1L, "tags", Set.of("tagC"))),
+                result.items(),
+                "The start date read for the cursor should not be returned.");
+        Assertions.assertNull(result.nextCursor(), "The last page should not carry a cursor.");
+    }
+
+    @Test
+    @DisplayName("Should reject fields that AchievementDTO does not have")
+    void getAchievementFieldsById_UnknownField() {
+        Assertions.assertThrows(
+                InvalidPageRequestException.class,
+                () -> achievementService.getAchievementFieldsById(1L, "title,password"));
+        Assertions.assertThrows(
+                InvalidPageRequestException.class,
+                () -> achievementService.getAchievementFieldsById(1L, " , "));
+        Mockito.verifyNoInteractions(achievementRepository);
+    }
+
+    @Test
+    @DisplayName("Should load one sorted page of the achievements with a status")
+    void getAchievementViewPage_ByStatus() {
+        Pageable expected =
+                PageRequest.of(
+                        0, 2, Sort.by(Sort.Direction.DESC, "dateStarted").and(Sort.by("id")));
+        Mockito.when(achievementRepository.findByStatus(StatusEnum.COMPLETED, expected))
+                .thenReturn(new PageImpl<>(List.of(achievement), expected, 3));
+        Mockito.when(achievementMapper.toDTO(achievement)).thenReturn(achievementDTO);
+
+        Page<AchievementDTO> result =
+                achievementService.getAchievementViewPage("COMPLETED", "dateStarted", "desc", 0, 5);
+
+        Assertions.assertEquals(List.of(achievementDTO), result.getContent());
+        Assertions.assertEquals(3, result.getTotalElements(), "Total should come from the count.");
+    }
+
+    @Test
+    @DisplayName("Should page through every achievement when no status is given")
+    void getAchievementViewPage_AllStatuses() {
+        Pageable expected = PageRequest.of(1, 1, Sort.by("id"));
+        Mockito.when(achievementRepository.findAll(expected))
+                .thenReturn(new PageImpl<>(List.of(achievement), expected, 2));
+        Mockito.when(achievementMapper.toDTO(achievement)).thenReturn(achievementDTO);
+
+        Page<AchievementDTO> result =
+                achievementService.getAchievementViewPage("", null, null, 1, null);
+
+        Assertions.assertEquals(List.of(achievementDTO), result.getContent());
+    }
+
+    @Test
+    @DisplayName("Should reject unknown sort columns, directions and statuses")
+    void getAchievementViewPage_Invalid() {
+        Assertions.assertThrows(
+                InvalidPageRequestException.class,
+                () -> achievementService.getAchievementViewPage(null, "secret", "asc", 0, null));
+        Assertions.assertThrows(
+                InvalidPageRequestException.class,
+                () -> achievementService.getAchievementViewPage(null, "title", "up", 0, null));
+        Assertions.assertThrows(
+                InvalidPageRequestException.class,
+                () -> achievementService.getAchievementViewPage("DONE", "title", "asc", 0, null));
+    }
+
     @Test
     @DisplayName("Should update an existing achievement and return updated AchievementDTO")
     void updateAchievement_Success() {
         Mockito.when(achievementRepository.findById(achievement.getId()))
                 .thenReturn(Optional.of(achievement));
-        Mockito.when(achievementRepository.save(achievement)).thenReturn(achievement);
+        Mockito.when(achievementRepository.saveAndFlush(achievement)).thenReturn(achievement);
         Mockito.when(achievementMapper.toDTO(achievement)).thenReturn(achievementDTO);
 
         Optional<AchievementDTO> result =
                 achievementService.updateAchievement(updateAchievementDTO);
 
         Mockito.verify(achievementRepository, Mockito.times(1))
-                .save(Mockito.any(Achievement.class));
+                .saveAndFlush(Mockito.any(Achievement.class));
         Assertions.assertTrue(
                 result.isPresent(), "AchievementDTO should be present for a valid ID.");
         Assertions.assertEquals(
                 achievementDTO,
                 result.get(),
                 "Updated AchievementDTO should match the expected value.");
+        Mockito.verify(achievementCache, Mockito.times(1))
+                .evict(achievement.getId(), achievement.getTitle(), achievement.getTitle());
+        Mockito.verify(eventPublisher, Mockito.times(1))
+                .publishEvent(AchievementChangedEvent.updated(achievementDTO, achievementDTO));
+    }
+
+    @Test
+    @DisplayName("Should patch only the supplied columns and return the next version")
+    void patchAchievement_Success() {
+        PatchAchievementDTO patch =
+                PatchAchievementDTO.builder().status("IN_PROGRESS").tags(Set.of("tagC")).build();
+        Mockito.when(tagDictionary.idsOf(Set.of("tagC"))).thenReturn(Set.of(3));
+        Mockito.when(tagDictionary.namesOf(Set.of(1))).thenReturn(achievementDTO.tags());
+        Mockito.when(
+                        achievementRepository.updateColumnsReturningPrevious(
+                                1L, 4L, Map.of("status", StatusEnum.IN_PROGRESS)))
+                .thenReturn(
+                        Optional.of(
+                                new AchievementStateView(
+                                        achievementDTO.title(),
+                                        achievementDTO.description(),
+                                        achievementDTO.dateStarted(),
+                                        achievementDTO.dateCompleted(),
+                                        StatusEnum.valueOf(achievementDTO.status()),
+                                        Set.of(1))));
+
+        long version = achievementService.patchAchievement(1L, patch, 4L);
+
+        Assertions.assertEquals(5L, version, "The version should be bumped by one.");
+        Mockito.verify(achievementRepository, Mockito.times(1)).replaceTags(1L, Set.of(3));
+        Mockito.verify(achievementRepository, Mockito.never()).findById(Mockito.any());
+        // Status and tags are counted by the statistics, so listeners get both states in full
+        Mockito.verify(eventPublisher, Mockito.times(1))
+                .publishEvent(
+                        AchievementChangedEvent.updated(
+                                AchievementDTO.builder()
+                                        .id(1L)
+                                        .title(achievementDTO.title())
+                                        .description(achievementDTO.description())
+                                        .dateStarted(achievementDTO.dateStarted())
+                                        .dateCompleted(achievementDTO.dateCompleted())
+                                        .status(achievementDTO.status())
+                                        .tags(achievementDTO.tags())
+                                        .version(4L)
+                                        .build(),
+                                AchievementDTO.builder()
+                                        .id(1L)
+                                        .title(achievementDTO.title())
+                                        .description(achievementDTO.description())
+                                        .dateStarted(achievementDTO.dateStarted())
+                                        .dateCompleted(achievementDTO.dateCompleted())
+                                        .status("IN_PROGRESS")
+                                        .tags(Set.of("tagC"))
+                                        .version(5L)
+                                        .build()));
+    }
+
+    @Test
+    @DisplayName("Should leave the tags alone when the patch does not carry them")
+    void patchAchievement_WithoutTags() {
+        PatchAchievementDTO patch = PatchAchievementDTO.builder().title("Renamed").build();
+        Mockito.when(achievementRepository.updateColumns(1L, 0L, Map.of("title", "Renamed")))
+                .thenReturn(1);
+
+        achievementService.patchAchievement(1L, patch, 0L);
+
+        Mockito.verify(achievementRepository, Mockito.never())
+                .replaceTags(Mockito.any(), Mockito.any());
+        Mockito.verify(achievementCache, Mockito.times(1)).evict(1L, "Renamed");
+        Mockito.verify(achievementRepository, Mockito.never()).findById(Mockito.any());
+        Mockito.verify(eventPublisher, Mockito.times(1))
+                .publishEvent(
+                        AchievementChangedEvent.updated(
+                                null,
+                                AchievementDTO.builder()
+                                        .id(1L)
+                                        .title("Renamed")
+                                        .version(1L)
+                                        .build()));
+    }
+
+    @Test
+    @DisplayName("Should report a version conflict when the achievement has moved on")
+    void patchAchievement_VersionConflict() {
+        PatchAchievementDTO patch = PatchAchievementDTO.builder().status("COMPLETED").build();
+        Mockito.when(
+                        achievementRepository.updateColumnsReturningPrevious(
+                                Mockito.eq(1L), Mockito.eq(2L), Mockito.any()))
+                .thenReturn(Optional.empty());
+        Mockito.when(achievementRepository.findVersionById(1L)).thenReturn(Optional.of(3L));
+
+        Assertions.assertThrows(
+                VersionConflictException.class,
+                () -> achievementService.patchAchievement(1L, patch, 2L));
+        Mockito.verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Should report a missing achievement when patching a non-existent ID")
+    void patchAchievement_NonExistent() {
+        PatchAchievementDTO patch = PatchAchievementDTO.builder().title("Missing").build();
+        Mockito.when(
+                        achievementRepository.updateColumns(
+                                Mockito.eq(123L), Mockito.eq(0L), Mockito.any()))
+                .thenReturn(0);
+        Mockito.when(achievementRepository.findVersionById(123L)).thenReturn(Optional.empty());
+
+        Assertions.assertThrows(
+                RecordDoesNotExistException.class,
+                () -> achievementService.patchAchievement(123L, patch, 0L));
     }
 
     @Test
     @DisplayName("Should delete an achievement for a valid ID")
     void deleteAchievement_Success() {
-        Mockito.when(achievementRepository.existsById(achievement.getId())).thenReturn(true);
+        Mockito.when(achievementRepository.findById(achievement.getId()))
+                .thenReturn(Optional.of(achievement));
+        Mockito.when(achievementMapper.toDTO(achievement)).thenReturn(achievementDTO);
 
         achievementService.deleteAchievement(achievementDTO.id());
 
-        Mockito.verify(achievementRepository, Mockito.times(1)).deleteById(achievementDTO.id());
+        Mockito.verify(achievementRepository, Mockito.times(1)).delete(achievement);
+        Mockito.verify(eventPublisher, Mockito.times(1))
+                .publishEvent(AchievementChangedEvent.deleted(achievementDTO));
     }
 
     @Test
     @DisplayName("Should not perform deletion for a non-existent ID")
     void deleteAchievementWithNonExistentId() {
-        Mockito.when(achievementRepository.existsById(123L)).thenReturn(false);
+        Mockito.when(achievementRepository.findById(123L)).thenReturn(Optional.empty());
 
         // Assert that the exception is thrown
         RecordDoesNotExistException exception =
@@ -217,8 +668,8 @@ public class AchievementServiceImplTest {
                 exception.getMessage(),
                 "Exception message should match the expected value.");
 
-        // Verify that deleteById() is never called
-        Mockito.verify(achievementRepository, Mockito.never()).deleteById(123L);
+        // Verify that delete() is never called
+        Mockito.verify(achievementRepository, Mockito.never()).delete(Mockito.any());
     }
 
     @Test
@@ -249,4 +700,68 @@ public class AchievementServiceImplTest {
         Assertions.assertFalse(
                 result.isPresent(), "No Achievement should be found for a non-existent title.");
     }
+
+    @Test
+    @DisplayName("Should export one JSON line per achievement and clear the session afterwards")
+    void exportAchievements_Ndjson() throws Exception {
+        AchievementDTO second =
+                AchievementDTO.builder().id(2L).title("Second Title").status("TODO").build();
+        Achievement secondEntity =
+                Achievement.builder().id(2L).title("Second Title").status(StatusEnum.TODO).build();
+        Mockito.when(achievementRepository.streamAllByOrderByIdAsc())
+                .thenReturn(Stream.of(achievement, secondEntity));
+        Mockito.when(achievementMapper.toDTO(achievement)).thenReturn(achievementDTO);
+        Mockito.when(achievementMapper.toDTO(secondEntity)).thenReturn(second);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        achievementService.exportAchievements(ExportFormat.NDJSON, outputStream);
+
+        String export = outputStream.toString(StandardCharsets.UTF_8);
+        Assertions.assertTrue(export.endsWith("}\n"), "Every line should end with a newline.");
+        String[] lines = export.split("\n");
+        Assertions.assertEquals(2, lines.length, "Expected one line per achievement.");
+        Assertions.assertTrue(lines[1].startsWith("{"), "Lines should not be padded.");
+        Assertions.assertEquals(
+                achievementDTO, objectMapper.readValue(lines[0], AchievementDTO.class));
+        Assertions.assertEquals(second, objectMapper.readValue(lines[1], AchievementDTO.class));
+        Mockito.verify(entityManager).clear();
+    }
+
+    @Test
+    @DisplayName("Should export a CSV header and quote fields containing separators or quotes")
+    void exportAchievements_Csv() throws Exception {
+        AchievementDTO quoted =
+                AchievementDTO.builder()
+                        .id(1L)
+                        .title("Read, \"Dune\"")
+                        .tags(Set.of("books", "scifi"))
+                        .status("TODO")
+                        .version(3L)
+                        .build();
+        Mockito.when(achievementRepository.streamAllByOrderByIdAsc())
+                .thenReturn(Stream.of(achievement));
+        Mockito.when(achievementMapper.toDTO(achievement)).thenReturn(quoted);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        achievementService.exportAchievements(ExportFormat.CSV, outputStream);
+
+        Assertions.assertEquals(
+                "id,title,description,dateStarted,dateCompleted,status,tags,version\r\n"
+                        + "1,\"Read, \"\"Dune\"\"\",,,,TODO,books;scifi,3\r\n",
+                outputStream.toString(StandardCharsets.UTF_8));
+    }
+
+    private static AchievementTagIdView tagIdView(Long id, Integer tagId) {
+        return new AchievementTagIdView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Integer getTagId() {
+                return tagId;
+            }
+        };
+    }
 }
@@ -0,0 +1,280 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.service.implementation;
+
+import com.example.achievement_tracker.api.dto.HistogramBucketDTO;
+import com.example.achievement_tracker.api.dto.RollupBucketDTO;
+import com.example.achievement_tracker.api.dto.StatusCountDTO;
+import com.example.achievement_tracker.api.dto.TagCountDTO;
+import com.example.achievement_tracker.exception.InvalidPageRequestException;
+import com.example.achievement_tracker.persistence.model.AchievementRollupKey;
+import com.example.achievement_tracker.persistence.model.AchievementStatistic;
+import com.example.achievement_tracker.persistence.model.AchievementStatisticKey;
+import com.example.achievement_tracker.persistence.model.RollupGranularity;
+import com.example.achievement_tracker.persistence.model.RollupSeries;
+import com.example.achievement_tracker.persistence.model.StatisticDimension;
+import com.example.achievement_tracker.persistence.model.StatusEnum;
+import com.example.achievement_tracker.persistence.projection.RollupCountView;
+import com.example.achievement_tracker.persistence.repository.AchievementRollupRepository;
+import com.example.achievement_tracker.persistence.repository.AchievementStatisticRepository;
+import com.example.achievement_tracker.service.analytics.AchievementColumns;
+import com.example.achievement_tracker.service.analytics.StatsFilter;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+@ExtendWith(MockitoExtension.class)
+public class AchievementStatsServiceImplTest {
+
+    @InjectMocks private AchievementStatsServiceImpl achievementStatsService;
+
+    @Mock private AchievementStatisticRepository achievementStatisticRepository;
+
+    @Mock private AchievementRollupRepository achievementRollupRepository;
+
+    @Mock private AchievementColumns achievementColumns;
+
+    private final StatsFilter javaFilter = StatsFilter.builder().tag("java").build();
+
+    @Test
+    @DisplayName("Should report every status, including those without achievements")
+    void getStatusCounts() {
+        Mockito.when(achievementStatisticRepository.findByDimension(StatisticDimension.STATUS))
+                .thenReturn(
+                        List.of(
+                                new AchievementStatistic(
+                                        AchievementStatisticKey.status("COMPLETED"), 4)));
+
+        List<StatusCountDTO> result = achievementStatsService.getStatusCounts(StatsFilter.NONE);
+
+        Assertions.assertEquals(
+                List.of(
+                        new StatusCountDTO("TODO", 0),
+                        new StatusCountDTO("IN_PROGRESS", 0),
+                        new StatusCountDTO("COMPLETED", 4)),
+                result,
+                "Missing statuses should be reported with a zero count.");
+    }
+
+    @Test
+    @DisplayName("Should return the most used tags in the order the statistics are read")
+    void getTopTags() {
+        Mockito.when(
+                        achievementStatisticRepository.findTopByDimension(
+                                StatisticDimension.TAG, Limit.of(2)))
+                .thenReturn(
+                        List.of(
+                                new AchievementStatistic(AchievementStatisticKey.tag("java"), 7),
+                                new AchievementStatistic(AchievementStatisticKey.tag("sql"), 3)));
+
+        Assertions.assertEquals(
+                List.of(new TagCountDTO("java", 7), new TagCountDTO("sql", 3)),
+                achievementStatsService.getTopTags(StatsFilter.NONE, 2),
+                "Tags should be mapped with their counts.");
+    }
+
+    @Test
+    @DisplayName("Should group exact durations into the non-empty buckets of the requested width")
+    void getTimeToCompletionHistogram() {
+        Mockito.when(
+                        achievementStatisticRepository.findByDimension(
+                                StatisticDimension.DAYS_TO_COMPLETION))
+                .thenReturn(
+                        List.of(
+                                durationCount(0, 2),
+                                durationCount(6, 1),
+                                durationCount(15, 3),
+                                durationCount(36_500, 1)));
+
+        List<HistogramBucketDTO> result =
+                achievementStatsService.getTimeToCompletionHistogram(StatsFilter.NONE, 7);
+
+        Assertions.assertEquals(
+                List.of(
+                        new HistogramBucketDTO(0, 7, 3),
+                        new HistogramBucketDTO(14, 21, 3),
+                        new HistogramBucketDTO(36_498, 36_505, 1)),
+                result,
+                "Durations should be summed per bucket, leaving the empty ones out.");
+    }
+
+    @Test
+    @DisplayName("Should return no buckets when no achievement has both dates")
+    void getTimeToCompletionHistogram_Empty() {
+        Mockito.when(
+                        achievementStatisticRepository.findByDimension(
+                                StatisticDimension.DAYS_TO_COMPLETION))
+                .thenReturn(List.of());
+
+        Assertions.assertTrue(
+                achievementStatsService.getTimeToCompletionHistogram(StatsFilter.NONE, 7).isEmpty(),
+                "No buckets should be returned.");
+    }
+
+    @Test
+    @DisplayName("Should aggregate the in-memory columns when a filter is given")
+    void getStatusCounts_Filtered() {
+        Mockito.when(achievementColumns.countByStatus(javaFilter)).thenReturn(new long[] {1, 2, 3});
+
+        Assertions.assertEquals(
+                List.of(
+                        new StatusCountDTO("TODO", 1),
+                        new StatusCountDTO("IN_PROGRESS", 2),
+                        new StatusCountDTO("COMPLETED", 3)),
+                achievementStatsService.getStatusCounts(javaFilter),
+                "Counts should be taken by status ordinal.");
+        Mockito.verifyNoInteractions(achievementStatisticRepository);
+    }
+
+    @Test
+    @DisplayName("Should rank filtered tags by count, then by name, up to the limit")
+    void getTopTags_Filtered() {
+        Mockito.when(achievementColumns.countByTag(javaFilter))
+                .thenReturn(Map.of("java", 4L, "sql", 2L, "api", 2L, "web", 1L));
+
+        Assertions.assertEquals(
+                List.of(
+                        new TagCountDTO("java", 4),
+                        new TagCountDTO("api", 2),
+                        new TagCountDTO("sql", 2)),
+                achievementStatsService.getTopTags(javaFilter, 3),
+                "Ties should be broken by tag name.");
+    }
+
+    @Test
+    @DisplayName("Should turn the filtered bucket counts into buckets")
+    void getTimeToCompletionHistogram_Filtered() {
+        Mockito.when(achievementColumns.countByDaysToCompletion(javaFilter, 7))
+                .thenReturn(new TreeMap<>(Map.of(0, 3L, 2, 1L)));
+
+        Assertions.assertEquals(
+                List.of(new HistogramBucketDTO(0, 7, 3), new HistogramBucketDTO(14, 21, 1)),
+                achievementStatsService.getTimeToCompletionHistogram(javaFilter, 7));
+    }
+
+    private static AchievementStatistic durationCount(long days, long count) {
+        return new AchievementStatistic(AchievementStatisticKey.daysToCompletion(days), count);
+    }
+
+    @Test
+    @DisplayName("Should report every period of the window, including those without achievements")
+    void getRollup() {
+        LocalDate from = LocalDate.of(2024, 1, 15);
+        LocalDate to = LocalDate.of(2024, 3, 10);
+        Mockito.when(
+                        achievementRollupRepository.sumByPeriod(
+                                RollupGranularity.MONTH,
+                                "java",
+                                LocalDate.of(2024, 1, 1),
+                                to,
+                                StatusEnum.COMPLETED))
+                .thenReturn(
+                        List.of(
+                                new RollupCount(RollupSeries.STARTED, LocalDate.of(2024, 1, 1), 3),
+                                new RollupCount(
+                                        RollupSeries.COMPLETED, LocalDate.of(2024, 3, 1), 2)));
+
+        List<RollupBucketDTO> result =
+                achievementStatsService.getRollup(
+                        RollupGranularity.MONTH, from, to, "COMPLETED", "java");
+
+        Assertions.assertEquals(
+                List.of(
+                        new RollupBucketDTO(
+                                LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31), 3, 0),
+                        new RollupBucketDTO(
+                                LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 29), 0, 0),
+                        new RollupBucketDTO(
+                                LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 31), 0, 2)),
+                result);
+    }
+
+    @Test
+    @DisplayName("Should read the rollups over all tags and statuses when no filter is given")
+    void getRollup_Unfiltered() {
+        LocalDate day = LocalDate.of(2024, 1, 3);
+        Mockito.when(
+                        achievementRollupRepository.sumByPeriod(
+                                RollupGranularity.WEEK,
+                                AchievementRollupKey.ALL_TAGS,
+                                LocalDate.of(2024, 1, 1),
+                                day,
+                                null))
+                .thenReturn(List.of());
+
+        List<RollupBucketDTO> result =
+                achievementStatsService.getRollup(RollupGranularity.WEEK, day, day, null, null);
+
+        Assertions.assertEquals(
+                List.of(
+                        new RollupBucketDTO(
+                                LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 7), 0, 0)),
+                result,
+                "Weeks should start on Monday.");
+    }
+
+    @Test
+    @DisplayName(
+            "Should throw InvalidPageRequestException for an unknown status or a reversed window")
+    void getRollup_Invalid() {
+        LocalDate day = LocalDate.of(2024, 1, 3);
+
+        Assertions.assertThrows(
+                InvalidPageRequestException.class,
+                () ->
+                        achievementStatsService.getRollup(
+                                RollupGranularity.DAY, day, day, "DONE", null));
+        Assertions.assertThrows(
+                InvalidPageRequestException.class,
+                () ->
+                        achievementStatsService.getRollup(
+                                RollupGranularity.DAY, day, day.minusDays(1), null, null));
+        Assertions.assertThrows(
+                InvalidPageRequestException.class,
+                () ->
+                        achievementStatsService.getRollup(
+                                RollupGranularity.DAY, day, day.plusYears(20), null, null));
+        Mockito.verifyNoInteractions(achievementRollupRepository);
+    }
+
+    private record RollupCount(RollupSeries series, LocalDate periodStart, long count)
+            implements RollupCountView {
+        @Override
+        public RollupSeries getSeries() {
+            return series;
+        }
+
+        @Override
+        public LocalDate getPeriodStart() {
+            return periodStart;
+        }
+
+        @Override
+        public long getCount() {
+            return count;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.service.implementation;
+
+import static org.mockito.Mockito.when;
+
+import com.example.achievement_tracker.api.dto.TimelineBucketDTO;
+import com.example.achievement_tracker.api.dto.TimelineDTO;
+import com.example.achievement_tracker.exception.InvalidPageRequestException;
+import com.example.achievement_tracker.persistence.model.StatusEnum;
+import com.example.achievement_tracker.service.timeline.AchievementTimeline;
+import com.example.achievement_tracker.service.timeline.TimelineEntry;
+import com.example.achievement_tracker.service.timeline.TimelineHistogram;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public class AchievementTimelineServiceImplTest {
+
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+
+    @Mock private AchievementTimeline achievementTimeline;
+
+    @InjectMocks private AchievementTimelineServiceImpl achievementTimelineService;
+
+    @Test
+    @DisplayName("Should place each achievement in a lane it does not share on any day")
+    void getTimelineItems() {
+        LocalDate to = START.plusDays(30);
+        when(achievementTimeline.overlapping(START, to, 11))
+                .thenReturn(
+                        List.of(
+                                entry(1, 0, 10),
+                                entry(2, 5, TimelineEntry.OPEN_END),
+                                entry(3, 10, 12),
+                                entry(4, 11, 20)));
+
+        TimelineDTO timeline = achievementTimelineService.getTimeline(START, to, 10, 5);
+
+        Assertions.assertEquals(4, timeline.total());
+        Assertions.assertEquals(3, timeline.lanes(), "Three achievements share day 11.");
+        Assertions.assertEquals(
+                List.of(0, 1, 2, 0), timeline.items().stream().map(item -> item.lane()).toList());
+        Assertions.assertNull(timeline.items().get(1).dateCompleted());
+        Assertions.assertEquals(START.plusDays(12), timeline.items().get(2).dateCompleted());
+        Assertions.assertTrue(timeline.buckets().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should bucket the window when more achievements overlap it than maxItems")
+    void getTimelineBuckets() {
+        LocalDate to = START.plusDays(9);
+        when(achievementTimeline.overlapping(START, to, 3))
+                .thenReturn(List.of(entry(1, -5, 1), entry(2, 2, 5), entry(3, 4, 50)));
+        when(achievementTimeline.histogram(START, to, 4))
+                .thenReturn(new TimelineHistogram(3, new long[] {2, 2, 1}));
+
+        TimelineDTO timeline = achievementTimelineService.getTimeline(START, to, 2, 3);
+
+        Assertions.assertEquals(3, timeline.total());
+        Assertions.assertTrue(timeline.items().isEmpty());
+        Assertions.assertEquals(
+                List.of(
+                        new TimelineBucketDTO(START, START.plusDays(3), 2),
+                        new TimelineBucketDTO(START.plusDays(4), START.plusDays(7), 2),
+                        new TimelineBucketDTO(START.plusDays(8), START.plusDays(9), 1)),
+                timeline.buckets());
+    }
+
+    @Test
+    @DisplayName("Should default the window to the extent of the timeline")
+    void getTimelineDefaultWindow() {
+        when(achievementTimeline.earliestStart()).thenReturn(START);
+        when(achievementTimeline.latestEnd()).thenReturn(START.plusDays(3));
+        when(achievementTimeline.overlapping(START, START.plusDays(3), 11)).thenReturn(List.of());
+
+        TimelineDTO timeline = achievementTimelineService.getTimeline(null, null, 10, 5);
+
+        Assertions.assertEquals(START, timeline.from());
+        Assertions.assertEquals(START.plusDays(3), timeline.to());
+        Assertions.assertEquals(0, timeline.lanes());
+    }
+
+    @Test
+    @DisplayName("Should default the window to an open achievement that starts after today")
+    void getTimelineDefaultWindowInFuture() {
+        LocalDate start = LocalDate.now().plusDays(10);
+        when(achievementTimeline.earliestStart()).thenReturn(start);
+        when(achievementTimeline.latestStart()).thenReturn(start.plusDays(5));
+        when(achievementTimeline.overlapping(start, start.plusDays(5), 11)).thenReturn(List.of());
+
+        TimelineDTO timeline = achievementTimelineService.getTimeline(null, null, 10, 5);
+
+        Assertions.assertEquals(start, timeline.from());
+        Assertions.assertEquals(start.plusDays(5), timeline.to());
+    }
+
+    @Test
+    @DisplayName("Should not default the start past an explicit end")
+    void getTimelineDefaultStartBeforeEnd() {
+        when(achievementTimeline.earliestStart()).thenReturn(START);
+        when(achievementTimeline.overlapping(START.minusDays(1), START.minusDays(1), 11))
+                .thenReturn(List.of());
+
+        TimelineDTO timeline =
+                achievementTimelineService.getTimeline(null, START.minusDays(1), 10, 5);
+
+        Assertions.assertEquals(START.minusDays(1), timeline.from());
+    }
+
+    @Test
+    @DisplayName("Should throw InvalidPageRequestException when the window ends before it starts")
+    void getTimelineInvalidWindow() {
+        Assertions.assertThrows(
+                InvalidPageRequestException.class,
+                () -> achievementTimelineService.getTimeline(START, START.minusDays(1), 10, 5));
+    }
+
+    @Test
+    @DisplayName("Should use as many lanes as achievements active on the busiest day")
+    void packLanesIsOptimal() {
+        Random random = new Random(7);
+        List<TimelineEntry> entries = new ArrayList<>();
+        for (int id = 0; id < 300; id++) {
+            int start = random.nextInt(365);
+            entries.add(entry(id, start, start + random.nextInt(60)));
+        }
+        entries.sort(
+                (a, b) ->
+                        a.start() != b.start()
+                                ? Integer.compare(a.start(), b.start())
+                                : Long.compare(a.id(), b.id()));
+
+        int[] lanes = AchievementTimelineServiceImpl.packLanes(entries);
+
+        int busiest = 0;
+        int laneCount = 0;
+        int first = (int) START.toEpochDay();
+        for (int day = first; day < first + 430; day++) {
+            int active = 0;
+            boolean[] taken = new boolean[entries.size()];
+            for (int i = 0; i < entries.size(); i++) {
+                TimelineEntry entry = entries.get(i);
+                if (entry.start() <= day && entry.end() >= day) {
+                    active++;
+                    Assertions.assertFalse(taken[lanes[i]], "Lane shared on day " + day);
+                    taken[lanes[i]] = true;
+                }
+            }
+            busiest = Math.max(busiest, active);
+        }
+        for (int lane : lanes) {
+            laneCount = Math.max(laneCount, lane + 1);
+        }
+        Assertions.assertEquals(busiest, laneCount);
+    }
+
+    private static TimelineEntry entry(long id, int startOffset, int endOffset) {
+        int start = (int) START.toEpochDay() + startOffset;
+        int end =
+                endOffset == TimelineEntry.OPEN_END
+                        ? TimelineEntry.OPEN_END
+                        : (int) START.toEpochDay() + endOffset;
+        return new TimelineEntry(id, "Achievement " + id, StatusEnum.IN_PROGRESS, start, end);
+    }
+}
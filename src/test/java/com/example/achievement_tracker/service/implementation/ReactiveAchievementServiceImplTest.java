@@ -0,0 +1,89 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.service.implementation;
+
+import com.example.achievement_tracker.api.dto.AchievementDTO;
+import com.example.achievement_tracker.config.PaginationProperties;
+import com.example.achievement_tracker.exception.InvalidPageRequestException;
+import com.example.achievement_tracker.persistence.reactive.ReactiveAchievementRepository;
+import com.example.achievement_tracker.service.pagination.AchievementCursor;
+import com.example.achievement_tracker.service.pagination.AchievementSortKey;
+import java.time.LocalDate;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+public class ReactiveAchievementServiceImplTest {
+
+    @InjectMocks private ReactiveAchievementServiceImpl reactiveAchievementService;
+
+    @Mock private ReactiveAchievementRepository reactiveAchievementRepository;
+
+    @Spy private PaginationProperties paginationProperties = new PaginationProperties(1, 2);
+
+    @Test
+    @DisplayName("Should return a page with a cursor when another achievement follows")
+    void getAchievementPage_HasNext() {
+        Mockito.when(reactiveAchievementRepository.findPage(5L, 3))
+                .thenReturn(Flux.just(achievement(6L), achievement(7L), achievement(8L)));
+        String cursor = new AchievementCursor(AchievementSortKey.ID, 5L, null).encode();
+
+        StepVerifier.create(reactiveAchievementService.getAchievementPage(cursor, 2))
+                .assertNext(
+                        page -> {
+                            Assertions.assertEquals(2, page.items().size());
+                            Assertions.assertEquals(
+                                    7L, AchievementCursor.decode(page.nextCursor()).lastId());
+                        })
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should return the last page without a cursor")
+    void getAchievementPage_LastPage() {
+        Mockito.when(reactiveAchievementRepository.findPage(null, 2))
+                .thenReturn(Flux.just(achievement(1L)));
+
+        StepVerifier.create(reactiveAchievementService.getAchievementPage(null, null))
+                .assertNext(page -> Assertions.assertNull(page.nextCursor()))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should reject a cursor issued for another ordering")
+    void getAchievementPage_WrongSortKey() {
+        String cursor =
+                new AchievementCursor(AchievementSortKey.DATE_STARTED, 5L, LocalDate.now())
+                        .encode();
+
+        StepVerifier.create(reactiveAchievementService.getAchievementPage(cursor, 2))
+                .verifyError(InvalidPageRequestException.class);
+        Mockito.verifyNoInteractions(reactiveAchievementRepository);
+    }
+
+    private static AchievementDTO achievement(Long id) {
+        return AchievementDTO.builder().id(id).title("Title " + id).status("TODO").build();
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.service.index;
+
+import com.example.achievement_tracker.api.dto.AchievementDTO;
+import com.example.achievement_tracker.persistence.projection.AchievementTagView;
+import com.example.achievement_tracker.persistence.repository.AchievementRepository;
+import com.example.achievement_tracker.service.event.AchievementChangedEvent;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+
+@ExtendWith(MockitoExtension.class)
+public class TagIndexTest {
+
+    @InjectMocks private TagIndex tagIndex;
+
+    @Mock private AchievementRepository achievementRepository;
+
+    @BeforeEach
+    void setUp() {
+        Mockito.when(achievementRepository.streamAchievementTags())
+                .thenReturn(
+                        Stream.of(
+                                row(1L, "java"),
+                                row(1L, "spring"),
+                                row(2L, "java"),
+                                row(3L, "spring"),
+                                row(3L, "sql")));
+        tagIndex.rebuild();
+    }
+
+    @Test
+    @DisplayName("Should intersect the bitmaps when every tag must match")
+    void match_All() {
+        Assertions.assertEquals(
+                Roaring64Bitmap.bitmapOf(1L),
+                tagIndex.match(Set.of("java", "spring"), TagMatch.ALL));
+        Assertions.assertTrue(
+                tagIndex.match(Set.of("java", "unknown"), TagMatch.ALL).isEmpty(),
+                "An unknown tag should match nothing.");
+    }
+
+    @Test
+    @DisplayName("Should union the bitmaps when any tag may match")
+    void match_Any() {
+        Assertions.assertEquals(
+                Roaring64Bitmap.bitmapOf(1L, 2L, 3L),
+                tagIndex.match(Set.of("java", "sql", "unknown"), TagMatch.ANY));
+    }
+
+    @Test
+    @DisplayName("Should not let callers modify the index through a match result")
+    void match_ReturnsCopy() {
+        tagIndex.match(Set.of("sql"), TagMatch.ANY).addLong(42L);
+
+        Assertions.assertEquals(
+                Roaring64Bitmap.bitmapOf(3L), tagIndex.match(Set.of("sql"), TagMatch.ANY));
+    }
+
+    @Test
+    @DisplayName("Should follow created, updated and deleted achievements")
+    void onAchievementChanged() {
+        AchievementDTO created = AchievementDTO.builder().id(4L).tags(Set.of("sql")).build();
+        tagIndex.onAchievementChanged(AchievementChangedEvent.created(created));
+        Assertions.assertEquals(
+                Roaring64Bitmap.bitmapOf(3L, 4L), tagIndex.match(Set.of("sql"), TagMatch.ANY));
+
+        AchievementDTO updated = AchievementDTO.builder().id(4L).tags(Set.of("java")).build();
+        tagIndex.onAchievementChanged(AchievementChangedEvent.updated(created, updated));
+        Assertions.assertEquals(
+                Roaring64Bitmap.bitmapOf(3L), tagIndex.match(Set.of("sql"), TagMatch.ANY));
+        Assertions.assertEquals(
+                Roaring64Bitmap.bitmapOf(1L, 2L, 4L), tagIndex.match(Set.of("java"), TagMatch.ANY));
+
+        tagIndex.onAchievementChanged(AchievementChangedEvent.deleted(updated));
+        Assertions.assertEquals(
+                Roaring64Bitmap.bitmapOf(1L, 2L), tagIndex.match(Set.of("java"), TagMatch.ANY));
+    }
+
+    @Test
+    @DisplayName("Should drop a change that arrives after a newer one of the same achievement")
+    void onAchievementChanged_OutOfOrder() {
+        AchievementDTO original =
+                AchievementDTO.builder().id(1L).tags(Set.of("java", "spring")).version(0L).build();
+        AchievementDTO second =
+                AchievementDTO.builder().id(1L).tags(Set.of("sql")).version(1L).build();
+        AchievementDTO third =
+                AchievementDTO.builder().id(1L).tags(Set.of("web")).version(2L).build();
+
+        tagIndex.onAchievementChanged(AchievementChangedEvent.updated(second, third));
+        tagIndex.onAchievementChanged(AchievementChangedEvent.updated(original, second));
+
+        Assertions.assertEquals(
+                Roaring64Bitmap.bitmapOf(2L, 3L),
+                tagIndex.match(Set.of("java", "spring", "sql"), TagMatch.ANY),
+                "The tags indexed before the newer change should be gone.");
+        Assertions.assertEquals(
+                Roaring64Bitmap.bitmapOf(1L), tagIndex.match(Set.of("web"), TagMatch.ANY));
+    }
+
+    private static AchievementTagView row(Long id, String tag) {
+        return new AchievementTagView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getTag() {
+                return tag;
+            }
+        };
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.service.search;
+
+import com.example.achievement_tracker.api.dto.AchievementDTO;
+import com.example.achievement_tracker.persistence.projection.AchievementTextView;
+import com.example.achievement_tracker.persistence.repository.AchievementRepository;
+import com.example.achievement_tracker.service.event.AchievementChangedEvent;
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+public class AchievementSearchIndexTest {
+
+    private AchievementRepository achievementRepository;
+    private AchievementSearchIndex searchIndex;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        achievementRepository = Mockito.mock(AchievementRepository.class);
+        Mockito.when(achievementRepository.streamAchievementTexts())
+                .thenReturn(
+                        Stream.of(
+                                row(1L, "Learn Java", "Streams and records"),
+                                row(2L, "Run a marathon", "Train for the Java island race"),
+                                row(3L, "Bake bread", null)));
+        searchIndex = new AchievementSearchIndex(achievementRepository);
+        searchIndex.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        searchIndex.close();
+    }
+
+    @Test
+    @DisplayName("Should rank title matches above description matches")
+    void search_RanksTitleFirst() {
+        SearchHits hits = searchIndex.search("java", 0, 10);
+
+        Assertions.assertEquals(List.of(1L, 2L), hits.ids());
+        Assertions.assertEquals(2, hits.totalHits());
+        Assertions.assertTrue(hits.totalHitsExact());
+    }
+
+    @Test
+    @DisplayName("Should require every term and support prefixes")
+    void search_AllTermsAndPrefix() {
+        Assertions.assertEquals(List.of(2L), searchIndex.search("java race", 0, 10).ids());
+        Assertions.assertEquals(List.of(3L), searchIndex.search("bre*", 0, 10).ids());
+    }
+
+    @Test
+    @DisplayName("Should skip the offset and return at most the limit")
+    void search_Paging() {
+        SearchHits hits = searchIndex.search("java", 1, 1);
+
+        Assertions.assertEquals(List.of(2L), hits.ids());
+        Assertions.assertEquals(2, hits.totalHits());
+    }
+
+    @Test
+    @DisplayName("Should stop counting the matches at the threshold and flag the total as a bound")
+    void search_TotalLowerBound() {
+        for (long id = 10; id < 1510; id++) {
+            searchIndex.onAchievementChanged(
+                    AchievementChangedEvent.created(
+                            AchievementDTO.builder().id(id).title("Read book " + id).build()));
+        }
+
+        SearchHits hits = searchIndex.search("book", 0, 10);
+
+        Assertions.assertEquals(10, hits.ids().size());
+        Assertions.assertFalse(hits.totalHitsExact());
+        Assertions.assertTrue(
+                hits.totalHits() >= AchievementSearchIndex.TOTAL_HITS_THRESHOLD
+                        && hits.totalHits() <= 1500,
+                "The total should be at least the threshold, got " + hits.totalHits());
+        Assertions.assertTrue(searchIndex.search("book 42", 0, 10).totalHitsExact());
+    }
+
+    @Test
+    @DisplayName("Should follow created, updated and deleted achievements")
+    void onAchievementChanged() {
+        AchievementDTO created = AchievementDTO.builder().id(4L).title("Climb a mountain").build();
+        searchIndex.onAchievementChanged(AchievementChangedEvent.created(created));
+        Assertions.assertEquals(List.of(4L), searchIndex.search("mountain", 0, 10).ids());
+
+        AchievementDTO updated =
+                AchievementDTO.builder().id(4L).title("Climb a hill").description("Java").build();
+        searchIndex.onAchievementChanged(AchievementChangedEvent.updated(created, updated));
+        Assertions.assertTrue(searchIndex.search("mountain", 0, 10).ids().isEmpty());
+        Assertions.assertEquals(3, searchIndex.search("java", 0, 10).totalHits());
+
+        searchIndex.onAchievementChanged(AchievementChangedEvent.deleted(updated));
+        Assertions.assertTrue(searchIndex.search("hill", 0, 10).ids().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should reindex a partial update using the stored text of the other field")
+    void onAchievementChanged_PartialUpdate() {
+        AchievementDTO statusOnly = AchievementDTO.builder().id(1L).status("COMPLETED").build();
+        searchIndex.onAchievementChanged(AchievementChangedEvent.updated(null, statusOnly));
+        Mockito.verify(achievementRepository, Mockito.never()).findTextById(1L);
+
+        Mockito.when(achievementRepository.findTextById(1L))
+                .thenReturn(Optional.of(row(1L, "Learn Kotlin", "Streams and records")));
+        AchievementDTO renamed = AchievementDTO.builder().id(1L).title("Learn Kotlin").build();
+        searchIndex.onAchievementChanged(AchievementChangedEvent.updated(null, renamed));
+
+        Assertions.assertEquals(List.of(1L), searchIndex.search("kotlin records", 0, 10).ids());
+        Assertions.assertEquals(List.of(2L), searchIndex.search("java", 0, 10).ids());
+    }
+
+    @Test
+    @DisplayName("Should drop a change that arrives after a newer one of the same achievement")
+    void onAchievementChanged_OutOfOrder() {
+        AchievementDTO original =
+                AchievementDTO.builder().id(1L).title("Learn Java").version(0L).build();
+        AchievementDTO second =
+                AchievementDTO.builder().id(1L).title("Learn Kotlin").version(1L).build();
+        AchievementDTO third =
+                AchievementDTO.builder().id(1L).title("Learn Scala").version(2L).build();
+
+        searchIndex.onAchievementChanged(AchievementChangedEvent.updated(second, third));
+        searchIndex.onAchievementChanged(AchievementChangedEvent.updated(original, second));
+
+        Assertions.assertTrue(searchIndex.search("kotlin", 0, 10).ids().isEmpty());
+        Assertions.assertEquals(List.of(1L), searchIndex.search("scala", 0, 10).ids());
+    }
+
+    private static AchievementTextView row(Long id, String title, String description) {
+        return new AchievementTextView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getTitle() {
+                return title;
+            }
+
+            @Override
+            public String getDescription() {
+                return description;
+            }
+        };
+    }
+}
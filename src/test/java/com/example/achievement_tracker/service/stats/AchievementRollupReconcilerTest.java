@@ -0,0 +1,129 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.service.stats;
+
+import com.example.achievement_tracker.persistence.mapper.TagDictionary;
+import com.example.achievement_tracker.persistence.model.Achievement;
+import com.example.achievement_tracker.persistence.model.AchievementRollup;
+import com.example.achievement_tracker.persistence.model.AchievementRollupKey;
+import com.example.achievement_tracker.persistence.model.RollupGranularity;
+import com.example.achievement_tracker.persistence.model.RollupSeries;
+import com.example.achievement_tracker.persistence.model.StatusEnum;
+import com.example.achievement_tracker.persistence.repository.AchievementRepository;
+import com.example.achievement_tracker.persistence.repository.AchievementRollupRepository;
+import com.example.achievement_tracker.service.version.AchievementChangeCounter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+@DataJpaTest
+@Import({
+    AchievementRollupReconciler.class,
+    AchievementChangeCounter.class,
+    TagDictionary.class,
+    SimpleMeterRegistry.class
+})
+public class AchievementRollupReconcilerTest {
+
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+
+    @Autowired private AchievementRollupReconciler achievementRollupReconciler;
+    @Autowired private AchievementRepository achievementRepository;
+    @Autowired private AchievementRollupRepository achievementRollupRepository;
+    @Autowired private EntityManager entityManager;
+    @Autowired private TagDictionary tagDictionary;
+
+    @BeforeEach
+    void setUp() {
+        // Written through the repository, so no rollups are maintained for them
+        achievementRepository.save(achievement("First", StatusEnum.TODO, Set.of("java"), null));
+        achievementRepository.save(achievement("Second", StatusEnum.COMPLETED, Set.of("java"), 2));
+        achievementRepository.flush();
+    }
+
+    @Test
+    @DisplayName("Should rebuild drifted and missing rollups and drop the stale ones")
+    void correctsDrift() {
+        AchievementRollupKey startedThisMonth =
+                AchievementRollupKey.of(
+                        RollupSeries.STARTED,
+                        RollupGranularity.MONTH,
+                        AchievementRollupKey.ALL_TAGS,
+                        START,
+                        StatusEnum.TODO);
+        AchievementRollupKey stale =
+                AchievementRollupKey.of(
+                        RollupSeries.COMPLETED,
+                        RollupGranularity.DAY,
+                        "removed",
+                        START,
+                        StatusEnum.COMPLETED);
+        achievementRollupRepository.applyDeltas(Map.of(startedThisMonth, 5L, stale, 1L));
+
+        int corrected = achievementRollupReconciler.reconcile();
+        // The corrections bypass the persistence context that still holds the rollups read
+        entityManager.clear();
+
+        Map<AchievementRollupKey, Long> rollups = rollups();
+        // 2 series over all tags and java, 3 granularities, 2 statuses, minus TODO completions
+        Assertions.assertEquals(18, rollups.size(), "The stale rollup should be dropped.");
+        Assertions.assertEquals(19, corrected, "17 rollups were missing, 2 drifted.");
+        Assertions.assertEquals(1L, rollups.get(startedThisMonth));
+        Assertions.assertEquals(
+                1L,
+                rollups.get(
+                        AchievementRollupKey.of(
+                                RollupSeries.COMPLETED,
+                                RollupGranularity.WEEK,
+                                "java",
+                                START.plusDays(2),
+                                StatusEnum.COMPLETED)));
+    }
+
+    @Test
+    @DisplayName("Should leave rollups that match the achievements alone")
+    void reportsNoDriftWhenInStep() {
+        achievementRollupReconciler.reconcile();
+
+        Assertions.assertEquals(0, achievementRollupReconciler.reconcile());
+    }
+
+    private Map<AchievementRollupKey, Long> rollups() {
+        return achievementRollupRepository.findAll().stream()
+                .collect(Collectors.toMap(AchievementRollup::getKey, AchievementRollup::getCount));
+    }
+
+    private Achievement achievement(
+            String title, StatusEnum status, Set<String> tags, Integer daysToCompletion) {
+        return Achievement.builder()
+                .title(title)
+                .status(status)
+                .tagIds(tagDictionary.idsOf(tags))
+                .dateStarted(START)
+                .dateCompleted(daysToCompletion == null ? null : START.plusDays(daysToCompletion))
+                .build();
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.service.stats;
+
+import com.example.achievement_tracker.api.dto.AchievementDTO;
+import com.example.achievement_tracker.persistence.model.AchievementRollupKey;
+import com.example.achievement_tracker.persistence.model.RollupGranularity;
+import com.example.achievement_tracker.persistence.model.StatusEnum;
+import com.example.achievement_tracker.persistence.projection.RollupCountView;
+import com.example.achievement_tracker.persistence.repository.AchievementRollupRepository;
+import com.example.achievement_tracker.service.event.AchievementChangedEvent;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@DataJpaTest
+@Import(AchievementRollupUpdater.class)
+// Commits are needed to observe the rollups, so the tests manage their own transactions
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class AchievementRollupUpdaterTest {
+
+    // A Wednesday, in the week starting on Monday 2024-01-01
+    private static final LocalDate START = LocalDate.of(2024, 1, 3);
+
+    @Autowired private AchievementRollupUpdater achievementRollupUpdater;
+    @Autowired private AchievementRollupRepository achievementRollupRepository;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        achievementRollupRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should count starts and completions per day, week and month on commit")
+    void countsCreatedAchievements() {
+        new TransactionTemplate(transactionManager)
+                .executeWithoutResult(
+                        status -> {
+                            achievementRollupUpdater.onAchievementChanged(
+                                    AchievementChangedEvent.created(
+                                            achievement(1L, "COMPLETED", Set.of("java"), 40)));
+                            achievementRollupUpdater.onAchievementChanged(
+                                    AchievementChangedEvent.created(
+                                            achievement(2L, "TODO", Set.of("sql"), null)));
+                        });
+
+        Assertions.assertEquals(
+                Map.of(
+                        LocalDate.of(2024, 1, 1), 2L,
+                        LocalDate.of(2024, 2, 1), 1L),
+                sum(RollupGranularity.MONTH, AchievementRollupKey.ALL_TAGS, null));
+        Assertions.assertEquals(
+                Map.of(LocalDate.of(2024, 1, 1), 1L, LocalDate.of(2024, 2, 12), 1L),
+                sum(RollupGranularity.WEEK, "java", null),
+                "Weeks should start on Monday.");
+        Assertions.assertEquals(
+                Map.of(START, 1L), sum(RollupGranularity.DAY, "sql", StatusEnum.TODO));
+        Assertions.assertEquals(Map.of(), sum(RollupGranularity.DAY, "sql", StatusEnum.COMPLETED));
+    }
+
+    @Test
+    @DisplayName("Should move the counts of an update and release those of a deletion")
+    void movesCountsOnUpdateAndDelete() {
+        AchievementDTO created = achievement(1L, "IN_PROGRESS", Set.of("java"), null);
+        AchievementDTO updated = achievement(1L, "COMPLETED", Set.of("java"), 1);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        transaction.executeWithoutResult(
+                status ->
+                        achievementRollupUpdater.onAchievementChanged(
+                                AchievementChangedEvent.created(created)));
+        transaction.executeWithoutResult(
+                status ->
+                        achievementRollupUpdater.onAchievementChanged(
+                                AchievementChangedEvent.updated(created, updated)));
+
+        Assertions.assertEquals(
+                Map.of(START, 1L, START.plusDays(1), 1L),
+                sum(RollupGranularity.DAY, "java", StatusEnum.COMPLETED),
+                "Both the start and the completion should be counted.");
+        Assertions.assertEquals(
+                Map.of(), sum(RollupGranularity.DAY, "java", StatusEnum.IN_PROGRESS));
+
+        transaction.executeWithoutResult(
+                status ->
+                        achievementRollupUpdater.onAchievementChanged(
+                                AchievementChangedEvent.deleted(updated)));
+
+        Assertions.assertTrue(
+                achievementRollupRepository.findAll().stream()
+                        .allMatch(rollup -> rollup.getCount() == 0),
+                "Every rollup should be back at zero.");
+    }
+
+    @Test
+    @DisplayName("Should not apply the deltas of a rolled back transaction")
+    void ignoresRolledBackTransactions() {
+        new TransactionTemplate(transactionManager)
+                .executeWithoutResult(
+                        status -> {
+                            achievementRollupUpdater.onAchievementChanged(
+                                    AchievementChangedEvent.created(
+                                            achievement(1L, "TODO", Set.of("java"), 3)));
+                            status.setRollbackOnly();
+                        });
+
+        Assertions.assertTrue(
+                achievementRollupRepository.findAll().isEmpty(),
+                "No rollup should have been written.");
+    }
+
+    // Starts and completions per period of 2024, summed
+    private Map<LocalDate, Long> sum(RollupGranularity granularity, String tag, StatusEnum status) {
+        List<RollupCountView> rows =
+                achievementRollupRepository.sumByPeriod(
+                        granularity,
+                        tag,
+                        LocalDate.of(2024, 1, 1),
+                        LocalDate.of(2024, 12, 31),
+                        status);
+        return rows.stream()
+                .collect(
+                        Collectors.toMap(
+                                RollupCountView::getPeriodStart,
+                                RollupCountView::getCount,
+                                Long::sum));
+    }
+
+    private static AchievementDTO achievement(
+            Long id, String status, Set<String> tags, Integer daysToCompletion) {
+        return AchievementDTO.builder()
+                .id(id)
+                .title("Achievement " + id)
+                .dateStarted(START)
+                .dateCompleted(daysToCompletion == null ? null : START.plusDays(daysToCompletion))
+                .tags(tags)
+                .status(status)
+                .build();
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.service.stats;
+
+import com.example.achievement_tracker.persistence.mapper.TagDictionary;
+import com.example.achievement_tracker.persistence.model.Achievement;
+import com.example.achievement_tracker.persistence.model.AchievementStatistic;
+import com.example.achievement_tracker.persistence.model.AchievementStatisticKey;
+import com.example.achievement_tracker.persistence.model.StatusEnum;
+import com.example.achievement_tracker.persistence.repository.AchievementRepository;
+import com.example.achievement_tracker.persistence.repository.AchievementStatisticRepository;
+import com.example.achievement_tracker.service.version.AchievementChangeCounter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+@DataJpaTest
+@Import({
+    AchievementStatisticsReconciler.class,
+    AchievementChangeCounter.class,
+    TagDictionary.class,
+    SimpleMeterRegistry.class
+})
+public class AchievementStatisticsReconcilerTest {
+
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+
+    @Autowired private AchievementStatisticsReconciler achievementStatisticsReconciler;
+    @Autowired private AchievementRepository achievementRepository;
+    @Autowired private AchievementStatisticRepository achievementStatisticRepository;
+    @Autowired private EntityManager entityManager;
+    @Autowired private TagDictionary tagDictionary;
+    @MockitoSpyBean private AchievementChangeCounter achievementChangeCounter;
+
+    @BeforeEach
+    void setUp() {
+        // Written through the repository, so no statistics are maintained for them
+        achievementRepository.save(achievement("First", StatusEnum.TODO, Set.of("java"), 2));
+        achievementRepository.save(
+                achievement("Second", StatusEnum.COMPLETED, Set.of("java", "sql"), 2));
+        achievementRepository.flush();
+    }
+
+    @Test
+    @DisplayName("Should rebuild drifted and missing statistics and drop the stale ones")
+    void correctsDrift() {
+        achievementStatisticRepository.applyDeltas(
+                Map.of(
+                        AchievementStatisticKey.status("TODO"), 5L,
+                        AchievementStatisticKey.tag("java"), 2L,
+                        AchievementStatisticKey.tag("removed"), 1L));
+
+        int corrected = achievementStatisticsReconciler.reconcile();
+        // The corrections bypass the persistence context that still holds the statistics read
+        entityManager.clear();
+
+        Assertions.assertEquals(5, corrected, "TODO, removed, COMPLETED, sql and 2 days drifted.");
+        Assertions.assertEquals(
+                Map.of(
+                        AchievementStatisticKey.status("TODO"), 1L,
+                        AchievementStatisticKey.status("COMPLETED"), 1L,
+                        AchievementStatisticKey.tag("java"), 2L,
+                        AchievementStatisticKey.tag("sql"), 1L,
+                        AchievementStatisticKey.daysToCompletion(2), 2L),
+                statistics());
+    }
+
+    @Test
+    @DisplayName("Should leave statistics that match the achievements alone")
+    void reportsNoDriftWhenInStep() {
+        achievementStatisticsReconciler.reconcile();
+
+        Assertions.assertEquals(0, achievementStatisticsReconciler.reconcile());
+    }
+
+    @Test
+    @DisplayName("Should compute the corrections again when a writer commits meanwhile")
+    void recomputesAfterConcurrentWrite() {
+        // The counter moves between the aggregations and the lock on the first attempt
+        Mockito.doReturn(0L, 1L).doCallRealMethod().when(achievementChangeCounter).current();
+
+        Assertions.assertEquals(5, achievementStatisticsReconciler.reconcile());
+        entityManager.clear();
+
+        Mockito.verify(achievementChangeCounter, Mockito.times(4)).current();
+        Assertions.assertEquals(
+                1L,
+                statistics().get(AchievementStatisticKey.status("TODO")),
+                "The corrections should be applied once.");
+    }
+
+    private Map<AchievementStatisticKey, Long> statistics() {
+        return achievementStatisticRepository.findAll().stream()
+                .collect(
+                        Collectors.toMap(
+                                AchievementStatistic::getKey, AchievementStatistic::getCount));
+    }
+
+    private Achievement achievement(
+            String title, StatusEnum status, Set<String> tags, long daysToCompletion) {
+        return Achievement.builder()
+                .title(title)
+                .status(status)
+                .tagIds(tagDictionary.idsOf(tags))
+                .dateStarted(START)
+                .dateCompleted(START.plusDays(daysToCompletion))
+                .build();
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.service.stats;
+
+import com.example.achievement_tracker.api.dto.AchievementDTO;
+import com.example.achievement_tracker.persistence.model.AchievementStatistic;
+import com.example.achievement_tracker.persistence.model.AchievementStatisticKey;
+import com.example.achievement_tracker.persistence.repository.AchievementStatisticRepository;
+import com.example.achievement_tracker.service.event.AchievementChangedEvent;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@DataJpaTest
+@Import(AchievementStatisticsUpdater.class)
+// Commits are needed to observe the statistics, so the tests manage their own transactions
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class AchievementStatisticsUpdaterTest {
+
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+
+    @Autowired private AchievementStatisticsUpdater achievementStatisticsUpdater;
+    @Autowired private AchievementStatisticRepository achievementStatisticRepository;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        achievementStatisticRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should count the status, tags and duration of created achievements on commit")
+    void countsCreatedAchievements() {
+        new TransactionTemplate(transactionManager)
+                .executeWithoutResult(
+                        status -> {
+                            achievementStatisticsUpdater.onAchievementChanged(
+                                    AchievementChangedEvent.created(
+                                            achievement(1L, "TODO", Set.of("java"), 3)));
+                            achievementStatisticsUpdater.onAchievementChanged(
+                                    AchievementChangedEvent.created(
+                                            achievement(2L, "TODO", Set.of("java", "sql"), 3)));
+                        });
+
+        Assertions.assertEquals(
+                Map.of(
+                        AchievementStatisticKey.status("TODO"), 2L,
+                        AchievementStatisticKey.tag("java"), 2L,
+                        AchievementStatisticKey.tag("sql"), 1L,
+                        AchievementStatisticKey.daysToCompletion(3), 2L),
+                statistics());
+    }
+
+    @Test
+    @DisplayName("Should move the counts of an update and release those of a deletion")
+    void movesCountsOnUpdateAndDelete() {
+        AchievementDTO created = achievement(1L, "TODO", Set.of("java"), 3);
+        AchievementDTO updated = achievement(1L, "COMPLETED", Set.of("java", "sql"), 5);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        transaction.executeWithoutResult(
+                status ->
+                        achievementStatisticsUpdater.onAchievementChanged(
+                                AchievementChangedEvent.created(created)));
+        transaction.executeWithoutResult(
+                status ->
+                        achievementStatisticsUpdater.onAchievementChanged(
+                                AchievementChangedEvent.updated(created, updated)));
+
+        Assertions.assertEquals(
+                Map.of(
+                        AchievementStatisticKey.status("TODO"), 0L,
+                        AchievementStatisticKey.status("COMPLETED"), 1L,
+                        AchievementStatisticKey.tag("java"), 1L,
+                        AchievementStatisticKey.tag("sql"), 1L,
+                        AchievementStatisticKey.daysToCompletion(3), 0L,
+                        AchievementStatisticKey.daysToCompletion(5), 1L),
+                statistics());
+
+        transaction.executeWithoutResult(
+                status ->
+                        achievementStatisticsUpdater.onAchievementChanged(
+                                AchievementChangedEvent.deleted(updated)));
+
+        Assertions.assertTrue(
+                statistics().values().stream().allMatch(count -> count == 0),
+                "Every statistic should be back at zero.");
+    }
+
+    @Test
+    @DisplayName("Should not apply the deltas of a rolled back transaction")
+    void ignoresRolledBackTransactions() {
+        new TransactionTemplate(transactionManager)
+                .executeWithoutResult(
+                        status -> {
+                            achievementStatisticsUpdater.onAchievementChanged(
+                                    AchievementChangedEvent.created(
+                                            achievement(1L, "TODO", Set.of("java"), 3)));
+                            status.setRollbackOnly();
+                        });
+
+        Assertions.assertTrue(statistics().isEmpty(), "No statistic should have been written.");
+    }
+
+    @Test
+    @DisplayName("Should add up the deltas of concurrent transactions creating the same statistic")
+    void addsConcurrentlyCreatedStatistics() throws InterruptedException {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        CountDownLatch applied = new CountDownLatch(1);
+        Thread other =
+                Thread.ofPlatform()
+                        .start(
+                                () ->
+                                        transaction.executeWithoutResult(
+                                                status -> {
+                                                    achievementStatisticRepository.applyDeltas(
+                                                            Map.of(
+                                                                    AchievementStatisticKey.tag(
+                                                                            "java"),
+                                                                    1L));
+                                                    applied.countDown();
+                                                    // Commits while the other upsert waits on it
+                                                    LockSupport.parkNanos(500_000_000L);
+                                                }));
+        applied.await();
+
+        transaction.executeWithoutResult(
+                status ->
+                        achievementStatisticRepository.applyDeltas(
+                                Map.of(
+                                        AchievementStatisticKey.status("TODO"), 1L,
+                                        AchievementStatisticKey.tag("java"), 2L,
+                                        AchievementStatisticKey.tag("sql"), 1L)));
+        other.join();
+
+        Assertions.assertEquals(
+                Map.of(
+                        AchievementStatisticKey.status("TODO"), 1L,
+                        AchievementStatisticKey.tag("java"), 3L,
+                        AchievementStatisticKey.tag("sql"), 1L),
+                statistics());
+    }
+
+    private Map<AchievementStatisticKey, Long> statistics() {
+        return achievementStatisticRepository.findAll().stream()
+                .collect(
+                        Collectors.toMap(
+                                AchievementStatistic::getKey, AchievementStatistic::getCount));
+    }
+
+    private static AchievementDTO achievement(
+            Long id, String status, Set<String> tags, long daysToCompletion) {
+        return AchievementDTO.builder()
+                .id(id)
+                .title("Achievement " + id)
+                .dateStarted(START)
+                .dateCompleted(START.plusDays(daysToCompletion))
+                .tags(tags)
+                .status(status)
+                .build();
+    }
+}
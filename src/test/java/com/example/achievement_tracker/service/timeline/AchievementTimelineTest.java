@@ -0,0 +1,169 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.service.timeline;
+
+import com.example.achievement_tracker.api.dto.AchievementDTO;
+import com.example.achievement_tracker.persistence.model.StatusEnum;
+import com.example.achievement_tracker.persistence.projection.AchievementTimelineView;
+import com.example.achievement_tracker.persistence.repository.AchievementRepository;
+import com.example.achievement_tracker.service.event.AchievementChangedEvent;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public class AchievementTimelineTest {
+
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+
+    @InjectMocks private AchievementTimeline achievementTimeline;
+
+    @Mock private AchievementRepository achievementRepository;
+
+    private AchievementDTO first;
+
+    @BeforeEach
+    void setUp() {
+        first = achievement(1L, "First", START, START.plusDays(10));
+        achievementTimeline.onAchievementChanged(AchievementChangedEvent.created(first));
+        achievementTimeline.onAchievementChanged(
+                AchievementChangedEvent.created(achievement(2L, "Open", START.plusDays(5), null)));
+        achievementTimeline.onAchievementChanged(
+                AchievementChangedEvent.created(achievement(3L, "Unstarted", null, null)));
+    }
+
+    @Test
+    @DisplayName("Should index started achievements and leave open ones running")
+    void overlapping() {
+        Assertions.assertEquals(
+                List.of(1L, 2L), ids(achievementTimeline.overlapping(START, START.plusDays(5))));
+        Assertions.assertEquals(
+                List.of(2L),
+                ids(achievementTimeline.overlapping(START.plusYears(5), START.plusYears(6))));
+        Assertions.assertEquals(START, achievementTimeline.earliestStart());
+        Assertions.assertNull(achievementTimeline.latestEnd(), "An open achievement has no end.");
+    }
+
+    @Test
+    @DisplayName("Should move, rename and drop achievements as they change")
+    void followsChanges() {
+        AchievementDTO moved = achievement(1L, "First", START.plusDays(30), START.plusDays(40));
+        achievementTimeline.onAchievementChanged(AchievementChangedEvent.updated(first, moved));
+        achievementTimeline.onAchievementChanged(
+                AchievementChangedEvent.updated(
+                        null, AchievementDTO.builder().id(1L).title("Renamed").build()));
+        achievementTimeline.onAchievementChanged(
+                AchievementChangedEvent.deleted(AchievementDTO.builder().id(2L).build()));
+
+        Assertions.assertEquals(
+                List.of(), achievementTimeline.overlapping(START, START.plusDays(29)));
+        List<TimelineEntry> entries =
+                achievementTimeline.overlapping(START.plusDays(30), START.plusDays(30));
+        Assertions.assertEquals(List.of(1L), ids(entries));
+        Assertions.assertEquals("Renamed", entries.get(0).title());
+        Assertions.assertEquals(START.plusDays(40), achievementTimeline.latestEnd());
+    }
+
+    @Test
+    @DisplayName(
+            "Should drop a change that arrives after a newer one, and read the row when a rename"
+                    + " may have overtaken one")
+    void dropsStaleChanges() {
+        AchievementDTO original = versioned(first, 0);
+        AchievementDTO moved =
+                versioned(achievement(1L, "First", START.plusDays(30), START.plusDays(40)), 1);
+        AchievementDTO renamed =
+                AchievementDTO.builder().id(1L).title("Renamed").version(2L).build();
+        Mockito.when(achievementRepository.findTimelineById(1L))
+                .thenReturn(
+                        Optional.of(row(1L, "Renamed", START.plusDays(30), START.plusDays(40))));
+
+        achievementTimeline.onAchievementChanged(AchievementChangedEvent.updated(null, renamed));
+        achievementTimeline.onAchievementChanged(AchievementChangedEvent.updated(original, moved));
+
+        Assertions.assertEquals(
+                List.of(2L), ids(achievementTimeline.overlapping(START, START.plusDays(29))));
+        List<TimelineEntry> entries =
+                achievementTimeline.overlapping(START.plusDays(30), START.plusDays(30));
+        Assertions.assertEquals(List.of(2L, 1L), ids(entries));
+        Assertions.assertEquals("Renamed", entries.get(1).title());
+    }
+
+    private static List<Long> ids(List<TimelineEntry> entries) {
+        return entries.stream().map(TimelineEntry::id).toList();
+    }
+
+    private static AchievementDTO achievement(
+            Long id, String title, LocalDate started, LocalDate completed) {
+        return AchievementDTO.builder()
+                .id(id)
+                .title(title)
+                .status("IN_PROGRESS")
+                .dateStarted(started)
+                .dateCompleted(completed)
+                .build();
+    }
+
+    private static AchievementDTO versioned(AchievementDTO achievement, long version) {
+        return AchievementDTO.builder()
+                .id(achievement.id())
+                .title(achievement.title())
+                .status(achievement.status())
+                .dateStarted(achievement.dateStarted())
+                .dateCompleted(achievement.dateCompleted())
+                .version(version)
+                .build();
+    }
+
+    private static AchievementTimelineView row(
+            Long id, String title, LocalDate started, LocalDate completed) {
+        return new AchievementTimelineView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getTitle() {
+                return title;
+            }
+
+            @Override
+            public StatusEnum getStatus() {
+                return StatusEnum.IN_PROGRESS;
+            }
+
+            @Override
+            public LocalDate getDateStarted() {
+                return started;
+            }
+
+            @Override
+            public LocalDate getDateCompleted() {
+                return completed;
+            }
+        };
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.service.timeline;
+
+import com.example.achievement_tracker.persistence.model.StatusEnum;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class IntervalTreeTest {
+
+    @Test
+    @DisplayName("Should return the overlapping entries ordered by start and id")
+    void overlapping() {
+        IntervalTree tree = new IntervalTree();
+        tree.insert(entry(1, 10, 20));
+        tree.insert(entry(2, 0, 5));
+        tree.insert(entry(3, 15, TimelineEntry.OPEN_END));
+        tree.insert(entry(4, 10, 12));
+
+        Assertions.assertEquals(
+                List.of(entry(1, 10, 20), entry(4, 10, 12), entry(3, 15, TimelineEntry.OPEN_END)),
+                tree.overlapping(12, 100));
+        Assertions.assertEquals(List.of(entry(2, 0, 5)), tree.overlapping(5, 5));
+        Assertions.assertEquals(List.of(), tree.overlapping(6, 9));
+        Assertions.assertEquals(
+                List.of(entry(1, 10, 20), entry(4, 10, 12)), tree.overlapping(12, 100, 2));
+        Assertions.assertEquals(0, tree.minStart());
+        Assertions.assertEquals(15, tree.maxStart());
+        Assertions.assertEquals(TimelineEntry.OPEN_END, tree.maxEnd());
+    }
+
+    @Test
+    @DisplayName("Should count the entries active in each bucket of the window")
+    void histogram() {
+        IntervalTree tree = new IntervalTree();
+        tree.insert(entry(1, -5, 1));
+        tree.insert(entry(2, 2, 5));
+        tree.insert(entry(3, 4, 50));
+        tree.insert(entry(4, 20, TimelineEntry.OPEN_END));
+
+        TimelineHistogram histogram = tree.histogram(0, 9, 4);
+
+        Assertions.assertEquals(3, histogram.total());
+        Assertions.assertArrayEquals(new long[] {2, 2, 1}, histogram.active());
+    }
+
+    @Test
+    @DisplayName("Should only remove the entry with the given start and id")
+    void remove() {
+        IntervalTree tree = new IntervalTree();
+        tree.insert(entry(1, 10, 20));
+        tree.insert(entry(2, 10, 30));
+
+        Assertions.assertFalse(tree.remove(11, 1), "The start is part of the key.");
+        Assertions.assertTrue(tree.remove(10, 1));
+        Assertions.assertFalse(tree.remove(10, 1), "The entry is gone.");
+        Assertions.assertEquals(List.of(entry(2, 10, 30)), tree.overlapping(0, 100));
+        Assertions.assertEquals(1, tree.size());
+        Assertions.assertEquals(30, tree.maxEnd(), "The latest end should follow removals.");
+    }
+
+    @Test
+    @DisplayName("Should agree with a linear scan over random inserts, removals and windows")
+    void matchesLinearScan() {
+        Random random = new Random(42);
+        IntervalTree tree = new IntervalTree();
+        Map<Long, TimelineEntry> expected = new HashMap<>();
+        for (int step = 0; step < 5000; step++) {
+            long id = random.nextInt(500);
+            TimelineEntry current = expected.remove(id);
+            if (current != null) {
+                Assertions.assertTrue(tree.remove(current.start(), id));
+            }
+            if (random.nextInt(4) > 0) {
+                int start = random.nextInt(1000);
+                int end =
+                        random.nextInt(20) == 0
+                                ? TimelineEntry.OPEN_END
+                                : start + random.nextInt(100);
+                TimelineEntry entry = entry(id, start, end);
+                tree.insert(entry);
+                expected.put(id, entry);
+            }
+            int from = random.nextInt(1100);
+            int to = from + random.nextInt(200);
+            List<TimelineEntry> matches = scan(expected.values(), from, to);
+            Assertions.assertEquals(matches, tree.overlapping(from, to));
+            Assertions.assertEquals(matches.size(), tree.histogram(from, to, 7).total());
+        }
+        Assertions.assertEquals(expected.size(), tree.size());
+    }
+
+    private static List<TimelineEntry> scan(Iterable<TimelineEntry> entries, int from, int to) {
+        List<TimelineEntry> matches = new ArrayList<>();
+        for (TimelineEntry entry : entries) {
+            if (entry.start() <= to && entry.end() >= from) {
+                matches.add(entry);
+            }
+        }
+        matches.sort(
+                Comparator.comparingInt(TimelineEntry::start).thenComparingLong(TimelineEntry::id));
+        return matches;
+    }
+
+    private static TimelineEntry entry(long id, int start, int end) {
+        return new TimelineEntry(id, "Achievement " + id, StatusEnum.TODO, start, end);
+    }
+}
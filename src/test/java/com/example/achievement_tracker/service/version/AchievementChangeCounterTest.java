@@ -0,0 +1,146 @@
+/*
+ * Copyright 2015 DiffPlug
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.achievement_tracker.service.version;
+
+import com.example.achievement_tracker.api.dto.AchievementDTO;
+import com.example.achievement_tracker.persistence.repository.TableChangeCounterRepository;
+import com.example.achievement_tracker.service.event.AchievementChangedEvent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@DataJpaTest
+@Import(AchievementChangeCounter.class)
+// Commits are needed to observe the counter, so the tests manage their own transactions
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class AchievementChangeCounterTest {
+
+    @Autowired private AchievementChangeCounter achievementChangeCounter;
+    @Autowired private TableChangeCounterRepository tableChangeCounterRepository;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        tableChangeCounterRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should count every change of the committed transactions")
+    void countsCommittedChanges() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        transaction.executeWithoutResult(
+                status -> {
+                    achievementChangeCounter.onAchievementChanged(created(1L));
+                    achievementChangeCounter.onAchievementChanged(created(2L));
+                });
+        transaction.executeWithoutResult(
+                status -> achievementChangeCounter.onAchievementChanged(created(3L)));
+
+        Assertions.assertEquals(3, achievementChangeCounter.current());
+    }
+
+    @Test
+    @DisplayName("Should number the changes of a transaction in order once it commits")
+    void numbersChangesAtCommit() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        AchievementChangedEvent first = created(1L);
+        AchievementChangedEvent second = created(2L);
+        List<OptionalLong> duringTransaction = new ArrayList<>();
+        List<OptionalLong> afterCommit = new ArrayList<>();
+
+        transaction.executeWithoutResult(
+                status -> achievementChangeCounter.onAchievementChanged(created(3L)));
+        transaction.executeWithoutResult(
+                status -> {
+                    achievementChangeCounter.onAchievementChanged(first);
+                    achievementChangeCounter.onAchievementChanged(second);
+                    duringTransaction.add(achievementChangeCounter.sequenceOf(first));
+                    TransactionSynchronizationManager.registerSynchronization(
+                            new TransactionSynchronization() {
+                                @Override
+                                public void afterCommit() {
+                                    afterCommit.add(achievementChangeCounter.sequenceOf(first));
+                                    afterCommit.add(achievementChangeCounter.sequenceOf(second));
+                                    afterCommit.add(
+                                            achievementChangeCounter.sequenceOf(created(4L)));
+                                }
+                            });
+                });
+
+        Assertions.assertEquals(List.of(OptionalLong.empty()), duringTransaction);
+        Assertions.assertEquals(
+                List.of(OptionalLong.of(2), OptionalLong.of(3), OptionalLong.empty()), afterCommit);
+    }
+
+    @Test
+    @DisplayName("Should read the count under the counter row, creating it on a fresh database")
+    void lockForReadReturnsCount() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        Assertions.assertEquals(
+                0L, transaction.<Long>execute(status -> achievementChangeCounter.lockForRead()));
+        transaction.executeWithoutResult(
+                status -> achievementChangeCounter.onAchievementChanged(created(1L)));
+
+        Assertions.assertEquals(
+                1L, transaction.<Long>execute(status -> achievementChangeCounter.lockForRead()));
+    }
+
+    @Test
+    @DisplayName("Should not count a rolled back transaction")
+    void ignoresRolledBackTransactions() {
+        new TransactionTemplate(transactionManager)
+                .executeWithoutResult(
+                        status -> {
+                            achievementChangeCounter.onAchievementChanged(created(1L));
+                            status.setRollbackOnly();
+                        });
+
+        Assertions.assertEquals(0, achievementChangeCounter.current());
+    }
+
+    @Test
+    @DisplayName("Should create the counter row to lock on a fresh database")
+    void lockCreatesMissingRow() {
+        new TransactionTemplate(transactionManager)
+                .executeWithoutResult(status -> achievementChangeCounter.lock());
+
+        Assertions.assertTrue(
+                tableChangeCounterRepository
+                        .findChangeCount(AchievementChangeCounter.TABLE_NAME)
+                        .isPresent(),
+                "The lock should hold a row.");
+        Assertions.assertEquals(0, achievementChangeCounter.current());
+    }
+
+    private static AchievementChangedEvent created(Long id) {
+        return AchievementChangedEvent.created(AchievementDTO.builder().id(id).build());
+    }
+}